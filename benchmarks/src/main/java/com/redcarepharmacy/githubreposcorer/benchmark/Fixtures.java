@@ -0,0 +1,81 @@
+package com.redcarepharmacy.githubreposcorer.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redcarepharmacy.githubreposcorer.config.RepositoryCacheProperties;
+import com.redcarepharmacy.githubreposcorer.config.RepositoryScoringProperties;
+import com.redcarepharmacy.githubreposcorer.dto.GitHubRepositorySearchDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import com.redcarepharmacy.githubreposcorer.service.RepositoryScoreCalculator;
+import com.redcarepharmacy.githubreposcorer.service.WeightedRepositoryScoreCalculator;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Recorded GitHub search pages (shared with the application tests under
+ * {@code src/test/resources/github}) and the objects the application derives from them.
+ */
+final class Fixtures {
+
+    /**
+     * A default-sized page of 30 Java repositories.
+     */
+    static final String JAVA_PAGE = "search-repositories-java.json";
+    /**
+     * A {@code per_page=100} page of Python repositories with some null languages and descriptions.
+     */
+    static final String PYTHON_PAGE_100 = "search-repositories-python-per-page-100.json";
+
+    /**
+     * Configured like the {@code ObjectMapper} Spring Boot gives the message converters.
+     */
+    static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+    static final RepositoryScoreCalculator CALCULATOR =
+            new WeightedRepositoryScoreCalculator(new RepositoryScoringProperties(0.3, 0.5, 0.2, 100));
+
+    /**
+     * Cache settings with the given bounds and soft TTL, refreshing on one thread, and every
+     * optional feature off.
+     */
+    static RepositoryCacheProperties cacheProperties(long maxEntries, long maxWeightBytes, Duration softTtl) {
+        return new RepositoryCacheProperties(maxEntries, maxWeightBytes, softTtl,
+                new RepositoryCacheProperties.Refresh(1, 10), null, null, null, null, false, null);
+    }
+
+    private Fixtures() {
+    }
+
+    static byte[] searchPage(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/github/" + name)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No fixture named " + name);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static GitHubRepositorySearchDto boundSearchPage(String name) {
+        try {
+            return OBJECT_MAPPER.readValue(searchPage(name), GitHubRepositorySearchDto.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static RepositoryScoreResponseDto scoredPage(String name) {
+        GitHubRepositorySearchDto page = boundSearchPage(name);
+        List<RepositoryScoreDto> scored = page.items().stream()
+                .map(item -> RepositoryScoreDto.from(item,
+                        CALCULATOR.computeScore(item.stargazersCount(), item.forksCount(), item.updatedAt())))
+                .toList();
+        return new RepositoryScoreResponseDto(page.totalCount(), page.incompleteResults(), scored, Instant.now());
+    }
+}
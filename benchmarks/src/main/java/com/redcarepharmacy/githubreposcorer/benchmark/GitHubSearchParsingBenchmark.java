@@ -0,0 +1,79 @@
+package com.redcarepharmacy.githubreposcorer.benchmark;
+
+import com.redcarepharmacy.githubreposcorer.dto.GitHubRepositorySearchDto;
+import com.redcarepharmacy.githubreposcorer.dto.Item;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
+import com.redcarepharmacy.githubreposcorer.service.GitHubSearchResponseParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding and scoring one recorded GitHub search page: Jackson data binding to
+ * {@link GitHubRepositorySearchDto}, as the {@code RestTemplate} message converter did and
+ * the reactive client still does, against {@link GitHubSearchResponseParser}.
+ * <p>
+ * Run with the GC profiler to compare allocation per page ({@code gc.alloc.rate.norm}):
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar GitHubSearchParsingBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GitHubSearchParsingBenchmark {
+
+    @Param({Fixtures.JAVA_PAGE, Fixtures.PYTHON_PAGE_100})
+    private String fixture;
+
+    private final GitHubSearchResponseParser parser =
+            new GitHubSearchResponseParser(Fixtures.OBJECT_MAPPER.getFactory());
+
+    private byte[] payload;
+
+    @Setup
+    public void loadPayload() {
+        payload = Fixtures.searchPage(fixture);
+    }
+
+    @Benchmark
+    public GitHubRepositorySearchDto dataBindingOnly() throws IOException {
+        return Fixtures.OBJECT_MAPPER.readValue(new ByteArrayInputStream(payload), GitHubRepositorySearchDto.class);
+    }
+
+    @Benchmark
+    public List<RepositoryScoreDto> dataBinding() throws IOException {
+        GitHubRepositorySearchDto response =
+                Fixtures.OBJECT_MAPPER.readValue(new ByteArrayInputStream(payload), GitHubRepositorySearchDto.class);
+        return response.items().stream().map(GitHubSearchParsingBenchmark::score).toList();
+    }
+
+    @Benchmark
+    public List<RepositoryScoreDto> streamingParser() throws IOException {
+        List<RepositoryScoreDto> scored = new ArrayList<>();
+        parser.parse(new ByteArrayInputStream(payload), item -> scored.add(score(item)));
+        return scored;
+    }
+
+    private static RepositoryScoreDto score(Item item) {
+        return RepositoryScoreDto.from(item,
+                Fixtures.CALCULATOR.computeScore(item.stargazersCount(), item.forksCount(), item.updatedAt()));
+    }
+}
@@ -0,0 +1,104 @@
+package com.redcarepharmacy.githubreposcorer.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Compares two JMH JSON reports ({@code -rf json}), e.g. of two releases, benchmark by
+ * benchmark: the primary score and, when recorded with {@code -prof gc}, the allocation
+ * per operation.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.redcarepharmacy.githubreposcorer.benchmark.JmhReportDiff \
+ *     baseline.json candidate.json [max-regression-percent]
+ * </pre>
+ * With a maximum regression given, exits with status 1 if any benchmark got slower, or
+ * allocates more, by more than that percentage.
+ */
+public final class JmhReportDiff {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+    /**
+     * Allocation changes below this many bytes per operation are noise, however large in percent.
+     */
+    private static final double ALLOCATION_NOISE_BYTES = 64;
+
+    private JmhReportDiff() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: JmhReportDiff <baseline.json> <candidate.json> [max-regression-percent]");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = read(Path.of(args[0]));
+        Map<String, JsonNode> candidate = read(Path.of(args[1]));
+        double maxRegression = args.length == 3 ? Double.parseDouble(args[2]) : Double.POSITIVE_INFINITY;
+
+        int width = candidate.keySet().stream().mapToInt(String::length).max().orElse(0);
+        String nameColumn = "%-" + width + "s";
+        boolean regressed = false;
+        System.out.printf(nameColumn + " %14s %14s %9s %14s %14s %9s%n", "benchmark", "baseline", "candidate", "change",
+                "alloc before", "alloc after", "change");
+        for (Map.Entry<String, JsonNode> entry : candidate.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = entry.getValue();
+            if (before == null) {
+                System.out.printf(nameColumn + " %14s %14.3f%n", entry.getKey(), "(new)", score(after));
+                continue;
+            }
+            double scoreChange = change(score(before), score(after));
+            double allocationChange = change(allocation(before), allocation(after));
+            // for throughput modes a lower score is the regression
+            double slowdown = after.path("mode").asText().equals("thrpt") ? -scoreChange : scoreChange;
+            boolean worse = slowdown > maxRegression || (allocationChange > maxRegression
+                    && allocation(after) - allocation(before) > ALLOCATION_NOISE_BYTES);
+            regressed |= worse;
+            System.out.printf(nameColumn + " %14.3f %14.3f %8.1f%% %14.1f %14.1f %8.1f%%%s%n", entry.getKey(),
+                    score(before), score(after), scoreChange, allocation(before), allocation(after),
+                    allocationChange, worse ? "  REGRESSION" : "");
+        }
+        baseline.keySet().stream()
+                .filter(removed -> !candidate.containsKey(removed))
+                .forEach(removed -> System.out.printf(nameColumn + " %14s%n", removed, "(removed)"));
+        if (regressed) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, JsonNode> read(Path report) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(report.toFile())) {
+            results.put(name(result), result);
+        }
+        return results;
+    }
+
+    private static String name(JsonNode result) {
+        String benchmark = result.path("benchmark").asText()
+                .replace(JmhReportDiff.class.getPackageName() + ".", "");
+        StringJoiner params = new StringJoiner(",", "(", ")").setEmptyValue("");
+        result.path("params").properties().forEach(param -> params.add(param.getKey() + "=" + param.getValue().asText()));
+        return benchmark + params + " [" + result.path("primaryMetric").path("scoreUnit").asText() + "]";
+    }
+
+    private static double score(JsonNode result) {
+        return result.path("primaryMetric").path("score").asDouble(Double.NaN);
+    }
+
+    private static double allocation(JsonNode result) {
+        return result.path("secondaryMetrics").path(ALLOCATION).path("score").asDouble(Double.NaN);
+    }
+
+    private static double change(double before, double after) {
+        if (Double.isNaN(before) || Double.isNaN(after) || before == after) {
+            return before == after ? 0 : Double.NaN;
+        }
+        return before == 0 ? Double.POSITIVE_INFINITY : (after - before) / before * 100;
+    }
+}
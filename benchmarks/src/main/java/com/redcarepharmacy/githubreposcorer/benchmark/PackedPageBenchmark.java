@@ -0,0 +1,101 @@
+package com.redcarepharmacy.githubreposcorer.benchmark;
+
+import com.redcarepharmacy.githubreposcorer.cache.PackedRepositoryScoreList;
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreBinaryCodec;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cached pages held as {@link RepositoryScoreDto} records ({@code objects}) or as a
+ * {@link PackedRepositoryScoreList} ({@code packed}, {@code app.cache.packed-pages}).
+ * <p>
+ * The setup fills the heap with {@value #PAGES} pages decoded from the Redis encoding, so
+ * every page has its own strings as a cache filled from GitHub does, and measures how much
+ * heap they retain after a full GC. The benchmarks report it as the
+ * {@code retainedBytesPerPage} counter, next to the cost of serializing a cached page to
+ * JSON and of ranking its repositories, which is where packed pages are materialized.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackedPageBenchmark {
+
+    private static final int PAGES = 2_000;
+
+    @Param({"objects", "packed"})
+    private String representation;
+
+    @Param({Fixtures.JAVA_PAGE, Fixtures.PYTHON_PAGE_100})
+    private String fixture;
+
+    private RepositoryScoreResponseDto[] pages;
+    private long retainedBytesPerPage;
+    private int next;
+
+    /**
+     * Heap retained per cached page, in bytes.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long retainedBytesPerPage;
+    }
+
+    @Setup
+    public void fillHeap() {
+        byte[] encoded = RepositoryScoreBinaryCodec.encode(Fixtures.scoredPage(fixture));
+        pages = new RepositoryScoreResponseDto[PAGES];
+        long before = usedHeapAfterGc();
+        for (int i = 0; i < PAGES; i++) {
+            RepositoryScoreResponseDto page = RepositoryScoreBinaryCodec.decode(encoded);
+            pages[i] = representation.equals("packed") ? PackedRepositoryScoreList.pack(page) : page;
+        }
+        retainedBytesPerPage = (usedHeapAfterGc() - before) / PAGES;
+    }
+
+    @Benchmark
+    public byte[] serializeCachedPage(Footprint footprint) throws Exception {
+        footprint.retainedBytesPerPage = retainedBytesPerPage;
+        return Fixtures.OBJECT_MAPPER.writeValueAsBytes(nextPage());
+    }
+
+    @Benchmark
+    public void iterateCachedPage(Footprint footprint, Blackhole blackhole) {
+        footprint.retainedBytesPerPage = retainedBytesPerPage;
+        for (RepositoryScoreDto repository : nextPage().repositoryScoreList()) {
+            blackhole.consume(repository.popularityScore());
+        }
+    }
+
+    private RepositoryScoreResponseDto nextPage() {
+        RepositoryScoreResponseDto page = pages[next];
+        next = (next + 1) % PAGES;
+        return page;
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
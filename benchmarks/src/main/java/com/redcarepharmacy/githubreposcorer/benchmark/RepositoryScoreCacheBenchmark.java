@@ -0,0 +1,117 @@
+package com.redcarepharmacy.githubreposcorer.benchmark;
+
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreBinaryCodec;
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreCache;
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreCacheKey;
+import com.redcarepharmacy.githubreposcorer.config.InMemoryCacheConfig;
+import com.redcarepharmacy.githubreposcorer.config.RedisCacheProperties;
+import com.redcarepharmacy.githubreposcorer.config.RepositoryCacheProperties;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import com.redcarepharmacy.githubreposcorer.metrics.RepositoryPipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups of {@code repositories_score} pages in the in-memory cache as configured by
+ * {@link InMemoryCacheConfig}: raw {@link Cache} get/put, the {@link RepositoryScoreCache}
+ * hit path the services use, including its lookup timer, and the binary codec that turns
+ * a page into a Redis value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositoryScoreCacheBenchmark {
+
+    private static final int PAGES = 1_000;
+
+    private final RepositoryCacheProperties cacheProperties =
+            Fixtures.cacheProperties(10_000, 67_108_864, Duration.ofMinutes(30));
+
+    private Cache cache;
+    private RepositoryScoreCache repositoryScoreCache;
+    private String[] keys;
+    private String[] missingKeys;
+    private RepositoryScoreResponseDto page;
+    private byte[] encodedPage;
+    private int next;
+
+    @Setup
+    public void fillCache() {
+        CacheManager cacheManager = new InMemoryCacheConfig().simpleCacheManager(cacheProperties,
+                new RedisCacheProperties(false, null, 0, 6));
+        cache = cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME);
+        repositoryScoreCache = new RepositoryScoreCache(cacheManager, null, cacheProperties,
+                new RepositoryPipelineMetrics(new SimpleMeterRegistry()));
+        page = Fixtures.scoredPage(Fixtures.JAVA_PAGE);
+        encodedPage = RepositoryScoreBinaryCodec.encode(page);
+        keys = new String[PAGES];
+        missingKeys = new String[PAGES];
+        for (int i = 0; i < PAGES; i++) {
+            keys[i] = new RepositoryScoreCacheKey("java", LocalDate.of(2024, 1, 1), i + 1).toString();
+            missingKeys[i] = new RepositoryScoreCacheKey("python", LocalDate.of(2024, 1, 1), i + 1).toString();
+            cache.put(keys[i], page);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        repositoryScoreCache.destroy();
+    }
+
+    @Benchmark
+    public Object cacheGetHit() {
+        return cache.get(nextKey(keys));
+    }
+
+    @Benchmark
+    public Object cacheGetMiss() {
+        return cache.get(nextKey(missingKeys));
+    }
+
+    @Benchmark
+    public void cachePut() {
+        cache.put(nextKey(keys), page);
+    }
+
+    @Benchmark
+    public RepositoryScoreResponseDto repositoryScoreCacheHit() {
+        return repositoryScoreCache.get(nextKey(keys), () -> {
+            throw new IllegalStateException("every page is cached");
+        });
+    }
+
+    @Benchmark
+    public byte[] binaryCodecEncode() {
+        return RepositoryScoreBinaryCodec.encode(page);
+    }
+
+    @Benchmark
+    public RepositoryScoreResponseDto binaryCodecDecode() {
+        return RepositoryScoreBinaryCodec.decode(encodedPage);
+    }
+
+    private String nextKey(String[] candidates) {
+        next = next + 1 == PAGES ? 0 : next + 1;
+        return candidates[next];
+    }
+}
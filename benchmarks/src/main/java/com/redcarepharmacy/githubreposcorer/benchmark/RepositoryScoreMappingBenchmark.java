@@ -0,0 +1,62 @@
+package com.redcarepharmacy.githubreposcorer.benchmark;
+
+import com.redcarepharmacy.githubreposcorer.dto.Item;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping the items of a recorded search page to {@link RepositoryScoreDto}s, and
+ * serializing a scored page to JSON as the controller does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositoryScoreMappingBenchmark {
+
+    @Param({Fixtures.JAVA_PAGE, Fixtures.PYTHON_PAGE_100})
+    private String fixture;
+
+    private Item[] items;
+    private double[] scores;
+    private RepositoryScoreResponseDto scoredPage;
+
+    @Setup
+    public void loadPage() {
+        items = Fixtures.boundSearchPage(fixture).items().toArray(Item[]::new);
+        scores = new double[items.length];
+        for (int i = 0; i < items.length; i++) {
+            scores[i] = Fixtures.CALCULATOR.computeScore(items[i].stargazersCount(), items[i].forksCount(),
+                    items[i].updatedAt());
+        }
+        scoredPage = Fixtures.scoredPage(fixture);
+    }
+
+    @Benchmark
+    public void repositoryScoreDtoFrom(Blackhole blackhole) {
+        for (int i = 0; i < items.length; i++) {
+            blackhole.consume(RepositoryScoreDto.from(items[i], scores[i]));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeScoredPage() throws Exception {
+        return Fixtures.OBJECT_MAPPER.writeValueAsBytes(scoredPage);
+    }
+}
@@ -0,0 +1,96 @@
+package com.redcarepharmacy.githubreposcorer.benchmark;
+
+import com.redcarepharmacy.githubreposcorer.config.RepositoryScoringProperties;
+import com.redcarepharmacy.githubreposcorer.service.WeightedRepositoryScoreCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rescoring a batch of repositories: one {@code computeScore} call per repository, the
+ * {@code computeScores} batch API, and the previous {@code Duration}/{@code BigDecimal}
+ * implementation as a baseline.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar RepositoryScoringBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositoryScoringBenchmark {
+
+    private static final RepositoryScoringProperties PROPERTIES = new RepositoryScoringProperties(0.3, 0.5, 0.2, 100);
+
+    @Param("10000")
+    private int repositories;
+
+    private final WeightedRepositoryScoreCalculator calculator = new WeightedRepositoryScoreCalculator(PROPERTIES);
+
+    private int[] stars;
+    private int[] forks;
+    private long[] updatedAtEpochSeconds;
+    private Instant[] updatedAt;
+    private double[] scores;
+
+    @Setup
+    public void createRepositories() {
+        Random random = new Random(42);
+        long now = Instant.now().getEpochSecond();
+        stars = new int[repositories];
+        forks = new int[repositories];
+        updatedAtEpochSeconds = new long[repositories];
+        updatedAt = new Instant[repositories];
+        scores = new double[repositories];
+        for (int i = 0; i < repositories; i++) {
+            stars[i] = random.nextInt(100_000);
+            forks[i] = random.nextInt(20_000);
+            updatedAtEpochSeconds[i] = now - random.nextInt(400 * 86_400);
+            updatedAt[i] = Instant.ofEpochSecond(updatedAtEpochSeconds[i]);
+        }
+    }
+
+    @Benchmark
+    public void computeScore(Blackhole blackhole) {
+        for (int i = 0; i < repositories; i++) {
+            blackhole.consume(calculator.computeScore(stars[i], forks[i], updatedAt[i]));
+        }
+    }
+
+    @Benchmark
+    public double[] computeScores() {
+        calculator.computeScores(stars, forks, updatedAtEpochSeconds, scores);
+        return scores;
+    }
+
+    @Benchmark
+    public void bigDecimalBaseline(Blackhole blackhole) {
+        for (int i = 0; i < repositories; i++) {
+            long daysSinceUpdate = Duration.between(updatedAt[i], Instant.now()).toDays();
+            double recencyScore = Math.max(0, PROPERTIES.recencyBase() - daysSinceUpdate);
+            blackhole.consume(BigDecimal.valueOf((stars[i] * PROPERTIES.weightStars())
+                            + (forks[i] * PROPERTIES.weightForks())
+                            + (recencyScore * PROPERTIES.weightRecent()))
+                    .setScale(2, RoundingMode.HALF_UP)
+                    .doubleValue());
+        }
+    }
+}
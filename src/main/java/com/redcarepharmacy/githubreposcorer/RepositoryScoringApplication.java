@@ -1,5 +1,13 @@
 package com.redcarepharmacy.githubreposcorer;
 
+import com.redcarepharmacy.githubreposcorer.config.GithubClientProperties;
+import com.redcarepharmacy.githubreposcorer.config.GithubRateLimitProperties;
+import com.redcarepharmacy.githubreposcorer.config.RedisCacheProperties;
+import com.redcarepharmacy.githubreposcorer.config.RepositoryBatchProperties;
+import com.redcarepharmacy.githubreposcorer.config.RepositoryCacheProperties;
+import com.redcarepharmacy.githubreposcorer.config.RepositoryConcurrencyLimitProperties;
+import com.redcarepharmacy.githubreposcorer.config.RepositoryIndexProperties;
+import com.redcarepharmacy.githubreposcorer.config.RepositoryResponseCacheProperties;
 import com.redcarepharmacy.githubreposcorer.config.RepositoryScoringProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -7,7 +15,10 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.cache.annotation.EnableCaching;
 
 @SpringBootApplication
-@EnableConfigurationProperties(RepositoryScoringProperties.class)
+@EnableConfigurationProperties({RepositoryScoringProperties.class, RepositoryCacheProperties.class,
+        RedisCacheProperties.class, GithubClientProperties.class, GithubRateLimitProperties.class,
+        RepositoryIndexProperties.class, RepositoryBatchProperties.class,
+        RepositoryResponseCacheProperties.class, RepositoryConcurrencyLimitProperties.class})
 @EnableCaching
 public class RepositoryScoringApplication {
 
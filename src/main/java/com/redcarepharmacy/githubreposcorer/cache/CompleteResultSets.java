@@ -0,0 +1,237 @@
+package com.redcarepharmacy.githubreposcorer.cache;
+
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Complete result sets of {@code language:createdAfter} queries, assembled from the pages the
+ * cache loads, answering queries with a later {@code createdAfter} without GitHub
+ * ({@code app.cache.subsumption}).
+ *
+ * <p>A query's result set is complete once all of its pages have been loaded, and GitHub
+ * reported no incomplete results and at most 1000 repositories, all of which it serves. The
+ * repositories matching {@code created:>date} for any later date are then exactly those of
+ * the set created after that date. They are kept in GitHub's order and paginated in pages of
+ * {@value #PAGE_SIZE} like GitHub, which relies on GitHub ranking a search without keywords
+ * by the repositories alone, so that narrowing the date range keeps the order of what
+ * remains. Rolling "last N days" queries thus keep hitting a set fetched for an earlier day.
+ * GitHub does not guarantee this for its default best-match order, so without a
+ * {@code sort} in {@code github.api.search.url}, answers may be ordered and paginated
+ * differently from GitHub's own pages, though they hold the same repositories.</p>
+ *
+ * <p>A set does not hold a copy of its pages: only the creation time of each repository is
+ * kept, at most 8 KB per set, and the repositories of an answer are read from the set's
+ * pages in the cache by key. A set whose pages were evicted or changed since answers
+ * nothing, so it never outlives its pages or counts twice against the cache's weight.</p>
+ *
+ * <p>Per language, only the widest set, the one with the earliest {@code createdAfter}, is
+ * kept, and only while it is younger than the soft TTL: answers are never stale, so they
+ * need no refresh. Languages are compared lower-cased, as in {@link RepositoryScoreCacheKey}.
+ * Pages are only collected from loads on this node.</p>
+ *
+ * <p>Answers read an immutable snapshot without locking; collecting pages locks.</p>
+ */
+final class CompleteResultSets {
+
+    /**
+     * Repositories per page, GitHub's default page size.
+     */
+    static final int PAGE_SIZE = 30;
+
+    /**
+     * GitHub search only serves the first 1000 results of a query.
+     */
+    private static final int SEARCH_RESULT_LIMIT = 1000;
+
+    private final int maxResultSets;
+    private final Duration maxAge;
+    private final Function<RepositoryScoreCacheKey, RepositoryScoreResponseDto> cachedPages;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Query, Pending> pending;
+    private volatile Map<String, ResultSet> resultSets = Map.of();
+
+    private record Query(String language, LocalDate createdAfter) {
+    }
+
+    /**
+     * @param createdAt creation times of the repositories in GitHub's order, in epoch seconds
+     */
+    private record ResultSet(LocalDate createdAfter, int totalCount, long[] createdAt, Instant fetchedAt) {
+    }
+
+    /**
+     * The pages of a query collected so far, by their repositories' creation times.
+     */
+    private static final class Pending {
+
+        private final long[] createdAt;
+        private final BitSet collected = new BitSet();
+        private Instant fetchedAt;
+
+        private Pending(int totalCount) {
+            this.createdAt = new long[totalCount];
+        }
+    }
+
+    /**
+     * @param maxResultSets number of languages a set is kept for, and of sets being collected
+     * @param maxAge        age after which a set is no longer used, {@code null} for no limit
+     * @param cachedPages   the cached page of a key, or {@code null} if it is not cached,
+     *                      without loading it
+     */
+    CompleteResultSets(int maxResultSets, Duration maxAge,
+                       Function<RepositoryScoreCacheKey, RepositoryScoreResponseDto> cachedPages) {
+        this.maxResultSets = Math.max(1, maxResultSets);
+        this.maxAge = maxAge;
+        this.cachedPages = cachedPages;
+        this.pending = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Query, Pending> eldest) {
+                return size() > CompleteResultSets.this.maxResultSets;
+            }
+        };
+    }
+
+    /**
+     * Collects a page loaded for {@code key}; once all pages of its query are collected, they
+     * become the result set of its language if that is wider or fresher than the current one.
+     */
+    void add(RepositoryScoreCacheKey key, RepositoryScoreResponseDto page) {
+        List<RepositoryScoreDto> repositories = page.repositoryScoreList();
+        int totalCount = page.totalCount();
+        if (repositories == null || page.incompleteResults() || page.fetchedAt() == null
+                || totalCount <= 0 || totalCount > SEARCH_RESULT_LIMIT) {
+            return;
+        }
+        int pageCount = Math.ceilDiv(totalCount, PAGE_SIZE);
+        int expectedSize = key.page() < pageCount ? PAGE_SIZE : totalCount - (pageCount - 1) * PAGE_SIZE;
+        if (key.page() > pageCount || repositories.size() != expectedSize) {
+            return;
+        }
+        long[] createdAt = new long[repositories.size()];
+        for (int i = 0; i < createdAt.length; i++) {
+            if (repositories.get(i).createdAt() == null) {
+                return;
+            }
+            createdAt[i] = repositories.get(i).createdAt().getEpochSecond();
+        }
+        Query query = new Query(key.language(), key.createdAfter());
+        ResultSet resultSet;
+        lock.lock();
+        try {
+            Pending collecting = pending.get(query);
+            // pages fetched at different times may disagree on the results
+            if (collecting == null || collecting.createdAt.length != totalCount) {
+                collecting = new Pending(totalCount);
+                pending.put(query, collecting);
+            }
+            System.arraycopy(createdAt, 0, collecting.createdAt, (key.page() - 1) * PAGE_SIZE, createdAt.length);
+            collecting.collected.set(key.page() - 1);
+            if (collecting.fetchedAt == null || page.fetchedAt().isBefore(collecting.fetchedAt)) {
+                collecting.fetchedAt = page.fetchedAt();
+            }
+            if (collecting.collected.cardinality() < pageCount) {
+                return;
+            }
+            pending.remove(query);
+            resultSet = new ResultSet(query.createdAfter(), totalCount, collecting.createdAt, collecting.fetchedAt);
+        } finally {
+            lock.unlock();
+        }
+        offer(query.language(), resultSet);
+    }
+
+    /**
+     * Answers {@code key} from the result set of its language, or returns {@code null} if
+     * there is no fresh set covering its {@code createdAfter}, the page is past its end, or
+     * a page of the set it needs is no longer cached as it was collected.
+     */
+    RepositoryScoreResponseDto answer(RepositoryScoreCacheKey key) {
+        ResultSet resultSet = resultSets.get(key.language());
+        if (resultSet == null || key.createdAfter().isBefore(resultSet.createdAfter()) || !isFresh(resultSet)) {
+            return null;
+        }
+        // created:>date matches repositories created from the start of the next day on
+        long createdFrom = key.createdAfter().plusDays(1).atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        int from = (key.page() - 1) * PAGE_SIZE;
+        int[] rows = new int[PAGE_SIZE];
+        int rowCount = 0;
+        int matching = 0;
+        for (int row = 0; row < resultSet.createdAt().length; row++) {
+            if (resultSet.createdAt()[row] >= createdFrom) {
+                if (matching >= from && rowCount < PAGE_SIZE) {
+                    rows[rowCount++] = row;
+                }
+                matching++;
+            }
+        }
+        if (matching == 0 && key.page() == 1) {
+            return new RepositoryScoreResponseDto(0, false, List.of(), resultSet.fetchedAt());
+        }
+        if (from >= matching) {
+            return null;
+        }
+        List<RepositoryScoreDto> repositories = new ArrayList<>(rowCount);
+        RepositoryScoreResponseDto page = null;
+        int pageNumber = 0;
+        for (int i = 0; i < rowCount; i++) {
+            int row = rows[i];
+            if (row / PAGE_SIZE + 1 != pageNumber) {
+                pageNumber = row / PAGE_SIZE + 1;
+                page = cachedPages.apply(
+                        new RepositoryScoreCacheKey(key.language(), resultSet.createdAfter(), pageNumber));
+                if (page == null || page.repositoryScoreList() == null
+                        || page.totalCount() != resultSet.totalCount()
+                        || page.repositoryScoreList().size() <= row % PAGE_SIZE) {
+                    return null;
+                }
+            }
+            RepositoryScoreDto repository = page.repositoryScoreList().get(row % PAGE_SIZE);
+            if (repository.createdAt() == null
+                    || repository.createdAt().getEpochSecond() != resultSet.createdAt()[row]) {
+                return null;
+            }
+            repositories.add(repository);
+        }
+        return new RepositoryScoreResponseDto(matching, false, List.copyOf(repositories), resultSet.fetchedAt());
+    }
+
+    private void offer(String language, ResultSet resultSet) {
+        lock.lock();
+        try {
+            ResultSet current = resultSets.get(language);
+            if (current != null && isFresh(current) && resultSet.createdAfter().isAfter(current.createdAfter())) {
+                return;
+            }
+            Map<String, ResultSet> updated = new HashMap<>(resultSets);
+            updated.put(language, resultSet);
+            updated.values().removeIf(set -> !isFresh(set));
+            while (updated.size() > maxResultSets) {
+                updated.entrySet().stream()
+                        .min(Comparator.comparing(entry -> entry.getValue().fetchedAt()))
+                        .ifPresent(oldest -> updated.remove(oldest.getKey()));
+            }
+            resultSets = Map.copyOf(updated);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isFresh(ResultSet resultSet) {
+        return maxAge == null || resultSet.fetchedAt().plus(maxAge).isAfter(Instant.now());
+    }
+}
@@ -0,0 +1,30 @@
+package com.redcarepharmacy.githubreposcorer.cache;
+
+import java.time.Duration;
+
+/**
+ * Short-lived, cluster-wide mutual exclusion on a name.
+ *
+ * <p>Used to let a single node fetch a missing {@code repositories_score} entry
+ * while the other nodes wait for it to show up in the shared cache.</p>
+ *
+ * @see com.redcarepharmacy.githubreposcorer.cache.RedisDistributedLease
+ */
+public interface DistributedLease {
+    /**
+     * Tries to acquire the lease without blocking.
+     *
+     * @param name the lease name
+     * @param ttl  how long the lease is held at most if it is never released
+     * @return a token identifying this holder, or {@code null} if the lease is held elsewhere
+     */
+    String tryAcquire(String name, Duration ttl);
+
+    /**
+     * Releases the lease if it is still held with the given token.
+     *
+     * @param name  the lease name
+     * @param token the token returned by {@link #tryAcquire(String, Duration)}
+     */
+    void release(String name, String token);
+}
@@ -0,0 +1,167 @@
+package com.redcarepharmacy.githubreposcorer.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Approximate popularity of cache keys, for prewarming the most requested pages.
+ *
+ * <p>Lookups are counted in a count-min sketch of four rows, so memory does not grow with
+ * the number of distinct keys. Once {@code 10 × width} lookups have been counted, all
+ * counters are halved, so the counts follow recent traffic rather than all-time totals.
+ * Only the keys that may be among the most popular are remembered: up to twice
+ * {@code candidates} keys are kept, and once that many are, the less popular half is
+ * dropped and later keys are only admitted if they are counted more often than the least
+ * popular key left.</p>
+ *
+ * <p>Counting does not lock; dropping candidates and halving are skipped by a thread that
+ * finds another one already doing it.</p>
+ */
+public class KeyPopularity {
+
+    private static final int DEPTH = 4;
+    private static final int MIN_WIDTH = 16;
+    private static final int MAX_WIDTH = 1 << 22;
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private final int width;
+    private final int mask;
+    private final AtomicIntegerArray counters;
+    private final long sampleSize;
+    private final AtomicLong samples = new AtomicLong();
+    private final int candidates;
+    private final Set<String> keys = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock maintenance = new ReentrantLock();
+    private volatile int admissionThreshold;
+
+    /**
+     * @param width      counters per row, rounded up to a power of two; roughly the number of
+     *                   distinct keys that are counted without overestimating each other
+     * @param candidates number of most popular keys that are reliably remembered
+     */
+    public KeyPopularity(int width, int candidates) {
+        this.width = width <= MIN_WIDTH ? MIN_WIDTH : Integer.highestOneBit(Math.min(MAX_WIDTH, width) - 1) << 1;
+        this.mask = this.width - 1;
+        this.counters = new AtomicIntegerArray(DEPTH * this.width);
+        this.sampleSize = 10L * this.width;
+        this.candidates = Math.max(1, candidates);
+    }
+
+    /**
+     * Counts one lookup of {@code key}.
+     */
+    public void record(String key) {
+        add(key, 1);
+    }
+
+    /**
+     * Counts {@code count} lookups of {@code key} at once, e.g. to restore a snapshot.
+     */
+    public void add(String key, int count) {
+        if (count <= 0) {
+            return;
+        }
+        int hash = spread(key.hashCode());
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = index(hash, row);
+            int value = counters.get(index);
+            int updated = (int) Math.min(Integer.MAX_VALUE, (long) value + count);
+            while (!counters.compareAndSet(index, value, updated)) {
+                value = counters.get(index);
+                updated = (int) Math.min(Integer.MAX_VALUE, (long) value + count);
+            }
+            estimate = Math.min(estimate, updated);
+        }
+        if (estimate > admissionThreshold || keys.size() < 2 * candidates) {
+            keys.add(key);
+        }
+        if (keys.size() >= 2 * candidates && maintenance.tryLock()) {
+            try {
+                dropUnpopular();
+            } finally {
+                maintenance.unlock();
+            }
+        }
+        if (samples.addAndGet(count) >= sampleSize && maintenance.tryLock()) {
+            try {
+                if (samples.get() >= sampleSize) {
+                    age();
+                }
+            } finally {
+                maintenance.unlock();
+            }
+        }
+    }
+
+    /**
+     * Estimated number of recent lookups of {@code key}; never less than the actual number.
+     */
+    public int estimate(String key) {
+        int hash = spread(key.hashCode());
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.get(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    /**
+     * The {@code n} most popular keys with their estimated counts, most popular first.
+     */
+    public Map<String, Integer> top(int n) {
+        List<Map.Entry<String, Integer>> ranked = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            int estimate = estimate(key);
+            if (estimate > 0) {
+                ranked.add(Map.entry(key, estimate));
+            }
+        }
+        ranked.sort(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Integer> top = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : ranked.subList(0, Math.min(n, ranked.size()))) {
+            top.put(entry.getKey(), entry.getValue());
+        }
+        return top;
+    }
+
+    private void dropUnpopular() {
+        if (keys.size() < 2 * candidates) {
+            return;
+        }
+        List<String> ranked = new ArrayList<>(top(Integer.MAX_VALUE).keySet());
+        keys.retainAll(new HashSet<>(ranked.subList(0, Math.min(candidates, ranked.size()))));
+        admissionThreshold = ranked.size() >= candidates ? estimate(ranked.get(candidates - 1)) : 0;
+    }
+
+    private void age() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, value -> value >>> 1);
+        }
+        samples.set(0);
+        admissionThreshold >>>= 1;
+        keys.removeIf(key -> estimate(key) == 0);
+    }
+
+    private int index(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return row * width + ((int) h & mask);
+    }
+
+    private static int spread(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,159 @@
+package com.redcarepharmacy.githubreposcorer.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Two-tier cache: a small in-process L1 in front of a shared remote L2 (Redis).
+ *
+ * <p>Reads are served from L1 when possible and fall back to L2 on an L1 miss,
+ * populating L1 with the result. Writes go to both tiers and are announced through
+ * {@link NearCacheManager} so that other nodes drop their now outdated L1 copy.</p>
+ */
+public class NearCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> local;
+    private final Cache remote;
+    private final NearCacheManager cacheManager;
+
+    NearCache(String name,
+              com.github.benmanes.caffeine.cache.Cache<Object, Object> local,
+              Cache remote,
+              NearCacheManager cacheManager) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    public com.github.benmanes.caffeine.cache.Cache<Object, Object> getLocalCache() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object value = local.getIfPresent(key);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+        ValueWrapper remoteValue = remote.get(key);
+        if (remoteValue != null && remoteValue.get() != null) {
+            local.put(key, remoteValue.get());
+        }
+        return remoteValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type ["
+                    + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    /**
+     * Non-blocking lookup: answered from L1 when possible, otherwise by the remote
+     * cache's own asynchronous retrieval, populating L1 with the result.
+     */
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        Object value = local.getIfPresent(key);
+        if (value != null) {
+            return CompletableFuture.completedFuture(value);
+        }
+        CompletableFuture<?> remoteValue = remote.retrieve(key);
+        if (remoteValue == null) {
+            return null;
+        }
+        return remoteValue.thenApply(result -> {
+            Object loaded = result instanceof ValueWrapper wrapper ? wrapper.get() : result;
+            if (loaded != null) {
+                local.put(key, loaded);
+            }
+            return loaded;
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = local.getIfPresent(key);
+        if (value != null) {
+            return (T) value;
+        }
+        T loaded = remote.get(key, valueLoader);
+        if (loaded != null) {
+            local.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        if (value != null) {
+            local.put(key, value);
+        } else {
+            local.invalidate(key);
+        }
+        cacheManager.publishInvalidation(name, key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        if (existing == null) {
+            if (value != null) {
+                local.put(key, value);
+            }
+            cacheManager.publishInvalidation(name, key);
+        } else if (existing.get() != null) {
+            local.put(key, existing.get());
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.invalidate(key);
+        cacheManager.publishInvalidation(name, key);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        cacheManager.publishInvalidation(name, null);
+    }
+
+    /**
+     * Drops an L1 entry without touching L2, on behalf of another node's write.
+     * A {@code null} key drops every local entry.
+     */
+    void invalidateLocal(Object key) {
+        if (key == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(key);
+        }
+    }
+}
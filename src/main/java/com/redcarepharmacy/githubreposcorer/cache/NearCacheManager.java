@@ -0,0 +1,118 @@
+package com.redcarepharmacy.githubreposcorer.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.AbstractCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cache manager that puts a {@link NearCache} L1 in front of every cache of a remote manager.
+ *
+ * <p>Cross-node invalidation runs over Redis pub/sub: each write publishes
+ * {@code nodeId cacheName key} on {@link #INVALIDATION_CHANNEL}, and every other node
+ * drops that key from its L1. When subscribed to Redis keyspace expiry events
+ * ({@link #EXPIRED_KEY_EVENTS}), local copies of expired Redis entries are dropped too;
+ * otherwise the L1 time-to-live bounds how long an expired entry can still be served.</p>
+ */
+public class NearCacheManager extends AbstractCacheManager implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "near-cache:invalidation";
+    public static final String EXPIRED_KEY_EVENTS = "__keyevent@*__:expired";
+
+    private static final String REMOTE_KEY_SEPARATOR = "::";
+
+    private final CacheManager remoteCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final long localMaxEntries;
+    private final Duration localTtl;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Logger logger = LoggerFactory.getLogger(NearCacheManager.class);
+
+    public NearCacheManager(CacheManager remoteCacheManager,
+                            StringRedisTemplate redisTemplate,
+                            long localMaxEntries,
+                            Duration localTtl) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.localMaxEntries = localMaxEntries;
+        this.localTtl = localTtl;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        List<Cache> caches = new ArrayList<>();
+        for (String name : remoteCacheManager.getCacheNames()) {
+            caches.add(decorate(remoteCacheManager.getCache(name)));
+        }
+        return caches;
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        return remote != null ? decorate(remote) : null;
+    }
+
+    private NearCache decorate(Cache remote) {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> local = Caffeine.newBuilder()
+                .maximumSize(localMaxEntries)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+        return new NearCache(remote.getName(), local, remote, this);
+    }
+
+    void publishInvalidation(String cacheName, Object key) {
+        String message = nodeId + ' ' + cacheName + (key != null ? " " + key : "");
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message);
+        } catch (RuntimeException e) {
+            logger.warn("Could not publish near cache invalidation for {} {}", cacheName, key, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (INVALIDATION_CHANNEL.equals(channel)) {
+            onInvalidation(body);
+        } else {
+            onExpiredKey(body);
+        }
+    }
+
+    private void onInvalidation(String body) {
+        String[] parts = body.split(" ", 3);
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+        invalidateLocal(parts[1], parts.length == 3 ? parts[2] : null);
+    }
+
+    private void onExpiredKey(String redisKey) {
+        int separator = redisKey.indexOf(REMOTE_KEY_SEPARATOR);
+        if (separator > 0) {
+            invalidateLocal(redisKey.substring(0, separator),
+                    redisKey.substring(separator + REMOTE_KEY_SEPARATOR.length()));
+        }
+    }
+
+    private void invalidateLocal(String cacheName, String key) {
+        if (getCacheNames().contains(cacheName) && getCache(cacheName) instanceof NearCache nearCache) {
+            nearCache.invalidateLocal(key);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.redcarepharmacy.githubreposcorer.cache;
+
+import com.github.benmanes.caffeine.cache.Interner;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Compact, read-only list of scored repositories for cached pages
+ * ({@code app.cache.packed-pages}).
+ *
+ * <p>A page of {@link RepositoryScoreDto} records costs a record, two {@link Instant}s and
+ * usually fresh copies of the owner and language strings per repository. Packed, a page is
+ * a few primitive columns, stars, forks and string references as ints, timestamps as epoch
+ * seconds and scores as doubles, plus the strings of the page. Strings are dictionary-encoded
+ * per page, and owners and languages are interned across pages, so the {@code Java} of every
+ * cached Java page is one string.</p>
+ *
+ * <p>{@link #get} builds the record on each call, so repositories are only materialized
+ * while a response is serialized or ranked, and are garbage right after. Pages with a
+ * timestamp finer than a second, which GitHub does not send, are left as they are.</p>
+ *
+ * <p>Stars, forks and update times are kept as the columns a batch scorer takes, so
+ * {@link #rescore} scores a cached page at read time without materializing it.</p>
+ */
+public final class PackedRepositoryScoreList extends AbstractList<RepositoryScoreDto> implements RandomAccess {
+
+    private static final Interner<String> INTERNER = Interner.newWeakInterner();
+    private static final int REFERENCES = 3;
+    private static final int NAME = 0;
+    private static final int OWNER = 1;
+    private static final int LANGUAGE = 2;
+    private static final int NULL_STRING = -1;
+    private static final long NULL_INSTANT = Long.MIN_VALUE;
+
+    private final String[] strings;
+    private final int[] references;
+    private final int[] stars;
+    private final int[] forks;
+    private final long[] createdAt;
+    private final long[] updatedAt;
+    private final double[] scores;
+
+    private PackedRepositoryScoreList(String[] strings, int[] references, int[] stars, int[] forks,
+                                      long[] createdAt, long[] updatedAt, double[] scores) {
+        this.strings = strings;
+        this.references = references;
+        this.stars = stars;
+        this.forks = forks;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.scores = scores;
+    }
+
+    /**
+     * Scores many repositories in one call, with the arguments of
+     * {@code RepositoryScoreCalculator#computeScores}.
+     */
+    @FunctionalInterface
+    public interface BatchScorer {
+        void computeScores(int[] stars, int[] forks, long[] updatedAtEpochSeconds, double[] scores);
+    }
+
+    /**
+     * Returns {@code response} with its repositories packed, or {@code response} itself if
+     * they are already packed or cannot be packed without loss.
+     */
+    public static RepositoryScoreResponseDto pack(RepositoryScoreResponseDto response) {
+        List<RepositoryScoreDto> repositories = response.repositoryScoreList();
+        if (repositories == null || repositories instanceof PackedRepositoryScoreList) {
+            return response;
+        }
+        PackedRepositoryScoreList packed = pack(repositories);
+        return packed == null ? response : new RepositoryScoreResponseDto(response.totalCount(),
+                response.incompleteResults(), packed, response.fetchedAt(), response.etag(),
+                response.lastModified());
+    }
+
+    /**
+     * Packs {@code repositories}, or returns {@code null} if a timestamp has a fraction of a second.
+     */
+    static PackedRepositoryScoreList pack(List<RepositoryScoreDto> repositories) {
+        int size = repositories.size();
+        Map<String, Integer> dictionary = new HashMap<>();
+        int[] references = new int[size * REFERENCES];
+        int[] stars = new int[size];
+        int[] forks = new int[size];
+        long[] createdAt = new long[size];
+        long[] updatedAt = new long[size];
+        double[] scores = new double[size];
+        for (int row = 0; row < size; row++) {
+            RepositoryScoreDto repository = repositories.get(row);
+            if (!wholeSecond(repository.createdAt()) || !wholeSecond(repository.updatedAt())) {
+                return null;
+            }
+            references[row * REFERENCES + NAME] = reference(dictionary, repository.name(), false);
+            references[row * REFERENCES + OWNER] = reference(dictionary, repository.owner(), true);
+            references[row * REFERENCES + LANGUAGE] = reference(dictionary, repository.language(), true);
+            stars[row] = repository.stars();
+            forks[row] = repository.forks();
+            createdAt[row] = epochSecond(repository.createdAt());
+            updatedAt[row] = epochSecond(repository.updatedAt());
+            scores[row] = repository.popularityScore();
+        }
+        String[] strings = new String[dictionary.size()];
+        dictionary.forEach((value, index) -> strings[index] = value);
+        return new PackedRepositoryScoreList(strings, references, stars, forks, createdAt, updatedAt, scores);
+    }
+
+    /**
+     * Returns a copy with the scores {@code scorer} computes for these repositories. Only the
+     * scores are copied; the repositories themselves are shared, so rescoring a packed page
+     * neither materializes nor copies its repositories.
+     */
+    public PackedRepositoryScoreList rescore(BatchScorer scorer) {
+        long[] updatedAtEpochSeconds = updatedAt;
+        for (int row = 0; row < updatedAt.length; row++) {
+            if (updatedAt[row] == NULL_INSTANT) {
+                // scorers take 0 for an unknown update time
+                updatedAtEpochSeconds = updatedAt.clone();
+                for (int i = row; i < updatedAtEpochSeconds.length; i++) {
+                    if (updatedAtEpochSeconds[i] == NULL_INSTANT) {
+                        updatedAtEpochSeconds[i] = 0;
+                    }
+                }
+                break;
+            }
+        }
+        double[] rescored = new double[scores.length];
+        scorer.computeScores(stars, forks, updatedAtEpochSeconds, rescored);
+        return new PackedRepositoryScoreList(strings, references, stars, forks, createdAt, updatedAt, rescored);
+    }
+
+    @Override
+    public RepositoryScoreDto get(int index) {
+        int row = index * REFERENCES;
+        return new RepositoryScoreDto(
+                string(references[row + NAME]),
+                string(references[row + OWNER]),
+                string(references[row + LANGUAGE]),
+                stars[index],
+                forks[index],
+                instant(createdAt[index]),
+                instant(updatedAt[index]),
+                scores[index]);
+    }
+
+    @Override
+    public int size() {
+        return scores.length;
+    }
+
+    /**
+     * Approximate retained heap size, for {@link RepositoryScoreWeigher}. Interned strings
+     * are counted in full, although other pages share them.
+     */
+    long estimatedSize() {
+        long size = 16 + 7 * 4
+                + 16 + (long) strings.length * 4
+                + 16 + (long) references.length * 4
+                + 2 * (16 + (long) stars.length * 4)
+                + 3 * (16 + (long) scores.length * 8);
+        for (String value : strings) {
+            size += 24 + 16 + value.length();
+        }
+        return size;
+    }
+
+    private String string(int reference) {
+        return reference == NULL_STRING ? null : strings[reference];
+    }
+
+    private static int reference(Map<String, Integer> dictionary, String value, boolean intern) {
+        if (value == null) {
+            return NULL_STRING;
+        }
+        Integer reference = dictionary.get(value);
+        if (reference == null) {
+            reference = dictionary.size();
+            dictionary.put(intern ? INTERNER.intern(value) : value, reference);
+        }
+        return reference;
+    }
+
+    private static boolean wholeSecond(Instant value) {
+        return value == null || value.getNano() == 0;
+    }
+
+    private static long epochSecond(Instant value) {
+        return value != null ? value.getEpochSecond() : NULL_INSTANT;
+    }
+
+    private static Instant instant(long epochSecond) {
+        return epochSecond != NULL_INSTANT ? Instant.ofEpochSecond(epochSecond) : null;
+    }
+}
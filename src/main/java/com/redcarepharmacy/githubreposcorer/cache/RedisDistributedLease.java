@@ -0,0 +1,38 @@
+package com.redcarepharmacy.githubreposcorer.cache;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * {@link DistributedLease} backed by {@code SET name token NX PX ttl}.
+ * Release is a compare-and-delete script, so a holder whose lease already
+ * expired cannot release a lease since acquired by another node.
+ */
+public class RedisDistributedLease implements DistributedLease {
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisDistributedLease(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public String tryAcquire(String name, Duration ttl) {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(name, token, ttl);
+        return Boolean.TRUE.equals(acquired) ? token : null;
+    }
+
+    @Override
+    public void release(String name, String token) {
+        redisTemplate.execute(RELEASE_SCRIPT, List.of(name), token);
+    }
+}
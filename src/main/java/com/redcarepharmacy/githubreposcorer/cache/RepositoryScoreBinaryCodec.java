@@ -0,0 +1,228 @@
+package com.redcarepharmacy.githubreposcorer.cache;
+
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of {@link RepositoryScoreResponseDto} for out-of-process caches.
+ *
+ * <p>Layout (all integers are unsigned LEB128 varints unless stated otherwise):</p>
+ * <pre>
+ * version:byte  totalCount  flags:byte  fetchedAt  etag  lastModified  itemCount  item*
+ * item = name owner language stars forks createdAt updatedAt score:8 bytes
+ * string  = 0 (null) | 1 length utf8-bytes (new table entry) | index + 2 (table reference)
+ * instant = 0 (null) | 1 zigzag(epochSecond) nanos
+ * </pre>
+ *
+ * <p>Strings are dictionary-encoded per payload, so the language and recurring owners
+ * of a page are written once. Decoding does no reflection and allocates only the
+ * resulting records.</p>
+ *
+ * <p>Older payloads are still decoded: version 1, written before {@code fetchedAt} existed,
+ * and version 2, written before the {@code etag} / {@code lastModified} validators were kept.
+ * The missing fields are {@code null}.</p>
+ */
+public final class RepositoryScoreBinaryCodec {
+
+    static final byte VERSION = 3;
+
+    private static final byte VERSION_WITHOUT_FETCHED_AT = 1;
+    private static final byte VERSION_WITHOUT_VALIDATORS = 2;
+
+    private static final int FLAG_INCOMPLETE_RESULTS = 1;
+
+    private RepositoryScoreBinaryCodec() {
+    }
+
+    public static byte[] encode(RepositoryScoreResponseDto response) {
+        List<RepositoryScoreDto> items = response.repositoryScoreList() != null
+                ? response.repositoryScoreList() : List.of();
+        Writer writer = new Writer(32 + items.size() * 48);
+        writer.writeByte(VERSION);
+        writer.writeVarLong(response.totalCount());
+        writer.writeByte(response.incompleteResults() ? FLAG_INCOMPLETE_RESULTS : 0);
+        writer.writeInstant(response.fetchedAt());
+        writer.writeString(response.etag());
+        writer.writeString(response.lastModified());
+        writer.writeVarLong(items.size());
+        for (RepositoryScoreDto item : items) {
+            writer.writeString(item.name());
+            writer.writeString(item.owner());
+            writer.writeString(item.language());
+            writer.writeVarLong(Integer.toUnsignedLong(item.stars()));
+            writer.writeVarLong(Integer.toUnsignedLong(item.forks()));
+            writer.writeInstant(item.createdAt());
+            writer.writeInstant(item.updatedAt());
+            writer.writeDouble(item.popularityScore());
+        }
+        return writer.toByteArray();
+    }
+
+    public static RepositoryScoreResponseDto decode(byte[] bytes) {
+        Reader reader = new Reader(bytes);
+        byte version = reader.readByte();
+        if (version != VERSION && version != VERSION_WITHOUT_VALIDATORS && version != VERSION_WITHOUT_FETCHED_AT) {
+            throw new IllegalArgumentException("Unsupported repository score encoding version: " + version);
+        }
+        int totalCount = (int) reader.readVarLong();
+        boolean incompleteResults = (reader.readByte() & FLAG_INCOMPLETE_RESULTS) != 0;
+        Instant fetchedAt = version != VERSION_WITHOUT_FETCHED_AT ? reader.readInstant() : null;
+        String etag = version == VERSION ? reader.readString() : null;
+        String lastModified = version == VERSION ? reader.readString() : null;
+        int itemCount = (int) reader.readVarLong();
+        List<RepositoryScoreDto> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(new RepositoryScoreDto(
+                    reader.readString(),
+                    reader.readString(),
+                    reader.readString(),
+                    (int) reader.readVarLong(),
+                    (int) reader.readVarLong(),
+                    reader.readInstant(),
+                    reader.readInstant(),
+                    reader.readDouble()));
+        }
+        return new RepositoryScoreResponseDto(totalCount, incompleteResults, List.copyOf(items), fetchedAt,
+                etag, lastModified);
+    }
+
+    private static final class Writer {
+
+        private byte[] buffer;
+        private int position;
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        Writer(int initialCapacity) {
+            this.buffer = new byte[initialCapacity];
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeDouble(double value) {
+            ensureCapacity(8);
+            long bits = Double.doubleToRawLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (bits >>> shift);
+            }
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            Integer index = strings.get(value);
+            if (index != null) {
+                writeVarLong(index + 2L);
+                return;
+            }
+            strings.put(value, strings.size());
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(1);
+            writeVarLong(utf8.length);
+            ensureCapacity(utf8.length);
+            System.arraycopy(utf8, 0, buffer, position, utf8.length);
+            position += utf8.length;
+        }
+
+        void writeInstant(Instant value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            writeVarLong(1);
+            long seconds = value.getEpochSecond();
+            writeVarLong((seconds << 1) ^ (seconds >> 63));
+            writeVarLong(value.getNano());
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensureCapacity(int additional) {
+            if (position + additional > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + additional));
+            }
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] buffer;
+        private int position;
+        private final List<String> strings = new ArrayList<>();
+
+        Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        byte readByte() {
+            return buffer[position++];
+        }
+
+        long readVarLong() {
+            long result = 0;
+            int shift = 0;
+            byte current;
+            do {
+                current = buffer[position++];
+                result |= (long) (current & 0x7F) << shift;
+                shift += 7;
+            } while ((current & 0x80) != 0);
+            return result;
+        }
+
+        double readDouble() {
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = (bits << 8) | (buffer[position++] & 0xFF);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        String readString() {
+            long tag = readVarLong();
+            if (tag == 0) {
+                return null;
+            }
+            if (tag > 1) {
+                return strings.get((int) (tag - 2));
+            }
+            int length = (int) readVarLong();
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            strings.add(value);
+            return value;
+        }
+
+        Instant readInstant() {
+            if (readVarLong() == 0) {
+                return null;
+            }
+            long zigzag = readVarLong();
+            long seconds = (zigzag >>> 1) ^ -(zigzag & 1);
+            return Instant.ofEpochSecond(seconds, readVarLong());
+        }
+    }
+}
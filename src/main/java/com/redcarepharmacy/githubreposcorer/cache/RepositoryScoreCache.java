@@ -0,0 +1,428 @@
+package com.redcarepharmacy.githubreposcorer.cache;
+
+import com.redcarepharmacy.githubreposcorer.config.RepositoryCacheProperties;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import com.redcarepharmacy.githubreposcorer.exception.GitHubRateLimitExceededException;
+import com.redcarepharmacy.githubreposcorer.metrics.RepositoryPipelineMetrics;
+import com.redcarepharmacy.githubreposcorer.metrics.RepositoryPipelineMetrics.CacheResult;
+import com.redcarepharmacy.githubreposcorer.ratelimit.RequestPriority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-through access to the {@code repositories_score} cache with request coalescing.
+ *
+ * <p>On a miss, concurrent callers for the same key on this node share a single load
+ * ({@link SingleFlight}). When a {@link DistributedLease} is available, the node that
+ * loads also holds a short cluster-wide lease on the key until the result is in the
+ * shared cache; other nodes poll the cache for that result instead of calling GitHub
+ * themselves, and load on their own only if the lease lapses without a result.</p>
+ *
+ * <p>Pages older than the soft TTL ({@code app.cache.soft-ttl}) are still returned
+ * immediately, while a bounded background executor refreshes them. A refresh that
+ * fails, for example because GitHub is rate limiting, leaves the stale page in place,
+ * so it keeps being served until the hard TTL removes it from the cache. Refreshes call
+ * GitHub at {@link RequestPriority#BACKGROUND} priority, so while the rate limit budget is
+ * low they are skipped and the stale page is served instead. In Redis mode with leases
+ * enabled, only the node that obtains the lease refreshes a page.</p>
+ *
+ * <p>Loaders may take the cached page: a refresh passes the stale page to the loader, so
+ * it can revalidate the page with GitHub instead of fetching it again, and a miss passes
+ * {@code null}. Putting the revalidated page back restarts its TTLs.</p>
+ *
+ * <p>{@link #getReactive} offers the same semantics without blocking the caller: lookups
+ * use the cache's asynchronous retrieval where it has one (Redis, near cache) and a plain
+ * in-process lookup otherwise, and it shares in-flight loads with blocking callers.</p>
+ *
+ * <p>Empty results are returned but never cached. With {@code app.cache.packed-pages}, pages
+ * are cached as {@link PackedRepositoryScoreList}s.</p>
+ *
+ * <p>With {@code app.cache.subsumption.enabled}, loaded pages are also collected into
+ * {@link CompleteResultSets}, and a miss for a query with a later {@code createdAfter} than a
+ * complete set of its language is answered from that set instead of being loaded.</p>
+ *
+ * <p>Every lookup is timed as {@code repositories.cache.lookup}, tagged with the language
+ * of the key and whether it was a hit, a stale hit, answered from a result set or a miss. With prewarming enabled
+ * ({@code app.cache.prewarm.enabled}), lookups are also counted in {@link #popularity()},
+ * and {@link #prewarm} loads or refreshes a page before a request has to wait for it.</p>
+ */
+@Component
+public class RepositoryScoreCache implements DisposableBean {
+
+    private static final String LEASE_PREFIX = RepositoryScoreCacheKey.CACHE_NAME + ":lease:";
+
+    private final CacheManager cacheManager;
+    private final DistributedLease distributedLease;
+    private final Duration leaseTtl;
+    private final Duration leasePollInterval;
+    private final Duration softTtl;
+    private final ThreadPoolExecutor refreshExecutor;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final SingleFlight<String, RepositoryScoreResponseDto> singleFlight = new SingleFlight<>();
+    private final RepositoryPipelineMetrics metrics;
+    private final KeyPopularity popularity;
+    private final boolean packedPages;
+    private final CompleteResultSets resultSets;
+    private final Logger logger = LoggerFactory.getLogger(RepositoryScoreCache.class);
+    private volatile boolean asyncRetrieveSupported = true;
+
+    public RepositoryScoreCache(CacheManager cacheManager,
+                                @Nullable DistributedLease distributedLease,
+                                RepositoryCacheProperties cacheProperties,
+                                RepositoryPipelineMetrics metrics) {
+        RepositoryCacheProperties.Lease lease = cacheProperties.lease();
+        boolean leaseEnabled = distributedLease != null && lease != null && lease.enabled();
+        this.cacheManager = cacheManager;
+        this.distributedLease = leaseEnabled ? distributedLease : null;
+        this.leaseTtl = leaseEnabled ? lease.ttl() : Duration.ZERO;
+        this.leasePollInterval = leaseEnabled ? lease.pollInterval() : Duration.ZERO;
+        this.softTtl = cacheProperties.softTtl();
+        this.metrics = metrics;
+        RepositoryCacheProperties.Prewarm prewarm = cacheProperties.prewarm();
+        this.popularity = prewarm != null && prewarm.enabled()
+                ? new KeyPopularity((int) Math.min(Integer.MAX_VALUE, cacheProperties.maxEntries()), prewarm.topKeys())
+                : null;
+
+        this.packedPages = cacheProperties.packedPages();
+        RepositoryCacheProperties.Subsumption subsumption = cacheProperties.subsumption();
+        this.resultSets = subsumption != null && subsumption.enabled()
+                ? new CompleteResultSets(subsumption.maxResultSets(), softTtl,
+                key -> lookup(key.toString()))
+                : null;
+
+        RepositoryCacheProperties.Refresh refresh = cacheProperties.refresh();
+        int threads = refresh != null ? refresh.threads() : 1;
+        int queueCapacity = refresh != null ? refresh.queueCapacity() : 1;
+        this.refreshExecutor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                new CustomizableThreadFactory("score-refresh-"));
+        this.refreshExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Returns the cached page for {@code key}, loading it with {@code loader} on a miss.
+     * A page past its soft TTL is returned as is and refreshed in the background.
+     */
+    public RepositoryScoreResponseDto get(String key, Supplier<RepositoryScoreResponseDto> loader) {
+        return get(key, stale -> loader.get());
+    }
+
+    /**
+     * Variant of {@link #get(String, Supplier)} whose loader is given the stale page when
+     * refreshing it, and {@code null} on a miss.
+     */
+    public RepositoryScoreResponseDto get(String key, UnaryOperator<RepositoryScoreResponseDto> loader) {
+        long start = System.nanoTime();
+        RepositoryScoreResponseDto cached = lookup(key);
+        if (cached != null) {
+            return hit(key, cached, loader, start);
+        }
+        RepositoryScoreResponseDto subsumed = subsumed(key);
+        if (subsumed != null) {
+            recordLookup(key, CacheResult.SUBSUMED, start);
+            return subsumed;
+        }
+        recordLookup(key, CacheResult.MISS, start);
+        Supplier<RepositoryScoreResponseDto> missLoader = () -> loader.apply(null);
+        return singleFlight.execute(key, () -> {
+            RepositoryScoreResponseDto raced = lookup(key);
+            if (raced != null) {
+                return raced;
+            }
+            return distributedLease != null ? loadUnderLease(key, missLoader) : loadAndPut(key, missLoader);
+        });
+    }
+
+    /**
+     * Hit path of {@link #get(String, UnaryOperator)}: returns the cached page for {@code key},
+     * refreshing it in the background if it is stale, or {@code null} on a miss, without
+     * loading it or recording the miss. Subsumed pages are returned as well.
+     */
+    @Nullable
+    public RepositoryScoreResponseDto getIfCached(String key, UnaryOperator<RepositoryScoreResponseDto> loader) {
+        long start = System.nanoTime();
+        RepositoryScoreResponseDto cached = lookup(key);
+        if (cached != null) {
+            return hit(key, cached, loader, start);
+        }
+        RepositoryScoreResponseDto subsumed = subsumed(key);
+        if (subsumed != null) {
+            recordLookup(key, CacheResult.SUBSUMED, start);
+        }
+        return subsumed;
+    }
+
+    private RepositoryScoreResponseDto hit(String key, RepositoryScoreResponseDto cached,
+                                           UnaryOperator<RepositoryScoreResponseDto> loader, long start) {
+        boolean stale = isStale(cached);
+        recordLookup(key, stale ? CacheResult.STALE : CacheResult.HIT, start);
+        if (stale) {
+            scheduleRefresh(key, () -> loader.apply(cached));
+        }
+        return cached;
+    }
+
+    /**
+     * Non-blocking counterpart of {@link #get}. The loader must not block either.
+     * <p>
+     * With cluster-wide leases enabled, the whole lookup runs on a bounded elastic
+     * thread instead, since waiting for another node's lease polls and sleeps.
+     */
+    public Mono<RepositoryScoreResponseDto> getReactive(String key,
+                                                        Supplier<Mono<RepositoryScoreResponseDto>> loader) {
+        return getReactive(key, stale -> loader.get());
+    }
+
+    /**
+     * Variant of {@link #getReactive(String, Supplier)} whose loader is given the stale page
+     * when refreshing it, and {@code null} on a miss.
+     */
+    public Mono<RepositoryScoreResponseDto> getReactive(
+            String key, Function<RepositoryScoreResponseDto, Mono<RepositoryScoreResponseDto>> loader) {
+        UnaryOperator<RepositoryScoreResponseDto> blockingLoader = stale -> loader.apply(stale).block();
+        if (distributedLease != null) {
+            return Mono.fromCallable(() -> get(key, blockingLoader))
+                    .subscribeOn(Schedulers.boundedElastic());
+        }
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return Mono.fromFuture(() -> retrieve(key))
+                    .doOnNext(cached -> {
+                        boolean stale = isStale(cached);
+                        recordLookup(key, stale ? CacheResult.STALE : CacheResult.HIT, start);
+                        if (stale) {
+                            scheduleRefresh(key, () -> blockingLoader.apply(cached));
+                        }
+                    })
+                    .switchIfEmpty(Mono.defer(() -> {
+                        RepositoryScoreResponseDto subsumed = subsumed(key);
+                        if (subsumed != null) {
+                            recordLookup(key, CacheResult.SUBSUMED, start);
+                            return Mono.just(subsumed);
+                        }
+                        recordLookup(key, CacheResult.MISS, start);
+                        return Mono.fromFuture(singleFlight.executeAsync(key,
+                                () -> retrieve(key).thenCompose(raced -> raced != null
+                                        ? CompletableFuture.completedFuture(raced)
+                                        : loader.apply(null).flatMap(loaded -> putReactive(key, loaded)).toFuture())));
+                    }));
+        });
+    }
+
+    private void recordLookup(String key, CacheResult result, long start) {
+        metrics.recordCacheLookup(RepositoryScoreCacheKey.languageOf(key), result, System.nanoTime() - start);
+        if (popularity != null) {
+            popularity.record(key);
+        }
+    }
+
+    /**
+     * Popularity of the keys looked up with {@link #get} and {@link #getReactive}, or
+     * {@code null} when prewarming is disabled.
+     */
+    @Nullable
+    public KeyPopularity popularity() {
+        return popularity;
+    }
+
+    /**
+     * Loads {@code key} on the calling thread if it is not cached, or refreshes it if it is
+     * past the soft TTL or will be within {@code horizon}. Like background refreshes, the
+     * loader is given the cached page, calls GitHub at {@link RequestPriority#BACKGROUND}
+     * priority and, with leases enabled, only runs on the node that obtains the lease.
+     * Does not count as a lookup.
+     *
+     * @return whether the loader was called
+     * @throws GitHubRateLimitExceededException if the rate limit budget is reserved for clients
+     */
+    public boolean prewarm(String key, Duration horizon, UnaryOperator<RepositoryScoreResponseDto> loader) {
+        RepositoryScoreResponseDto cached = lookup(key);
+        if (cached != null && !isStale(cached, horizon)) {
+            return false;
+        }
+        if (!refreshing.add(key)) {
+            return false;
+        }
+        try {
+            refresh(key, () -> RequestPriority.callAs(RequestPriority.BACKGROUND, () -> loader.apply(cached)));
+            return true;
+        } finally {
+            refreshing.remove(key);
+        }
+    }
+
+    private RepositoryScoreResponseDto loadUnderLease(String key, Supplier<RepositoryScoreResponseDto> loader) {
+        String leaseName = LEASE_PREFIX + key;
+        long deadline = System.nanoTime() + leaseTtl.toNanos();
+        do {
+            String token = distributedLease.tryAcquire(leaseName, leaseTtl);
+            if (token != null) {
+                try {
+                    RepositoryScoreResponseDto raced = lookup(key);
+                    return raced != null ? raced : loadAndPut(key, loader);
+                } finally {
+                    distributedLease.release(leaseName, token);
+                }
+            }
+            sleep(leasePollInterval);
+            RepositoryScoreResponseDto loadedElsewhere = lookup(key);
+            if (loadedElsewhere != null) {
+                return loadedElsewhere;
+            }
+        } while (System.nanoTime() < deadline);
+
+        logger.warn("Lease on {} was not released in time, fetching without it", key);
+        return loadAndPut(key, loader);
+    }
+
+    private boolean isStale(RepositoryScoreResponseDto cached) {
+        return isStale(cached, Duration.ZERO);
+    }
+
+    private boolean isStale(RepositoryScoreResponseDto cached, Duration horizon) {
+        return softTtl != null && (cached.fetchedAt() == null
+                || cached.fetchedAt().plus(softTtl).minus(horizon).isBefore(Instant.now()));
+    }
+
+    private void scheduleRefresh(String key, Supplier<RepositoryScoreResponseDto> loader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh(key, () -> RequestPriority.callAs(RequestPriority.BACKGROUND, loader));
+                } catch (GitHubRateLimitExceededException e) {
+                    logger.debug("GitHub rate limit budget is low, serving the stale page of {} for now", key);
+                } catch (RuntimeException e) {
+                    logger.warn("Background refresh of {} failed, serving the stale page until it expires", key, e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+            logger.debug("Refresh queue is full, skipping background refresh of {}", key);
+        }
+    }
+
+    private void refresh(String key, Supplier<RepositoryScoreResponseDto> loader) {
+        if (distributedLease == null) {
+            loadAndPut(key, loader);
+            return;
+        }
+        String leaseName = LEASE_PREFIX + key;
+        String token = distributedLease.tryAcquire(leaseName, leaseTtl);
+        if (token == null) {
+            return;
+        }
+        try {
+            loadAndPut(key, loader);
+        } finally {
+            distributedLease.release(leaseName, token);
+        }
+    }
+
+    private RepositoryScoreResponseDto loadAndPut(String key, Supplier<RepositoryScoreResponseDto> loader) {
+        RepositoryScoreResponseDto loaded = loader.get();
+        if (loaded != null && loaded.repositoryScoreList() != null && !loaded.repositoryScoreList().isEmpty()) {
+            put(key, loaded);
+        }
+        return loaded;
+    }
+
+    private Mono<RepositoryScoreResponseDto> putReactive(String key, RepositoryScoreResponseDto loaded) {
+        if (loaded.repositoryScoreList() == null || loaded.repositoryScoreList().isEmpty()) {
+            return Mono.just(loaded);
+        }
+        // Cache#put has no asynchronous variant and is a network call in Redis mode
+        return Mono.fromCallable(() -> {
+            put(key, loaded);
+            return loaded;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private void put(String key, RepositoryScoreResponseDto loaded) {
+        cache().put(key, packedPages ? PackedRepositoryScoreList.pack(loaded) : loaded);
+        if (resultSets != null) {
+            try {
+                resultSets.add(RepositoryScoreCacheKey.parse(key), loaded);
+            } catch (IllegalArgumentException e) {
+                // not a language:createdAfter:page key, nothing to collect
+            }
+        }
+    }
+
+    /**
+     * Answers {@code key} from a complete result set of its language, if subsumption is enabled.
+     */
+    private RepositoryScoreResponseDto subsumed(String key) {
+        if (resultSets == null) {
+            return null;
+        }
+        try {
+            return resultSets.answer(RepositoryScoreCacheKey.parse(key));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private CompletableFuture<RepositoryScoreResponseDto> retrieve(String key) {
+        Cache cache = cache();
+        if (asyncRetrieveSupported) {
+            try {
+                CompletableFuture<?> future = cache.retrieve(key);
+                return future == null ? CompletableFuture.completedFuture(null)
+                        : future.thenApply(value -> (RepositoryScoreResponseDto)
+                                (value instanceof Cache.ValueWrapper wrapper ? wrapper.get() : value));
+            } catch (UnsupportedOperationException | IllegalStateException e) {
+                // in-process caches without an async mode; their lookup does not block
+                asyncRetrieveSupported = false;
+            }
+        }
+        return CompletableFuture.completedFuture(lookup(key));
+    }
+
+    private RepositoryScoreResponseDto lookup(String key) {
+        return cache().get(key, RepositoryScoreResponseDto.class);
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME);
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a cache lease", e);
+        }
+    }
+}
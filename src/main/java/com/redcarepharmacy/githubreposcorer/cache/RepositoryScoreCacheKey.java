@@ -0,0 +1,70 @@
+package com.redcarepharmacy.githubreposcorer.cache;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Structured form of the {@code repositories_score} cache key.
+ *
+ * <p>{@link #toString()} produces the {@code language:createdAfter:page} string
+ * under which pages are stored, and {@link #parse(Object)} turns such a string back
+ * into its parts. Languages are lower-cased, since GitHub matches them regardless of
+ * case, so {@code Java} and {@code java} share their pages.</p>
+ */
+public record RepositoryScoreCacheKey(
+        String language,
+        LocalDate createdAfter,
+        int page
+) {
+
+    public static final String CACHE_NAME = "repositories_score";
+
+    private static final char SEPARATOR = ':';
+
+    public RepositoryScoreCacheKey {
+        language = language != null ? language.toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * Parses a key of the form {@code language:createdAfter:page}.
+     * The language is everything before the last two separators.
+     *
+     * @param key the raw cache key
+     * @return the parsed key
+     * @throws IllegalArgumentException if the key does not have the expected format
+     */
+    public static RepositoryScoreCacheKey parse(Object key) {
+        String raw = String.valueOf(key);
+        int pageSeparator = raw.lastIndexOf(SEPARATOR);
+        int dateSeparator = dateSeparator(raw, pageSeparator);
+        if (dateSeparator <= 0) {
+            throw new IllegalArgumentException("Unexpected repositories_score cache key: " + raw);
+        }
+        try {
+            return new RepositoryScoreCacheKey(
+                    raw.substring(0, dateSeparator),
+                    LocalDate.parse(raw.substring(dateSeparator + 1, pageSeparator)),
+                    Integer.parseInt(raw.substring(pageSeparator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Unexpected repositories_score cache key: " + raw, e);
+        }
+    }
+
+    /**
+     * The language part of a {@code language:createdAfter:page} key, or {@code null} if
+     * the key does not have that format. Cheaper than {@link #parse(Object)}.
+     */
+    public static String languageOf(String key) {
+        int dateSeparator = dateSeparator(key, key.lastIndexOf(SEPARATOR));
+        return dateSeparator > 0 ? key.substring(0, dateSeparator) : null;
+    }
+
+    private static int dateSeparator(String raw, int pageSeparator) {
+        return pageSeparator > 0 ? raw.lastIndexOf(SEPARATOR, pageSeparator - 1) : -1;
+    }
+
+    @Override
+    public String toString() {
+        return language + SEPARATOR + createdAfter + SEPARATOR + page;
+    }
+}
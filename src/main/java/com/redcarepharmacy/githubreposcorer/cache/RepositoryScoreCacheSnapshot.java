@@ -0,0 +1,135 @@
+package com.redcarepharmacy.githubreposcorer.cache;
+
+import com.github.benmanes.caffeine.cache.Policy.VarExpiration;
+import com.redcarepharmacy.githubreposcorer.config.RedisCacheProperties;
+import com.redcarepharmacy.githubreposcorer.config.RepositoryCacheProperties;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Persists the in-memory {@code repositories_score} cache across restarts, so a restarted
+ * node serves the pages it had instead of fetching them from GitHub again.
+ * <p>
+ * On shutdown, all cached pages are written to {@code app.cache.snapshot-file}
+ * ({@link RepositoryScoreSnapshot}); on startup, the file is memory-mapped and its pages are
+ * put back into the cache before requests are served. Pages past the hard TTL
+ * ({@code app.redis.ttl-hours}) are skipped; the others keep their {@code fetchedAt} and
+ * expire when the hard TTL since then has passed, not a full TTL after the restart, and those
+ * past the soft TTL are refreshed on their next request as usual. With
+ * {@code app.cache.packed-pages}, restored pages are packed as freshly loaded ones are. Only the in-process
+ * Caffeine cache is persisted: Redis keeps its pages across restarts itself.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.cache", name = "snapshot-file")
+public class RepositoryScoreCacheSnapshot implements DisposableBean {
+
+    private final CacheManager cacheManager;
+    private final Path snapshotFile;
+    private final Duration ttl;
+    private final boolean packedPages;
+    private final Logger logger = LoggerFactory.getLogger(RepositoryScoreCacheSnapshot.class);
+
+    public RepositoryScoreCacheSnapshot(CacheManager cacheManager,
+                                        RepositoryCacheProperties cacheProperties,
+                                        RedisCacheProperties redisProperties) {
+        this.cacheManager = cacheManager;
+        this.snapshotFile = cacheProperties.snapshotFile();
+        this.ttl = Duration.ofHours(redisProperties.ttlHours());
+        this.packedPages = cacheProperties.packedPages();
+        restore();
+    }
+
+    /**
+     * Puts the pages of the snapshot file back into the cache.
+     *
+     * @return the number of pages restored
+     */
+    int restore() {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> cache = caffeine();
+        if (cache == null || !Files.isReadable(snapshotFile)) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        Optional<VarExpiration<Object, Object>> expiration = cache.policy().expireVariably();
+        int restored = 0;
+        try {
+            RepositoryScoreSnapshot snapshot = RepositoryScoreSnapshot.open(snapshotFile);
+            for (int i = 0; i < snapshot.size(); i++) {
+                Instant fetchedAt = snapshot.fetchedAt(i);
+                Duration remaining = fetchedAt != null ? Duration.between(now, fetchedAt.plus(ttl)) : Duration.ZERO;
+                if (!remaining.isPositive()) {
+                    continue;
+                }
+                RepositoryScoreResponseDto page = packedPages
+                        ? PackedRepositoryScoreList.pack(snapshot.page(i)) : snapshot.page(i);
+                if (expiration.isPresent()) {
+                    expiration.get().put(snapshot.key(i), page, remaining);
+                } else {
+                    cache.put(snapshot.key(i), page);
+                }
+                restored++;
+            }
+            logger.info("Restored {} cached pages from {} in {} ms", restored, snapshotFile,
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not restore cached pages from {}", snapshotFile, e);
+        }
+        return restored;
+    }
+
+    /**
+     * Writes all cached pages to the snapshot file.
+     *
+     * @return the number of pages saved
+     */
+    int save() {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> cache = caffeine();
+        if (cache == null) {
+            logger.info("Cached pages are not saved to {}, only the in-memory cache is", snapshotFile);
+            return 0;
+        }
+        Map<String, RepositoryScoreResponseDto> pages = new LinkedHashMap<>();
+        cache.asMap().forEach((key, value) -> {
+            if (key instanceof String page && value instanceof RepositoryScoreResponseDto response) {
+                pages.put(page, response);
+            }
+        });
+        try {
+            RepositoryScoreSnapshot.write(snapshotFile, pages);
+            logger.info("Saved {} cached pages to {}", pages.size(), snapshotFile);
+            return pages.size();
+        } catch (IOException e) {
+            logger.warn("Could not save cached pages to {}", snapshotFile, e);
+            return 0;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        save();
+    }
+
+    @SuppressWarnings("unchecked")
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeine() {
+        Cache cache = cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME);
+        return cache != null
+                && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine
+                ? (com.github.benmanes.caffeine.cache.Cache<Object, Object>) caffeine : null;
+    }
+}
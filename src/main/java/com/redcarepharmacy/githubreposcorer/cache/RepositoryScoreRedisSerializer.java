@@ -0,0 +1,36 @@
+package com.redcarepharmacy.githubreposcorer.cache;
+
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Redis value serializer for the {@code repositories_score} cache,
+ * backed by {@link RepositoryScoreBinaryCodec}.
+ */
+public class RepositoryScoreRedisSerializer implements RedisSerializer<Object> {
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return null;
+        }
+        if (!(value instanceof RepositoryScoreResponseDto response)) {
+            throw new SerializationException("Cannot serialize " + value.getClass().getName()
+                    + " into the repositories_score cache");
+        }
+        return RepositoryScoreBinaryCodec.encode(response);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return RepositoryScoreBinaryCodec.decode(bytes);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Cannot deserialize cached repository scores", e);
+        }
+    }
+}
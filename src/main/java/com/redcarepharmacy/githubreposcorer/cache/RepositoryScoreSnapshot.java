@@ -0,0 +1,272 @@
+package com.redcarepharmacy.githubreposcorer.cache;
+
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Memory-mapped file of cached result pages, read by {@link RepositoryScoreCacheSnapshot} to
+ * warm the in-memory cache on startup.
+ *
+ * <p>The file holds fixed-width records followed by a string table, all big-endian:</p>
+ * <pre>
+ * header  = magic:int version:int pageCount:int repositoryCount:int stringCount:int
+ * page    = key:string totalCount:int flags:int fetchedAt etag:string lastModified:string
+ *           firstRepository:int repositoryCount:int                                 (40 bytes)
+ * repo    = name:string owner:string language:string stars:int forks:int createdAt updatedAt
+ *           score:double                                                            (52 bytes)
+ * strings = offset:int * (stringCount + 1)  utf8-bytes
+ * string  = index into the string table, -1 for null
+ * instant = epochSecond:long nanos:int, epochSecond {@link Long#MIN_VALUE} for null
+ * </pre>
+ *
+ * <p>Because records have a fixed width, page {@code i} and its repositories are read by
+ * offset straight from the mapping, without parsing what comes before them. Strings are
+ * stored once per file, so languages and recurring owners take no space per repository.
+ * The mapping lives outside the heap; only the pages read from it are copied in.</p>
+ *
+ * <p>Instances are thread-safe. A snapshot is written to a temporary file first and then
+ * moved over the previous one, so a crash while saving leaves the previous one intact.</p>
+ */
+final class RepositoryScoreSnapshot {
+
+    static final int VERSION = 1;
+
+    private static final int MAGIC = 0x52535353;
+    private static final int HEADER_BYTES = 20;
+    private static final int PAGE_BYTES = 40;
+    private static final int REPOSITORY_BYTES = 52;
+    private static final int FLAG_INCOMPLETE_RESULTS = 1;
+    private static final int NULL_STRING = -1;
+    private static final long NULL_INSTANT = Long.MIN_VALUE;
+
+    private final MappedByteBuffer buffer;
+    private final int pageCount;
+    private final int repositoryOffset;
+    private final int stringOffsetsOffset;
+    private final int stringBytesOffset;
+    private final String[] strings;
+
+    private RepositoryScoreSnapshot(MappedByteBuffer buffer, int pageCount, int repositoryCount, int stringCount) {
+        this.buffer = buffer;
+        this.pageCount = pageCount;
+        this.repositoryOffset = HEADER_BYTES + pageCount * PAGE_BYTES;
+        this.stringOffsetsOffset = repositoryOffset + repositoryCount * REPOSITORY_BYTES;
+        this.stringBytesOffset = stringOffsetsOffset + (stringCount + 1) * Integer.BYTES;
+        this.strings = new String[stringCount];
+    }
+
+    /**
+     * Maps {@code file} read-only and checks its header.
+     *
+     * @throws IOException if the file cannot be read or is not a snapshot of this version
+     */
+    static RepositoryScoreSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a repository score snapshot: " + file);
+            }
+            // the mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a repository score snapshot: " + file);
+            }
+            int version = buffer.getInt(4);
+            if (version != VERSION) {
+                throw new IOException("Unsupported repository score snapshot version: " + version);
+            }
+            int pageCount = buffer.getInt(8);
+            int repositoryCount = buffer.getInt(12);
+            int stringCount = buffer.getInt(16);
+            long stringBytes = HEADER_BYTES + (long) pageCount * PAGE_BYTES
+                    + (long) repositoryCount * REPOSITORY_BYTES + (stringCount + 1L) * Integer.BYTES;
+            if (pageCount < 0 || repositoryCount < 0 || stringCount < 0 || stringBytes > size
+                    || stringBytes + buffer.getInt((int) stringBytes - Integer.BYTES) != size) {
+                throw new IOException("Truncated repository score snapshot: " + file);
+            }
+            return new RepositoryScoreSnapshot(buffer, pageCount, repositoryCount, stringCount);
+        }
+    }
+
+    /**
+     * Number of pages in the snapshot.
+     */
+    int size() {
+        return pageCount;
+    }
+
+    /**
+     * Cache key of page {@code index}.
+     */
+    String key(int index) {
+        return string(buffer.getInt(pageOffset(index)));
+    }
+
+    /**
+     * When page {@code index} was fetched from GitHub, read without decoding the page.
+     */
+    Instant fetchedAt(int index) {
+        return instant(pageOffset(index) + 12);
+    }
+
+    /**
+     * Decodes page {@code index}.
+     */
+    RepositoryScoreResponseDto page(int index) {
+        int offset = pageOffset(index);
+        int first = buffer.getInt(offset + 32);
+        int count = buffer.getInt(offset + 36);
+        List<RepositoryScoreDto> repositories = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int repository = repositoryOffset + (first + i) * REPOSITORY_BYTES;
+            repositories.add(new RepositoryScoreDto(
+                    string(buffer.getInt(repository)),
+                    string(buffer.getInt(repository + 4)),
+                    string(buffer.getInt(repository + 8)),
+                    buffer.getInt(repository + 12),
+                    buffer.getInt(repository + 16),
+                    instant(repository + 20),
+                    instant(repository + 32),
+                    buffer.getDouble(repository + 44)));
+        }
+        return new RepositoryScoreResponseDto(buffer.getInt(offset + 4),
+                (buffer.getInt(offset + 8) & FLAG_INCOMPLETE_RESULTS) != 0,
+                List.copyOf(repositories), instant(offset + 12),
+                string(buffer.getInt(offset + 24)), string(buffer.getInt(offset + 28)));
+    }
+
+    /**
+     * Writes {@code pages}, keyed by cache key, to {@code file}.
+     */
+    static void write(Path file, Map<String, RepositoryScoreResponseDto> pages) throws IOException {
+        Map<String, Integer> stringIndex = new LinkedHashMap<>();
+        int repositoryCount = 0;
+        for (Map.Entry<String, RepositoryScoreResponseDto> page : pages.entrySet()) {
+            index(stringIndex, page.getKey());
+            index(stringIndex, page.getValue().etag());
+            index(stringIndex, page.getValue().lastModified());
+            for (RepositoryScoreDto repository : repositories(page.getValue())) {
+                index(stringIndex, repository.name());
+                index(stringIndex, repository.owner());
+                index(stringIndex, repository.language());
+                repositoryCount++;
+            }
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream stream = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(pages.size());
+                out.writeInt(repositoryCount);
+                out.writeInt(stringIndex.size());
+                int firstRepository = 0;
+                for (Map.Entry<String, RepositoryScoreResponseDto> entry : pages.entrySet()) {
+                    RepositoryScoreResponseDto page = entry.getValue();
+                    int count = repositories(page).size();
+                    out.writeInt(stringIndex.get(entry.getKey()));
+                    out.writeInt(page.totalCount());
+                    out.writeInt(page.incompleteResults() ? FLAG_INCOMPLETE_RESULTS : 0);
+                    writeInstant(out, page.fetchedAt());
+                    out.writeInt(stringRef(stringIndex, page.etag()));
+                    out.writeInt(stringRef(stringIndex, page.lastModified()));
+                    out.writeInt(firstRepository);
+                    out.writeInt(count);
+                    firstRepository += count;
+                }
+                for (RepositoryScoreResponseDto page : pages.values()) {
+                    for (RepositoryScoreDto repository : repositories(page)) {
+                        out.writeInt(stringRef(stringIndex, repository.name()));
+                        out.writeInt(stringRef(stringIndex, repository.owner()));
+                        out.writeInt(stringRef(stringIndex, repository.language()));
+                        out.writeInt(repository.stars());
+                        out.writeInt(repository.forks());
+                        writeInstant(out, repository.createdAt());
+                        writeInstant(out, repository.updatedAt());
+                        out.writeDouble(repository.popularityScore());
+                    }
+                }
+                List<byte[]> utf8 = new ArrayList<>(stringIndex.size());
+                int stringOffset = 0;
+                out.writeInt(stringOffset);
+                for (String value : stringIndex.keySet()) {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    utf8.add(bytes);
+                    stringOffset += bytes.length;
+                    out.writeInt(stringOffset);
+                }
+                for (byte[] bytes : utf8) {
+                    out.write(bytes);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private int pageOffset(int index) {
+        return HEADER_BYTES + index * PAGE_BYTES;
+    }
+
+    private String string(int index) {
+        if (index == NULL_STRING) {
+            return null;
+        }
+        String value = strings[index];
+        if (value == null) {
+            int start = buffer.getInt(stringOffsetsOffset + index * Integer.BYTES);
+            int end = buffer.getInt(stringOffsetsOffset + (index + 1) * Integer.BYTES);
+            byte[] bytes = new byte[end - start];
+            buffer.get(stringBytesOffset + start, bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            // racing threads decode the same string, either copy may be kept
+            strings[index] = value;
+        }
+        return value;
+    }
+
+    private Instant instant(int offset) {
+        long epochSecond = buffer.getLong(offset);
+        return epochSecond != NULL_INSTANT ? Instant.ofEpochSecond(epochSecond, buffer.getInt(offset + 8)) : null;
+    }
+
+    private static void writeInstant(DataOutputStream out, Instant value) throws IOException {
+        out.writeLong(value != null ? value.getEpochSecond() : NULL_INSTANT);
+        out.writeInt(value != null ? value.getNano() : 0);
+    }
+
+    private static void index(Map<String, Integer> stringIndex, String value) {
+        if (value != null) {
+            stringIndex.putIfAbsent(value, stringIndex.size());
+        }
+    }
+
+    private static int stringRef(Map<String, Integer> stringIndex, String value) {
+        return value != null ? stringIndex.get(value) : NULL_STRING;
+    }
+
+    private static List<RepositoryScoreDto> repositories(RepositoryScoreResponseDto page) {
+        return page.repositoryScoreList() != null ? page.repositoryScoreList() : List.of();
+    }
+}
@@ -0,0 +1,67 @@
+package com.redcarepharmacy.githubreposcorer.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+
+/**
+ * Estimates the retained heap size of a cached {@link RepositoryScoreResponseDto}.
+ *
+ * <p>The estimate assumes a 64-bit JVM with compressed oops and compact strings.
+ * It does not need to be exact, only proportional, so that a byte budget on the
+ * cache tracks the real footprint of result pages with many or few repositories.</p>
+ *
+ * <p>Every entry weighs at least {@code minimumWeight}. Setting it to
+ * {@code maxWeight / maxEntries} makes a single weight limit enforce both the
+ * byte budget and the entry count, since Caffeine only supports one of the two.</p>
+ */
+public class RepositoryScoreWeigher implements Weigher<Object, Object> {
+
+    private static final int RESPONSE_OVERHEAD = 16 + 4 + 4 + 4 + 4 + 4 + 4;
+    private static final int LIST_OVERHEAD = 16 + 4 + 16;
+    private static final int REFERENCE_SIZE = 4;
+    private static final int SCORE_DTO_OVERHEAD = 16 + 5 * REFERENCE_SIZE + 4 + 4 + 8;
+    private static final int INSTANT_SIZE = 24;
+    private static final int STRING_OVERHEAD = 24 + 16;
+    private static final int KEY_OVERHEAD = 64;
+
+    private final int minimumWeight;
+
+    public RepositoryScoreWeigher(int minimumWeight) {
+        this.minimumWeight = Math.max(1, minimumWeight);
+    }
+
+    @Override
+    public int weigh(Object key, Object value) {
+        long weight = KEY_OVERHEAD + stringSize(String.valueOf(key));
+        if (value instanceof RepositoryScoreResponseDto response) {
+            weight += estimate(response);
+        }
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(minimumWeight, weight));
+    }
+
+    static long estimate(RepositoryScoreResponseDto response) {
+        long size = RESPONSE_OVERHEAD + (response.fetchedAt() != null ? INSTANT_SIZE : 0)
+                + stringSize(response.etag()) + stringSize(response.lastModified());
+        if (response.repositoryScoreList() == null) {
+            return size;
+        }
+        if (response.repositoryScoreList() instanceof PackedRepositoryScoreList packed) {
+            return size + packed.estimatedSize();
+        }
+        size += LIST_OVERHEAD + (long) response.repositoryScoreList().size() * REFERENCE_SIZE;
+        for (RepositoryScoreDto repo : response.repositoryScoreList()) {
+            size += SCORE_DTO_OVERHEAD
+                    + stringSize(repo.name())
+                    + stringSize(repo.owner())
+                    + stringSize(repo.language())
+                    + (repo.createdAt() != null ? INSTANT_SIZE : 0)
+                    + (repo.updatedAt() != null ? INSTANT_SIZE : 0);
+        }
+        return size;
+    }
+
+    private static long stringSize(String value) {
+        return value == null ? 0 : STRING_OVERHEAD + value.length();
+    }
+}
@@ -0,0 +1,31 @@
+package com.redcarepharmacy.githubreposcorer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and timeout settings of the HTTP client calling the GitHub API.
+ *
+ * @param connectTimeout           how long to wait for a TCP and TLS connection to be established
+ * @param readTimeout              how long to wait for data on an established connection
+ * @param connectionRequestTimeout how long a request waits for a free pooled connection
+ * @param maxConnections           upper bound on open connections across all hosts
+ * @param maxConnectionsPerRoute   upper bound on open connections to a single host
+ * @param timeToLive               age after which a pooled connection is no longer reused
+ * @param idleTimeout              idle time after which a pooled connection is closed
+ * @param compression              whether to request gzip/deflate encoded responses
+ */
+@ConfigurationProperties(prefix = "github.client")
+public record GithubClientProperties(
+
+        Duration connectTimeout,
+        Duration readTimeout,
+        Duration connectionRequestTimeout,
+        int maxConnections,
+        int maxConnectionsPerRoute,
+        Duration timeToLive,
+        Duration idleTimeout,
+        boolean compression
+) {
+}
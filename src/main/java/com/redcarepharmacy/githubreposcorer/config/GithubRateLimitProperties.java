@@ -0,0 +1,29 @@
+package com.redcarepharmacy.githubreposcorer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Budget of GitHub search requests, enforced on our side before GitHub has to refuse them.
+ *
+ * @param tokens                     API tokens requests are spread over, each with its own budget;
+ *                                   without tokens, requests are sent unauthenticated
+ * @param requestsPerMinute          search requests per minute allowed per token
+ * @param anonymousRequestsPerMinute search requests per minute allowed without a token
+ * @param reserve                    requests per token kept back for client requests; background
+ *                                   refreshes of stale pages are skipped below it
+ * @param maxWait                    how long a client request waits for budget before it is
+ *                                   answered with {@code 429}
+ */
+@ConfigurationProperties(prefix = "github.rate-limit")
+public record GithubRateLimitProperties(
+
+        List<String> tokens,
+        int requestsPerMinute,
+        int anonymousRequestsPerMinute,
+        int reserve,
+        Duration maxWait
+) {
+}
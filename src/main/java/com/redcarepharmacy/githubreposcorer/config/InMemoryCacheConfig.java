@@ -1,17 +1,49 @@
 package com.redcarepharmacy.githubreposcorer.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreCacheKey;
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreWeigher;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.List;
+
 @Configuration
 @ConditionalOnProperty(name = "app.redis.enabled", havingValue = "false", matchIfMissing = true)
 public class InMemoryCacheConfig {
 
+    /**
+     * Bounded, expiring in-process cache for scored repository pages.
+     * <p>
+     * Entries expire {@code app.redis.ttl-hours} after they are written, so both cache
+     * modes share one TTL. The expiry is variable so that pages restored from a snapshot
+     * ({@link com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreCacheSnapshot})
+     * are put back with the lifetime they had left instead of a fresh one. A single weight
+     * limit enforces both {@code app.cache.max-entries} and {@code app.cache.max-weight-bytes}
+     * (see {@link RepositoryScoreWeigher}).
+     * Hit, miss and eviction statistics are recorded and published through Actuator.
+     * Refreshing entries past their soft TTL is left to
+     * {@link com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreCache}.
+     */
     @Bean
-    public CacheManager simpleCacheManager() {
-        return new ConcurrentMapCacheManager("repositories_score");
+    public CacheManager simpleCacheManager(RepositoryCacheProperties cacheProperties,
+                                           RedisCacheProperties redisProperties) {
+        Duration ttl = Duration.ofHours(redisProperties.ttlHours());
+        long minimumWeight = cacheProperties.maxWeightBytes() / Math.max(1, cacheProperties.maxEntries());
+        Caffeine<Object, Object> caffeine = Caffeine.newBuilder()
+                .maximumWeight(cacheProperties.maxWeightBytes())
+                .weigher(new RepositoryScoreWeigher((int) Math.min(Integer.MAX_VALUE, minimumWeight)))
+                .expireAfter(Expiry.writing((key, value) -> ttl))
+                .recordStats();
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(caffeine);
+        cacheManager.setCacheNames(List.of(RepositoryScoreCacheKey.CACHE_NAME));
+        return cacheManager;
     }
-}
\ No newline at end of file
+}
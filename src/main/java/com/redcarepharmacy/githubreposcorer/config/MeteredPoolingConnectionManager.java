@@ -0,0 +1,66 @@
+package com.redcarepharmacy.githubreposcorer.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.util.Timeout;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Pooling connection manager that records how long requests wait for a pooled connection.
+ * <p>
+ * The wait is published as the {@code http.client.pool.wait} timer, tagged with the pool
+ * name and whether a connection was obtained. A growing wait means the pool is too small
+ * for the request rate, long before requests start failing with a connection request timeout.
+ */
+public class MeteredPoolingConnectionManager extends PoolingHttpClientConnectionManager {
+
+    static final String WAIT_TIMER = "http.client.pool.wait";
+
+    private final Timer acquired;
+    private final Timer timedOut;
+
+    public MeteredPoolingConnectionManager(String poolName, MeterRegistry meterRegistry) {
+        this.acquired = waitTimer(poolName, "acquired", meterRegistry);
+        this.timedOut = waitTimer(poolName, "timeout", meterRegistry);
+    }
+
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        LeaseRequest leaseRequest = super.lease(id, route, requestTimeout, state);
+        return new LeaseRequest() {
+            @Override
+            public ConnectionEndpoint get(Timeout timeout)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                long start = System.nanoTime();
+                try {
+                    ConnectionEndpoint endpoint = leaseRequest.get(timeout);
+                    acquired.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    return endpoint;
+                } catch (TimeoutException e) {
+                    timedOut.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    throw e;
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return leaseRequest.cancel();
+            }
+        };
+    }
+
+    private static Timer waitTimer(String poolName, String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder(WAIT_TIMER)
+                .description("Time spent waiting for a pooled HTTP connection")
+                .tag("pool", poolName)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,22 @@
+package com.redcarepharmacy.githubreposcorer.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redcarepharmacy.githubreposcorer.metrics.RepositoryPipelineMetrics;
+import com.redcarepharmacy.githubreposcorer.metrics.TimedMappingJackson2HttpMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Replaces Boot's JSON converter, keeping its {@link ObjectMapper}, so that writing
+     * response bodies is timed as {@code repositories.response.serialization}.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(
+            ObjectMapper objectMapper, RepositoryPipelineMetrics metrics) {
+        return new TimedMappingJackson2HttpMessageConverter(objectMapper, metrics);
+    }
+}
@@ -0,0 +1,21 @@
+package com.redcarepharmacy.githubreposcorer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Connection and expiry settings of the {@code repositories_score} cache.
+ *
+ * @param enabled  whether the cache is backed by Redis instead of the in-process cache
+ * @param host     Redis host
+ * @param port     Redis port
+ * @param ttlHours time-to-live of cached pages, applied in both cache modes
+ */
+@ConfigurationProperties(prefix = "app.redis")
+public record RedisCacheProperties(
+
+        boolean enabled,
+        String host,
+        int port,
+        long ttlHours
+) {
+}
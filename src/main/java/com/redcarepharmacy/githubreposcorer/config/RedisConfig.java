@@ -1,19 +1,41 @@
 package com.redcarepharmacy.githubreposcorer.config;
 
+import com.redcarepharmacy.githubreposcorer.cache.DistributedLease;
+import com.redcarepharmacy.githubreposcorer.cache.NearCache;
+import com.redcarepharmacy.githubreposcorer.cache.NearCacheManager;
+import com.redcarepharmacy.githubreposcorer.cache.RedisDistributedLease;
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreCacheKey;
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreRedisSerializer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.Set;
 
 @Configuration
 @ConditionalOnProperty(name = "app.redis.enabled", havingValue = "true")
 public class RedisConfig {
 
     @Bean
-    public RedisConnectionFactory redisConnectionFactory() {
-        return new LettuceConnectionFactory();
+    public RedisConnectionFactory redisConnectionFactory(RedisCacheProperties redisProperties) {
+        return new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redisProperties.host(), redisProperties.port()));
     }
 
     @Bean
@@ -22,4 +44,75 @@ public class RedisConfig {
         template.setConnectionFactory(factory);
         return template;
     }
-}
\ No newline at end of file
+
+    /**
+     * Redis-backed cache for scored repository pages.
+     * <p>
+     * Keys are stored as plain strings ({@code repositories_score::language:createdAfter:page})
+     * and values with {@link RepositoryScoreRedisSerializer}. Entries expire after
+     * {@code app.redis.ttl-hours}. Unless {@code app.cache.near.enabled=false}, hot pages are
+     * additionally held in a local L1 (see {@link NearCacheManager}), so cache hits do not
+     * pay a Redis round trip.
+     */
+    @Bean
+    public CacheManager redisCacheManager(RedisConnectionFactory factory,
+                                          RedisCacheProperties redisProperties,
+                                          RepositoryCacheProperties cacheProperties) {
+        Duration ttl = Duration.ofHours(redisProperties.ttlHours());
+        RedisCacheConfiguration cacheConfiguration = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(ttl)
+                .disableCachingNullValues()
+                .serializeKeysWith(SerializationPair.fromSerializer(RedisSerializer.string()))
+                .serializeValuesWith(SerializationPair.fromSerializer(new RepositoryScoreRedisSerializer()));
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(factory)
+                .cacheDefaults(cacheConfiguration)
+                .initialCacheNames(Set.of(RepositoryScoreCacheKey.CACHE_NAME))
+                .enableStatistics()
+                .build();
+
+        RepositoryCacheProperties.Near near = cacheProperties.near();
+        if (near == null || !near.enabled()) {
+            return redisCacheManager;
+        }
+        redisCacheManager.afterPropertiesSet();
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(factory);
+        redisTemplate.afterPropertiesSet();
+        Duration localTtl = near.ttl() != null && near.ttl().compareTo(ttl) < 0 ? near.ttl() : ttl;
+        return new NearCacheManager(redisCacheManager, redisTemplate, near.maxEntries(), localTtl);
+    }
+
+    /**
+     * Subscribes the near cache to invalidations published by other nodes and,
+     * if configured, to Redis key expiry events.
+     */
+    @Bean
+    public RedisMessageListenerContainer nearCacheInvalidationListener(RedisConnectionFactory factory,
+                                                                       CacheManager cacheManager,
+                                                                       RepositoryCacheProperties cacheProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        if (cacheManager instanceof NearCacheManager nearCacheManager) {
+            container.addMessageListener(nearCacheManager,
+                    new ChannelTopic(NearCacheManager.INVALIDATION_CHANNEL));
+            if (cacheProperties.near().keyspaceNotifications()) {
+                container.addMessageListener(nearCacheManager,
+                        new PatternTopic(NearCacheManager.EXPIRED_KEY_EVENTS));
+            }
+        }
+        return container;
+    }
+
+    @Bean
+    public CacheMeterBinderProvider<NearCache> nearCacheMeterBinderProvider() {
+        return (cache, tags) -> new CaffeineCacheMetrics<>(cache.getLocalCache(), cache.getName(), tags);
+    }
+
+    /**
+     * Cluster-wide lease used to coalesce cache misses across nodes when
+     * {@code app.cache.lease.enabled=true}.
+     */
+    @Bean
+    public DistributedLease redisDistributedLease(StringRedisTemplate stringRedisTemplate) {
+        return new RedisDistributedLease(stringRedisTemplate);
+    }
+}
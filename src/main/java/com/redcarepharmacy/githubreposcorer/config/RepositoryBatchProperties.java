@@ -0,0 +1,20 @@
+package com.redcarepharmacy.githubreposcorer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Batch scoring endpoint ({@code POST /api/v1/repositories/score/batch}).
+ *
+ * @param maxConcurrency number of pages of a batch fetched from GitHub at the same time
+ * @param timeout        deadline shared by all queries of a batch; queries that are not
+ *                       served by then fail on their own
+ */
+@ConfigurationProperties(prefix = "app.batch")
+public record RepositoryBatchProperties(
+
+        int maxConcurrency,
+        Duration timeout
+) {
+}
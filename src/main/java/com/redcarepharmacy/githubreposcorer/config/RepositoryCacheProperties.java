@@ -0,0 +1,111 @@
+package com.redcarepharmacy.githubreposcorer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Sizing, refresh and coordination settings of the {@code repositories_score} cache.
+ *
+ * @param maxEntries        upper bound on the number of cached result pages
+ * @param maxWeightBytes    upper bound on the approximate heap footprint of all cached pages
+ * @param softTtl           age after which a cached page is still served but refreshed in the background;
+ *                          the hard TTL, after which it is gone, is {@code app.redis.ttl-hours}
+ * @param refresh           executor running those background refreshes
+ * @param near              local L1 cache kept in front of Redis when Redis mode is enabled
+ * @param lease             cross-node coalescing of cache misses when Redis mode is enabled
+ * @param prewarm           refreshing the most requested pages ahead of time
+ * @param snapshotFile      file the in-memory cache is saved to on shutdown and loaded from on startup,
+ *                          so a restart does not spend the rate limit on pages it had; unset to not persist it
+ * @param packedPages       whether cached pages hold their repositories in primitive arrays instead of one
+ *                          record per repository, to reduce the heap footprint and GC work of the cache
+ * @param subsumption       answering queries with a later {@code createdAfter} from complete cached result sets
+ */
+@ConfigurationProperties(prefix = "app.cache")
+public record RepositoryCacheProperties(
+
+        long maxEntries,
+        long maxWeightBytes,
+        Duration softTtl,
+        Refresh refresh,
+        Near near,
+        Lease lease,
+        Prewarm prewarm,
+        Path snapshotFile,
+        boolean packedPages,
+        Subsumption subsumption
+) {
+
+    /**
+     * @param threads       number of threads refreshing stale pages
+     * @param queueCapacity number of pending refreshes; further refreshes are skipped until there is room
+     */
+    public record Refresh(
+            int threads,
+            int queueCapacity
+    ) {
+    }
+
+    /**
+     * @param enabled                whether Redis mode keeps a local L1 in front of Redis
+     * @param maxEntries             upper bound on the number of pages held locally
+     * @param ttl                    time-to-live of local entries, capped at {@code app.redis.ttl-hours}
+     * @param keyspaceNotifications  whether to also drop local entries on Redis key expiry events;
+     *                               requires {@code notify-keyspace-events Ex} on the Redis server
+     */
+    public record Near(
+            boolean enabled,
+            long maxEntries,
+            Duration ttl,
+            boolean keyspaceNotifications
+    ) {
+    }
+
+    /**
+     * @param enabled      whether a cache miss takes a Redis lease so only one node fetches the page
+     * @param ttl          how long a lease is held at most, and how long other nodes wait for it
+     * @param pollInterval how often waiting nodes check the cache for the leaseholder's result
+     */
+    public record Lease(
+            boolean enabled,
+            Duration ttl,
+            Duration pollInterval
+    ) {
+    }
+
+    /**
+     * @param enabled      whether the most requested pages are loaded and refreshed ahead of time
+     * @param topKeys      number of most requested keys kept warm
+     * @param interval     how often those keys are checked; a page is refreshed when it would
+     *                     pass the soft TTL before the next check
+     * @param budgetShare  share of the GitHub rate limit budget ({@code github.rate-limit.*})
+     *                     that prewarming may spend, between 0 and 1
+     * @param keys         {@code language:createdAfter:page} keys warmed on startup
+     * @param snapshotFile file the key popularity is saved to on shutdown and restored from on
+     *                     startup, so a restarted node warms what was popular before; unset to
+     *                     not persist it
+     */
+    public record Prewarm(
+            boolean enabled,
+            int topKeys,
+            Duration interval,
+            double budgetShare,
+            List<String> keys,
+            Path snapshotFile
+    ) {
+    }
+
+    /**
+     * @param enabled       whether a query whose {@code createdAfter} is later than that of a
+     *                      complete cached result set for its language is answered from that set
+     * @param maxResultSets number of languages a complete result set is kept for, and of result
+     *                      sets being assembled from their pages at the same time
+     */
+    public record Subsumption(
+            boolean enabled,
+            int maxResultSets
+    ) {
+    }
+}
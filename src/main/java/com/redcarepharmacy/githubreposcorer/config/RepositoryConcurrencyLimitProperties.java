@@ -0,0 +1,31 @@
+package com.redcarepharmacy.githubreposcorer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Adaptive limit on the pages fetched from GitHub at the same time for callers waiting on a
+ * cache miss.
+ *
+ * @param enabled          whether misses over the limit are shed; without it, the limit is
+ *                         still adapted and published, but every miss is admitted
+ * @param initialLimit     limit on startup
+ * @param minLimit         lower bound the limit never drops below
+ * @param maxLimit         upper bound the limit never grows beyond
+ * @param latencyThreshold fetches taking longer than this count as a sign of congestion
+ * @param backoffRatio     factor the limit is multiplied with on congestion, between 0 and 1
+ * @param retryAfter       {@code Retry-After} of shed requests
+ */
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+public record RepositoryConcurrencyLimitProperties(
+
+        boolean enabled,
+        int initialLimit,
+        int minLimit,
+        int maxLimit,
+        Duration latencyThreshold,
+        double backoffRatio,
+        Duration retryAfter
+) {
+}
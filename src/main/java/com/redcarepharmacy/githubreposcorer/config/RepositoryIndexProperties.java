@@ -0,0 +1,48 @@
+package com.redcarepharmacy.githubreposcorer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Local index of repository metadata that serves queries without calling GitHub.
+ *
+ * @param enabled      whether queries the index covers are served from it
+ * @param snapshotFile file the index is loaded from on startup and saved to after each sync;
+ *                     with sync disabled, the index serves this snapshot as is
+ * @param languages    languages the sync job indexes
+ * @param since        earliest creation date the sync job indexes; queries with an earlier
+ *                     {@code createdAfter} are still sent to GitHub
+ * @param sync         job keeping the index up to date
+ */
+@ConfigurationProperties(prefix = "app.index")
+public record RepositoryIndexProperties(
+
+        boolean enabled,
+        Path snapshotFile,
+        List<String> languages,
+        LocalDate since,
+        Sync sync
+) {
+
+    /**
+     * @param enabled          whether the index is synced with GitHub
+     * @param interval         time between two sync runs
+     * @param windowDays       days of creation dates searched per query while walking; windows
+     *                         with more than GitHub's 1000 results are split further
+     * @param fullSyncInterval how often all creation dates are walked again; in between, only
+     *                         repositories pushed to since the last run are searched for
+     * @param searchUrl        GitHub search URL with placeholders for the query and the page
+     */
+    public record Sync(
+            boolean enabled,
+            Duration interval,
+            int windowDays,
+            Duration fullSyncInterval,
+            String searchUrl
+    ) {
+    }
+}
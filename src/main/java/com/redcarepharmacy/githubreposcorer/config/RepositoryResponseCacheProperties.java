@@ -0,0 +1,24 @@
+package com.redcarepharmacy.githubreposcorer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Serialized response bodies of {@code GET /api/v1/repositories/score}.
+ *
+ * @param enabled        whether serialized pages are kept at all; without it, responses still
+ *                       carry an {@code ETag} and answer {@code If-None-Match}, but every request
+ *                       is served and serialized again
+ * @param maxWeightBytes upper bound for the plain and gzip bytes kept, across all pages
+ * @param ttl            how long a serialized page is served, and allowed to be cached by
+ *                       clients, before it is served and scored again
+ */
+@ConfigurationProperties(prefix = "app.response-cache")
+public record RepositoryResponseCacheProperties(
+
+        boolean enabled,
+        long maxWeightBytes,
+        Duration ttl
+) {
+}
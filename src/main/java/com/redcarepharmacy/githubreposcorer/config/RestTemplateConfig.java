@@ -1,16 +1,105 @@
 package com.redcarepharmacy.githubreposcorer.config;
 
+import com.redcarepharmacy.githubreposcorer.metrics.GithubClientRequestObservationConvention;
+import com.redcarepharmacy.githubreposcorer.metrics.GithubResponseMetricsInterceptor;
+import com.redcarepharmacy.githubreposcorer.metrics.RepositoryPipelineMetrics;
+import com.redcarepharmacy.githubreposcorer.ratelimit.GithubRateLimitInterceptor;
+import com.redcarepharmacy.githubreposcorer.ratelimit.GithubRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 @Configuration
 public class RestTemplateConfig {
 
+    private static final String POOL_NAME = "github";
+
+    /**
+     * Connection pool shared by all GitHub API calls.
+     * <p>
+     * Connections are kept alive and reused across cache misses, so only the first call
+     * to a host pays the TCP and TLS handshake. Pool size, per-host limit and timeouts come
+     * from {@code github.client.*}.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public PoolingHttpClientConnectionManager githubConnectionManager(GithubClientProperties properties,
+                                                                      MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager =
+                new MeteredPoolingConnectionManager(POOL_NAME, meterRegistry);
+        connectionManager.setMaxTotal(properties.maxConnections());
+        connectionManager.setDefaultMaxPerRoute(properties.maxConnectionsPerRoute());
+        ConnectionConfig.Builder connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(timeout(properties.connectTimeout()))
+                .setSocketTimeout(timeout(properties.readTimeout()))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2));
+        if (properties.timeToLive() != null) {
+            connectionConfig.setTimeToLive(TimeValue.ofMilliseconds(properties.timeToLive().toMillis()));
+        }
+        connectionManager.setDefaultConnectionConfig(connectionConfig.build());
+        return connectionManager;
     }
-}
 
+    /**
+     * Publishes leased, available, pending and maximum connection counts of the GitHub pool.
+     */
+    @Bean
+    public MeterBinder githubConnectionPoolMetrics(PoolingHttpClientConnectionManager githubConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(githubConnectionManager, POOL_NAME);
+    }
 
+    @Bean
+    public CloseableHttpClient githubHttpClient(PoolingHttpClientConnectionManager githubConnectionManager,
+                                                GithubClientProperties properties) {
+        HttpClientBuilder builder = HttpClients.custom()
+                .setConnectionManager(githubConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(timeout(properties.connectionRequestTimeout()))
+                        .setResponseTimeout(timeout(properties.readTimeout()))
+                        .build())
+                .evictExpiredConnections();
+        if (properties.idleTimeout() != null) {
+            builder.evictIdleConnections(TimeValue.ofMilliseconds(properties.idleTimeout().toMillis()));
+        }
+        if (!properties.compression()) {
+            builder.disableContentCompression();
+        }
+        return builder.build();
+    }
+
+    /**
+     * GitHub calls are paced by {@link GithubRateLimiter} and timed as
+     * {@code http.client.requests}, tagged with the request path rather than the full search
+     * URL; response sizes and the remaining rate limit are recorded by
+     * {@link GithubResponseMetricsInterceptor}.
+     */
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder, CloseableHttpClient githubHttpClient,
+                                     RepositoryPipelineMetrics metrics, GithubRateLimiter rateLimiter) {
+        RestTemplate restTemplate = restTemplateBuilder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(githubHttpClient))
+                .additionalInterceptors(new GithubRateLimitInterceptor(rateLimiter),
+                        new GithubResponseMetricsInterceptor(metrics))
+                .build();
+        restTemplate.setObservationConvention(new GithubClientRequestObservationConvention());
+        return restTemplate;
+    }
+
+    private static Timeout timeout(Duration duration) {
+        return duration == null ? null : Timeout.ofMilliseconds(duration.toMillis());
+    }
+}
@@ -0,0 +1,78 @@
+package com.redcarepharmacy.githubreposcorer.config;
+
+import com.redcarepharmacy.githubreposcorer.metrics.GithubResponseMetricsFilter;
+import com.redcarepharmacy.githubreposcorer.metrics.GithubWebClientRequestObservationConvention;
+import com.redcarepharmacy.githubreposcorer.metrics.RepositoryPipelineMetrics;
+import com.redcarepharmacy.githubreposcorer.ratelimit.GithubRateLimitFilter;
+import com.redcarepharmacy.githubreposcorer.ratelimit.GithubRateLimiter;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class WebClientConfig {
+
+    private static final String POOL_NAME = "github";
+
+    /**
+     * Connection pool of the non-blocking GitHub client, sized and timed out like the
+     * blocking one ({@code github.client.*}). Pool gauges are published under
+     * {@code reactor.netty.connection.provider.*} with {@code name=github}.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider githubConnectionProvider(GithubClientProperties properties) {
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(properties.maxConnectionsPerRoute())
+                .pendingAcquireMaxCount(-1)
+                .metrics(true);
+        if (properties.connectionRequestTimeout() != null) {
+            builder.pendingAcquireTimeout(properties.connectionRequestTimeout());
+        }
+        if (properties.idleTimeout() != null) {
+            builder.maxIdleTime(properties.idleTimeout()).evictInBackground(properties.idleTimeout());
+        }
+        if (properties.timeToLive() != null) {
+            builder.maxLifeTime(properties.timeToLive());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Non-blocking GitHub client used by the reactive endpoint. Responses are
+     * decoded on the Reactor Netty event loop; no thread waits for GitHub. Rate limited
+     * and instrumented like the blocking client.
+     */
+    @Bean
+    public WebClient githubWebClient(WebClient.Builder webClientBuilder,
+                                     ConnectionProvider githubConnectionProvider,
+                                     GithubClientProperties properties,
+                                     RepositoryPipelineMetrics metrics,
+                                     GithubRateLimiter rateLimiter) {
+        HttpClient httpClient = HttpClient.create(githubConnectionProvider)
+                .compress(properties.compression());
+        if (properties.connectTimeout() != null) {
+            httpClient = httpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
+                    (int) properties.connectTimeout().toMillis());
+        }
+        if (properties.readTimeout() != null) {
+            Duration readTimeout = properties.readTimeout();
+            httpClient = httpClient.responseTimeout(readTimeout)
+                    .doOnConnected(connection -> connection.addHandlerLast(
+                            new ReadTimeoutHandler(readTimeout.toMillis(), TimeUnit.MILLISECONDS)));
+        }
+        return webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(new GithubRateLimitFilter(rateLimiter))
+                .filter(new GithubResponseMetricsFilter(metrics))
+                .observationConvention(new GithubWebClientRequestObservationConvention())
+                .build();
+    }
+}
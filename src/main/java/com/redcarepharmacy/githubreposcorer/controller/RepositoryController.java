@@ -1,17 +1,39 @@
 package com.redcarepharmacy.githubreposcorer.controller;
 
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreCacheKey;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreBatchResponseDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreQueryDto;
 import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import com.redcarepharmacy.githubreposcorer.dto.TopRepositoriesResponseDto;
+import com.redcarepharmacy.githubreposcorer.service.ReactiveRepositoryService;
+import com.redcarepharmacy.githubreposcorer.service.RepositoryScoreBatchService;
 import com.redcarepharmacy.githubreposcorer.service.RepositoryService;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/repositories")
@@ -21,21 +43,71 @@ public class RepositoryController {
     @Autowired
     private RepositoryService gitHubRepositoryService;
 
+    @Autowired
+    private ReactiveRepositoryService reactiveGitHubRepositoryService;
+
+    @Autowired
+    private RepositoryScoreBatchService repositoryScoreBatchService;
+
+    @Autowired
+    private RepositoryScoreResponseCache repositoryScoreResponseCache;
+
     private static final Logger logger = LoggerFactory.getLogger(RepositoryController.class);
     /**
      * Fetch GitHub repositories by programming language and earliest creation date,
      * then return them with calculated scores.
      * <p>
+     * The serialized page is kept for {@code app.response-cache.ttl} and written as is to
+     * further requests for it, gzip-compressed if the client accepts it. Responses carry a
+     * strong {@code ETag} and a {@code Cache-Control} lifetime; a request whose
+     * {@code If-None-Match} holds the current {@code ETag} is answered with
+     * {@code 304 Not Modified}, without serving the page again while it is kept.
+     * <p>
      * Example request:
      * GET /api/v1/repositories/score?language=java&createdAfter=2023-01-01&page=1
      *
      * @param language     Programming language to filter repositories
      * @param createdAfter Earliest creation date of repositories
      * @param page         Page number for pagination (default = 1)
-     * @return List of repositories with their calculated scores
+     * @return List of repositories with their calculated scores; the {@code Age} header
+     *         and {@code fetchedAt} field tell how old the underlying GitHub data is
      */
-    @GetMapping("/score")
-    public RepositoryScoreResponseDto getRepositoriesScore(
+    @GetMapping(value = "/score", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = RepositoryScoreResponseDto.class)))
+    public ResponseEntity<byte[]> getRepositoriesScore(
+            @RequestParam
+            @NotBlank(message = "Language must not be empty") String language,
+            @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdAfter,
+            @RequestParam(defaultValue = "1")
+            @Min(value = 1, message = "Page number must be at least 1") int page,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        RepositoryScoreCacheKey key = new RepositoryScoreCacheKey(language, createdAfter, page);
+        RepositoryScoreResponseCache.SerializedResponse serialized = repositoryScoreResponseCache.get(key);
+        if (serialized == null) {
+            logger.info("Fetching repository scores for language={} createdAfter={} page={}"
+                    , language, createdAfter, page);
+            RepositoryScoreResponseDto response =
+                    gitHubRepositoryService.fetchAndScoreRepositories(language, createdAfter, page);
+            serialized = repositoryScoreResponseCache.put(key, response);
+        }
+        return serialized(serialized, acceptsGzip(acceptEncoding));
+    }
+
+    /**
+     * Non-blocking variant of {@link #getRepositoriesScore}, with the same parameters,
+     * validation, response and error mapping.
+     * <p>
+     * The request thread is released while GitHub is being called; the response is
+     * completed from the event loop of the non-blocking GitHub client.
+     * <p>
+     * Example request:
+     * GET /api/v1/repositories/score/reactive?language=java&createdAfter=2023-01-01&page=1
+     */
+    @GetMapping("/score/reactive")
+    public Mono<ResponseEntity<RepositoryScoreResponseDto>> getRepositoriesScoreReactive(
             @RequestParam
             @NotBlank(message = "Language must not be empty") String language,
             @RequestParam
@@ -43,8 +115,170 @@ public class RepositoryController {
             @RequestParam(defaultValue = "1")
             @Min(value = 1, message = "Page number must be at least 1") int page) {
 
-        logger.info("Fetching repository scores for language={} createdAfter={} page={}"
+        logger.info("Fetching repository scores reactively for language={} createdAfter={} page={}"
                 , language, createdAfter, page);
-        return gitHubRepositoryService.fetchAndScoreRepositories(language, createdAfter, page);
+        return reactiveGitHubRepositoryService.fetchAndScoreRepositories(language, createdAfter, page)
+                .map(RepositoryController::withAge);
+    }
+
+    /**
+     * Score up to 50 queries of {@link #getRepositoriesScore} in one request. Identical
+     * queries are served once, cached pages right away and the others fetched concurrently
+     * under a shared deadline ({@code app.batch.*}).
+     * <p>
+     * Example request:
+     * POST /api/v1/repositories/score/batch
+     * [{"language": "java", "createdAfter": "2023-01-01", "page": 1},
+     *  {"language": "go", "createdAfter": "2023-01-01"}]
+     *
+     * @param queries Queries with the parameters of {@link #getRepositoriesScore}; {@code page}
+     *                defaults to 1
+     * @return One result per query, in request order. A query that fails does not fail the
+     *         batch: its result carries the status and error it would have been answered
+     *         with on its own
+     */
+    @PostMapping("/score/batch")
+    public RepositoryScoreBatchResponseDto getRepositoriesScoreBatch(
+            @RequestBody
+            @NotEmpty(message = "Batch must contain at least one query")
+            @Size(max = 50, message = "Batch must contain at most 50 queries") List<RepositoryScoreQueryDto> queries) {
+
+        logger.info("Scoring a batch of {} queries", queries.size());
+        return repositoryScoreBatchService.score(queries);
+    }
+
+    /**
+     * Fetch up to {@code maxPages} result pages concurrently and return the {@code k}
+     * repositories with the highest popularity score across all of them, highest first.
+     * <p>
+     * Example request:
+     * GET /api/v1/repositories/score/top?language=java&createdAfter=2023-01-01&maxPages=10&k=20
+     *
+     * @param language     Programming language to filter repositories
+     * @param createdAfter Earliest creation date of repositories
+     * @param maxPages     Number of result pages to rank (default = 10); GitHub serves at most 34
+     * @param k            Number of repositories to return (default = 10)
+     * @return The top repositories; the {@code Age} header tells how old the oldest ranked page is
+     */
+    @GetMapping("/score/top")
+    public ResponseEntity<TopRepositoriesResponseDto> getTopRepositories(
+            @RequestParam
+            @NotBlank(message = "Language must not be empty") String language,
+            @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdAfter,
+            @RequestParam(defaultValue = "10")
+            @Min(value = 1, message = "maxPages must be at least 1")
+            @Max(value = 34, message = "maxPages must be at most 34") int maxPages,
+            @RequestParam(defaultValue = "10")
+            @Min(value = 1, message = "k must be at least 1")
+            @Max(value = 1000, message = "k must be at most 1000") int k) {
+
+        logger.info("Fetching top {} repositories for language={} createdAfter={} maxPages={}"
+                , k, language, createdAfter, maxPages);
+        TopRepositoriesResponseDto response =
+                gitHubRepositoryService.fetchTopRepositories(language, createdAfter, maxPages, k);
+        return withAge(response.fetchedAt(), response);
+    }
+
+    /**
+     * Stream the scored repositories of up to {@code maxPages} result pages, one JSON
+     * object per repository, as newline-delimited JSON ({@code Accept: application/x-ndjson})
+     * or Server-Sent Events ({@code Accept: text/event-stream}).
+     * <p>
+     * Repositories are written as soon as their page is available, and further pages are
+     * only fetched as fast as the client reads, so time-to-first-byte does not grow with
+     * {@code maxPages} and server memory stays flat.
+     * <p>
+     * Example request:
+     * GET /api/v1/repositories/score/stream?language=java&createdAfter=2023-01-01&maxPages=10
+     *
+     * @param language     Programming language to filter repositories
+     * @param createdAfter Earliest creation date of repositories
+     * @param maxPages     Number of result pages to stream (default = 10); GitHub serves at most 34
+     * @return Scored repositories in GitHub's order
+     */
+    @GetMapping(value = "/score/stream",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<RepositoryScoreDto> streamRepositoriesScore(
+            @RequestParam
+            @NotBlank(message = "Language must not be empty") String language,
+            @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdAfter,
+            @RequestParam(defaultValue = "10")
+            @Min(value = 1, message = "maxPages must be at least 1")
+            @Max(value = 34, message = "maxPages must be at most 34") int maxPages) {
+
+        logger.info("Streaming repository scores for language={} createdAfter={} maxPages={}"
+                , language, createdAfter, maxPages);
+        return reactiveGitHubRepositoryService.streamRepositories(language, createdAfter, maxPages);
+    }
+
+    /**
+     * Writes a serialized page. {@code If-None-Match} is checked against its {@code ETag} by
+     * Spring, which then answers {@code 304 Not Modified} without the body.
+     * <p>
+     * {@code Age} tells how old the GitHub data is, and caches count it against
+     * {@code max-age}, so {@code max-age} is that age plus the time the serialized page is
+     * still served: the response stays fresh in caches exactly as long as it is kept here.
+     */
+    private static ResponseEntity<byte[]> serialized(RepositoryScoreResponseCache.SerializedResponse serialized,
+                                                     boolean gzip) {
+        Instant now = Instant.now();
+        long remainingSeconds = Math.max(0, Duration.between(now, serialized.expiresAt()).toSeconds());
+        long ageSeconds = serialized.fetchedAt() != null
+                ? Math.max(0, Duration.between(serialized.fetchedAt(), now).toSeconds()) : 0;
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(remainingSeconds > 0
+                        ? CacheControl.maxAge(Duration.ofSeconds(ageSeconds + remainingSeconds))
+                        : CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .eTag(gzip ? serialized.gzipEtag() : serialized.etag());
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        if (serialized.fetchedAt() != null) {
+            builder.header(HttpHeaders.AGE, Long.toString(ageSeconds));
+        }
+        return builder.body(gzip ? serialized.gzip() : serialized.json());
+    }
+
+    /**
+     * Whether an {@code Accept-Encoding} header lists {@code gzip} (or {@code *}) without
+     * {@code q=0}.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean rejected = false;
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].replace(" ", "");
+                rejected |= parameter.matches("(?i)q=0(\\.0{0,3})?");
+            }
+            if (!rejected) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ResponseEntity<RepositoryScoreResponseDto> withAge(RepositoryScoreResponseDto response) {
+        return withAge(response.fetchedAt(), response);
+    }
+
+    private static <T> ResponseEntity<T> withAge(Instant fetchedAt, T body) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (fetchedAt != null) {
+            long ageSeconds = Math.max(0, Duration.between(fetchedAt, Instant.now()).toSeconds());
+            builder.header(HttpHeaders.AGE, Long.toString(ageSeconds));
+        }
+        return builder.body(body);
     }
 }
\ No newline at end of file
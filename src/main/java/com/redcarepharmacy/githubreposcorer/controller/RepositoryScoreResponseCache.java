@@ -0,0 +1,138 @@
+package com.redcarepharmacy.githubreposcorer.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreCacheKey;
+import com.redcarepharmacy.githubreposcorer.config.RepositoryResponseCacheProperties;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import com.redcarepharmacy.githubreposcorer.metrics.RepositoryPipelineMetrics;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized bodies of {@code GET /api/v1/repositories/score}, as plain and gzip JSON bytes
+ * with a strong {@code ETag} each, so that repeated requests for a page are answered without
+ * the service layer or Jackson ({@code app.response-cache}).
+ *
+ * <p>Since scores are computed on read, a serialized page is only served for {@code ttl}, after
+ * which it is served by the service and serialized again. Its {@code ETag} is a digest of the
+ * bytes, so a page that did not change in the meantime keeps its {@code ETag} and clients
+ * holding it still get {@code 304 Not Modified}.</p>
+ */
+@Component
+public class RepositoryScoreResponseCache {
+
+    /**
+     * The response type tag of {@code repositories.response.serialization}, as the JSON
+     * converter would record it.
+     */
+    private static final String SERIALIZATION_TYPE = RepositoryScoreResponseDto.class.getSimpleName();
+
+    private final ObjectMapper objectMapper;
+    private final RepositoryPipelineMetrics metrics;
+    private final Duration ttl;
+    private final Cache<RepositoryScoreCacheKey, SerializedResponse> responses;
+
+    /**
+     * A serialized page.
+     *
+     * @param json       the JSON body
+     * @param gzip       the JSON body, gzip-compressed
+     * @param etag       strong entity tag of {@code json}, quoted
+     * @param gzipEtag   strong entity tag of {@code gzip}, quoted; the gzip bytes only depend on
+     *                   the JSON, so it is the JSON digest with a {@code -gzip} suffix
+     * @param fetchedAt  when the page was fetched from GitHub, or {@code null} if unknown
+     * @param expiresAt  when the serialized page is no longer served
+     */
+    public record SerializedResponse(byte[] json, byte[] gzip, String etag, String gzipEtag,
+                                     @Nullable Instant fetchedAt, Instant expiresAt) {
+    }
+
+    public RepositoryScoreResponseCache(ObjectMapper objectMapper, RepositoryPipelineMetrics metrics,
+                                        RepositoryResponseCacheProperties properties) {
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.ttl = properties.enabled() && properties.ttl() != null ? properties.ttl() : Duration.ZERO;
+        this.responses = ttl.isPositive()
+                ? Caffeine.newBuilder()
+                .maximumWeight(properties.maxWeightBytes())
+                .<RepositoryScoreCacheKey, SerializedResponse>weigher(
+                        (key, response) -> response.json().length + response.gzip().length)
+                .expireAfterWrite(ttl)
+                .build()
+                : null;
+    }
+
+    /**
+     * The serialized page for {@code key}, or {@code null} if it has to be served again.
+     */
+    @Nullable
+    public SerializedResponse get(RepositoryScoreCacheKey key) {
+        SerializedResponse response = responses != null ? responses.getIfPresent(key) : null;
+        metrics.recordResponseCache(key.language(), response != null);
+        return response;
+    }
+
+    /**
+     * Serializes {@code response}, keeping the bytes for {@code key} when enabled.
+     */
+    public SerializedResponse put(RepositoryScoreCacheKey key, RepositoryScoreResponseDto response) {
+        long start = System.nanoTime();
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotWritableException("Could not write JSON: " + e.getOriginalMessage(), e);
+        } finally {
+            metrics.recordSerialization(SERIALIZATION_TYPE, System.nanoTime() - start);
+        }
+        String digest = digest(json);
+        SerializedResponse serialized = new SerializedResponse(json, gzip(json), "\"" + digest + "\"",
+                "\"" + digest + "-gzip\"", response.fetchedAt(), Instant.now().plus(ttl));
+        if (responses != null) {
+            responses.put(key, serialized);
+        }
+        return serialized;
+    }
+
+    /**
+     * Drops all serialized pages.
+     */
+    public void clear() {
+        if (responses != null) {
+            responses.invalidateAll();
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String digest(byte[] json) {
+        try {
+            return HexFormat.of().formatHex(Arrays.copyOf(MessageDigest.getInstance("SHA-256").digest(json), 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
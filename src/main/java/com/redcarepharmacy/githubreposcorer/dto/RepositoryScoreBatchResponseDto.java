@@ -0,0 +1,17 @@
+package com.redcarepharmacy.githubreposcorer.dto;
+
+import java.util.List;
+
+/**
+ * Results of a batch of queries.
+ *
+ * @param succeeded number of queries that were served
+ * @param failed    number of queries that failed
+ * @param results   one result per query, in the order of the request
+ */
+public record RepositoryScoreBatchResponseDto(
+        int succeeded,
+        int failed,
+        List<RepositoryScoreBatchResultDto> results
+) {
+}
@@ -0,0 +1,40 @@
+package com.redcarepharmacy.githubreposcorer.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+
+/**
+ * Result of one query of a batch: the scored page, or why it could not be served.
+ *
+ * @param language          language of the query
+ * @param createdAfter      earliest creation date of the query
+ * @param page              page number of the query
+ * @param status            HTTP status the query would have been answered with on its own
+ * @param response          the scored page, if {@code status} is 200
+ * @param error             short description of the failure, otherwise
+ * @param message           details of the failure
+ * @param retryAfterSeconds seconds after which the query is worth retrying, as the
+ *                          {@code Retry-After} it would have been answered with on its own,
+ *                          if any
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RepositoryScoreBatchResultDto(
+        String language,
+        LocalDate createdAfter,
+        int page,
+        int status,
+        RepositoryScoreResponseDto response,
+        String error,
+        String message,
+        Long retryAfterSeconds
+) {
+
+    /**
+     * This result for a query that asked for {@code language}, which may differ in case.
+     */
+    public RepositoryScoreBatchResultDto withLanguage(String language) {
+        return new RepositoryScoreBatchResultDto(language, createdAfter, page, status, response, error, message,
+                retryAfterSeconds);
+    }
+}
@@ -27,4 +27,8 @@ public record RepositoryScoreDto(
                 score
         );
     }
+
+    public RepositoryScoreDto withPopularityScore(double score) {
+        return new RepositoryScoreDto(name, owner, language, stars, forks, createdAt, updatedAt, score);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.redcarepharmacy.githubreposcorer.dto;
+
+import java.time.LocalDate;
+
+/**
+ * One query of a batch, with the parameters of {@code GET /api/v1/repositories/score}.
+ *
+ * @param language     programming language to filter repositories
+ * @param createdAfter earliest creation date of repositories
+ * @param page         page number, {@code 1} if omitted
+ */
+public record RepositoryScoreQueryDto(
+        String language,
+        LocalDate createdAfter,
+        Integer page
+) {
+
+    /**
+     * The page number, defaulting to {@code 1} like the {@code page} request parameter.
+     */
+    public int pageOrDefault() {
+        return page != null ? page : 1;
+    }
+}
@@ -1,11 +1,42 @@
 package com.redcarepharmacy.githubreposcorer.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.List;
 
+/**
+ * A scored result page.
+ * <p>
+ * {@code etag} and {@code lastModified} are the validators GitHub sent with the page; they
+ * are kept with the cached page to revalidate it with a conditional request, and are not
+ * part of the API response.
+ */
 public record RepositoryScoreResponseDto(
         int totalCount,
         boolean incompleteResults,
-        List<RepositoryScoreDto> repositoryScoreList
+        List<RepositoryScoreDto> repositoryScoreList,
+        Instant fetchedAt,
+        @JsonIgnore String etag,
+        @JsonIgnore String lastModified
 ) implements Serializable {
-}
\ No newline at end of file
+
+    public RepositoryScoreResponseDto(int totalCount, boolean incompleteResults,
+                                      List<RepositoryScoreDto> repositoryScoreList, Instant fetchedAt) {
+        this(totalCount, incompleteResults, repositoryScoreList, fetchedAt, null, null);
+    }
+
+    public RepositoryScoreResponseDto(int totalCount, boolean incompleteResults,
+                                      List<RepositoryScoreDto> repositoryScoreList) {
+        this(totalCount, incompleteResults, repositoryScoreList, null);
+    }
+
+    /**
+     * Whether GitHub sent a validator with this page, so it can be revalidated.
+     */
+    @JsonIgnore
+    public boolean hasValidator() {
+        return etag != null || lastModified != null;
+    }
+}
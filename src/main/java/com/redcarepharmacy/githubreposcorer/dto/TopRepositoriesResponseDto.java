@@ -0,0 +1,22 @@
+package com.redcarepharmacy.githubreposcorer.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Highest scoring repositories across several result pages.
+ *
+ * @param totalCount          total number of repositories GitHub reports for the query
+ * @param pagesFetched        number of result pages that were scored
+ * @param incompleteResults   whether GitHub flagged any of those pages as incomplete
+ * @param repositoryScoreList the top repositories, highest {@code popularityScore} first
+ * @param fetchedAt           when the oldest of the scored pages was fetched from GitHub
+ */
+public record TopRepositoriesResponseDto(
+        int totalCount,
+        int pagesFetched,
+        boolean incompleteResults,
+        List<RepositoryScoreDto> repositoryScoreList,
+        Instant fetchedAt
+) {
+}
@@ -0,0 +1,69 @@
+package com.redcarepharmacy.githubreposcorer.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+
+/**
+ * The status, error and message a failed request is answered with.
+ * <p>
+ * {@link GlobalExceptionHandler} answers single requests with it, and the batch endpoint
+ * reports it per query, so that a query fails the same way in a batch as on its own.
+ *
+ * @param status     the HTTP status
+ * @param error      short description of the status
+ * @param message    what went wrong, for the client
+ * @param retryAfter time after which the request is worth retrying, or {@code null} if unknown
+ */
+public record ApiError(HttpStatus status, String error, String message, @Nullable Duration retryAfter) {
+
+    private static final String RATE_LIMIT_MESSAGE = "API rate limit exceeded. Please try again later.";
+
+    public ApiError(HttpStatus status, String error, String message) {
+        this(status, error, message, null);
+    }
+
+    /**
+     * Maps a failure to the error it is answered with; unknown failures are a {@code 500}.
+     */
+    public static ApiError of(Throwable e) {
+        if (e instanceof GitHubSearchLimitExceededException) {
+            return new ApiError(HttpStatus.UNPROCESSABLE_ENTITY, "GitHub API limit exceeded",
+                    String.valueOf(e.getMessage()).replaceAll("^.*\"message\"\\s*:\\s*\"([^\"]+)\".*$", "$1"));
+        }
+        if (e instanceof GitHubRateLimitExceededException rateLimit) {
+            return new ApiError(HttpStatus.TOO_MANY_REQUESTS, "Rate Limit Exceeded", RATE_LIMIT_MESSAGE,
+                    rateLimit.getRetryAfter());
+        }
+        if (e instanceof HttpClientErrorException.Forbidden forbidden) {
+            String responseBody = forbidden.getResponseBodyAsString();
+            return responseBody.contains("API rate limit exceeded")
+                    ? new ApiError(HttpStatus.TOO_MANY_REQUESTS, "Rate Limit Exceeded", RATE_LIMIT_MESSAGE)
+                    : new ApiError(HttpStatus.TOO_MANY_REQUESTS, "Http Client Error", responseBody);
+        }
+        if (e instanceof HttpClientErrorException.TooManyRequests) {
+            return new ApiError(HttpStatus.TOO_MANY_REQUESTS, "Rate Limit Exceeded", RATE_LIMIT_MESSAGE);
+        }
+        if (e instanceof ConcurrencyLimitExceededException overloaded) {
+            return new ApiError(HttpStatus.SERVICE_UNAVAILABLE, "Service Overloaded",
+                    "Too many requests are waiting for GitHub. Please try again later.",
+                    overloaded.getRetryAfter());
+        }
+        if (e instanceof ResourceAccessException) {
+            return new ApiError(HttpStatus.GATEWAY_TIMEOUT, "GitHub API unavailable",
+                    "GitHub API did not respond in time. Please try again later.");
+        }
+        return new ApiError(HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error",
+                e.getMessage() != null ? e.getMessage() : "Something went wrong. Please try again later.");
+    }
+
+    /**
+     * {@link #retryAfter} in whole seconds, rounded up, as sent in {@code Retry-After}.
+     */
+    public long retryAfterSeconds() {
+        return retryAfter != null ? Math.max(1, (retryAfter.toMillis() + 999) / 1000) : 0;
+    }
+}
@@ -0,0 +1,23 @@
+package com.redcarepharmacy.githubreposcorer.exception;
+
+import java.time.Duration;
+
+/**
+ * A page was not fetched from GitHub because too many fetches are in flight already.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ConcurrencyLimitExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Time after which the request is worth retrying.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,23 @@
+package com.redcarepharmacy.githubreposcorer.exception;
+
+import java.time.Duration;
+
+/**
+ * A GitHub request was not sent because the rate limit budget does not allow it in time.
+ */
+public class GitHubRateLimitExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public GitHubRateLimitExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Time until the budget allows the request.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
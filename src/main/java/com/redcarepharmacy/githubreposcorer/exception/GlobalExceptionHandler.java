@@ -1,9 +1,12 @@
 package com.redcarepharmacy.githubreposcorer.exception;
 
+import com.redcarepharmacy.githubreposcorer.metrics.RepositoryPipelineMetrics;
 import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -16,26 +19,42 @@ import java.util.Objects;
 
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+/**
+ * Maps exceptions to JSON error responses.
+ * <p>
+ * Every response sets {@code Content-Type: application/json} explicitly, so errors are
+ * also rendered for requests to the streaming endpoint, which only accept
+ * {@code application/x-ndjson} or {@code text/event-stream}. Requests rejected by
+ * validation are counted as {@code repositories.requests.rejected}, tagged with the reason.
+ */
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final RepositoryPipelineMetrics metrics;
     private final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    public GlobalExceptionHandler(RepositoryPipelineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     @ExceptionHandler(MissingServletRequestParameterException.class)
     public ResponseEntity<Object> handleMissingParam(MissingServletRequestParameterException ex) {
+        metrics.recordRejected("missing_parameter");
         Map<String, Object> body = new HashMap<>();
         body.put("timestamp", LocalDateTime.now());
         body.put("status", HttpStatus.BAD_REQUEST.value());
         body.put("error", "Missing request parameter");
         body.put("message", ex.getParameterName() + " parameter is required");
         logger.error("An exception occurred in the APP", ex);
-        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<Object> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        metrics.recordRejected("invalid_parameter_type");
         Map<String, Object> body = new HashMap<>();
         body.put("timestamp", LocalDateTime.now());
         body.put("status", HttpStatus.BAD_REQUEST.value());
@@ -47,11 +66,12 @@ public class GlobalExceptionHandler {
                     + Objects.requireNonNull(ex.getRequiredType()).getSimpleName());
         }
         logger.error("An exception occurred in the APP", ex);
-        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<Object> handleConstraintViolation(ConstraintViolationException ex) {
+        metrics.recordRejected("constraint_violation");
         Map<String, Object> body = new HashMap<>();
         body.put("timestamp", LocalDateTime.now());
         body.put("status", HttpStatus.BAD_REQUEST.value());
@@ -63,57 +83,70 @@ public class GlobalExceptionHandler {
         );
         body.put("message", messages.toString());
         logger.error("An exception occurred in the APP", ex);
-        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @ExceptionHandler(HttpClientErrorException.Forbidden.class)
-    public ResponseEntity<Map<String, Object>> handleRateLimit(
-            HttpClientErrorException.Forbidden ex) {
-        String responseBody = ex.getResponseBodyAsString();
-
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
-        if (responseBody.contains("API rate limit exceeded")) {
-            body.put("error", "Rate Limit Exceeded");
-            body.put("message", "API rate limit exceeded. Please try again later.");
-        } else {
-            body.put("error", "Http Client Error");
-            body.put("message", responseBody);
-        }
+    public ResponseEntity<Object> handleRateLimit(HttpClientErrorException.Forbidden ex) {
         logger.error("An exception occurred in the APP", ex);
-        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(body);
+        return response(ApiError.of(ex));
+    }
+
+    /**
+     * The request was not sent to GitHub, since the rate limit budget would not have allowed
+     * it in time. {@code Retry-After} tells when it will.
+     */
+    @ExceptionHandler(GitHubRateLimitExceededException.class)
+    public ResponseEntity<Object> handleRateLimitBudget(GitHubRateLimitExceededException ex) {
+        logger.warn("GitHub request refused by the rate limiter: {}", ex.getMessage());
+        return response(ApiError.of(ex));
+    }
+
+    /**
+     * The page was not fetched from GitHub, since too many fetches are in flight already.
+     * {@code Retry-After} tells when to try again.
+     */
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public ResponseEntity<Object> handleConcurrencyLimit(ConcurrencyLimitExceededException ex) {
+        logger.warn("Request shed by the concurrency limiter: {}", ex.getMessage());
+        return response(ApiError.of(ex));
     }
 
     @ExceptionHandler(GitHubSearchLimitExceededException.class)
     public ResponseEntity<Object> handleGitHubLimit(GitHubSearchLimitExceededException ex) {
         logger.error("An exception occurred in the APP", ex);
-        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
-                .body(Map.of(
-                        "timestamp", LocalDateTime.now(),
-                        "status", HttpStatus.UNPROCESSABLE_ENTITY.value(),
-                        "error", "GitHub API limit exceeded",
-                        "message", ex.getMessage()
-                                .replaceAll("^.*\"message\"\\s*:\\s*\"([^\"]+)\".*$",
-                                        "$1")
-                ));
+        return response(ApiError.of(ex));
+    }
+
+    /**
+     * GitHub could not be reached in time (connect, read or pool wait timeout).
+     */
+    @ExceptionHandler(ResourceAccessException.class)
+    public ResponseEntity<Object> handleGitHubUnavailable(ResourceAccessException ex) {
+        logger.error("An exception occurred in the APP", ex);
+        return response(ApiError.of(ex));
     }
 
     /**
      * Catch-all handler for any unexpected exceptions.
      */
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, Object>> handleAllExceptions(Exception ex) {
+    public ResponseEntity<Object> handleAllExceptions(Exception ex) {
         logger.error("An exception occurred in the APP", ex);
-        return ResponseEntity
-                .status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of(
-                        "timestamp", LocalDateTime.now(),
-                        "status", HttpStatus.INTERNAL_SERVER_ERROR.value(),
-                        "error", "Internal Server Error",
-                        "message", ex.getMessage() != null ?
-                                ex.getMessage() :
-                                "Something went wrong. Please try again later."
-                ));
+        return response(ApiError.of(ex));
+    }
+
+    private static ResponseEntity<Object> response(ApiError error) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(error.status())
+                .contentType(MediaType.APPLICATION_JSON);
+        if (error.retryAfter() != null) {
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(error.retryAfterSeconds()));
+        }
+        return response.body(Map.of(
+                "timestamp", LocalDateTime.now(),
+                "status", error.status().value(),
+                "error", error.error(),
+                "message", error.message()
+        ));
     }
 }
@@ -0,0 +1,215 @@
+package com.redcarepharmacy.githubreposcorer.index;
+
+import com.redcarepharmacy.githubreposcorer.dto.Item;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * The indexed repositories of one language, one primitive array per field.
+ *
+ * <p>Rows are ordered by creation time, newest first, so the repositories created after a
+ * date are always a prefix of the arrays. {@link #byStars} lists the rows in the order
+ * pages are served in. Instances are immutable; {@link #merge} and {@link #removeIf} return a
+ * new one.</p>
+ */
+final class LanguagePartition {
+
+    private static final long UNKNOWN = 0;
+
+    /**
+     * Language as GitHub spells it, e.g. {@code JavaScript}.
+     */
+    final String language;
+
+    /**
+     * Earliest creation date indexed.
+     */
+    final LocalDate since;
+
+    /**
+     * Creation dates walked so far by the full sync in progress; the day before
+     * {@link #since} when none is.
+     */
+    final LocalDate walkedThrough;
+
+    /**
+     * When the last full sync finished; {@code null} until the first one has, and the
+     * partition is not served before.
+     */
+    final Instant fullSyncedAt;
+
+    /**
+     * When the last sync run finished; {@code null} until one has.
+     */
+    final Instant syncedAt;
+
+    final long[] ids;
+    final String[] names;
+    final String[] owners;
+    final int[] stars;
+    final int[] forks;
+    final long[] createdAt;
+    final long[] updatedAt;
+    final int[] byStars;
+
+    LanguagePartition(String language, LocalDate since, LocalDate walkedThrough, Instant fullSyncedAt,
+                      Instant syncedAt, long[] ids, String[] names, String[] owners, int[] stars, int[] forks,
+                      long[] createdAt, long[] updatedAt) {
+        this.language = language;
+        this.since = since;
+        this.walkedThrough = walkedThrough;
+        this.fullSyncedAt = fullSyncedAt;
+        this.syncedAt = syncedAt;
+        this.ids = ids;
+        this.names = names;
+        this.owners = owners;
+        this.stars = stars;
+        this.forks = forks;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.byStars = IntStream.range(0, ids.length).boxed()
+                .sorted(Comparator.<Integer>comparingInt(row -> stars[row]).reversed()
+                        .thenComparingLong(row -> ids[row]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    static LanguagePartition empty(String language, LocalDate since) {
+        return new LanguagePartition(language, since, since.minusDays(1), null, null, new long[0],
+                new String[0], new String[0], new int[0], new int[0], new long[0], new long[0]);
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    /**
+     * Number of repositories created at or after {@code epochSecond}; they are the first
+     * rows.
+     */
+    int countCreatedFrom(long epochSecond) {
+        int low = 0;
+        int high = createdAt.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (createdAt[middle] >= epochSecond) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    LanguagePartition withSyncState(LocalDate since, LocalDate walkedThrough, Instant fullSyncedAt,
+                                    Instant syncedAt) {
+        return new LanguagePartition(language, since, walkedThrough, fullSyncedAt, syncedAt, ids, names, owners,
+                stars, forks, createdAt, updatedAt);
+    }
+
+    /**
+     * Drops the rows {@code removed} matches, keeping the order of the others.
+     */
+    LanguagePartition removeIf(IntPredicate removed) {
+        int[] kept = IntStream.range(0, ids.length).filter(removed.negate()).toArray();
+        if (kept.length == ids.length) {
+            return this;
+        }
+        long[] keptIds = new long[kept.length];
+        String[] keptNames = new String[kept.length];
+        String[] keptOwners = new String[kept.length];
+        int[] keptStars = new int[kept.length];
+        int[] keptForks = new int[kept.length];
+        long[] keptCreatedAt = new long[kept.length];
+        long[] keptUpdatedAt = new long[kept.length];
+        for (int i = 0; i < kept.length; i++) {
+            int row = kept[i];
+            keptIds[i] = ids[row];
+            keptNames[i] = names[row];
+            keptOwners[i] = owners[row];
+            keptStars[i] = stars[row];
+            keptForks[i] = forks[row];
+            keptCreatedAt[i] = createdAt[row];
+            keptUpdatedAt[i] = updatedAt[row];
+        }
+        return new LanguagePartition(language, since, walkedThrough, fullSyncedAt, syncedAt, keptIds, keptNames,
+                keptOwners, keptStars, keptForks, keptCreatedAt, keptUpdatedAt);
+    }
+
+    /**
+     * Adds {@code items}, replacing the rows of repositories that are already indexed.
+     * Items without an id are skipped.
+     */
+    LanguagePartition merge(Collection<Item> items) {
+        if (items.isEmpty()) {
+            return this;
+        }
+        Map<Long, Integer> rowById = new HashMap<>(ids.length * 2);
+        for (int row = 0; row < ids.length; row++) {
+            rowById.put(ids[row], row);
+        }
+        int capacity = ids.length + items.size();
+        long[] mergedIds = Arrays.copyOf(ids, capacity);
+        String[] mergedNames = Arrays.copyOf(names, capacity);
+        String[] mergedOwners = Arrays.copyOf(owners, capacity);
+        int[] mergedStars = Arrays.copyOf(stars, capacity);
+        int[] mergedForks = Arrays.copyOf(forks, capacity);
+        long[] mergedCreatedAt = Arrays.copyOf(createdAt, capacity);
+        long[] mergedUpdatedAt = Arrays.copyOf(updatedAt, capacity);
+        int size = ids.length;
+        String displayName = language;
+        for (Item item : items) {
+            if (item.id() == null) {
+                continue;
+            }
+            Integer existing = rowById.get(item.id());
+            int row = existing != null ? existing : size++;
+            if (existing == null) {
+                rowById.put(item.id(), row);
+            }
+            mergedIds[row] = item.id();
+            mergedNames[row] = item.name();
+            mergedOwners[row] = item.owner() != null ? item.owner().login() : null;
+            mergedStars[row] = item.stargazersCount();
+            mergedForks[row] = item.forksCount();
+            mergedCreatedAt[row] = item.createdAt() != null ? item.createdAt().getEpochSecond() : UNKNOWN;
+            mergedUpdatedAt[row] = item.updatedAt() != null ? item.updatedAt().getEpochSecond() : UNKNOWN;
+            if (item.language() != null) {
+                displayName = item.language();
+            }
+        }
+
+        int[] order = IntStream.range(0, size).boxed()
+                .sorted(Comparator.<Integer>comparingLong(row -> mergedCreatedAt[row]).reversed()
+                        .thenComparingLong(row -> mergedIds[row]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        long[] sortedIds = new long[size];
+        String[] sortedNames = new String[size];
+        String[] sortedOwners = new String[size];
+        int[] sortedStars = new int[size];
+        int[] sortedForks = new int[size];
+        long[] sortedCreatedAt = new long[size];
+        long[] sortedUpdatedAt = new long[size];
+        for (int i = 0; i < size; i++) {
+            int row = order[i];
+            sortedIds[i] = mergedIds[row];
+            sortedNames[i] = mergedNames[row];
+            sortedOwners[i] = mergedOwners[row];
+            sortedStars[i] = mergedStars[row];
+            sortedForks[i] = mergedForks[row];
+            sortedCreatedAt[i] = mergedCreatedAt[row];
+            sortedUpdatedAt[i] = mergedUpdatedAt[row];
+        }
+        return new LanguagePartition(displayName, since, walkedThrough, fullSyncedAt, syncedAt, sortedIds,
+                sortedNames, sortedOwners, sortedStars, sortedForks, sortedCreatedAt, sortedUpdatedAt);
+    }
+}
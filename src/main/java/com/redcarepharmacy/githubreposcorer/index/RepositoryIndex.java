@@ -0,0 +1,201 @@
+package com.redcarepharmacy.githubreposcorer.index;
+
+import com.redcarepharmacy.githubreposcorer.config.RepositoryIndexProperties;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import com.redcarepharmacy.githubreposcorer.dto.TopRepositoriesResponseDto;
+import com.redcarepharmacy.githubreposcorer.service.BoundedTopK;
+import com.redcarepharmacy.githubreposcorer.service.RepositoryScoreCalculator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Local, in-memory index of repository metadata, serving scored pages and top-K queries
+ * without calling GitHub.
+ *
+ * <p>Repositories are partitioned by language and stored column-wise in primitive arrays
+ * ({@link LanguagePartition}), newest first, so the repositories created after a date are
+ * a prefix of each partition: counting them is a binary search, and ranking them scores
+ * the prefix in one {@link RepositoryScoreCalculator#computeScores} call. Pages hold
+ * {@value #PAGE_SIZE} repositories, GitHub's default, ordered by stars. Unlike GitHub
+ * search, every page is served, not only the first 1000 results.</p>
+ *
+ * <p>A language is only served once a full sync of it has finished, and only for
+ * {@code createdAfter} dates from its {@code since} date on ({@link #covers}); other queries
+ * still go to GitHub. The {@code fetchedAt} of served pages is when the language was last
+ * synced. The index is loaded from {@code app.index.snapshot-file} on startup, so it also
+ * serves queries without access to GitHub.</p>
+ *
+ * <p>Reads take no lock: partitions are immutable and replaced as a whole by
+ * {@link RepositoryIndexSync}.</p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.index", name = "enabled", havingValue = "true")
+public class RepositoryIndex {
+
+    /**
+     * Repositories per page, GitHub's default page size.
+     */
+    public static final int PAGE_SIZE = 30;
+
+    private static final Comparator<String> BY_NAME = Comparator.nullsFirst(Comparator.reverseOrder());
+
+    private final Path snapshotFile;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Logger logger = LoggerFactory.getLogger(RepositoryIndex.class);
+    private volatile Map<String, LanguagePartition> partitions = Map.of();
+
+    public RepositoryIndex(RepositoryIndexProperties properties) {
+        this.snapshotFile = properties.snapshotFile();
+        if (snapshotFile != null && Files.isReadable(snapshotFile)) {
+            try {
+                Map<String, LanguagePartition> loaded = new HashMap<>();
+                for (LanguagePartition partition : RepositoryIndexSnapshot.read(snapshotFile)) {
+                    loaded.put(key(partition.language), partition);
+                }
+                partitions = Map.copyOf(loaded);
+                logger.info("Loaded the repository index of {} languages from {}", loaded.size(), snapshotFile);
+            } catch (IOException e) {
+                logger.warn("Could not load the repository index from {}, starting empty", snapshotFile, e);
+            }
+        }
+    }
+
+    /**
+     * Whether the index holds every repository of {@code language} created after
+     * {@code createdAfter}, so the query can be served from it.
+     */
+    public boolean covers(String language, LocalDate createdAfter) {
+        LanguagePartition partition = partitions.get(key(language));
+        return partition != null && partition.fullSyncedAt != null
+                && !createdAfter.plusDays(1).isBefore(partition.since);
+    }
+
+    /**
+     * Scores page {@code page} of the repositories of {@code language} created after
+     * {@code createdAfter}, the query GitHub answers for {@code created:>createdAfter}.
+     * Only valid if {@link #covers} the query.
+     */
+    public RepositoryScoreResponseDto page(String language, LocalDate createdAfter, int page,
+                                           RepositoryScoreCalculator repositoryScoreCalculator) {
+        LanguagePartition partition = partitions.get(key(language));
+        int matches = partition.countCreatedFrom(createdFrom(createdAfter));
+        long offset = (long) (page - 1) * PAGE_SIZE;
+        int[] rows = new int[(int) Math.clamp(matches - offset, 0, PAGE_SIZE)];
+        int skipped = 0;
+        int filled = 0;
+        for (int i = 0; i < partition.byStars.length && filled < rows.length; i++) {
+            int row = partition.byStars[i];
+            if (row < matches && skipped++ >= offset) {
+                rows[filled++] = row;
+            }
+        }
+
+        int[] stars = new int[rows.length];
+        int[] forks = new int[rows.length];
+        long[] updatedAt = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            stars[i] = partition.stars[rows[i]];
+            forks[i] = partition.forks[rows[i]];
+            updatedAt[i] = partition.updatedAt[rows[i]];
+        }
+        double[] scores = new double[rows.length];
+        repositoryScoreCalculator.computeScores(stars, forks, updatedAt, scores);
+        List<RepositoryScoreDto> repoScoreList = new ArrayList<>(rows.length);
+        for (int i = 0; i < rows.length; i++) {
+            repoScoreList.add(toDto(partition, rows[i], scores[i]));
+        }
+        return new RepositoryScoreResponseDto(matches, false, List.copyOf(repoScoreList), partition.syncedAt);
+    }
+
+    /**
+     * Ranks all repositories of {@code language} created after {@code createdAfter} and
+     * returns the {@code k} highest scoring ones. Only valid if {@link #covers} the query.
+     */
+    public TopRepositoriesResponseDto top(String language, LocalDate createdAfter, int k,
+                                          RepositoryScoreCalculator repositoryScoreCalculator) {
+        LanguagePartition partition = partitions.get(key(language));
+        int matches = partition.countCreatedFrom(createdFrom(createdAfter));
+        double[] scores = new double[matches];
+        repositoryScoreCalculator.computeScores(partition.stars, partition.forks, partition.updatedAt, scores);
+        BoundedTopK<Integer> top = new BoundedTopK<>(k, Comparator.<Integer>comparingDouble(row -> scores[row])
+                .thenComparing(row -> partition.names[row], BY_NAME));
+        for (int row = 0; row < matches; row++) {
+            top.offer(row);
+        }
+        List<RepositoryScoreDto> repoScoreList = top.toSortedList().stream()
+                .map(row -> toDto(partition, row, scores[row]))
+                .toList();
+        return new TopRepositoriesResponseDto(matches, Math.ceilDiv(matches, PAGE_SIZE), false, repoScoreList,
+                partition.syncedAt);
+    }
+
+    @Nullable
+    LanguagePartition partition(String language) {
+        return partitions.get(key(language));
+    }
+
+    void put(String language, LanguagePartition partition) {
+        writeLock.lock();
+        try {
+            Map<String, LanguagePartition> updated = new HashMap<>(partitions);
+            updated.put(key(language), partition);
+            partitions = Map.copyOf(updated);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Saves the index to the snapshot file, if one is configured.
+     */
+    void save() {
+        if (snapshotFile == null) {
+            return;
+        }
+        try {
+            RepositoryIndexSnapshot.write(snapshotFile, partitions.values());
+        } catch (IOException e) {
+            logger.warn("Could not save the repository index to {}", snapshotFile, e);
+        }
+    }
+
+    private static RepositoryScoreDto toDto(LanguagePartition partition, int row, double score) {
+        return new RepositoryScoreDto(partition.names[row], partition.owners[row], partition.language,
+                partition.stars[row], partition.forks[row], instant(partition.createdAt[row]),
+                instant(partition.updatedAt[row]), score);
+    }
+
+    /**
+     * First second matched by GitHub's {@code created:>createdAfter}: dates are UTC days,
+     * and a repository created on {@code createdAfter} itself does not match.
+     */
+    private static long createdFrom(LocalDate createdAfter) {
+        return createdAfter.plusDays(1).atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+    }
+
+    private static Instant instant(long epochSecond) {
+        return epochSecond != 0 ? Instant.ofEpochSecond(epochSecond) : null;
+    }
+
+    static String key(String language) {
+        return language.toLowerCase(Locale.ROOT);
+    }
+}
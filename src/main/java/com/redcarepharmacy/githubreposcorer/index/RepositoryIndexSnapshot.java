@@ -0,0 +1,170 @@
+package com.redcarepharmacy.githubreposcorer.index;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * File format of {@link RepositoryIndex} snapshots.
+ *
+ * <p>Layout, in {@link DataOutputStream} encoding:</p>
+ * <pre>
+ * magic:int  version:byte  partitionCount:int  partition*
+ * partition = language since:epochDay walkedThrough:epochDay fullSyncedAt syncedAt rowCount:int
+ *             ids:long* names:string* owners:string* stars:int* forks:int* createdAt:long* updatedAt:long*
+ * string    = present:boolean [utf]
+ * instant   = epochMilli:long, -1 for null
+ * </pre>
+ *
+ * <p>Columns are written one after the other, as they are held in memory. A snapshot is
+ * written to a temporary file first and then moved over the previous one, so a crash
+ * while saving leaves the previous snapshot intact.</p>
+ */
+final class RepositoryIndexSnapshot {
+
+    private static final int MAGIC = 0x52494458;
+    private static final byte VERSION = 1;
+
+    private RepositoryIndexSnapshot() {
+    }
+
+    static void write(Path file, Collection<LanguagePartition> partitions) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream stream = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.writeInt(partitions.size());
+                for (LanguagePartition partition : partitions) {
+                    writePartition(out, partition);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    static List<LanguagePartition> read(Path file) throws IOException {
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a repository index snapshot: " + file);
+            }
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported repository index snapshot version: " + version);
+            }
+            int partitionCount = in.readInt();
+            List<LanguagePartition> partitions = new ArrayList<>(partitionCount);
+            for (int i = 0; i < partitionCount; i++) {
+                partitions.add(readPartition(in));
+            }
+            return partitions;
+        }
+    }
+
+    private static void writePartition(DataOutputStream out, LanguagePartition partition) throws IOException {
+        out.writeUTF(partition.language);
+        out.writeLong(partition.since.toEpochDay());
+        out.writeLong(partition.walkedThrough.toEpochDay());
+        writeInstant(out, partition.fullSyncedAt);
+        writeInstant(out, partition.syncedAt);
+        int size = partition.size();
+        out.writeInt(size);
+        for (int row = 0; row < size; row++) {
+            out.writeLong(partition.ids[row]);
+        }
+        for (int row = 0; row < size; row++) {
+            writeString(out, partition.names[row]);
+        }
+        for (int row = 0; row < size; row++) {
+            writeString(out, partition.owners[row]);
+        }
+        for (int row = 0; row < size; row++) {
+            out.writeInt(partition.stars[row]);
+        }
+        for (int row = 0; row < size; row++) {
+            out.writeInt(partition.forks[row]);
+        }
+        for (int row = 0; row < size; row++) {
+            out.writeLong(partition.createdAt[row]);
+        }
+        for (int row = 0; row < size; row++) {
+            out.writeLong(partition.updatedAt[row]);
+        }
+    }
+
+    private static LanguagePartition readPartition(DataInputStream in) throws IOException {
+        String language = in.readUTF();
+        LocalDate since = LocalDate.ofEpochDay(in.readLong());
+        LocalDate walkedThrough = LocalDate.ofEpochDay(in.readLong());
+        Instant fullSyncedAt = readInstant(in);
+        Instant syncedAt = readInstant(in);
+        int size = in.readInt();
+        long[] ids = new long[size];
+        String[] names = new String[size];
+        String[] owners = new String[size];
+        int[] stars = new int[size];
+        int[] forks = new int[size];
+        long[] createdAt = new long[size];
+        long[] updatedAt = new long[size];
+        for (int row = 0; row < size; row++) {
+            ids[row] = in.readLong();
+        }
+        for (int row = 0; row < size; row++) {
+            names[row] = readString(in);
+        }
+        for (int row = 0; row < size; row++) {
+            owners[row] = readString(in);
+        }
+        for (int row = 0; row < size; row++) {
+            stars[row] = in.readInt();
+        }
+        for (int row = 0; row < size; row++) {
+            forks[row] = in.readInt();
+        }
+        for (int row = 0; row < size; row++) {
+            createdAt[row] = in.readLong();
+        }
+        for (int row = 0; row < size; row++) {
+            updatedAt[row] = in.readLong();
+        }
+        return new LanguagePartition(language, since, walkedThrough, fullSyncedAt, syncedAt, ids, names, owners,
+                stars, forks, createdAt, updatedAt);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeInstant(DataOutputStream out, Instant value) throws IOException {
+        out.writeLong(value != null ? value.toEpochMilli() : -1);
+    }
+
+    private static Instant readInstant(DataInputStream in) throws IOException {
+        long epochMilli = in.readLong();
+        return epochMilli >= 0 ? Instant.ofEpochMilli(epochMilli) : null;
+    }
+}
@@ -0,0 +1,269 @@
+package com.redcarepharmacy.githubreposcorer.index;
+
+import com.redcarepharmacy.githubreposcorer.config.RepositoryIndexProperties;
+import com.redcarepharmacy.githubreposcorer.dto.Item;
+import com.redcarepharmacy.githubreposcorer.exception.GitHubRateLimitExceededException;
+import com.redcarepharmacy.githubreposcorer.ratelimit.RequestPriority;
+import com.redcarepharmacy.githubreposcorer.service.GitHubSearchResponseParser;
+import com.redcarepharmacy.githubreposcorer.service.GitHubSearchResponseParser.SearchPage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the {@link RepositoryIndex} in sync with GitHub search.
+ * <p>
+ * Every {@code app.index.sync.interval}, each configured language is synced in one of two
+ * ways:
+ * <ul>
+ *   <li>A full sync walks all creation dates from {@code app.index.since} to today in
+ *   windows of {@code window-days}, searching {@code created:from..to}. It runs when the
+ *   language has never been fully synced, and again every {@code full-sync-interval} to
+ *   pick up repositories that were deleted or changed language: once a window has been
+ *   searched completely, the indexed repositories created in it that the search no longer
+ *   found are removed.</li>
+ *   <li>Otherwise, an incremental sync searches {@code pushed:from..today}, from the day
+ *   before the last sync, and upserts the repositories changed since.</li>
+ * </ul>
+ * GitHub search serves at most 1000 results per query, so a window with more results is
+ * split in halves until each half fits; a single day with more than 1000 results is only
+ * indexed in part, which is logged, and nothing is removed from its window.
+ * <p>
+ * All requests are made at {@link RequestPriority#BACKGROUND} priority, so a run stops as
+ * soon as the rate limit budget is down to the reserve kept for clients. The repositories
+ * found until then are kept, and a full sync continues after the last completed window on
+ * the next run. The index is saved to its snapshot file after each run.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.index", name = {"enabled", "sync.enabled"}, havingValue = "true")
+public class RepositoryIndexSync implements DisposableBean {
+
+    /**
+     * GitHub search only serves the first 1000 results of a query.
+     */
+    static final int SEARCH_RESULT_LIMIT = 1000;
+
+    private static final Duration DEFAULT_INTERVAL = Duration.ofMinutes(10);
+    private static final Duration DEFAULT_FULL_SYNC_INTERVAL = Duration.ofDays(7);
+    private static final int DEFAULT_WINDOW_DAYS = 30;
+    private static final LocalDate DEFAULT_SINCE = LocalDate.of(2008, 1, 1);
+
+    private final RepositoryIndex repositoryIndex;
+    private final RestTemplate restTemplate;
+    private final List<String> languages;
+    private final LocalDate since;
+    private final Duration interval;
+    private final Duration fullSyncInterval;
+    private final int windowDays;
+    private final String searchUrl;
+    private final Clock clock;
+    private final GitHubSearchResponseParser searchResponseParser = new GitHubSearchResponseParser();
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("index-sync-"));
+    private final Logger logger = LoggerFactory.getLogger(RepositoryIndexSync.class);
+
+    public RepositoryIndexSync(RepositoryIndex repositoryIndex, RestTemplate restTemplate,
+                               RepositoryIndexProperties properties) {
+        this(repositoryIndex, restTemplate, properties, Clock.systemUTC());
+    }
+
+    RepositoryIndexSync(RepositoryIndex repositoryIndex, RestTemplate restTemplate,
+                        RepositoryIndexProperties properties, Clock clock) {
+        RepositoryIndexProperties.Sync sync = properties.sync();
+        this.repositoryIndex = repositoryIndex;
+        this.restTemplate = restTemplate;
+        this.languages = properties.languages() != null ? properties.languages() : List.of();
+        this.since = properties.since() != null ? properties.since() : DEFAULT_SINCE;
+        this.interval = sync.interval() != null && sync.interval().isPositive() ? sync.interval() : DEFAULT_INTERVAL;
+        this.fullSyncInterval = sync.fullSyncInterval() != null && sync.fullSyncInterval().isPositive()
+                ? sync.fullSyncInterval() : DEFAULT_FULL_SYNC_INTERVAL;
+        this.windowDays = sync.windowDays() > 0 ? sync.windowDays() : DEFAULT_WINDOW_DAYS;
+        this.searchUrl = sync.searchUrl();
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::runSafely, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void runSafely() {
+        try {
+            run();
+        } catch (RuntimeException e) {
+            // an exception would cancel all further runs
+            logger.warn("Syncing the repository index failed", e);
+        }
+    }
+
+    /**
+     * Syncs every configured language once, then saves the index.
+     */
+    void run() {
+        Instant started = clock.instant();
+        try {
+            for (String language : languages) {
+                try {
+                    sync(language, started);
+                } catch (GitHubRateLimitExceededException e) {
+                    logger.debug("GitHub rate limit budget is low, the index sync stops until the next run");
+                    break;
+                } catch (RuntimeException e) {
+                    logger.warn("Syncing the repository index of {} failed", language, e);
+                }
+            }
+        } finally {
+            repositoryIndex.save();
+        }
+    }
+
+    private void sync(String language, Instant started) {
+        LocalDate today = LocalDate.ofInstant(started, ZoneOffset.UTC);
+        LanguagePartition partition = repositoryIndex.partition(language);
+        if (partition == null) {
+            partition = LanguagePartition.empty(language, since);
+        } else if (!partition.since.equals(since)) {
+            // walk again from the new date before serving it
+            partition = partition.withSyncState(since, since.minusDays(1), null, partition.syncedAt);
+        }
+        boolean walking = !partition.walkedThrough.isBefore(since);
+        if (partition.fullSyncedAt == null || walking
+                || partition.fullSyncedAt.plus(fullSyncInterval).isBefore(started)) {
+            fullSync(language, partition, today, started);
+        } else {
+            incrementalSync(language, partition, today, started);
+        }
+    }
+
+    private void fullSync(String language, LanguagePartition partition, LocalDate today, Instant started) {
+        Map<Long, Item> items = new LinkedHashMap<>();
+        List<Window> searched = new ArrayList<>();
+        LocalDate walkedThrough = partition.walkedThrough;
+        try {
+            while (walkedThrough.isBefore(today)) {
+                LocalDate from = walkedThrough.plusDays(1);
+                LocalDate to = from.plusDays(windowDays - 1L);
+                Window window = new Window(from, to.isAfter(today) ? today : to);
+                if (walk(language, "created", window.from(), window.to(), items)) {
+                    searched.add(window);
+                }
+                walkedThrough = window.to();
+            }
+        } finally {
+            // repositories no longer found in a completely searched window were deleted or moved
+            LanguagePartition merged = partition
+                    .removeIf(row -> !items.containsKey(partition.ids[row])
+                            && searched.stream().anyMatch(window -> window.contains(partition.createdAt[row])))
+                    .merge(items.values());
+            if (walkedThrough.isBefore(today)) {
+                merged = merged.withSyncState(since, walkedThrough, partition.fullSyncedAt, partition.syncedAt);
+            } else {
+                merged = merged.withSyncState(since, since.minusDays(1), started, started);
+                logger.info("Fully synced the repository index of {}: {} repositories", language, merged.size());
+            }
+            repositoryIndex.put(language, merged);
+        }
+    }
+
+    private void incrementalSync(String language, LanguagePartition partition, LocalDate today, Instant started) {
+        Map<Long, Item> items = new LinkedHashMap<>();
+        boolean complete = false;
+        try {
+            LocalDate from = LocalDate.ofInstant(partition.syncedAt, ZoneOffset.UTC).minusDays(1);
+            walk(language, "pushed", from, today, items);
+            complete = true;
+        } finally {
+            LanguagePartition merged = partition.merge(items.values());
+            repositoryIndex.put(language, complete
+                    ? merged.withSyncState(since, merged.walkedThrough, merged.fullSyncedAt, started) : merged);
+            logger.debug("Synced {} changed repositories of {}", items.size(), language);
+        }
+    }
+
+    /**
+     * Creation dates {@code from..to} of a full sync, searched together.
+     */
+    private record Window(LocalDate from, LocalDate to) {
+
+        boolean contains(long createdAtEpochSecond) {
+            return createdAtEpochSecond >= from.atStartOfDay(ZoneOffset.UTC).toEpochSecond()
+                    && createdAtEpochSecond < to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        }
+    }
+
+    /**
+     * Collects the repositories of {@code language} whose {@code qualifier} date lies in
+     * {@code from..to}, splitting the window while it has more results than GitHub serves.
+     *
+     * @return whether every matching repository was collected
+     */
+    private boolean walk(String language, String qualifier, LocalDate from, LocalDate to, Map<Long, Item> items) {
+        String query = "language:" + language + "+" + qualifier + ":" + from + ".." + to;
+        List<Item> firstPage = new ArrayList<>();
+        SearchPage first = fetchPage(query, 1, firstPage::add);
+        if (first == null) {
+            return false;
+        }
+        boolean complete = !first.incompleteResults();
+        if (first.totalCount() > SEARCH_RESULT_LIMIT) {
+            if (from.isBefore(to)) {
+                LocalDate middle = from.plusDays(ChronoUnit.DAYS.between(from, to) / 2);
+                boolean firstHalf = walk(language, qualifier, from, middle, items);
+                return walk(language, qualifier, middle.plusDays(1), to, items) && firstHalf;
+            }
+            logger.warn("{} repositories of {} match {}:{}, only the first {} are indexed",
+                    first.totalCount(), language, qualifier, from, SEARCH_RESULT_LIMIT);
+            complete = false;
+        }
+        firstPage.forEach(item -> collect(item, items));
+        int pages = firstPage.isEmpty() ? 1
+                : Math.ceilDiv(Math.min(first.totalCount(), SEARCH_RESULT_LIMIT), firstPage.size());
+        for (int page = 2; page <= pages; page++) {
+            SearchPage next = fetchPage(query, page, item -> collect(item, items));
+            complete &= next != null && !next.incompleteResults();
+        }
+        return complete;
+    }
+
+    private void collect(Item item, Map<Long, Item> items) {
+        // a pushed: search also finds repositories created before the indexed dates
+        if (item.id() != null && item.createdAt() != null
+                && !LocalDate.ofInstant(item.createdAt(), ZoneOffset.UTC).isBefore(since)) {
+            items.put(item.id(), item);
+        }
+    }
+
+    private SearchPage fetchPage(String query, int page, Consumer<Item> itemConsumer) {
+        String url = String.format(searchUrl, query, page);
+        logger.debug("Syncing the repository index with the URL:- {}", url);
+        return RequestPriority.callAs(RequestPriority.BACKGROUND, () -> restTemplate.execute(url, HttpMethod.GET,
+                null, response -> searchResponseParser.parse(response.getBody(), itemConsumer)));
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
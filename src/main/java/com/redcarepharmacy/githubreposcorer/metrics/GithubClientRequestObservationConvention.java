@@ -0,0 +1,23 @@
+package com.redcarepharmacy.githubreposcorer.metrics;
+
+import io.micrometer.common.KeyValue;
+import org.springframework.http.client.observation.ClientRequestObservationContext;
+import org.springframework.http.client.observation.DefaultClientRequestObservationConvention;
+
+/**
+ * {@code http.client.requests} convention for the GitHub {@code RestTemplate}.
+ * <p>
+ * The search URL is built with {@code String.format}, so Spring sees every language,
+ * date and page as a distinct URI template. Tagging the path alone keeps {@code uri} to
+ * a handful of values such as {@code /search/repositories}.
+ */
+public class GithubClientRequestObservationConvention extends DefaultClientRequestObservationConvention {
+
+    @Override
+    protected KeyValue uri(ClientRequestObservationContext context) {
+        if (context.getCarrier() == null || context.getCarrier().getURI().getPath() == null) {
+            return super.uri(context);
+        }
+        return KeyValue.of("uri", context.getCarrier().getURI().getPath());
+    }
+}
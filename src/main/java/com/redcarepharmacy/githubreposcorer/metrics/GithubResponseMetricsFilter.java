@@ -0,0 +1,34 @@
+package com.redcarepharmacy.githubreposcorer.metrics;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link GithubResponseMetricsInterceptor} for the GitHub {@code WebClient}: the size is
+ * recorded once the body has been consumed.
+ */
+public class GithubResponseMetricsFilter implements ExchangeFilterFunction {
+
+    private final RepositoryPipelineMetrics metrics;
+
+    public GithubResponseMetricsFilter(RepositoryPipelineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return next.exchange(request).map(response -> response.mutate()
+                .body(body -> {
+                    AtomicLong bytes = new AtomicLong();
+                    return body.doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))
+                            .doFinally(signal -> metrics.recordGithubResponse(
+                                    response.headers().asHttpHeaders(), bytes.get()));
+                })
+                .build());
+    }
+}
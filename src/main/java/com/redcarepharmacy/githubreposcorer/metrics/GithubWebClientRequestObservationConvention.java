@@ -0,0 +1,19 @@
+package com.redcarepharmacy.githubreposcorer.metrics;
+
+import io.micrometer.common.KeyValue;
+import org.springframework.web.reactive.function.client.ClientRequestObservationContext;
+import org.springframework.web.reactive.function.client.DefaultClientRequestObservationConvention;
+
+/**
+ * {@link GithubClientRequestObservationConvention} for the GitHub {@code WebClient}.
+ */
+public class GithubWebClientRequestObservationConvention extends DefaultClientRequestObservationConvention {
+
+    @Override
+    protected KeyValue uri(ClientRequestObservationContext context) {
+        if (context.getRequest() == null || context.getRequest().url().getPath() == null) {
+            return super.uri(context);
+        }
+        return KeyValue.of("uri", context.getRequest().url().getPath());
+    }
+}
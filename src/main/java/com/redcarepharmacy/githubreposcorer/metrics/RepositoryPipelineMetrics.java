@@ -0,0 +1,200 @@
+package com.redcarepharmacy.githubreposcorer.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Meters for each stage of serving a scored page: request validation, cache lookup, the
+ * GitHub call, decoding, scoring and response serialization.
+ * <p>
+ * Every tag value comes from a fixed set, so the number of time series stays bounded no
+ * matter what clients ask for: languages outside {@link #LANGUAGES} are tagged
+ * {@code other}, as are unknown GitHub rate limit resources. The GitHub call itself is
+ * timed by Spring's {@code http.client.requests}; see
+ * {@link GithubClientRequestObservationConvention} for how its {@code uri} tag is bounded.
+ */
+@Component
+public class RepositoryPipelineMetrics {
+
+    public static final String CACHE_LOOKUP = "repositories.cache.lookup";
+    public static final String CACHE_PREWARM = "repositories.cache.prewarm";
+    public static final String STAGE = "repositories.pipeline.stage";
+    public static final String REJECTED = "repositories.requests.rejected";
+    public static final String SERIALIZATION = "repositories.response.serialization";
+    public static final String RESPONSE_CACHE = "repositories.response.cache";
+    public static final String CONCURRENCY_LIMIT = "repositories.concurrency.limit";
+    public static final String CONCURRENCY_IN_FLIGHT = "repositories.concurrency.in.flight";
+    public static final String GITHUB_RESPONSE_SIZE = "github.api.response.size";
+    public static final String GITHUB_RATE_LIMIT_REMAINING = "github.api.rate.limit.remaining";
+    public static final String GITHUB_RATE_LIMIT_WAIT = "github.api.rate.limit.wait";
+    public static final String GITHUB_RATE_LIMIT_REFUSED = "github.api.rate.limit.refused";
+
+    static final String OTHER = "other";
+
+    /**
+     * Languages tagged by name; the most common languages on GitHub.
+     */
+    static final Set<String> LANGUAGES = Set.of("c", "c#", "c++", "clojure", "css", "dart", "elixir", "erlang",
+            "go", "groovy", "haskell", "html", "java", "javascript", "julia", "kotlin", "lua", "objective-c",
+            "perl", "php", "powershell", "python", "r", "ruby", "rust", "scala", "shell", "swift", "typescript",
+            "zig");
+
+    private static final Set<String> RATE_LIMIT_RESOURCES = Set.of("core", "search", "graphql", "code_search");
+
+    public enum CacheResult {
+        HIT, STALE, SUBSUMED, MISS;
+
+        final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    public enum Stage {
+        DECODE, SCORE;
+
+        final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary githubResponseSize;
+    private final Map<String, AtomicLong> rateLimitRemaining = new ConcurrentHashMap<>();
+
+    public RepositoryPipelineMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.githubResponseSize = DistributionSummary.builder(GITHUB_RESPONSE_SIZE)
+                .description("Size of GitHub API response bodies after decompression")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Bounded tag value for a requested language.
+     */
+    public static String languageTag(String language) {
+        if (language == null) {
+            return OTHER;
+        }
+        String normalized = language.toLowerCase(Locale.ROOT);
+        return LANGUAGES.contains(normalized) ? normalized : OTHER;
+    }
+
+    public void recordCacheLookup(String language, CacheResult result, long nanos) {
+        Timer.builder(CACHE_LOOKUP)
+                .description("Time to read a page from the repositories_score cache")
+                .tag("language", languageTag(language))
+                .tag("result", result.tag)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts pages loaded or refreshed ahead of time by the prewarmer.
+     */
+    public void recordPrewarm(String language, boolean success) {
+        meterRegistry.counter(CACHE_PREWARM, "language", languageTag(language),
+                "outcome", success ? "success" : "error").increment();
+    }
+
+    public void recordStage(Stage stage, String language, boolean success, long nanos) {
+        Timer.builder(STAGE)
+                .description("Time spent decoding and scoring GitHub search results")
+                .tag("stage", stage.tag)
+                .tag("language", languageTag(language))
+                .tag("outcome", success ? "success" : "error")
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRejected(String reason) {
+        meterRegistry.counter(REJECTED, "reason", reason).increment();
+    }
+
+    public void recordSerialization(String type, long nanos) {
+        Timer.builder(SERIALIZATION)
+                .description("Time to write a response body")
+                .tag("type", type)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Publishes the limit and the fetches in flight of the adaptive concurrency limiter.
+     */
+    public <T> void registerConcurrencyLimit(T limiter, ToDoubleFunction<T> limit, ToDoubleFunction<T> inFlight) {
+        Gauge.builder(CONCURRENCY_LIMIT, limiter, limit)
+                .description("Current limit on GitHub fetches in flight for cache misses")
+                .register(meterRegistry);
+        Gauge.builder(CONCURRENCY_IN_FLIGHT, limiter, inFlight)
+                .description("GitHub fetches in flight for cache misses")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counts {@code /score} requests answered from serialized bytes ({@code hit}) or served
+     * and serialized again ({@code miss}).
+     */
+    public void recordResponseCache(String language, boolean hit) {
+        meterRegistry.counter(RESPONSE_CACHE, "language", languageTag(language),
+                "result", hit ? "hit" : "miss").increment();
+    }
+
+    /**
+     * Records how long a GitHub request waited for rate limit budget before it was sent.
+     */
+    public void recordRateLimitWait(String priority, long millis) {
+        Timer.builder(GITHUB_RATE_LIMIT_WAIT)
+                .description("Time GitHub requests wait for rate limit budget")
+                .tag("priority", priority)
+                .register(meterRegistry)
+                .record(millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Counts GitHub requests that were not sent for lack of rate limit budget.
+     */
+    public void recordRateLimitRefused(String priority) {
+        meterRegistry.counter(GITHUB_RATE_LIMIT_REFUSED, "priority", priority).increment();
+    }
+
+    /**
+     * Records the body size of a GitHub response and the remaining rate limit it reports
+     * ({@code X-RateLimit-Remaining}, per {@code X-RateLimit-Resource}).
+     */
+    public void recordGithubResponse(HttpHeaders headers, long bodyBytes) {
+        githubResponseSize.record(bodyBytes);
+        recordRateLimit(headers);
+    }
+
+    void recordRateLimit(HttpHeaders headers) {
+        String remaining = headers.getFirst("X-RateLimit-Remaining");
+        if (remaining == null) {
+            return;
+        }
+        long value;
+        try {
+            value = Long.parseLong(remaining.trim());
+        } catch (NumberFormatException e) {
+            return;
+        }
+        String resource = headers.getFirst("X-RateLimit-Resource");
+        String resourceTag = resource != null && RATE_LIMIT_RESOURCES.contains(resource) ? resource : OTHER;
+        rateLimitRemaining.computeIfAbsent(resourceTag, tag -> {
+            AtomicLong gauge = new AtomicLong();
+            Gauge.builder(GITHUB_RATE_LIMIT_REMAINING, gauge, AtomicLong::get)
+                    .description("Requests left in the current GitHub rate limit window")
+                    .tag("resource", tag)
+                    .register(meterRegistry);
+            return gauge;
+        }).set(value);
+    }
+}
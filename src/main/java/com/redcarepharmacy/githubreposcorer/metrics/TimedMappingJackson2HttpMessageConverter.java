@@ -0,0 +1,42 @@
+package com.redcarepharmacy.githubreposcorer.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * JSON converter that times writing response bodies. Bodies of this application's DTO
+ * types are tagged with the type name; everything else (error bodies, Actuator) with
+ * {@code other}.
+ */
+public class TimedMappingJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private static final String DTO_PACKAGE = "com.redcarepharmacy.githubreposcorer.dto";
+
+    private final RepositoryPipelineMetrics metrics;
+
+    public TimedMappingJackson2HttpMessageConverter(ObjectMapper objectMapper, RepositoryPipelineMetrics metrics) {
+        super(objectMapper);
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            metrics.recordSerialization(typeTag(object), System.nanoTime() - start);
+        }
+    }
+
+    private static String typeTag(Object object) {
+        Class<?> type = object.getClass();
+        return type.getPackageName().equals(DTO_PACKAGE) ? type.getSimpleName() : RepositoryPipelineMetrics.OTHER;
+    }
+}
@@ -0,0 +1,166 @@
+package com.redcarepharmacy.githubreposcorer.ratelimit;
+
+import com.redcarepharmacy.githubreposcorer.config.RepositoryConcurrencyLimitProperties;
+import com.redcarepharmacy.githubreposcorer.exception.ConcurrencyLimitExceededException;
+import com.redcarepharmacy.githubreposcorer.metrics.RepositoryPipelineMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Adaptive limit on GitHub fetches in flight for callers waiting on a cache miss.
+ * <p>
+ * When GitHub slows down, fetches take longer and pile up, and with them the request threads
+ * waiting on them, until callers whose pages are cached wait for a thread as well. This limiter
+ * sheds the fetches over the limit right away with {@link ConcurrencyLimitExceededException}
+ * instead, answered with {@code 503} and {@code Retry-After}. Only misses go through it, so
+ * cached pages are always served.
+ * <p>
+ * The limit is adapted to GitHub's latency, additive increase / multiplicative decrease: a
+ * fetch whose GitHub exchange took at most {@code app.concurrency-limit.latency-threshold},
+ * while the limit was at least half used, raises it by one; a slower exchange, or one GitHub
+ * did not answer in time, multiplies it by {@code backoff-ratio}. The exchange is timed by
+ * {@link GithubRateLimitInterceptor} once the request has its rate limit permit, so waiting
+ * for our own budget is not taken for congestion. Fetches without an exchange, and other
+ * failures, like an exhausted rate limit, leave the limit as is. The limit and the fetches in
+ * flight are published as {@code repositories.concurrency.limit} and
+ * {@code repositories.concurrency.in.flight}, shed requests as
+ * {@code repositories.requests.rejected{reason=concurrency_limit}}.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    static final String REJECTED_REASON = "concurrency_limit";
+
+    /**
+     * GitHub exchange time of the fetch running on this thread, in nanoseconds; {@code -1}
+     * until one was recorded.
+     */
+    private static final ThreadLocal<long[]> EXCHANGE_NANOS = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final Duration retryAfter;
+    private final RepositoryPipelineMetrics metrics;
+    // a lock rather than synchronized, which would pin virtual threads on Java 21
+    private final ReentrantLock lock = new ReentrantLock();
+    private double limit;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimiter(RepositoryConcurrencyLimitProperties properties,
+                                      RepositoryPipelineMetrics metrics) {
+        this.enabled = properties.enabled();
+        this.minLimit = Math.max(1, properties.minLimit());
+        this.maxLimit = Math.max(minLimit, properties.maxLimit());
+        this.limit = Math.clamp(properties.initialLimit(), minLimit, maxLimit);
+        this.latencyThresholdNanos = properties.latencyThreshold() != null
+                ? properties.latencyThreshold().toNanos() : Long.MAX_VALUE;
+        this.backoffRatio = Math.clamp(properties.backoffRatio(), 0.1, 1.0);
+        this.retryAfter = properties.retryAfter() != null ? properties.retryAfter() : Duration.ofSeconds(1);
+        this.metrics = metrics;
+        metrics.registerConcurrencyLimit(this, AdaptiveConcurrencyLimiter::limit,
+                AdaptiveConcurrencyLimiter::inFlight);
+    }
+
+    /**
+     * Runs {@code fetch} if the limit allows another fetch, and adapts the limit to how it went.
+     *
+     * @throws ConcurrencyLimitExceededException if the limit is reached; {@code fetch} is not run
+     */
+    public <T> T call(Supplier<T> fetch) {
+        boolean saturated = acquire();
+        long[] exchangeNanos = {-1};
+        long[] previous = EXCHANGE_NANOS.get();
+        EXCHANGE_NANOS.set(exchangeNanos);
+        Boolean congested = null;
+        try {
+            T result = fetch.get();
+            congested = exchangeNanos[0] >= 0 ? exchangeNanos[0] > latencyThresholdNanos : null;
+            return result;
+        } catch (ResourceAccessException e) {
+            congested = true;
+            throw e;
+        } finally {
+            EXCHANGE_NANOS.set(previous);
+            release(congested, saturated);
+        }
+    }
+
+    /**
+     * Reports how long a GitHub exchange made on this thread took, from sending the request
+     * with its permit to receiving the response headers. Adds up if a fetch makes several;
+     * ignored outside of {@link #call}.
+     */
+    public static void recordExchange(long nanos) {
+        long[] exchangeNanos = EXCHANGE_NANOS.get();
+        if (exchangeNanos != null) {
+            exchangeNanos[0] = Math.max(0, exchangeNanos[0]) + nanos;
+        }
+    }
+
+    /**
+     * The current limit, rounded down.
+     */
+    public int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Fetches in flight.
+     */
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a slot, returning whether the limit was at least half used with it.
+     */
+    private boolean acquire() {
+        lock.lock();
+        try {
+            if (enabled && inFlight >= (int) limit) {
+                metrics.recordRejected(REJECTED_REASON);
+                throw new ConcurrencyLimitExceededException("Concurrency limit of " + (int) limit
+                        + " GitHub fetches reached", retryAfter);
+            }
+            inFlight++;
+            return inFlight * 2 >= limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frees a slot; {@code congested} is {@code null} if the fetch says nothing about GitHub's
+     * latency.
+     */
+    private void release(Boolean congested, boolean saturated) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (Boolean.TRUE.equals(congested)) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (Boolean.FALSE.equals(congested) && saturated) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.redcarepharmacy.githubreposcorer.ratelimit;
+
+import com.redcarepharmacy.githubreposcorer.exception.GitHubRateLimitExceededException;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link GithubRateLimitInterceptor} for the GitHub {@code WebClient}. The wait for budget
+ * is a timer, so no thread is held while waiting.
+ */
+public class GithubRateLimitFilter implements ExchangeFilterFunction {
+
+    private final GithubRateLimiter rateLimiter;
+
+    public GithubRateLimitFilter(GithubRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        GithubRateLimiter.Permit permit;
+        try {
+            permit = rateLimiter.acquire(RequestPriority.current());
+        } catch (GitHubRateLimitExceededException e) {
+            return Mono.error(e);
+        }
+        ClientRequest authorized = permit.token() == null ? request
+                : ClientRequest.from(request).headers(headers -> headers.setBearerAuth(permit.token())).build();
+        Mono<ClientResponse> exchange = next.exchange(authorized)
+                .doOnNext(response -> rateLimiter.onResponse(permit, response.statusCode(),
+                        response.headers().asHttpHeaders()));
+        return permit.waitTime().isPositive() ? Mono.delay(permit.waitTime()).then(exchange) : exchange;
+    }
+}
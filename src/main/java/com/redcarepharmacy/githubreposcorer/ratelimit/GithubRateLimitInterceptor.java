@@ -0,0 +1,46 @@
+package com.redcarepharmacy.githubreposcorer.ratelimit;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+/**
+ * Sends each {@code RestTemplate} request to GitHub with a permit of {@link GithubRateLimiter}:
+ * waits as long as the permit says, authenticates with its token and reports the rate limit
+ * headers of the response back. The exchange itself, without the wait, is reported to
+ * {@link AdaptiveConcurrencyLimiter#recordExchange}.
+ */
+public class GithubRateLimitInterceptor implements ClientHttpRequestInterceptor {
+
+    private final GithubRateLimiter rateLimiter;
+
+    public GithubRateLimitInterceptor(GithubRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        GithubRateLimiter.Permit permit = rateLimiter.acquire(RequestPriority.current());
+        if (permit.waitTime().isPositive()) {
+            try {
+                Thread.sleep(permit.waitTime());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for GitHub rate limit budget");
+            }
+        }
+        if (permit.token() != null) {
+            request.getHeaders().setBearerAuth(permit.token());
+        }
+        long start = System.nanoTime();
+        ClientHttpResponse response = execution.execute(request, body);
+        AdaptiveConcurrencyLimiter.recordExchange(System.nanoTime() - start);
+        rateLimiter.onResponse(permit, response.getStatusCode(), response.getHeaders());
+        return response;
+    }
+}
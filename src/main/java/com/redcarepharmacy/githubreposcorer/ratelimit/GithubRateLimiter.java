@@ -0,0 +1,198 @@
+package com.redcarepharmacy.githubreposcorer.ratelimit;
+
+import com.redcarepharmacy.githubreposcorer.config.GithubRateLimitProperties;
+import com.redcarepharmacy.githubreposcorer.exception.GitHubRateLimitExceededException;
+import com.redcarepharmacy.githubreposcorer.metrics.RepositoryPipelineMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Client-side governor of the GitHub search rate limit.
+ * <p>
+ * Every GitHub request takes a permit first. Requests are spread over the configured API
+ * tokens, each with a {@link TokenBudget} refilled at {@code github.rate-limit.requests-per-minute}
+ * and synchronized with the {@code X-RateLimit-Remaining} / {@code X-RateLimit-Reset}
+ * headers of GitHub's responses. A permit goes to the token that can send soonest.
+ * <ul>
+ *   <li>{@link RequestPriority#INTERACTIVE} requests wait for budget up to
+ *   {@code github.rate-limit.max-wait}, and are refused with
+ *   {@link GitHubRateLimitExceededException} if it would take longer</li>
+ *   <li>{@link RequestPriority#BACKGROUND} requests never wait and are refused unless a token
+ *   has more than {@code github.rate-limit.reserve} requests left</li>
+ * </ul>
+ * A refused request is never sent, so it does not count against GitHub's limit.
+ */
+@Component
+public class GithubRateLimiter {
+
+    private static final String SEARCH_RESOURCE = "search";
+
+    private final List<TokenBudget> budgets = new ArrayList<>();
+    private final int reserve;
+    private final long maxWaitMillis;
+    private final RepositoryPipelineMetrics metrics;
+    private final Clock clock;
+    // a lock rather than synchronized, which would pin virtual threads on Java 21
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Autowired
+    public GithubRateLimiter(GithubRateLimitProperties properties, RepositoryPipelineMetrics metrics) {
+        this(properties, metrics, Clock.systemUTC());
+    }
+
+    GithubRateLimiter(GithubRateLimitProperties properties, RepositoryPipelineMetrics metrics, Clock clock) {
+        this.reserve = properties.reserve();
+        this.maxWaitMillis = properties.maxWait() != null ? properties.maxWait().toMillis() : 0;
+        this.metrics = metrics;
+        this.clock = clock;
+        long now = clock.millis();
+        if (properties.tokens() != null) {
+            for (String token : properties.tokens()) {
+                if (StringUtils.hasText(token)) {
+                    budgets.add(new TokenBudget(token.trim(), properties.requestsPerMinute(), now));
+                }
+            }
+        }
+        if (budgets.isEmpty()) {
+            budgets.add(new TokenBudget(null, properties.anonymousRequestsPerMinute(), now));
+        }
+    }
+
+    /**
+     * Permission to send one request: the token to send it with and how long to wait first.
+     */
+    public static final class Permit {
+
+        private final TokenBudget budget;
+        private final Duration waitTime;
+
+        private Permit(TokenBudget budget, Duration waitTime) {
+            this.budget = budget;
+            this.waitTime = waitTime;
+        }
+
+        /**
+         * The API token to authenticate with, or {@code null} to send the request anonymously.
+         */
+        public String token() {
+            return budget.token();
+        }
+
+        public Duration waitTime() {
+            return waitTime;
+        }
+    }
+
+    /**
+     * Requests per minute all tokens together may send.
+     */
+    public int requestsPerMinute() {
+        int total = 0;
+        for (TokenBudget budget : budgets) {
+            total += budget.requestsPerMinute();
+        }
+        return total;
+    }
+
+    /**
+     * Takes a permit for one GitHub request.
+     *
+     * @throws GitHubRateLimitExceededException if no token has budget for the request in time
+     */
+    public Permit acquire(RequestPriority priority) {
+        lock.lock();
+        try {
+            long now = clock.millis();
+            TokenBudget best = null;
+            long bestWait = Long.MAX_VALUE;
+            long bestHeadroom = -1;
+            for (TokenBudget budget : budgets) {
+                long wait = budget.waitMillis(now);
+                long headroom = budget.headroom(now);
+                if (wait < bestWait || (wait == bestWait && headroom > bestHeadroom)) {
+                    best = budget;
+                    bestWait = wait;
+                    bestHeadroom = headroom;
+                }
+            }
+            if (priority == RequestPriority.BACKGROUND && (bestWait > 0 || bestHeadroom <= reserve)) {
+                metrics.recordRateLimitRefused(priority.tag());
+                throw new GitHubRateLimitExceededException(
+                        "GitHub rate limit budget is reserved for client requests", Duration.ofMillis(bestWait));
+            }
+            if (bestWait > maxWaitMillis) {
+                metrics.recordRateLimitRefused(priority.tag());
+                throw new GitHubRateLimitExceededException(
+                        "API rate limit exceeded. Please try again later.", Duration.ofMillis(bestWait));
+            }
+            best.take(now);
+            metrics.recordRateLimitWait(priority.tag(), bestWait);
+            return new Permit(best, Duration.ofMillis(bestWait));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Updates the budget of the permit's token from a GitHub response. Other rate limit
+     * resources than search, such as {@code core}, are ignored. A {@code 403} or
+     * {@code 429} with {@code Retry-After} (GitHub's secondary rate limit) stops the token
+     * for that long. A {@code 304 Not Modified} to an authenticated conditional request does
+     * not count against GitHub's limit, so its permit is given back.
+     */
+    public void onResponse(Permit permit, HttpStatusCode status, HttpHeaders headers) {
+        String resource = headers.getFirst("X-RateLimit-Resource");
+        if (resource != null && !resource.equals(SEARCH_RESOURCE)) {
+            return;
+        }
+        if (status.isSameCodeAs(HttpStatus.NOT_MODIFIED) && permit.token() != null) {
+            lock.lock();
+            try {
+                permit.budget.refund(clock.millis());
+            } finally {
+                lock.unlock();
+            }
+        }
+        long remaining = parseLong(headers.getFirst("X-RateLimit-Remaining"));
+        long reset = parseLong(headers.getFirst("X-RateLimit-Reset"));
+        long retryAfter = status.value() == HttpStatus.FORBIDDEN.value()
+                || status.value() == HttpStatus.TOO_MANY_REQUESTS.value()
+                ? parseLong(headers.getFirst(HttpHeaders.RETRY_AFTER)) : -1;
+        if ((remaining < 0 || reset < 0) && retryAfter < 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            long now = clock.millis();
+            if (remaining >= 0 && reset >= 0) {
+                permit.budget.update(remaining, reset * 1000, now);
+            }
+            if (retryAfter >= 0) {
+                permit.budget.block(now + retryAfter * 1000, now);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long parseLong(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
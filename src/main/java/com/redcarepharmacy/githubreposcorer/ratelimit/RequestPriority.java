@@ -0,0 +1,51 @@
+package com.redcarepharmacy.githubreposcorer.ratelimit;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Who a GitHub request is made for, as seen by {@link GithubRateLimiter}.
+ * <p>
+ * The priority is held per thread; requests default to {@link #INTERACTIVE}.
+ */
+public enum RequestPriority {
+
+    /**
+     * A client is waiting for the response.
+     */
+    INTERACTIVE,
+
+    /**
+     * Nobody is waiting, e.g. a refresh of a stale cached page. Only sent while the budget
+     * is above the reserve, and never waits for it.
+     */
+    BACKGROUND;
+
+    private static final ThreadLocal<RequestPriority> CURRENT = ThreadLocal.withInitial(() -> INTERACTIVE);
+
+    private final String tag = name().toLowerCase(Locale.ROOT);
+
+    /**
+     * Metric tag value.
+     */
+    public String tag() {
+        return tag;
+    }
+
+    public static RequestPriority current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs {@code action} with GitHub requests on this thread made at {@code priority}.
+     */
+    public static <T> T callAs(RequestPriority priority, Supplier<T> action) {
+        RequestPriority previous = CURRENT.get();
+        CURRENT.set(priority);
+        try {
+            return action.get();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+}
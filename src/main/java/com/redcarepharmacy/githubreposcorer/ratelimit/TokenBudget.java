@@ -0,0 +1,120 @@
+package com.redcarepharmacy.githubreposcorer.ratelimit;
+
+/**
+ * Request budget of one API token: a token bucket refilled at the per-minute rate,
+ * capped by what GitHub last reported as remaining in the current window.
+ * <p>
+ * Not thread-safe; {@link GithubRateLimiter} calls it under its lock.
+ */
+final class TokenBudget {
+
+    private final String token;
+    private final int requestsPerMinute;
+
+    private double available;
+    private long refilledAt;
+
+    /**
+     * Requests left in GitHub's window, minus requests sent since it was reported;
+     * {@code -1} when unknown.
+     */
+    private long remaining = -1;
+    private long resetAt;
+
+    TokenBudget(String token, int requestsPerMinute, long now) {
+        this.token = token;
+        this.requestsPerMinute = requestsPerMinute;
+        this.available = requestsPerMinute;
+        this.refilledAt = now;
+    }
+
+    String token() {
+        return token;
+    }
+
+    int requestsPerMinute() {
+        return requestsPerMinute;
+    }
+
+    /**
+     * Milliseconds until the next request may be sent.
+     */
+    long waitMillis(long now) {
+        refill(now);
+        long wait = available >= 1 ? 0 : (long) Math.ceil((1 - available) * 60_000 / requestsPerMinute);
+        if (remaining == 0) {
+            wait = Math.max(wait, resetAt - now);
+        }
+        return wait;
+    }
+
+    /**
+     * Requests that may be sent right away.
+     */
+    long headroom(long now) {
+        refill(now);
+        long headroom = (long) Math.max(0, Math.floor(available));
+        return remaining >= 0 ? Math.min(headroom, remaining) : headroom;
+    }
+
+    /**
+     * Takes one request from the budget. A request that has to wait takes a future one, so
+     * waiting requests are spread out instead of all being sent once budget is back.
+     */
+    void take(long now) {
+        refill(now);
+        available -= 1;
+        if (remaining > 0) {
+            remaining--;
+        }
+    }
+
+    /**
+     * Gives back a request taken with {@link #take} that GitHub did not count. A token
+     * stopped by {@link #block} stays stopped.
+     */
+    void refund(long now) {
+        refill(now);
+        available = Math.min(requestsPerMinute, available + 1);
+        if (remaining > 0) {
+            remaining++;
+        }
+    }
+
+    /**
+     * Applies the remaining count GitHub reported for the window ending at {@code resetAt}.
+     * Responses to concurrent requests arrive in any order, so within one window the lowest
+     * count wins.
+     */
+    void update(long remaining, long resetAt, long now) {
+        if (resetAt <= now) {
+            return;
+        }
+        if (this.remaining >= 0 && resetAt == this.resetAt) {
+            this.remaining = Math.min(this.remaining, remaining);
+        } else if (this.remaining < 0 || resetAt > this.resetAt) {
+            this.remaining = remaining;
+            this.resetAt = resetAt;
+        }
+    }
+
+    /**
+     * Stops sending until {@code until}, e.g. after GitHub answered with {@code Retry-After}.
+     */
+    void block(long until, long now) {
+        if (until > now && (remaining != 0 || until > resetAt)) {
+            remaining = 0;
+            resetAt = until;
+        }
+    }
+
+    private void refill(long now) {
+        if (remaining >= 0 && now >= resetAt) {
+            remaining = -1;
+        }
+        if (now > refilledAt) {
+            available = Math.min(requestsPerMinute, available + (now - refilledAt) * requestsPerMinute / 60_000.0);
+            refilledAt = now;
+        }
+    }
+}
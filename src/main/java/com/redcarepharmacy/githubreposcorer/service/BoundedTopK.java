@@ -0,0 +1,55 @@
+package com.redcarepharmacy.githubreposcorer.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the {@code k} greatest elements offered to it, in O(k) memory.
+ *
+ * <p>Backed by a min-heap of at most {@code k} elements: an offered element only enters
+ * when it beats the current minimum, which is then dropped. Offering n elements costs
+ * O(n log k). Not thread-safe.</p>
+ *
+ * @param <T> element type
+ */
+public class BoundedTopK<T> {
+
+    private final int k;
+    private final Comparator<? super T> comparator;
+    private final PriorityQueue<T> heap;
+
+    public BoundedTopK(int k, Comparator<? super T> comparator) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1");
+        }
+        this.k = k;
+        this.comparator = comparator;
+        this.heap = new PriorityQueue<>(Math.min(k, 1024) + 1, comparator);
+    }
+
+    public void offer(T element) {
+        if (heap.size() < k) {
+            heap.add(element);
+        } else if (comparator.compare(element, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(element);
+        }
+    }
+
+    public void offerAll(Iterable<? extends T> elements) {
+        for (T element : elements) {
+            offer(element);
+        }
+    }
+
+    /**
+     * @return the retained elements, greatest first
+     */
+    public List<T> toSortedList() {
+        List<T> sorted = new ArrayList<>(heap);
+        sorted.sort(comparator.reversed());
+        return sorted;
+    }
+}
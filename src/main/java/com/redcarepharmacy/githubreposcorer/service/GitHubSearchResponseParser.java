@@ -0,0 +1,196 @@
+package com.redcarepharmacy.githubreposcorer.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.redcarepharmacy.githubreposcorer.dto.Item;
+import com.redcarepharmacy.githubreposcorer.dto.Owner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.function.Consumer;
+
+/**
+ * Token-streaming decoder for GitHub search responses.
+ * <p>
+ * Reads {@code total_count}, {@code incomplete_results} and the eight {@link Item} fields
+ * straight from the response stream and skips everything else with
+ * {@link JsonParser#skipChildren()}, so the ~90 other fields of each item (URLs, owner
+ * details, license, topics, ...) are tokenized but never materialized as strings, nodes
+ * or objects. Each item is handed to the consumer as soon as its closing brace is read.
+ * <p>
+ * Instances are thread-safe.
+ */
+public class GitHubSearchResponseParser {
+
+    private static final int UTC_TIMESTAMP_LENGTH = "2024-01-01T00:00:00Z".length();
+
+    private final JsonFactory jsonFactory;
+
+    public GitHubSearchResponseParser() {
+        this(new JsonFactory());
+    }
+
+    public GitHubSearchResponseParser(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * The top-level fields of a search result page.
+     *
+     * @param hasItems whether the page carried an {@code items} array
+     */
+    public record SearchPage(int totalCount, boolean incompleteResults, boolean hasItems) {
+    }
+
+    /**
+     * Parses a search response, passing each item to {@code itemConsumer} in document order.
+     *
+     * @return the top-level fields, or {@code null} if the body is empty
+     * @throws JsonParseException if the body is not a JSON object
+     */
+    public SearchPage parse(InputStream body, Consumer<Item> itemConsumer) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return null;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object but found " + token);
+            }
+            int totalCount = 0;
+            boolean incompleteResults = false;
+            boolean hasItems = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "total_count" -> totalCount = parser.getValueAsInt();
+                    case "incomplete_results" -> incompleteResults = parser.getValueAsBoolean();
+                    case "items" -> {
+                        if (value == JsonToken.START_ARRAY) {
+                            hasItems = true;
+                            readItems(parser, itemConsumer);
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            return new SearchPage(totalCount, incompleteResults, hasItems);
+        }
+    }
+
+    private static void readItems(JsonParser parser, Consumer<Item> itemConsumer) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.START_OBJECT) {
+                itemConsumer.accept(readItem(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static Item readItem(JsonParser parser) throws IOException {
+        Long id = null;
+        String name = null;
+        String language = null;
+        int stargazersCount = 0;
+        int forksCount = 0;
+        Instant updatedAt = null;
+        Instant createdAt = null;
+        Owner owner = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> id = value == JsonToken.VALUE_NULL ? null : parser.getValueAsLong();
+                case "name" -> name = parser.getValueAsString();
+                case "language" -> language = parser.getValueAsString();
+                case "stargazers_count" -> stargazersCount = parser.getValueAsInt();
+                case "forks_count" -> forksCount = parser.getValueAsInt();
+                case "updated_at" -> updatedAt = readInstant(parser);
+                case "created_at" -> createdAt = readInstant(parser);
+                case "owner" -> owner = value == JsonToken.START_OBJECT ? readOwner(parser) : null;
+                default -> parser.skipChildren();
+            }
+        }
+        return new Item(id, name, language, stargazersCount, forksCount, updatedAt, createdAt, owner);
+    }
+
+    private static Owner readOwner(JsonParser parser) throws IOException {
+        String login = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (field.equals("login")) {
+                login = parser.getValueAsString();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new Owner(login);
+    }
+
+    private static Instant readInstant(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_STRING && parser.getTextLength() == UTC_TIMESTAMP_LENGTH) {
+            Instant instant = parseUtcTimestamp(parser.getTextCharacters(), parser.getTextOffset());
+            if (instant != null) {
+                return instant;
+            }
+        }
+        String text = parser.getValueAsString();
+        try {
+            return text == null ? null : Instant.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new JsonParseException(parser, "Invalid timestamp: " + text, e);
+        }
+    }
+
+    /**
+     * Fast path for GitHub's {@code yyyy-MM-ddTHH:mm:ssZ} timestamps, read from the parser's
+     * buffer without creating a string. Returns {@code null} for anything else, which is
+     * then left to {@link Instant#parse}.
+     */
+    static Instant parseUtcTimestamp(char[] text, int offset) {
+        if (text[offset + 4] != '-' || text[offset + 7] != '-' || text[offset + 10] != 'T'
+                || text[offset + 13] != ':' || text[offset + 16] != ':' || text[offset + 19] != 'Z') {
+            return null;
+        }
+        int year = digits(text, offset, 4);
+        int month = digits(text, offset + 5, 2);
+        int day = digits(text, offset + 8, 2);
+        int hour = digits(text, offset + 11, 2);
+        int minute = digits(text, offset + 14, 2);
+        int second = digits(text, offset + 17, 2);
+        if (year < 0 || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+        long epochDay;
+        try {
+            epochDay = LocalDate.of(year, month, day).toEpochDay();
+        } catch (DateTimeException e) {
+            return null;
+        }
+        return Instant.ofEpochSecond(epochDay * 86_400 + hour * 3_600L + minute * 60L + second);
+    }
+
+    private static int digits(char[] text, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = text[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
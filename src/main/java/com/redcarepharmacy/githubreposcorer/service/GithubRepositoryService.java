@@ -1,34 +1,97 @@
 package com.redcarepharmacy.githubreposcorer.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.redcarepharmacy.githubreposcorer.cache.PackedRepositoryScoreList;
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreCache;
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreCacheKey;
 import com.redcarepharmacy.githubreposcorer.dto.GitHubRepositorySearchDto;
+import com.redcarepharmacy.githubreposcorer.dto.Item;
 import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
 import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import com.redcarepharmacy.githubreposcorer.dto.TopRepositoriesResponseDto;
+import com.redcarepharmacy.githubreposcorer.exception.ConcurrencyLimitExceededException;
+import com.redcarepharmacy.githubreposcorer.exception.GitHubRateLimitExceededException;
 import com.redcarepharmacy.githubreposcorer.exception.GitHubSearchLimitExceededException;
+import com.redcarepharmacy.githubreposcorer.index.RepositoryIndex;
+import com.redcarepharmacy.githubreposcorer.metrics.RepositoryPipelineMetrics;
+import com.redcarepharmacy.githubreposcorer.metrics.RepositoryPipelineMetrics.Stage;
+import com.redcarepharmacy.githubreposcorer.ratelimit.AdaptiveConcurrencyLimiter;
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 @Service
 public class GithubRepositoryService implements RepositoryService {
 
+    static final String FETCH_OBSERVATION = "repositories.fetch";
+    static final String TOP_OBSERVATION = "repositories.top";
+
+    /**
+     * GitHub search only serves the first 1000 results of a query.
+     */
+    private static final int SEARCH_RESULT_LIMIT = 1000;
+    private static final Comparator<RepositoryScoreDto> BY_POPULARITY =
+            Comparator.comparingDouble(RepositoryScoreDto::popularityScore)
+                    .thenComparing(RepositoryScoreDto::name, Comparator.nullsFirst(Comparator.reverseOrder()));
+
     private final RestTemplate restTemplate;
     private final RepositoryScoreCalculator repositoryScoreCalculator;
     private final String githubSearchRepoURL;
+    private final RepositoryScoreCache repositoryScoreCache;
+    private final GitHubSearchResponseParser searchResponseParser = new GitHubSearchResponseParser();
+    private final RepositoryPipelineMetrics metrics;
+    private final ObservationRegistry observationRegistry;
+    private final RepositoryIndex repositoryIndex;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final ContextSnapshotFactory contextSnapshotFactory = ContextSnapshotFactory.builder().build();
     private final Logger logger = LoggerFactory.getLogger(GithubRepositoryService.class);
 
     public GithubRepositoryService(RestTemplate restTemplate,
                                    @Value("${github.api.search.url}") String githubSearchRepoURL,
-                                   RepositoryScoreCalculator repositoryScoreCalculator) {
+                                   RepositoryScoreCalculator repositoryScoreCalculator,
+                                   RepositoryScoreCache repositoryScoreCache,
+                                   RepositoryPipelineMetrics metrics,
+                                   ObservationRegistry observationRegistry,
+                                   @Nullable RepositoryIndex repositoryIndex,
+                                   @Nullable AdaptiveConcurrencyLimiter concurrencyLimiter) {
         this.restTemplate = restTemplate;
         this.githubSearchRepoURL = githubSearchRepoURL;
         this.repositoryScoreCalculator = repositoryScoreCalculator;
+        this.repositoryScoreCache = repositoryScoreCache;
+        this.metrics = metrics;
+        this.observationRegistry = observationRegistry;
+        this.repositoryIndex = repositoryIndex;
+        this.concurrencyLimiter = concurrencyLimiter;
     }
 
     /**
@@ -38,10 +101,24 @@ public class GithubRepositoryService implements RepositoryService {
      * This class:
      * <ul>
      *   <li>Builds a search request URL using the configured GitHub API endpoint</li>
-     *   <li>Calls the GitHub API using {@link RestTemplate}</li>
+     *   <li>Calls the GitHub API using {@link RestTemplate} and streams the response through
+     *   {@link GitHubSearchResponseParser}</li>
      *   <li>Handles API errors (e.g., rate limit exceeded)</li>
-     *   <li>Computes repository scores using {@link RepositoryScoreCalculator}</li>
-     *   <li>Caches results to avoid redundant API calls using Spring’s caching abstraction</li>
+     *   <li>Computes repository scores using {@link RepositoryScoreCalculator}, again on every
+     *   read of a cached page, so cached scores never go out of date</li>
+     *   <li>Caches results to avoid redundant API calls through {@link RepositoryScoreCache},
+     *   which keeps pages in the {@code repositories_score} cache (Caffeine, or Redis in Redis
+     *   mode) and is called explicitly rather than through {@code @Cacheable}</li>
+     *   <li>Coalesces concurrent cache misses for the same page into a single API call
+     *   ({@link com.redcarepharmacy.githubreposcorer.cache.SingleFlight})</li>
+     *   <li>Serves pages past their soft TTL while refreshing them in the background, with a
+     *   conditional request when GitHub sent a validator with the page</li>
+     *   <li>Sheds cache misses over the {@link AdaptiveConcurrencyLimiter}'s limit, so callers
+     *   of cached pages are not held up when GitHub slows down</li>
+     *   <li>Serves queries the {@link RepositoryIndex} covers from the index, without the
+     *   cache or GitHub</li>
+     *   <li>Observes each call as {@code repositories.fetch}: a timer tagged with language and
+     *   outcome, and a tracing span that the cache lookup and GitHub call happen in</li>
      * </ul>
      * <p>
      * Results are returned as {@link RepositoryScoreResponseDto}, which includes:
@@ -49,44 +126,406 @@ public class GithubRepositoryService implements RepositoryService {
      *   <li>Total repository count</li>
      *   <li>Whether results are incomplete</li>
      *   <li>A list of repositories with their computed scores</li>
+     *   <li>When the data was fetched from GitHub</li>
      * </ul>
      */
-    @Cacheable(
-            value = "repositories_score",
-            key = "#language + ':' + #createdAfter + ':' + #page",
-            unless = "#result == null || #result.repositoryScoreList().isEmpty()"
-    )
     public RepositoryScoreResponseDto fetchAndScoreRepositories
     (String language, LocalDate createdAfter, int page) {
+        return fetchAndScoreRepositories(language, createdAfter, page, true);
+    }
+
+    /**
+     * Variant of {@link #fetchAndScoreRepositories(String, LocalDate, int)} whose miss only
+     * takes a slot of the {@link AdaptiveConcurrencyLimiter} if {@code limited}.
+     */
+    private RepositoryScoreResponseDto fetchAndScoreRepositories
+    (String language, LocalDate createdAfter, int page, boolean limited) {
+        String key = new RepositoryScoreCacheKey(language, createdAfter, page).toString();
+        Observation observation = Observation.createNotStarted(FETCH_OBSERVATION, observationRegistry)
+                .contextualName("fetch-and-score-repositories")
+                .lowCardinalityKeyValue("language", RepositoryPipelineMetrics.languageTag(language))
+                .highCardinalityKeyValue("page", String.valueOf(page));
+        if (repositoryIndex != null && repositoryIndex.covers(language, createdAfter)) {
+            return observe(observation,
+                    () -> repositoryIndex.page(language, createdAfter, page, repositoryScoreCalculator));
+        }
+        return observe(observation, () -> scoreOnRead(repositoryScoreCache.get(key,
+                cached -> loadOnMiss(language, createdAfter, page, cached, limited)), repositoryScoreCalculator));
+    }
+
+    /**
+     * Loader of {@link #fetchAndScoreRepositories}: a miss, which a caller waits for, takes a
+     * slot of the {@link AdaptiveConcurrencyLimiter}, while a background refresh of a stale
+     * page does not.
+     */
+    private RepositoryScoreResponseDto loadOnMiss(String language, LocalDate createdAfter, int page,
+                                                  RepositoryScoreResponseDto cached, boolean limited) {
+        if (cached != null || concurrencyLimiter == null || !limited) {
+            return loadAndScoreRepositories(language, createdAfter, page, cached);
+        }
+        return concurrencyLimiter.call(() -> loadAndScoreRepositories(language, createdAfter, page, null));
+    }
+
+    /**
+     * Serves the page from the {@link RepositoryIndex} or the cache, as
+     * {@link #fetchAndScoreRepositories} would, and returns {@code null} instead of calling
+     * GitHub on a cache miss. A stale page is still refreshed in the background.
+     */
+    @Override
+    public RepositoryScoreResponseDto fetchCachedRepositories(String language, LocalDate createdAfter, int page) {
+        if (repositoryIndex != null && repositoryIndex.covers(language, createdAfter)) {
+            return fetchAndScoreRepositories(language, createdAfter, page);
+        }
+        String key = new RepositoryScoreCacheKey(language, createdAfter, page).toString();
+        RepositoryScoreResponseDto cached = repositoryScoreCache.getIfCached(key,
+                stale -> loadAndScoreRepositories(language, createdAfter, page, stale));
+        return cached != null ? scoreOnRead(cached, repositoryScoreCalculator) : null;
+    }
+
+    /**
+     * Returns the {@code k} highest scoring repositories of the first {@code maxPages}
+     * result pages.
+     * <p>
+     * Page 1 is fetched first to learn the page size and total count, so no page past
+     * the end of the results (or past GitHub's 1000 result limit) is requested. The
+     * remaining pages are looked up in the cache concurrently, and those not cached are then
+     * fetched concurrently through {@link #fetchAndScoreRepositories}, so freshly fetched
+     * pages are cached. The misses take a single slot of the {@link AdaptiveConcurrencyLimiter}
+     * together rather than one each, so a ranking over more pages than the limit does not
+     * shed its own pages, and a ranking over cached pages takes none. Each page is merged
+     * into a bounded min-heap, keeping the ranking itself at O(k) memory.
+     * <p>
+     * Queries the {@link RepositoryIndex} covers are ranked over all matching repositories
+     * in the index instead, regardless of {@code maxPages}.
+     */
+    @Override
+    public TopRepositoriesResponseDto fetchTopRepositories
+    (String language, LocalDate createdAfter, int maxPages, int k) {
+        Observation observation = Observation.createNotStarted(TOP_OBSERVATION, observationRegistry)
+                .contextualName("fetch-top-repositories")
+                .lowCardinalityKeyValue("language", RepositoryPipelineMetrics.languageTag(language))
+                .highCardinalityKeyValue("max.pages", String.valueOf(maxPages));
+        if (repositoryIndex != null && repositoryIndex.covers(language, createdAfter)) {
+            return observe(observation,
+                    () -> repositoryIndex.top(language, createdAfter, k, repositoryScoreCalculator));
+        }
+        return observe(observation, () -> rankTopRepositories(language, createdAfter, maxPages, k));
+    }
+
+    private TopRepositoriesResponseDto rankTopRepositories
+            (String language, LocalDate createdAfter, int maxPages, int k) {
+        BoundedTopK<RepositoryScoreDto> top = new BoundedTopK<>(k, BY_POPULARITY);
+        RepositoryScoreResponseDto first = fetchAndScoreRepositories(language, createdAfter, 1);
+        List<RepositoryScoreResponseDto> responses = new ArrayList<>();
+        responses.add(first);
+
+        int lastPage = lastPage(first, maxPages);
+        if (lastPage > 1) {
+            logger.info("Fetching pages 2 to {} concurrently for language={} createdAfter={}",
+                    lastPage, language, createdAfter);
+            List<Integer> pages = IntStream.rangeClosed(2, lastPage).boxed().toList();
+            List<RepositoryScoreResponseDto> cached = fetchConcurrently(pages,
+                    page -> fetchCachedRepositories(language, createdAfter, page));
+            List<Integer> misses = new ArrayList<>();
+            for (int i = 0; i < pages.size(); i++) {
+                if (cached.get(i) != null) {
+                    responses.add(cached.get(i));
+                } else {
+                    misses.add(pages.get(i));
+                }
+            }
+            if (!misses.isEmpty()) {
+                Supplier<List<RepositoryScoreResponseDto>> fetchMisses = () -> fetchConcurrently(misses,
+                        page -> fetchAndScoreRepositories(language, createdAfter, page, false));
+                responses.addAll(concurrencyLimiter != null ? concurrencyLimiter.call(fetchMisses) : fetchMisses.get());
+            }
+        }
+
+        boolean incompleteResults = false;
+        Instant oldestFetch = null;
+        for (RepositoryScoreResponseDto response : responses) {
+            top.offerAll(response.repositoryScoreList());
+            incompleteResults |= response.incompleteResults();
+            if (oldestFetch == null
+                    || (response.fetchedAt() != null && response.fetchedAt().isBefore(oldestFetch))) {
+                oldestFetch = response.fetchedAt();
+            }
+        }
+        return new TopRepositoriesResponseDto(first.totalCount(), lastPage, incompleteResults,
+                top.toSortedList(), oldestFetch);
+    }
+
+    /**
+     * Fetches {@code pages} on virtual threads, returning them in order.
+     */
+    private List<RepositoryScoreResponseDto> fetchConcurrently(List<Integer> pages,
+                                                               IntFunction<RepositoryScoreResponseDto> fetch) {
+        List<Future<RepositoryScoreResponseDto>> futures = new ArrayList<>(pages.size());
+        // page observations become children of this one on the virtual threads
+        try (ExecutorService executor = ContextExecutorService.wrap(
+                Executors.newVirtualThreadPerTaskExecutor(), contextSnapshotFactory)) {
+            for (int page : pages) {
+                futures.add(executor.submit(() -> fetch.apply(page)));
+            }
+            List<RepositoryScoreResponseDto> responses = new ArrayList<>(pages.size());
+            for (Future<RepositoryScoreResponseDto> future : futures) {
+                responses.add(awaitPage(future, futures));
+            }
+            return responses;
+        }
+    }
+
+    /**
+     * Runs {@code action} in {@code observation}, tagging the outcome: {@code success},
+     * {@code search_limit} (422), {@code rate_limited} (403/429, or refused by the rate
+     * limiter before it was sent), {@code overloaded} (shed by the concurrency limiter),
+     * {@code unavailable} (timeouts, connection failures) or {@code error}.
+     */
+    private static <T> T observe(Observation observation, Supplier<T> action) {
+        observation.start();
+        try (Observation.Scope scope = observation.openScope()) {
+            T result = action.get();
+            observation.lowCardinalityKeyValue("outcome", "success");
+            return result;
+        } catch (RuntimeException e) {
+            observation.lowCardinalityKeyValue("outcome", outcome(e));
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    private static String outcome(RuntimeException e) {
+        if (e instanceof GitHubSearchLimitExceededException) {
+            return "search_limit";
+        }
+        if (e instanceof GitHubRateLimitExceededException || e instanceof HttpClientErrorException.Forbidden
+                || e instanceof HttpClientErrorException.TooManyRequests) {
+            return "rate_limited";
+        }
+        if (e instanceof ConcurrencyLimitExceededException) {
+            return "overloaded";
+        }
+        if (e instanceof ResourceAccessException) {
+            return "unavailable";
+        }
+        return "error";
+    }
+
+    /**
+     * Last page worth requesting given the first page of results: no page past the end
+     * of the results or past GitHub's 1000 result limit, and no more than {@code maxPages}.
+     */
+    static int lastPage(RepositoryScoreResponseDto first, int maxPages) {
+        int pageSize = first.repositoryScoreList().size();
+        return pageSize == 0 ? 1
+                : Math.min(maxPages, Math.ceilDiv(Math.min(first.totalCount(), SEARCH_RESULT_LIMIT), pageSize));
+    }
+
+    private static RepositoryScoreResponseDto awaitPage(Future<RepositoryScoreResponseDto> page,
+                                                        List<Future<RepositoryScoreResponseDto>> allPages) {
+        try {
+            return page.get();
+        } catch (ExecutionException e) {
+            allPages.forEach(other -> other.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Fetching a result page failed", e.getCause());
+        } catch (InterruptedException e) {
+            allPages.forEach(other -> other.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching result pages", e);
+        }
+    }
+
+    /**
+     * Calls the GitHub Search API and scores the returned repositories, bypassing the cache.
+     * Used by {@link #fetchAndScoreRepositories} on a cache miss.
+     * <p>
+     * The response is decoded with {@link GitHubSearchResponseParser} straight from the
+     * connection, and each repository is scored as soon as it has been read. Decoding and
+     * scoring are timed separately as {@code repositories.pipeline.stage}; since the body
+     * streams in while it is decoded, the decode time includes reading it from the network.
+     */
+    public RepositoryScoreResponseDto loadAndScoreRepositories
+    (String language, LocalDate createdAfter, int page) {
+        return loadAndScoreRepositories(language, createdAfter, page, null);
+    }
+
+    /**
+     * Variant of {@link #loadAndScoreRepositories(String, LocalDate, int)} that refreshes a
+     * {@code cached} page. If GitHub sent an {@code ETag} or {@code Last-Modified} with it,
+     * the page is requested conditionally; on {@code 304 Not Modified} there is no body to
+     * read or decode, and the cached repositories are only rescored, since just the recency
+     * of their last update has changed. GitHub does not count {@code 304} responses against
+     * the rate limit.
+     */
+    public RepositoryScoreResponseDto loadAndScoreRepositories
+    (String language, LocalDate createdAfter, int page, @Nullable RepositoryScoreResponseDto cached) {
         String url = String.format(githubSearchRepoURL, language, createdAfter, page);
-        logger.info("Fetching repositories from github with the URL:- {}",url);
-        GitHubRepositorySearchDto gitResponse;
+        boolean conditional = cached != null && cached.hasValidator();
+        logger.info(conditional ? "Revalidating repositories with github with the URL:- {}"
+                : "Fetching repositories from github with the URL:- {}", url);
+        RequestCallback validators = conditional ? request -> setValidators(request.getHeaders(), cached) : null;
+        RepositoryScoreResponseDto scoreResponse;
         try {
-            gitResponse = restTemplate
-                    .getForObject(url, GitHubRepositorySearchDto.class);
+            scoreResponse = restTemplate.execute(url, HttpMethod.GET, validators, response ->
+                    conditional && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)
+                            ? rescore(cached, response.getHeaders(), language)
+                            : readAndScore(response, language));
         } catch (HttpClientErrorException.UnprocessableEntity e) {
             String responseBody = e.getResponseBodyAsString();
             logger.error("An exception occurred while " +
                     "fetching repositories from github API",e);
             throw new GitHubSearchLimitExceededException(responseBody);
         }
+        if (scoreResponse == null)
+            return new RepositoryScoreResponseDto(0, false, List.of(), Instant.now());
+        logger.info("Fetching repositories finished, " +
+                "total count of repos:- {}",scoreResponse.totalCount());
+        return scoreResponse;
+    }
+
+    static void setValidators(HttpHeaders headers, RepositoryScoreResponseDto cached) {
+        if (cached.etag() != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, cached.etag());
+        }
+        if (cached.lastModified() != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified());
+        }
+    }
+
+    private RepositoryScoreResponseDto rescore(RepositoryScoreResponseDto cached, HttpHeaders headers,
+                                               String language) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            RepositoryScoreResponseDto response = rescore(cached, headers, repositoryScoreCalculator, Instant.now());
+            success = true;
+            return response;
+        } finally {
+            metrics.recordStage(Stage.SCORE, language, success, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Rescores a cached page GitHub answered {@code 304 Not Modified} for, keeping the
+     * validators of the {@code 304} if it sent new ones; shared with
+     * {@link ReactiveGithubRepositoryService}.
+     */
+    static RepositoryScoreResponseDto rescore(RepositoryScoreResponseDto cached, HttpHeaders headers,
+                                              RepositoryScoreCalculator repositoryScoreCalculator,
+                                              Instant fetchedAt) {
+        List<RepositoryScoreDto> repoScoreList = rescore(cached.repositoryScoreList(), repositoryScoreCalculator);
+        String etag = headers.getETag();
+        String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+        return new RepositoryScoreResponseDto(cached.totalCount(), cached.incompleteResults(), repoScoreList,
+                fetchedAt, etag != null ? etag : cached.etag(),
+                lastModified != null ? lastModified : cached.lastModified());
+    }
+
+    /**
+     * Scores a page read from the cache with the current weights and as of now; shared with
+     * {@link ReactiveGithubRepositoryService}.
+     * <p>
+     * The cache keeps what GitHub returned for each repository, and the scores stored with a
+     * page are only those of when it was fetched: the recency term changes every day, and the
+     * weights may have changed since. Rescoring on every read keeps the scores correct however
+     * long a page is cached, and a weight change takes effect without refetching anything.
+     * Scoring is one {@link RepositoryScoreCalculator#computeScores} call per page, and
+     * packed pages are rescored without materializing their repositories.
+     */
+    static RepositoryScoreResponseDto scoreOnRead(RepositoryScoreResponseDto page,
+                                                  RepositoryScoreCalculator repositoryScoreCalculator) {
+        if (page.repositoryScoreList() == null || page.repositoryScoreList().isEmpty()) {
+            return page;
+        }
+        return new RepositoryScoreResponseDto(page.totalCount(), page.incompleteResults(),
+                rescore(page.repositoryScoreList(), repositoryScoreCalculator), page.fetchedAt(),
+                page.etag(), page.lastModified());
+    }
+
+    private static List<RepositoryScoreDto> rescore(List<RepositoryScoreDto> repositories,
+                                                    RepositoryScoreCalculator repositoryScoreCalculator) {
+        if (repositories instanceof PackedRepositoryScoreList packed) {
+            return packed.rescore(repositoryScoreCalculator::computeScores);
+        }
+        int size = repositories.size();
+        int[] stars = new int[size];
+        int[] forks = new int[size];
+        long[] updatedAt = new long[size];
+        double[] scores = new double[size];
+        for (int i = 0; i < size; i++) {
+            RepositoryScoreDto repository = repositories.get(i);
+            stars[i] = repository.stars();
+            forks[i] = repository.forks();
+            updatedAt[i] = repository.updatedAt() != null ? repository.updatedAt().getEpochSecond() : 0;
+        }
+        repositoryScoreCalculator.computeScores(stars, forks, updatedAt, scores);
+        RepositoryScoreDto[] rescored = new RepositoryScoreDto[size];
+        for (int i = 0; i < size; i++) {
+            rescored[i] = repositories.get(i).withPopularityScore(scores[i]);
+        }
+        return List.of(rescored);
+    }
+
+    private RepositoryScoreResponseDto readAndScore(ClientHttpResponse response, String language)
+            throws IOException {
+        Instant fetchedAt = Instant.now();
+        List<RepositoryScoreDto> repoScoreList = new ArrayList<>();
+        long[] scoringNanos = new long[1];
+        long start = System.nanoTime();
+        boolean success = false;
+        GitHubSearchResponseParser.SearchPage searchPage;
+        try {
+            searchPage = searchResponseParser.parse(response.getBody(), repo -> {
+                long scoringStart = System.nanoTime();
+                repoScoreList.add(score(repo, repositoryScoreCalculator));
+                scoringNanos[0] += System.nanoTime() - scoringStart;
+            });
+            success = true;
+        } catch (JsonProcessingException e) {
+            throw new RestClientException("Could not read the GitHub search response", e);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            metrics.recordStage(Stage.DECODE, language, success, elapsed - scoringNanos[0]);
+            metrics.recordStage(Stage.SCORE, language, success, scoringNanos[0]);
+        }
+        if (searchPage == null || !searchPage.hasItems())
+            return new RepositoryScoreResponseDto(0, false, List.of(), fetchedAt);
+        HttpHeaders headers = response.getHeaders();
+        return new RepositoryScoreResponseDto(searchPage.totalCount(), searchPage.incompleteResults(),
+                Collections.unmodifiableList(repoScoreList), fetchedAt,
+                headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED));
+    }
+
+    /**
+     * Scores a GitHub search result page, keeping the validators of its {@code headers};
+     * shared with {@link ReactiveGithubRepositoryService}.
+     */
+    static RepositoryScoreResponseDto toScoreResponse(GitHubRepositorySearchDto gitResponse,
+                                                      HttpHeaders headers,
+                                                      RepositoryScoreCalculator repositoryScoreCalculator,
+                                                      Instant fetchedAt) {
         if (gitResponse == null || gitResponse.items() == null)
             return new RepositoryScoreResponseDto(0,
-                    false, List.of());
+                    false, List.of(), fetchedAt);
 
-        logger.info("Fetching repositories finished, " +
-                "total count of repos:- {}",gitResponse.totalCount());
         List<RepositoryScoreDto> repoScoreList = gitResponse.items().stream()
-                .map(repo ->
-                        RepositoryScoreDto.from(repo,
-                                repositoryScoreCalculator.computeScore(
-                                        repo.stargazersCount(),
-                                        repo.forksCount(),
-                                        repo.updatedAt()))
-                ).toList();
+                .map(repo -> score(repo, repositoryScoreCalculator))
+                .toList();
         return new RepositoryScoreResponseDto(
                 gitResponse.totalCount(), gitResponse.incompleteResults(),
-                repoScoreList);
+                repoScoreList, fetchedAt, headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED));
+    }
 
+    private static RepositoryScoreDto score(Item repo, RepositoryScoreCalculator repositoryScoreCalculator) {
+        return RepositoryScoreDto.from(repo,
+                repositoryScoreCalculator.computeScore(
+                        repo.stargazersCount(),
+                        repo.forksCount(),
+                        repo.updatedAt()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,187 @@
+package com.redcarepharmacy.githubreposcorer.service;
+
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreCache;
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreCacheKey;
+import com.redcarepharmacy.githubreposcorer.dto.GitHubRepositorySearchDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import com.redcarepharmacy.githubreposcorer.exception.GitHubSearchLimitExceededException;
+import com.redcarepharmacy.githubreposcorer.index.RepositoryIndex;
+import com.redcarepharmacy.githubreposcorer.metrics.RepositoryPipelineMetrics;
+import com.redcarepharmacy.githubreposcorer.metrics.RepositoryPipelineMetrics.Stage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+@Service
+public class ReactiveGithubRepositoryService implements ReactiveRepositoryService {
+
+    /**
+     * Pages fetched ahead of the one being streamed, so the next page is usually ready
+     * when the current one has been written.
+     */
+    private static final int PAGE_LOOKAHEAD = 1;
+
+    private final WebClient webClient;
+    private final RepositoryScoreCalculator repositoryScoreCalculator;
+    private final String githubSearchRepoURL;
+    private final RepositoryScoreCache repositoryScoreCache;
+    private final RepositoryPipelineMetrics metrics;
+    private final RepositoryIndex repositoryIndex;
+    private final Logger logger = LoggerFactory.getLogger(ReactiveGithubRepositoryService.class);
+
+    public ReactiveGithubRepositoryService(@Qualifier("githubWebClient") WebClient webClient,
+                                           @Value("${github.api.search.url}") String githubSearchRepoURL,
+                                           RepositoryScoreCalculator repositoryScoreCalculator,
+                                           RepositoryScoreCache repositoryScoreCache,
+                                           RepositoryPipelineMetrics metrics,
+                                           @Nullable RepositoryIndex repositoryIndex) {
+        this.webClient = webClient;
+        this.githubSearchRepoURL = githubSearchRepoURL;
+        this.repositoryScoreCalculator = repositoryScoreCalculator;
+        this.repositoryScoreCache = repositoryScoreCache;
+        this.metrics = metrics;
+        this.repositoryIndex = repositoryIndex;
+    }
+
+    /**
+     * Non-blocking variant of {@link GithubRepositoryService#fetchAndScoreRepositories}.
+     * <p>
+     * Uses the same cache, so pages are shared with the blocking endpoint, and concurrent
+     * misses from both endpoints for the same page share a single GitHub call, and pages are
+     * scored on read the same way. Queries the {@link RepositoryIndex} covers are served from
+     * the index.
+     */
+    @Override
+    public Mono<RepositoryScoreResponseDto> fetchAndScoreRepositories
+    (String language, LocalDate createdAfter, int page) {
+        if (repositoryIndex != null && repositoryIndex.covers(language, createdAfter)) {
+            return Mono.fromSupplier(
+                    () -> repositoryIndex.page(language, createdAfter, page, repositoryScoreCalculator));
+        }
+        String key = new RepositoryScoreCacheKey(language, createdAfter, page).toString();
+        return repositoryScoreCache.getReactive(key,
+                        cached -> loadAndScoreRepositories(language, createdAfter, page, cached))
+                .map(response -> GithubRepositoryService.scoreOnRead(response, repositoryScoreCalculator));
+    }
+
+    /**
+     * Streams the scored repositories of up to {@code maxPages} pages, each page read
+     * through {@link #fetchAndScoreRepositories} and therefore through the cache.
+     * <p>
+     * Page 1 is fetched first to learn the page size and total count; later pages are
+     * fetched on demand, at most {@code 1 + PAGE_LOOKAHEAD} at a time, and emitted in page
+     * order. A slow client therefore slows down the GitHub calls instead of making the
+     * server buffer the whole result set.
+     */
+    @Override
+    public Flux<RepositoryScoreDto> streamRepositories(String language, LocalDate createdAfter, int maxPages) {
+        return fetchAndScoreRepositories(language, createdAfter, 1)
+                .flatMapMany(first -> {
+                    int lastPage = GithubRepositoryService.lastPage(first, maxPages);
+                    Flux<RepositoryScoreDto> remaining = Flux.range(2, Math.max(0, lastPage - 1))
+                            .flatMapSequential(page -> fetchAndScoreRepositories(language, createdAfter, page),
+                                    1 + PAGE_LOOKAHEAD, 1)
+                            .concatMapIterable(RepositoryScoreResponseDto::repositoryScoreList, 1);
+                    return Flux.fromIterable(first.repositoryScoreList()).concatWith(remaining);
+                });
+    }
+
+    /**
+     * Calls the GitHub Search API with {@link WebClient} and scores the returned
+     * repositories, bypassing the cache.
+     * <p>
+     * Errors are translated to the exceptions the blocking client raises, so that
+     * {@code GlobalExceptionHandler} maps them to the same responses: {@code 422} to
+     * {@link GitHubSearchLimitExceededException}, other error statuses to
+     * {@link HttpClientErrorException} / {@link HttpServerErrorException}, and
+     * connection failures and timeouts to {@link ResourceAccessException}.
+     */
+    public Mono<RepositoryScoreResponseDto> loadAndScoreRepositories
+    (String language, LocalDate createdAfter, int page) {
+        return loadAndScoreRepositories(language, createdAfter, page, null);
+    }
+
+    /**
+     * Non-blocking variant of
+     * {@link GithubRepositoryService#loadAndScoreRepositories(String, LocalDate, int, RepositoryScoreResponseDto)}:
+     * revalidates a {@code cached} page with a conditional request, and only rescores it
+     * when GitHub answers {@code 304 Not Modified}.
+     */
+    public Mono<RepositoryScoreResponseDto> loadAndScoreRepositories
+    (String language, LocalDate createdAfter, int page, @Nullable RepositoryScoreResponseDto cached) {
+        String url = String.format(githubSearchRepoURL, language, createdAfter, page);
+        boolean conditional = cached != null && cached.hasValidator();
+        logger.info(conditional ? "Revalidating repositories with github with the URL:- {}"
+                : "Fetching repositories from github with the URL:- {}", url);
+        return webClient.get()
+                .uri(url)
+                .headers(headers -> {
+                    if (conditional) {
+                        GithubRepositoryService.setValidators(headers, cached);
+                    }
+                })
+                .retrieve()
+                .toEntity(GitHubRepositorySearchDto.class)
+                .map(entity -> conditional && entity.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)
+                        ? score(language, () -> GithubRepositoryService.rescore(
+                                cached, entity.getHeaders(), repositoryScoreCalculator, Instant.now()))
+                        : score(language, () -> GithubRepositoryService.toScoreResponse(
+                                entity.getBody(), entity.getHeaders(), repositoryScoreCalculator, Instant.now())))
+                .onErrorMap(WebClientResponseException.class, this::toClientException)
+                .onErrorMap(WebClientRequestException.class, e -> {
+                    ResourceAccessException exception = new ResourceAccessException(
+                            "I/O error on GET request for \"" + url + "\": " + e.getMessage());
+                    exception.initCause(e);
+                    return exception;
+                });
+    }
+
+    /**
+     * Scores a decoded page, or rescores a revalidated one, timed as the {@code score} stage.
+     * Decoding happens inside {@code toEntity} and is not timed separately.
+     */
+    private RepositoryScoreResponseDto score(String language, Supplier<RepositoryScoreResponseDto> scoring) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            RepositoryScoreResponseDto response = scoring.get();
+            success = true;
+            return response;
+        } finally {
+            metrics.recordStage(Stage.SCORE, language, success, System.nanoTime() - start);
+        }
+    }
+
+    private RuntimeException toClientException(WebClientResponseException e) {
+        String responseBody = e.getResponseBodyAsString(StandardCharsets.UTF_8);
+        if (e.getStatusCode().value() == HttpStatus.UNPROCESSABLE_ENTITY.value()) {
+            logger.error("An exception occurred while " +
+                    "fetching repositories from github API", e);
+            return new GitHubSearchLimitExceededException(responseBody);
+        }
+        if (e.getStatusCode().is4xxClientError()) {
+            return HttpClientErrorException.create(e.getStatusCode(), e.getStatusText(),
+                    e.getHeaders(), e.getResponseBodyAsByteArray(), StandardCharsets.UTF_8);
+        }
+        return HttpServerErrorException.create(e.getStatusCode(), e.getStatusText(),
+                e.getHeaders(), e.getResponseBodyAsByteArray(), StandardCharsets.UTF_8);
+    }
+}
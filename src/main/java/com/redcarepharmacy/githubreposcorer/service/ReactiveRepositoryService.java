@@ -0,0 +1,44 @@
+package com.redcarepharmacy.githubreposcorer.service;
+
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Non-blocking counterpart of {@link RepositoryService}.
+ *
+ * <p>Implementations must not block the subscribing thread, so that many scoring
+ * queries can be served concurrently by a small, fixed number of event loop threads.</p>
+ *
+ * @see com.redcarepharmacy.githubreposcorer.service.ReactiveGithubRepositoryService
+ */
+public interface ReactiveRepositoryService {
+    /**
+     * Fetches repositories by language and creation date, then computes
+     * their scores using a scoring strategy.
+     *
+     * @param language     the programming language to filter repositories by;
+     *                     must not be {@code null} or blank
+     * @param createdAfter only repositories created after this date will be included
+     * @param page         the page number for paginated results; must be >= 1
+     * @return a {@link Mono} emitting the {@link RepositoryScoreResponseDto}, or failing
+     *         with the same exceptions as {@link RepositoryService#fetchAndScoreRepositories}
+     */
+    Mono<RepositoryScoreResponseDto> fetchAndScoreRepositories(String language, LocalDate createdAfter, int page);
+
+    /**
+     * Streams the scored repositories of up to {@code maxPages} result pages, in GitHub's
+     * order, as they become available. Pages are only fetched as fast as the subscriber
+     * consumes repositories, so at most a couple of pages are held in memory at a time.
+     *
+     * @param language     the programming language to filter repositories by;
+     *                     must not be {@code null} or blank
+     * @param createdAfter only repositories created after this date will be included
+     * @param maxPages     the number of result pages to stream; must be >= 1
+     * @return a {@link Flux} of scored repositories
+     */
+    Flux<RepositoryScoreDto> streamRepositories(String language, LocalDate createdAfter, int maxPages);
+}
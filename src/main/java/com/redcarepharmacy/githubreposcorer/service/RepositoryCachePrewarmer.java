@@ -0,0 +1,188 @@
+package com.redcarepharmacy.githubreposcorer.service;
+
+import com.redcarepharmacy.githubreposcorer.cache.KeyPopularity;
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreCache;
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreCacheKey;
+import com.redcarepharmacy.githubreposcorer.config.RepositoryCacheProperties;
+import com.redcarepharmacy.githubreposcorer.exception.GitHubRateLimitExceededException;
+import com.redcarepharmacy.githubreposcorer.metrics.RepositoryPipelineMetrics;
+import com.redcarepharmacy.githubreposcorer.ratelimit.GithubRateLimiter;
+import com.redcarepharmacy.githubreposcorer.ratelimit.RequestPriority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the most requested pages of the {@code repositories_score} cache warm, so that
+ * requests for them do not wait for GitHub after a cold start or after a page expired.
+ * <p>
+ * Every {@code app.cache.prewarm.interval}, the {@code top-keys} most popular keys of
+ * {@link RepositoryScoreCache#popularity()} are loaded if they are not cached and refreshed
+ * if they would pass the soft TTL before the next run. A run sends at most
+ * {@code budget-share} of the requests the rate limit budget allows per interval, all at
+ * {@link RequestPriority#BACKGROUND} priority, so it also stops early when the budget is
+ * down to the reserve kept for clients.
+ * <p>
+ * The first run starts when the application is ready and warms the configured
+ * {@code keys} first. Key popularity is saved to {@code snapshot-file} on shutdown and
+ * restored from it on startup, so a restarted node warms what was popular before.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.cache.prewarm", name = "enabled", havingValue = "true")
+public class RepositoryCachePrewarmer implements DisposableBean {
+
+    private static final Duration DEFAULT_INTERVAL = Duration.ofMinutes(1);
+
+    private final RepositoryScoreCache repositoryScoreCache;
+    private final GithubRepositoryService githubRepositoryService;
+    private final KeyPopularity popularity;
+    private final RepositoryCacheProperties.Prewarm properties;
+    private final Duration interval;
+    private final int requestsPerRun;
+    private final RepositoryPipelineMetrics metrics;
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("cache-prewarm-"));
+    private final Logger logger = LoggerFactory.getLogger(RepositoryCachePrewarmer.class);
+
+    public RepositoryCachePrewarmer(RepositoryScoreCache repositoryScoreCache,
+                                    GithubRepositoryService githubRepositoryService,
+                                    GithubRateLimiter rateLimiter,
+                                    RepositoryCacheProperties cacheProperties,
+                                    RepositoryPipelineMetrics metrics) {
+        this.repositoryScoreCache = repositoryScoreCache;
+        this.githubRepositoryService = githubRepositoryService;
+        this.popularity = repositoryScoreCache.popularity();
+        this.properties = cacheProperties.prewarm();
+        this.interval = properties.interval() != null && properties.interval().isPositive()
+                ? properties.interval() : DEFAULT_INTERVAL;
+        double budgetShare = Math.clamp(properties.budgetShare(), 0.0, 1.0);
+        this.requestsPerRun = (int) (budgetShare * rateLimiter.requestsPerMinute() * interval.toMillis() / 60_000);
+        this.metrics = metrics;
+        restoreSnapshot();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<String> startupKeys = properties.keys() != null ? properties.keys() : List.of();
+        scheduler.execute(() -> runSafely(startupKeys));
+        scheduler.scheduleWithFixedDelay(() -> runSafely(List.of()),
+                interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void runSafely(Collection<String> firstKeys) {
+        try {
+            run(firstKeys);
+        } catch (RuntimeException e) {
+            // an exception would cancel all further runs
+            logger.warn("Prewarming the cache failed", e);
+        }
+    }
+
+    /**
+     * Loads or refreshes {@code firstKeys}, then the most popular keys, as far as the
+     * budget of one run allows.
+     *
+     * @return the number of pages requested from GitHub
+     */
+    int run(Collection<String> firstKeys) {
+        Set<String> keys = new LinkedHashSet<>(firstKeys);
+        keys.addAll(popularity.top(properties.topKeys()).keySet());
+        int requested = 0;
+        for (String key : keys) {
+            if (requested >= requestsPerRun) {
+                break;
+            }
+            RepositoryScoreCacheKey page;
+            try {
+                page = RepositoryScoreCacheKey.parse(key);
+            } catch (IllegalArgumentException e) {
+                logger.warn("Skipping prewarm key {}, it is not of the form language:createdAfter:page", key);
+                continue;
+            }
+            try {
+                if (repositoryScoreCache.prewarm(key, interval, cached -> githubRepositoryService
+                        .loadAndScoreRepositories(page.language(), page.createdAfter(), page.page(), cached))) {
+                    requested++;
+                    metrics.recordPrewarm(page.language(), true);
+                }
+            } catch (GitHubRateLimitExceededException e) {
+                logger.debug("GitHub rate limit budget is low, prewarming stops until the next run");
+                break;
+            } catch (RuntimeException e) {
+                requested++;
+                metrics.recordPrewarm(page.language(), false);
+                logger.warn("Prewarming {} failed", key, e);
+            }
+        }
+        if (requested > 0) {
+            logger.info("Prewarmed {} cached pages", requested);
+        }
+        return requested;
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        saveSnapshot();
+    }
+
+    /**
+     * Restores key popularity from the snapshot file: one {@code count<TAB>key} line per key.
+     */
+    private void restoreSnapshot() {
+        Path file = properties.snapshotFile();
+        if (file == null || !Files.isReadable(file)) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                int tab = line.indexOf('\t');
+                if (tab > 0) {
+                    popularity.add(line.substring(tab + 1), Integer.parseInt(line.substring(0, tab)));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("Could not restore key popularity from {}", file, e);
+        }
+    }
+
+    private void saveSnapshot() {
+        Path file = properties.snapshotFile();
+        if (file == null) {
+            return;
+        }
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : popularity.top(properties.topKeys()).entrySet()) {
+            lines.add(entry.getValue() + "\t" + entry.getKey());
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            Files.write(temp, lines, StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not save key popularity to {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.redcarepharmacy.githubreposcorer.service;
+
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreCacheKey;
+import com.redcarepharmacy.githubreposcorer.config.RepositoryBatchProperties;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreBatchResponseDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreBatchResultDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreQueryDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import com.redcarepharmacy.githubreposcorer.exception.ApiError;
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Scores a batch of queries, each answered as {@code GET /api/v1/repositories/score} would
+ * answer it, with partial failures reported per query.
+ * <p>
+ * Identical queries are served once. Queries {@link RepositoryService#fetchCachedRepositories}
+ * can serve without GitHub are answered first, on the calling thread; the remaining pages are
+ * fetched concurrently on virtual threads, at most {@code app.batch.max-concurrency} at a
+ * time, so a large batch does not spend the rate limit budget in one burst. All queries share
+ * the {@code app.batch.timeout} deadline: those not served by then fail with
+ * {@code 504 Gateway Timeout}, while their fetches keep running in the background and still
+ * fill the cache for the next request.
+ */
+@Service
+public class RepositoryScoreBatchService {
+
+    private final RepositoryService repositoryService;
+    private final int maxConcurrency;
+    private final Duration timeout;
+    private final ContextSnapshotFactory contextSnapshotFactory = ContextSnapshotFactory.builder().build();
+    private final Logger logger = LoggerFactory.getLogger(RepositoryScoreBatchService.class);
+
+    public RepositoryScoreBatchService(RepositoryService repositoryService, RepositoryBatchProperties properties) {
+        this.repositoryService = repositoryService;
+        this.maxConcurrency = Math.max(1, properties.maxConcurrency());
+        this.timeout = properties.timeout();
+    }
+
+    /**
+     * Scores {@code queries}, returning one result per query in the same order.
+     */
+    public RepositoryScoreBatchResponseDto score(List<RepositoryScoreQueryDto> queries) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Map<RepositoryScoreCacheKey, RepositoryScoreBatchResultDto> results = new LinkedHashMap<>();
+        List<RepositoryScoreCacheKey> misses = new ArrayList<>();
+        for (RepositoryScoreQueryDto query : queries) {
+            RepositoryScoreCacheKey key = key(query);
+            if (key == null || results.containsKey(key) || misses.contains(key)) {
+                continue;
+            }
+            try {
+                RepositoryScoreResponseDto cached =
+                        repositoryService.fetchCachedRepositories(key.language(), key.createdAfter(), key.page());
+                if (cached != null) {
+                    results.put(key, succeeded(key, cached));
+                } else {
+                    misses.add(key);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Batch query {} failed", key, e);
+                results.put(key, failed(key, e));
+            }
+        }
+        if (!misses.isEmpty()) {
+            logger.info("Fetching {} of {} batch queries, {} at a time", misses.size(), queries.size(),
+                    maxConcurrency);
+            fetch(misses, deadline, results);
+        }
+
+        List<RepositoryScoreBatchResultDto> ordered = new ArrayList<>(queries.size());
+        int succeeded = 0;
+        for (RepositoryScoreQueryDto query : queries) {
+            RepositoryScoreCacheKey key = key(query);
+            RepositoryScoreBatchResultDto result = key != null ? results.get(key) : invalid(query);
+            // queries differing only in the case of their language share a result
+            if (key != null && !query.language().equals(result.language())) {
+                result = result.withLanguage(query.language());
+            }
+            ordered.add(result);
+            if (result.status() == HttpStatus.OK.value()) {
+                succeeded++;
+            }
+        }
+        return new RepositoryScoreBatchResponseDto(succeeded, ordered.size() - succeeded, ordered);
+    }
+
+    private void fetch(List<RepositoryScoreCacheKey> misses, long deadline,
+                       Map<RepositoryScoreCacheKey, RepositoryScoreBatchResultDto> results) {
+        Semaphore permits = new Semaphore(maxConcurrency);
+        List<Future<RepositoryScoreResponseDto>> pages = new ArrayList<>(misses.size());
+        // shut down rather than closed: fetches past the deadline finish in the background
+        ExecutorService executor = ContextExecutorService.wrap(
+                Executors.newVirtualThreadPerTaskExecutor(), contextSnapshotFactory);
+        try {
+            for (RepositoryScoreCacheKey key : misses) {
+                pages.add(executor.submit(() -> {
+                    if (!permits.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                        throw new TimeoutException();
+                    }
+                    try {
+                        return repositoryService.fetchAndScoreRepositories(
+                                key.language(), key.createdAfter(), key.page());
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (int i = 0; i < misses.size(); i++) {
+                results.put(misses.get(i), await(misses.get(i), pages.get(i), deadline));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private RepositoryScoreBatchResultDto await(RepositoryScoreCacheKey key, Future<RepositoryScoreResponseDto> page,
+                                                long deadline) {
+        try {
+            return succeeded(key, page.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            return timedOut(key);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                return timedOut(key);
+            }
+            logger.warn("Batch query {} failed", key, e.getCause());
+            return failed(key, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching batch queries", e);
+        }
+    }
+
+    private static RepositoryScoreCacheKey key(RepositoryScoreQueryDto query) {
+        if (query == null || query.language() == null || query.language().isBlank()
+                || query.createdAfter() == null || query.pageOrDefault() < 1) {
+            return null;
+        }
+        return new RepositoryScoreCacheKey(query.language(), query.createdAfter(), query.pageOrDefault());
+    }
+
+    private static RepositoryScoreBatchResultDto succeeded(RepositoryScoreCacheKey key,
+                                                           RepositoryScoreResponseDto response) {
+        return new RepositoryScoreBatchResultDto(key.language(), key.createdAfter(), key.page(),
+                HttpStatus.OK.value(), response, null, null, null);
+    }
+
+    private static RepositoryScoreBatchResultDto invalid(RepositoryScoreQueryDto query) {
+        String message;
+        if (query == null) {
+            message = "Query must not be null";
+        } else if (query.language() == null || query.language().isBlank()) {
+            message = "Language must not be empty";
+        } else if (query.createdAfter() == null) {
+            message = "createdAfter is required";
+        } else {
+            message = "Page number must be at least 1";
+        }
+        return new RepositoryScoreBatchResultDto(query != null ? query.language() : null,
+                query != null ? query.createdAfter() : null, query != null ? query.pageOrDefault() : 0,
+                HttpStatus.BAD_REQUEST.value(), null, "Invalid request parameter", message, null);
+    }
+
+    private static RepositoryScoreBatchResultDto timedOut(RepositoryScoreCacheKey key) {
+        return result(key, HttpStatus.GATEWAY_TIMEOUT, "Batch deadline exceeded",
+                "The page was not served before the batch deadline. Please try again later.");
+    }
+
+    /**
+     * Reports a failed query with the error {@code GlobalExceptionHandler} would have answered
+     * it with on its own.
+     */
+    static RepositoryScoreBatchResultDto failed(RepositoryScoreCacheKey key, Throwable e) {
+        ApiError error = ApiError.of(e);
+        return new RepositoryScoreBatchResultDto(key.language(), key.createdAfter(), key.page(),
+                error.status().value(), null, error.error(), error.message(),
+                error.retryAfter() != null ? error.retryAfterSeconds() : null);
+    }
+
+    private static RepositoryScoreBatchResultDto result(RepositoryScoreCacheKey key, HttpStatus status,
+                                                        String error, String message) {
+        return new RepositoryScoreBatchResultDto(key.language(), key.createdAfter(), key.page(),
+                status.value(), null, error, message, null);
+    }
+}
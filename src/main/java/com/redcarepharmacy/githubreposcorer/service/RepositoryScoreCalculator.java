@@ -23,4 +23,23 @@ public interface RepositoryScoreCalculator {
      * @return the computed score as a double value
      */
     double computeScore(int stars, int forks, Instant updatedAt);
+
+    /**
+     * Computes the scores of many repositories in one call, for bulk rescoring.
+     * <p>
+     * The default implementation calls {@link #computeScore} per repository; implementations
+     * may override it to share work across the batch.
+     *
+     * @param stars                 the number of stargazers per repository
+     * @param forks                 the number of forks per repository
+     * @param updatedAtEpochSeconds the last update per repository, in seconds since the
+     *                              epoch ({@code 0} when unknown)
+     * @param scores                receives the score per repository; its length is the
+     *                              number of repositories scored
+     */
+    default void computeScores(int[] stars, int[] forks, long[] updatedAtEpochSeconds, double[] scores) {
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = computeScore(stars[i], forks[i], Instant.ofEpochSecond(updatedAtEpochSeconds[i]));
+        }
+    }
 }
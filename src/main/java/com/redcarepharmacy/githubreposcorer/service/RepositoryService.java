@@ -1,6 +1,9 @@
 package com.redcarepharmacy.githubreposcorer.service;
 
 import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import com.redcarepharmacy.githubreposcorer.dto.TopRepositoriesResponseDto;
+import org.springframework.lang.Nullable;
+
 import java.time.LocalDate;
 
 /**
@@ -26,4 +29,27 @@ public interface RepositoryService {
      *         total count, incomplete results flag, and a list of scored repositories
      */
     RepositoryScoreResponseDto fetchAndScoreRepositories(String language, LocalDate createdAfter, int page);
+
+    /**
+     * Variant of {@link #fetchAndScoreRepositories} that only returns pages it can serve
+     * without calling the repository provider, for example from a cache.
+     *
+     * @return the scored page, or {@code null} if it would have to be fetched
+     */
+    @Nullable
+    RepositoryScoreResponseDto fetchCachedRepositories(String language, LocalDate createdAfter, int page);
+
+    /**
+     * Scores up to {@code maxPages} result pages and returns the {@code k} highest
+     * scoring repositories across all of them.
+     *
+     * @param language     the programming language to filter repositories by;
+     *                     must not be {@code null} or blank
+     * @param createdAfter only repositories created after this date will be included
+     * @param maxPages     the number of result pages to consider; must be >= 1
+     * @param k            the number of repositories to return; must be >= 1
+     * @return a {@link TopRepositoriesResponseDto} with the top repositories ordered by
+     *         descending score
+     */
+    TopRepositoriesResponseDto fetchTopRepositories(String language, LocalDate createdAfter, int maxPages, int k);
 }
@@ -6,16 +6,28 @@ import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.Duration;
 import java.time.Instant;
 
 @Component
 public class WeightedRepositoryScoreCalculator implements RepositoryScoreCalculator {
 
-    private final RepositoryScoringProperties properties;
+    private static final long SECONDS_PER_DAY = 86_400;
+    /**
+     * Above this magnitude {@code x * 100} no longer has room for the cent fraction, so
+     * {@link #roundHalfUp} falls back to {@link BigDecimal}. Scores never get close.
+     */
+    private static final double EXACT_ROUNDING_LIMIT = 1e13;
+
+    private final double weightStars;
+    private final double weightForks;
+    private final double weightRecent;
+    private final double recencyBase;
 
     public WeightedRepositoryScoreCalculator(RepositoryScoringProperties properties) {
-        this.properties = properties;
+        this.weightStars = properties.weightStars();
+        this.weightForks = properties.weightForks();
+        this.weightRecent = properties.weightRecent();
+        this.recencyBase = properties.recencyBase();
     }
 
     /**
@@ -36,7 +48,7 @@ public class WeightedRepositoryScoreCalculator implements RepositoryScoreCalcula
      *   <li>{@code stars} — number of stargazers of the repository</li>
      *   <li>{@code forks} — number of forks of the repository</li>
      *   <li>{@code recencyScore} = max(0, recencyBase - daysSinceLastUpdate)</li>
-     *   <li>{@code daysSinceLastUpdate} = days between {@code updatedAt} and now</li>
+     *   <li>{@code daysSinceLastUpdate} = whole days between {@code updatedAt} and now</li>
      * </ul>
      *
      * <p>If {@code updatedAt} is {@code null}, it is treated as
@@ -53,13 +65,72 @@ public class WeightedRepositoryScoreCalculator implements RepositoryScoreCalcula
      */
     @Override
     public double computeScore(int stars, int forks, Instant updatedAt) {
-        Instant safeUpdatedAt = (updatedAt != null) ? updatedAt : Instant.EPOCH;
-        long daysSinceUpdate = Duration.between(safeUpdatedAt, Instant.now()).toDays();
-        double recencyScore = Math.max(0, properties.recencyBase() - daysSinceUpdate);
-        return BigDecimal.valueOf((stars * properties.weightStars())
-                        + (forks * properties.weightForks())
-                        + (recencyScore * properties.weightRecent()))
-                .setScale(2, RoundingMode.HALF_UP)
-                .doubleValue();
+        Instant now = Instant.now();
+        long daysSinceUpdate = updatedAt == null
+                ? daysBetween(0, 0, now.getEpochSecond(), now.getNano())
+                : daysBetween(updatedAt.getEpochSecond(), updatedAt.getNano(), now.getEpochSecond(), now.getNano());
+        return score(stars, forks, daysSinceUpdate);
+    }
+
+    /**
+     * Scores many repositories against a single "now", without allocating. Gives the same
+     * results as {@link #computeScore} for {@code Instant.ofEpochSecond(updatedAtEpochSeconds[i])}.
+     */
+    @Override
+    public void computeScores(int[] stars, int[] forks, long[] updatedAtEpochSeconds, double[] scores) {
+        int count = scores.length;
+        if (stars.length < count || forks.length < count || updatedAtEpochSeconds.length < count) {
+            throw new IllegalArgumentException("Input arrays are shorter than the scores array");
+        }
+        Instant now = Instant.now();
+        long nowSecond = now.getEpochSecond();
+        int nowNano = now.getNano();
+        for (int i = 0; i < count; i++) {
+            scores[i] = score(stars[i], forks[i], daysBetween(updatedAtEpochSeconds[i], 0, nowSecond, nowNano));
+        }
+    }
+
+    private double score(int stars, int forks, long daysSinceUpdate) {
+        double recencyScore = Math.max(0, recencyBase - daysSinceUpdate);
+        return roundHalfUp((stars * weightStars)
+                + (forks * weightForks)
+                + (recencyScore * weightRecent));
+    }
+
+    /**
+     * Same as {@code Duration.between(from, to).toDays()}: whole days, truncated towards zero
+     * from the seconds part of the normalized duration.
+     */
+    private static long daysBetween(long fromSecond, int fromNano, long toSecond, int toNano) {
+        long seconds = toSecond - fromSecond;
+        if (toNano < fromNano) {
+            seconds--;
+        }
+        return seconds / SECONDS_PER_DAY;
+    }
+
+    /**
+     * Rounds to two decimal places exactly like
+     * {@code BigDecimal.valueOf(x).setScale(2, RoundingMode.HALF_UP).doubleValue()}.
+     * <p>
+     * {@link BigDecimal#valueOf(double)} rounds the shortest decimal representation of
+     * {@code x}, so a half-way decision is made against the decimal midpoint
+     * {@code (2n ± 1) / 200}. That representation is on or above the midpoint exactly when
+     * {@code x} is on or above the double nearest to the midpoint, which is what
+     * {@code (2n ± 1) / 200.0} evaluates to. {@code Math.round(x * 100)} is at most one off,
+     * and the two comparisons correct it.
+     */
+    static double roundHalfUp(double x) {
+        double ax = Math.abs(x);
+        if (!(ax < EXACT_ROUNDING_LIMIT)) {
+            return BigDecimal.valueOf(x).setScale(2, RoundingMode.HALF_UP).doubleValue();
+        }
+        long cents = Math.round(ax * 100);
+        if (cents > 0 && ax < (2 * cents - 1) / 200.0) {
+            cents--;
+        } else if (ax >= (2 * cents + 1) / 200.0) {
+            cents++;
+        }
+        return cents == 0 ? 0.0 : Math.copySign(cents / 100.0, x);
     }
 }
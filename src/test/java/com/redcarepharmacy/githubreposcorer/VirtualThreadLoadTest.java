@@ -0,0 +1,154 @@
+package com.redcarepharmacy.githubreposcorer;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test comparing request handling on platform threads with virtual threads
+ * ({@code spring.threads.virtual.enabled}).
+ * <p>
+ * Both runs use the same JVM and heap, the default Tomcat pool of 200 platform threads and a
+ * stubbed GitHub that answers after {@link #UPSTREAM_LATENCY}. Every request is for a distinct
+ * page, so each one is a cache miss that blocks on the upstream call. The test prints the peak
+ * number of concurrent upstream calls, the elapsed time and the peak JVM thread count per mode.
+ * <p>
+ * It takes about a minute and is skipped unless run with {@code -Dloadtest=true}:
+ * <pre>
+ * mvn test -Dtest=VirtualThreadLoadTest -Dloadtest=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class VirtualThreadLoadTest {
+
+    private static final int REQUESTS = 2_000;
+    private static final int TOMCAT_THREADS = 200;
+    private static final Duration UPSTREAM_LATENCY = Duration.ofMillis(500);
+    private static final String SEARCH_RESPONSE = """
+            {"total_count":1,"incomplete_results":false,"items":[{"id":1,"name":"repo1","language":"Java",
+            "stargazers_count":5,"forks_count":10,"updated_at":"2025-01-01T00:00:00Z",
+            "created_at":"2024-01-01T00:00:00Z","owner":{"login":"user1"}}]}""";
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    private HttpServer github;
+
+    @BeforeEach
+    void startGithubStub() throws IOException {
+        github = HttpServer.create(new InetSocketAddress("localhost", 0), 4_096);
+        github.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        github.createContext("/search", exchange -> {
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(UPSTREAM_LATENCY);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            byte[] body = SEARCH_RESPONSE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        github.start();
+    }
+
+    @AfterEach
+    void stopGithubStub() {
+        github.stop(0);
+    }
+
+    @Test
+    void testVirtualThreads_sustainMoreConcurrentUpstreamCalls() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%-9s %12s %12s %16s%n", "mode", "concurrency", "elapsed ms", "peak JVM threads");
+        System.out.println(platform);
+        System.out.println(virtual);
+
+        assertTrue(platform.concurrency() <= TOMCAT_THREADS, platform.toString());
+        assertTrue(virtual.concurrency() > 2 * TOMCAT_THREADS, virtual.toString());
+        assertTrue(virtual.elapsed().compareTo(platform.elapsed()) < 0, virtual + " vs " + platform);
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(RepositoryScoringApplication.class)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--server.tomcat.accept-count=" + REQUESTS,
+                        "--github.api.search.url=http://localhost:" + github.getAddress().getPort()
+                                + "/search?q=%s+%s&page=%s",
+                        "--github.client.max-connections=" + REQUESTS,
+                        "--github.client.max-connections-per-route=" + REQUESTS,
+                        "--github.client.connection-request-timeout=60s",
+                        "--github.client.read-timeout=60s",
+                        "--github.rate-limit.anonymous-requests-per-minute=" + REQUESTS,
+                        "--app.concurrency-limit.enabled=false",
+                        "--app.redis.enabled=false",
+                        "--logging.level.com.redcarepharmacy=WARN")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            inFlight.set(0);
+            peakInFlight.set(0);
+            threads.resetPeakThreadCount();
+
+            long start = System.nanoTime();
+            try (HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build()) {
+                List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(REQUESTS);
+                for (int page = 1; page <= REQUESTS; page++) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                                    + "/api/v1/repositories/score?language=java&createdAfter=2024-01-01&page=" + page))
+                            .timeout(Duration.ofSeconds(60))
+                            .build();
+                    responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+                }
+                for (CompletableFuture<HttpResponse<Void>> response : responses) {
+                    assertEquals(200, response.join().statusCode());
+                }
+            }
+            return new Result(virtualThreads ? "virtual" : "platform", peakInFlight.get(),
+                    Duration.ofNanos(System.nanoTime() - start), threads.getPeakThreadCount());
+        }
+    }
+
+    private record Result(String mode, int concurrency, Duration elapsed, int peakThreads) {
+
+        @Override
+        public String toString() {
+            return String.format("%-9s %12d %12d %16d", mode, concurrency, elapsed.toMillis(), peakThreads);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.redcarepharmacy.githubreposcorer.cache;
+
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompleteResultSetsTest {
+
+    private static final LocalDate JANUARY_1 = LocalDate.of(2024, 1, 1);
+    private static final Instant CREATED_AT = Instant.parse("2024-01-05T08:00:00Z");
+
+    private final Map<RepositoryScoreCacheKey, RepositoryScoreResponseDto> cache = new HashMap<>();
+
+    @Test
+    void testAnswer_onlyOnceEveryPageIsCollected() {
+        CompleteResultSets resultSets = new CompleteResultSets(10, Duration.ofMinutes(10), cache::get);
+        List<RepositoryScoreResponseDto> pages = pages(61, Instant.now());
+
+        add(resultSets, key(JANUARY_1, 1), pages.get(0));
+        add(resultSets, key(JANUARY_1, 3), pages.get(2));
+        assertNull(resultSets.answer(key(JANUARY_1, 1)));
+
+        add(resultSets, key(JANUARY_1, 2), pages.get(1));
+        RepositoryScoreResponseDto last = resultSets.answer(key(LocalDate.of(2024, 1, 2), 3));
+        assertEquals(61, last.totalCount());
+        assertEquals(List.of("repo60"), last.repositoryScoreList().stream().map(RepositoryScoreDto::name).toList());
+        assertNull(resultSets.answer(key(LocalDate.of(2024, 1, 2), 4)));
+        assertNull(resultSets.answer(key(LocalDate.of(2023, 12, 31), 1)));
+        assertEquals(0, resultSets.answer(key(LocalDate.of(2024, 1, 5), 1)).totalCount());
+    }
+
+    @Test
+    void testAdd_skipsResultsGitHubDoesNotServeCompletely() {
+        CompleteResultSets resultSets = new CompleteResultSets(10, Duration.ofMinutes(10), cache::get);
+        RepositoryScoreResponseDto first = pages(30, Instant.now()).getFirst();
+
+        add(resultSets, key(JANUARY_1, 1), new RepositoryScoreResponseDto(1001, false,
+                first.repositoryScoreList(), first.fetchedAt()));
+        add(resultSets, key(LocalDate.of(2024, 1, 2), 1), new RepositoryScoreResponseDto(30, true,
+                first.repositoryScoreList(), first.fetchedAt()));
+
+        assertNull(resultSets.answer(key(LocalDate.of(2024, 1, 3), 1)));
+    }
+
+    @Test
+    void testAdd_keepsTheWidestFreshResultSet() {
+        CompleteResultSets resultSets = new CompleteResultSets(10, Duration.ofMinutes(10), cache::get);
+        add(resultSets, key(JANUARY_1, 1), pages(5, Instant.now()).getFirst());
+        add(resultSets, key(LocalDate.of(2024, 1, 3), 1), pages(2, Instant.now()).getFirst());
+
+        assertEquals(5, resultSets.answer(key(JANUARY_1, 1)).totalCount());
+
+        CompleteResultSets expiring = new CompleteResultSets(10, Duration.ofMinutes(10), cache::get);
+        add(expiring, key(JANUARY_1, 1), pages(5, Instant.now().minus(Duration.ofHours(1))).getFirst());
+        assertNull(expiring.answer(key(JANUARY_1, 1)));
+        add(expiring, key(LocalDate.of(2024, 1, 2), 1), pages(2, Instant.now()).getFirst());
+        assertEquals(2, expiring.answer(key(LocalDate.of(2024, 1, 2), 1)).totalCount());
+    }
+
+    @Test
+    void testAnswer_readsRepositoriesFromTheCachedPages() {
+        CompleteResultSets resultSets = new CompleteResultSets(10, Duration.ofMinutes(10), cache::get);
+        List<RepositoryScoreResponseDto> pages = pages(61, Instant.now());
+        for (int page = 1; page <= 3; page++) {
+            add(resultSets, key(JANUARY_1, page), pages.get(page - 1));
+        }
+        RepositoryScoreCacheKey later = key(LocalDate.of(2024, 1, 2), 2);
+        assertEquals("repo30", resultSets.answer(later).repositoryScoreList().getFirst().name());
+
+        // page 2 was refreshed with other repositories
+        RepositoryScoreResponseDto refreshed = pages(61, Instant.now()).get(2);
+        cache.put(key(JANUARY_1, 2), new RepositoryScoreResponseDto(61, false,
+                refreshed.repositoryScoreList().subList(0, 1), refreshed.fetchedAt()));
+        assertNull(resultSets.answer(later));
+
+        cache.remove(key(JANUARY_1, 2));
+        assertNull(resultSets.answer(later));
+        // pages that are still cached keep answering
+        assertEquals(61, resultSets.answer(key(LocalDate.of(2024, 1, 2), 1)).totalCount());
+    }
+
+    /**
+     * Caches {@code page} and collects it, as {@link RepositoryScoreCache} does.
+     */
+    private void add(CompleteResultSets resultSets, RepositoryScoreCacheKey key, RepositoryScoreResponseDto page) {
+        cache.put(key, page);
+        resultSets.add(key, page);
+    }
+
+    private static RepositoryScoreCacheKey key(LocalDate createdAfter, int page) {
+        return new RepositoryScoreCacheKey("java", createdAfter, page);
+    }
+
+    /**
+     * Pages of {@code totalCount} repositories, created on 2024-01-05, except that the last
+     * repository was created on 2024-01-03.
+     */
+    private static List<RepositoryScoreResponseDto> pages(int totalCount, Instant fetchedAt) {
+        List<RepositoryScoreDto> repositories = new ArrayList<>();
+        for (int i = 0; i < totalCount; i++) {
+            Instant createdAt = i == totalCount - 1 ? CREATED_AT.minus(Duration.ofDays(2)) : CREATED_AT;
+            repositories.add(new RepositoryScoreDto("repo" + i, "user", "Java", i, 0, createdAt, createdAt, i));
+        }
+        List<RepositoryScoreResponseDto> pages = new ArrayList<>();
+        for (int from = 0; from < totalCount; from += CompleteResultSets.PAGE_SIZE) {
+            pages.add(new RepositoryScoreResponseDto(totalCount, false,
+                    repositories.subList(from, Math.min(totalCount, from + CompleteResultSets.PAGE_SIZE)), fetchedAt));
+        }
+        return pages;
+    }
+}
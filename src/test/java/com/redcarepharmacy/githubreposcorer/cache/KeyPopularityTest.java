@@ -0,0 +1,66 @@
+package com.redcarepharmacy.githubreposcorer.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyPopularityTest {
+
+    @Test
+    void testTop_ranksByLookups() {
+        KeyPopularity popularity = new KeyPopularity(1024, 10);
+        record(popularity, "java:2024-01-01:1", 30);
+        record(popularity, "go:2024-01-01:1", 20);
+        record(popularity, "rust:2024-01-01:1", 10);
+
+        Map<String, Integer> top = popularity.top(2);
+
+        assertEquals(List.of("java:2024-01-01:1", "go:2024-01-01:1"), List.copyOf(top.keySet()));
+        assertTrue(top.get("java:2024-01-01:1") >= 30);
+    }
+
+    @Test
+    void testRecord_keepsPopularKeysAmongManyRareOnes() {
+        KeyPopularity popularity = new KeyPopularity(4096, 5);
+        for (int i = 0; i < 2_000; i++) {
+            popularity.record("rare:2024-01-01:" + i);
+            if (i % 20 == 0) {
+                record(popularity, "java:2024-01-01:1", 3);
+                record(popularity, "go:2024-01-01:1", 2);
+            }
+        }
+
+        assertEquals(List.of("java:2024-01-01:1", "go:2024-01-01:1"),
+                List.copyOf(popularity.top(2).keySet()));
+    }
+
+    @Test
+    void testRecord_agesOldCounts() {
+        KeyPopularity popularity = new KeyPopularity(16, 10);
+        record(popularity, "java:2024-01-01:1", 100);
+        int before = popularity.estimate("java:2024-01-01:1");
+
+        record(popularity, "go:2024-01-01:1", 100);
+
+        assertTrue(popularity.estimate("java:2024-01-01:1") < before);
+    }
+
+    @Test
+    void testAdd_restoresCounts() {
+        KeyPopularity popularity = new KeyPopularity(1024, 10);
+
+        popularity.add("java:2024-01-01:1", 42);
+        popularity.add("go:2024-01-01:1", 0);
+
+        assertEquals(Map.of("java:2024-01-01:1", 42), popularity.top(10));
+    }
+
+    private static void record(KeyPopularity popularity, String key, int times) {
+        for (int i = 0; i < times; i++) {
+            popularity.record(key);
+        }
+    }
+}
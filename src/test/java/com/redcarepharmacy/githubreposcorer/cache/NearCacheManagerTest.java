@@ -0,0 +1,164 @@
+package com.redcarepharmacy.githubreposcorer.cache;
+
+import com.redcarepharmacy.githubreposcorer.config.RedisCacheProperties;
+import com.redcarepharmacy.githubreposcorer.config.RedisConfig;
+import com.redcarepharmacy.githubreposcorer.config.RepositoryCacheProperties;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.redcarepharmacy.githubreposcorer.config.RepositoryCachePropertiesBuilder.cacheProperties;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs two near cache "nodes" against one embedded Redis server.
+ */
+class NearCacheManagerTest {
+
+    private static final String KEY = "java:2024-01-01:1";
+
+    private static RedisServer redisServer;
+    private static RedisCacheProperties redisProperties;
+
+    private final RepositoryCacheProperties cacheProperties = cacheProperties()
+            .near(new RepositoryCacheProperties.Near(true, 100, Duration.ofMinutes(5), false)).build();
+
+    private Node nodeA;
+    private Node nodeB;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        redisProperties = new RedisCacheProperties(true, "localhost", port, 6);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        nodeA = new Node();
+        nodeB = new Node();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        nodeA.cache().clear();
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    void testNearCache_servesFromLocalAfterFirstRemoteRead() {
+        RepositoryScoreResponseDto response = response("repo1");
+        nodeA.cache().put(KEY, response);
+
+        assertEquals(response, nodeB.cache().get(KEY, RepositoryScoreResponseDto.class));
+        assertEquals(response, nodeB.cache().getLocalCache().getIfPresent(KEY));
+    }
+
+    @Test
+    void testNearCache_rewriteOnOneNodeInvalidatesOtherNodes() throws Exception {
+        nodeA.cache().put(KEY, response("old"));
+        // the invalidation of this first write may reach node B after its read, so read until it sticks
+        long warmupDeadline = System.currentTimeMillis() + 5_000;
+        do {
+            nodeB.cache().get(KEY);
+            Thread.sleep(50);
+        } while (nodeB.cache().getLocalCache().getIfPresent(KEY) == null
+                && System.currentTimeMillis() < warmupDeadline);
+        assertNotNull(nodeB.cache().getLocalCache().getIfPresent(KEY));
+
+        RepositoryScoreResponseDto rewritten = response("new");
+        nodeA.cache().put(KEY, rewritten);
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (nodeB.cache().getLocalCache().getIfPresent(KEY) != null
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertNull(nodeB.cache().getLocalCache().getIfPresent(KEY));
+        assertEquals(rewritten, nodeB.cache().get(KEY, RepositoryScoreResponseDto.class));
+        assertEquals(rewritten, nodeA.cache().getLocalCache().getIfPresent(KEY));
+    }
+
+    @Test
+    void testNearCache_retrieveReadsRemoteWithoutBlockingAndFillsLocal() throws Exception {
+        RepositoryScoreResponseDto response = response("repo1");
+        nodeA.cache().put(KEY, response);
+
+        assertEquals(response, nodeB.cache().retrieve(KEY).get(5, TimeUnit.SECONDS));
+        assertEquals(response, nodeB.cache().getLocalCache().getIfPresent(KEY));
+        assertNull(nodeB.cache().retrieve("java:2024-01-01:2").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testNearCache_evictRemovesBothTiers() {
+        nodeA.cache().put(KEY, response("repo1"));
+
+        nodeA.cache().evict(KEY);
+
+        assertNull(nodeA.cache().get(KEY));
+        assertNull(nodeB.cache().get(KEY));
+    }
+
+    private static RepositoryScoreResponseDto response(String name) {
+        return new RepositoryScoreResponseDto(1, false, List.of(
+                new RepositoryScoreDto(name, "user1", "java", 10, 5,
+                        Instant.parse("2024-01-01T00:00:00Z"), Instant.parse("2025-01-01T00:00:00Z"), 2.5)));
+    }
+
+    private final class Node implements AutoCloseable {
+
+        private final LettuceConnectionFactory connectionFactory;
+        private final RedisMessageListenerContainer listenerContainer;
+        private final NearCache cache;
+
+        Node() throws Exception {
+            RedisConfig redisConfig = new RedisConfig();
+            connectionFactory = (LettuceConnectionFactory) redisConfig.redisConnectionFactory(redisProperties);
+            connectionFactory.afterPropertiesSet();
+            connectionFactory.start();
+            CacheManager cacheManager = redisConfig.redisCacheManager(connectionFactory, redisProperties,
+                    cacheProperties);
+            ((NearCacheManager) cacheManager).afterPropertiesSet();
+            listenerContainer = redisConfig.nearCacheInvalidationListener(connectionFactory, cacheManager,
+                    cacheProperties);
+            listenerContainer.afterPropertiesSet();
+            listenerContainer.start();
+            cache = (NearCache) cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME);
+        }
+
+        NearCache cache() {
+            return cache;
+        }
+
+        @Override
+        public void close() throws Exception {
+            listenerContainer.destroy();
+            connectionFactory.destroy();
+        }
+    }
+}
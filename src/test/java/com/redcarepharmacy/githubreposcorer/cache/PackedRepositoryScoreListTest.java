@@ -0,0 +1,79 @@
+package com.redcarepharmacy.githubreposcorer.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedRepositoryScoreListTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private static final Instant UPDATED_AT = Instant.parse("2025-01-01T10:15:30Z");
+
+    @Test
+    void testPack_keepsEveryFieldAndSerializesTheSame() throws Exception {
+        RepositoryScoreResponseDto response = new RepositoryScoreResponseDto(2500, true, List.of(
+                new RepositoryScoreDto("repo1", "user1", "Java", 5, 10, UPDATED_AT.minusSeconds(86_400), UPDATED_AT,
+                        42.5),
+                new RepositoryScoreDto(null, null, null, 0, 0, null, null, 0.0),
+                new RepositoryScoreDto("repo3", "user1", "Java", Integer.MAX_VALUE, 1, UPDATED_AT, UPDATED_AT, -1.0)),
+                UPDATED_AT, "\"etag\"", null);
+
+        RepositoryScoreResponseDto packed = PackedRepositoryScoreList.pack(response);
+
+        assertInstanceOf(PackedRepositoryScoreList.class, packed.repositoryScoreList());
+        assertEquals(response, packed);
+        assertEquals(response.repositoryScoreList(), List.copyOf(packed.repositoryScoreList()));
+        assertEquals("\"etag\"", packed.etag());
+        assertEquals(OBJECT_MAPPER.writeValueAsString(response), OBJECT_MAPPER.writeValueAsString(packed));
+        assertSame(packed, PackedRepositoryScoreList.pack(packed));
+    }
+
+    @Test
+    void testPack_internsOwnersAndLanguagesAcrossPages() {
+        RepositoryScoreResponseDto first = PackedRepositoryScoreList.pack(page(new String("Java")));
+        RepositoryScoreResponseDto second = PackedRepositoryScoreList.pack(page(new String("Java")));
+
+        assertSame(first.repositoryScoreList().getFirst().language(),
+                second.repositoryScoreList().getLast().language());
+        assertSame(first.repositoryScoreList().getFirst().owner(), second.repositoryScoreList().getFirst().owner());
+    }
+
+    @Test
+    void testPack_subSecondTimestamps_leftUnpacked() {
+        RepositoryScoreResponseDto response = new RepositoryScoreResponseDto(1, false, List.of(
+                new RepositoryScoreDto("repo1", "user1", "Java", 5, 10, null, UPDATED_AT.plusMillis(1), 1.0)),
+                UPDATED_AT);
+
+        assertSame(response, PackedRepositoryScoreList.pack(response));
+    }
+
+    @Test
+    void testWeigh_packedPageIsLighter() {
+        RepositoryScoreResponseDto response = page("Java");
+
+        long objects = RepositoryScoreWeigher.estimate(response);
+        long packed = RepositoryScoreWeigher.estimate(PackedRepositoryScoreList.pack(response));
+
+        assertTrue(packed < objects * 3 / 4, "packed " + packed + " bytes, objects " + objects + " bytes");
+    }
+
+    private static RepositoryScoreResponseDto page(String language) {
+        return new RepositoryScoreResponseDto(30, false, IntStream.range(0, 30)
+                .mapToObj(i -> new RepositoryScoreDto("repo" + i, new String("owner"), language, i, i,
+                        UPDATED_AT, UPDATED_AT, i))
+                .toList(), UPDATED_AT);
+    }
+}
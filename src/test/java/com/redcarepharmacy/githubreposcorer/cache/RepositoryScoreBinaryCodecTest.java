@@ -0,0 +1,94 @@
+package com.redcarepharmacy.githubreposcorer.cache;
+
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryScoreBinaryCodecTest {
+
+    @Test
+    void testEncodeDecode_roundTrip() {
+        RepositoryScoreResponseDto response = new RepositoryScoreResponseDto(1234, true, List.of(
+                new RepositoryScoreDto("repo1", "user1", "Java", 10, 5,
+                        Instant.parse("2024-01-01T10:15:30Z"), Instant.parse("2025-02-03T04:05:06.789Z"), 42.57),
+                new RepositoryScoreDto("répo-2", null, "Java", Integer.MAX_VALUE, 0,
+                        null, Instant.EPOCH.minusSeconds(1), 0),
+                new RepositoryScoreDto(null, "user1", null, 0, 1, Instant.now(), null, -3.5)),
+                Instant.parse("2025-06-01T12:00:00Z"));
+
+        RepositoryScoreResponseDto decoded =
+                RepositoryScoreBinaryCodec.decode(RepositoryScoreBinaryCodec.encode(response));
+
+        assertEquals(response, decoded);
+    }
+
+    @Test
+    void testEncodeDecode_keepsValidators() {
+        RepositoryScoreResponseDto response = new RepositoryScoreResponseDto(1, false, List.of(
+                new RepositoryScoreDto("repo1", "user1", "Java", 10, 5, null, null, 1.5)),
+                Instant.parse("2025-06-01T12:00:00Z"), "W/\"abc123\"", "Sun, 01 Jun 2025 12:00:00 GMT");
+
+        RepositoryScoreResponseDto decoded =
+                RepositoryScoreBinaryCodec.decode(RepositoryScoreBinaryCodec.encode(response));
+
+        assertEquals("W/\"abc123\"", decoded.etag());
+        assertEquals("Sun, 01 Jun 2025 12:00:00 GMT", decoded.lastModified());
+    }
+
+    @Test
+    void testEncodeDecode_emptyAndNullList() {
+        RepositoryScoreResponseDto empty = new RepositoryScoreResponseDto(0, false, List.of());
+        RepositoryScoreResponseDto nullList = new RepositoryScoreResponseDto(0, false, null);
+
+        assertEquals(empty, RepositoryScoreBinaryCodec.decode(RepositoryScoreBinaryCodec.encode(empty)));
+        assertEquals(empty, RepositoryScoreBinaryCodec.decode(RepositoryScoreBinaryCodec.encode(nullList)));
+    }
+
+    @Test
+    void testEncode_smallerThanJavaSerialization() throws Exception {
+        List<RepositoryScoreDto> items = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            items.add(new RepositoryScoreDto("repository-" + i, "owner-" + (i % 3), "Java",
+                    1000 + i, 100 + i, Instant.parse("2024-01-01T10:15:30Z"),
+                    Instant.parse("2025-01-01T10:15:30Z"), 350.25 + i));
+        }
+        RepositoryScoreResponseDto response = new RepositoryScoreResponseDto(5000, false, items);
+
+        ByteArrayOutputStream javaSerialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(javaSerialized)) {
+            out.writeObject(response);
+        }
+
+        assertTrue(RepositoryScoreBinaryCodec.encode(response).length * 2 < javaSerialized.size());
+    }
+
+    @Test
+    void testDecode_versionWithoutFetchedAt() {
+        RepositoryScoreResponseDto decoded = RepositoryScoreBinaryCodec.decode(new byte[]{1, 7, 1, 0});
+
+        assertEquals(new RepositoryScoreResponseDto(7, true, List.of()), decoded);
+        assertNull(decoded.fetchedAt());
+    }
+
+    @Test
+    void testDecode_versionWithoutValidators() {
+        RepositoryScoreResponseDto decoded = RepositoryScoreBinaryCodec.decode(new byte[]{2, 7, 0, 1, 2, 0, 0});
+
+        assertEquals(new RepositoryScoreResponseDto(7, false, List.of(), Instant.ofEpochSecond(1)), decoded);
+        assertNull(decoded.etag());
+    }
+
+    @Test
+    void testDecode_unknownVersion_shouldFail() {
+        assertThrows(IllegalArgumentException.class,
+                () -> RepositoryScoreBinaryCodec.decode(new byte[]{99, 0, 0, 0}));
+    }
+}
@@ -0,0 +1,158 @@
+package com.redcarepharmacy.githubreposcorer.cache;
+
+import com.redcarepharmacy.githubreposcorer.config.InMemoryCacheConfig;
+import com.redcarepharmacy.githubreposcorer.config.RedisCacheProperties;
+import com.redcarepharmacy.githubreposcorer.config.RepositoryCacheProperties;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.redcarepharmacy.githubreposcorer.config.RepositoryCachePropertiesBuilder.cacheProperties;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryScoreCacheSnapshotTest {
+
+    private static final RedisCacheProperties REDIS_PROPERTIES =
+            new RedisCacheProperties(false, "localhost", 6379, 6);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSnapshot_roundTripsPagesWithNullsAndValidators() throws IOException {
+        Path file = tempDir.resolve("cache.bin");
+        Instant fetchedAt = Instant.parse("2025-01-01T10:15:30.123456789Z");
+        Map<String, RepositoryScoreResponseDto> pages = new LinkedHashMap<>();
+        pages.put("java:2024-01-01:1", new RepositoryScoreResponseDto(2500, true, List.of(
+                new RepositoryScoreDto("repo1", "user1", "Java", 5, 10, Instant.parse("2024-02-01T00:00:00Z"),
+                        Instant.parse("2025-01-01T00:00:00Z"), 42.5),
+                new RepositoryScoreDto(null, null, "Java", 0, 0, null, null, 0.0)),
+                fetchedAt, "\"etag-1\"", "Wed, 01 Jan 2025 10:15:30 GMT"));
+        pages.put("go:2024-01-01:2", new RepositoryScoreResponseDto(1, false, List.of(
+                new RepositoryScoreDto("gö-repo", "user1", "Go", 1, 2, null, null, 1.0)), null));
+
+        RepositoryScoreSnapshot.write(file, pages);
+        RepositoryScoreSnapshot snapshot = RepositoryScoreSnapshot.open(file);
+
+        assertEquals(2, snapshot.size());
+        assertEquals("java:2024-01-01:1", snapshot.key(0));
+        assertEquals(fetchedAt, snapshot.fetchedAt(0));
+        assertEquals(pages.get("java:2024-01-01:1"), snapshot.page(0));
+        assertEquals("\"etag-1\"", snapshot.page(0).etag());
+        assertEquals("go:2024-01-01:2", snapshot.key(1));
+        assertNull(snapshot.fetchedAt(1));
+        assertEquals(pages.get("go:2024-01-01:2"), snapshot.page(1));
+    }
+
+    @Test
+    void testOpen_rejectsForeignAndTruncatedFiles() throws IOException {
+        Path foreign = Files.write(tempDir.resolve("foreign.bin"), "not a snapshot at all".getBytes());
+        Path truncated = tempDir.resolve("truncated.bin");
+        RepositoryScoreSnapshot.write(truncated, Map.of("java:2024-01-01:1", page(Instant.now())));
+        byte[] bytes = Files.readAllBytes(truncated);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+
+        assertThrows(IOException.class, () -> RepositoryScoreSnapshot.open(foreign));
+        assertThrows(IOException.class, () -> RepositoryScoreSnapshot.open(truncated));
+    }
+
+    @Test
+    void testRestart_restoresUnexpiredPagesIntoTheCache() {
+        Path file = tempDir.resolve("cache.bin");
+        CacheManager before = cacheManager();
+        Cache cache = before.getCache(RepositoryScoreCacheKey.CACHE_NAME);
+        RepositoryScoreResponseDto fresh = page(Instant.now().minus(Duration.ofHours(1)));
+        cache.put("java:2024-01-01:1", fresh);
+        cache.put("java:2024-01-01:2", page(Instant.now().minus(Duration.ofHours(7))));
+        new RepositoryScoreCacheSnapshot(before, properties(file), REDIS_PROPERTIES).destroy();
+
+        CacheManager after = cacheManager();
+        new RepositoryScoreCacheSnapshot(after, properties(file), REDIS_PROPERTIES);
+
+        Cache restored = after.getCache(RepositoryScoreCacheKey.CACHE_NAME);
+        assertEquals(fresh, restored.get("java:2024-01-01:1", RepositoryScoreResponseDto.class));
+        assertNull(restored.get("java:2024-01-01:2"));
+    }
+
+    @Test
+    void testRestart_restoresPagesWithTheLifetimeTheyHadLeft() {
+        Path file = tempDir.resolve("cache.bin");
+        CacheManager before = cacheManager();
+        before.getCache(RepositoryScoreCacheKey.CACHE_NAME)
+                .put("java:2024-01-01:1", page(Instant.now().minus(Duration.ofHours(5))));
+        new RepositoryScoreCacheSnapshot(before, properties(file), REDIS_PROPERTIES).destroy();
+
+        CacheManager after = cacheManager();
+        new RepositoryScoreCacheSnapshot(after, properties(file), REDIS_PROPERTIES);
+
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> restored = ((CaffeineCache) after
+                .getCache(RepositoryScoreCacheKey.CACHE_NAME)).getNativeCache();
+        Duration expiresAfter = restored.policy().expireVariably().orElseThrow()
+                .getExpiresAfter("java:2024-01-01:1").orElseThrow();
+        // fetched 5 hours ago with a 6 hour TTL
+        assertTrue(expiresAfter.compareTo(Duration.ofHours(1)) <= 0);
+        assertTrue(expiresAfter.compareTo(Duration.ofMinutes(59)) > 0);
+    }
+
+    @Test
+    void testRestart_packsRestoredPagesWhenEnabled() {
+        Path file = tempDir.resolve("cache.bin");
+        CacheManager before = cacheManager();
+        // GitHub timestamps are whole seconds, which packing relies on
+        RepositoryScoreResponseDto page =
+                page(Instant.now().minus(Duration.ofHours(1)).truncatedTo(ChronoUnit.SECONDS));
+        before.getCache(RepositoryScoreCacheKey.CACHE_NAME).put("java:2024-01-01:1", page);
+        new RepositoryScoreCacheSnapshot(before, properties(file), REDIS_PROPERTIES).destroy();
+
+        CacheManager after = cacheManager();
+        new RepositoryScoreCacheSnapshot(after, properties(file, true), REDIS_PROPERTIES);
+
+        RepositoryScoreResponseDto restored = after.getCache(RepositoryScoreCacheKey.CACHE_NAME)
+                .get("java:2024-01-01:1", RepositoryScoreResponseDto.class);
+        assertInstanceOf(PackedRepositoryScoreList.class, restored.repositoryScoreList());
+        assertEquals(page.repositoryScoreList(), List.copyOf(restored.repositoryScoreList()));
+    }
+
+    @Test
+    void testSave_skipsCachesOtherThanCaffeine() {
+        Path file = tempDir.resolve("cache.bin");
+        CacheManager cacheManager = new ConcurrentMapCacheManager(RepositoryScoreCacheKey.CACHE_NAME);
+        cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME).put("java:2024-01-01:1", page(Instant.now()));
+
+        assertEquals(0, new RepositoryScoreCacheSnapshot(cacheManager, properties(file), REDIS_PROPERTIES).save());
+        assertFalse(Files.exists(file));
+    }
+
+    private static CacheManager cacheManager() {
+        return new InMemoryCacheConfig().simpleCacheManager(properties(null), REDIS_PROPERTIES);
+    }
+
+    private static RepositoryCacheProperties properties(Path snapshotFile) {
+        return properties(snapshotFile, false);
+    }
+
+    private static RepositoryCacheProperties properties(Path snapshotFile, boolean packedPages) {
+        return cacheProperties().snapshotFile(snapshotFile).packedPages(packedPages).build();
+    }
+
+    private static RepositoryScoreResponseDto page(Instant fetchedAt) {
+        return new RepositoryScoreResponseDto(1, false, List.of(
+                new RepositoryScoreDto("repo", "user", "Java", 1, 1, fetchedAt, fetchedAt, 1.0)), fetchedAt);
+    }
+}
@@ -0,0 +1,394 @@
+package com.redcarepharmacy.githubreposcorer.cache;
+
+import com.redcarepharmacy.githubreposcorer.config.RepositoryCacheProperties;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import com.redcarepharmacy.githubreposcorer.exception.GitHubRateLimitExceededException;
+import com.redcarepharmacy.githubreposcorer.exception.GitHubSearchLimitExceededException;
+import com.redcarepharmacy.githubreposcorer.metrics.RepositoryPipelineMetrics;
+import com.redcarepharmacy.githubreposcorer.ratelimit.RequestPriority;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.redcarepharmacy.githubreposcorer.config.RepositoryCachePropertiesBuilder.cacheProperties;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryScoreCacheTest {
+
+    private static final String KEY = "java:2024-01-01:1";
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testGet_concurrentMisses_loadOnce() throws Exception {
+        RepositoryScoreCache repositoryScoreCache = cache(null, properties(false));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        RepositoryScoreResponseDto response = response("repo1");
+
+        List<Future<RepositoryScoreResponseDto>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return repositoryScoreCache.get(KEY, () -> {
+                        loads.incrementAndGet();
+                        sleep(200);
+                        return response;
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<RepositoryScoreResponseDto> result : results) {
+                assertEquals(response, result.get());
+            }
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(response, cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME)
+                .get(KEY, RepositoryScoreResponseDto.class));
+    }
+
+    @Test
+    void testGet_concurrentMisses_shareFailure() throws Exception {
+        RepositoryScoreCache repositoryScoreCache = cache(null, properties(false));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<RepositoryScoreResponseDto>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return repositoryScoreCache.get(KEY, () -> {
+                        loads.incrementAndGet();
+                        sleep(200);
+                        throw new GitHubSearchLimitExceededException("limit");
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<RepositoryScoreResponseDto> result : results) {
+                Exception e = assertThrows(Exception.class, result::get);
+                assertInstanceOf(GitHubSearchLimitExceededException.class, e.getCause());
+            }
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testGet_emptyResult_notCached() {
+        RepositoryScoreCache repositoryScoreCache = cache(null, properties(false));
+        RepositoryScoreResponseDto empty = new RepositoryScoreResponseDto(0, false, List.of());
+
+        assertEquals(empty, repositoryScoreCache.get(KEY, () -> empty));
+        assertNull(cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME).get(KEY));
+    }
+
+    @Test
+    void testGet_packedPages_cachesPackedRepositories() {
+        RepositoryCacheProperties packed = cacheProperties().softTtl(Duration.ofMinutes(10))
+                .packedPages(true).build();
+        RepositoryScoreCache repositoryScoreCache = cache(null, packed);
+        Instant updatedAt = Instant.parse("2025-01-01T00:00:00Z");
+        RepositoryScoreResponseDto loaded = new RepositoryScoreResponseDto(1, false, List.of(
+                new RepositoryScoreDto("repo1", "user1", "java", 10, 5, updatedAt, updatedAt, 2.5)), Instant.now());
+
+        assertSame(loaded, repositoryScoreCache.get(KEY, () -> loaded));
+        RepositoryScoreResponseDto cached = repositoryScoreCache.get(KEY, () -> fail("page is cached"));
+
+        assertInstanceOf(PackedRepositoryScoreList.class, cached.repositoryScoreList());
+        assertEquals(loaded, cached);
+    }
+
+    @Test
+    void testGet_subsumption_answersLaterCreatedAfterFromCompleteResultSet() {
+        RepositoryCacheProperties subsuming = cacheProperties().softTtl(Duration.ofMinutes(10))
+                .subsumption(new RepositoryCacheProperties.Subsumption(true, 10)).build();
+        RepositoryScoreCache repositoryScoreCache = cache(null, subsuming);
+        Instant fetchedAt = Instant.now();
+        List<RepositoryScoreDto> repositories = new ArrayList<>();
+        for (int i = 0; i < 35; i++) {
+            // one repository per day from 2024-01-02 on, in no particular order
+            Instant createdAt = Instant.parse("2024-01-02T12:00:00Z").plus(Duration.ofDays((i * 8) % 35));
+            repositories.add(new RepositoryScoreDto("repo" + i, "user1", "Java", i, 0, createdAt, createdAt, i));
+        }
+        for (int page = 1; page <= 2; page++) {
+            RepositoryScoreResponseDto loaded = new RepositoryScoreResponseDto(35, false,
+                    repositories.subList((page - 1) * 30, Math.min(35, page * 30)), fetchedAt);
+            repositoryScoreCache.get(new RepositoryScoreCacheKey("Java", LocalDate.of(2024, 1, 1), page).toString(),
+                    () -> loaded);
+        }
+
+        RepositoryScoreResponseDto subsumed = repositoryScoreCache.get(
+                new RepositoryScoreCacheKey("JAVA", LocalDate.of(2024, 1, 11), 1).toString(),
+                () -> fail("should be answered from the result set"));
+
+        List<RepositoryScoreDto> expected = repositories.stream()
+                .filter(repository -> !repository.createdAt().isBefore(Instant.parse("2024-01-12T00:00:00Z")))
+                .toList();
+        assertEquals(25, subsumed.totalCount());
+        assertEquals(expected, subsumed.repositoryScoreList());
+        assertEquals(fetchedAt, subsumed.fetchedAt());
+        assertEquals(1, lookups("java", "subsumed"));
+        assertNull(repositoryScoreCache.getIfCached("java:2024-01-11:2", stale -> fail("not loaded")));
+        assertNull(cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME).get("java:2024-01-11:1"));
+        repositoryScoreCache.destroy();
+    }
+
+    @Test
+    void testGet_leaseHeldByOtherNode_waitsForItsResult() {
+        RepositoryScoreResponseDto loadedElsewhere = response("other-node");
+        DistributedLease heldElsewhere = new DistributedLease() {
+            private int attempts;
+
+            @Override
+            public String tryAcquire(String name, Duration ttl) {
+                if (++attempts == 3) {
+                    cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME).put(KEY, loadedElsewhere);
+                }
+                return null;
+            }
+
+            @Override
+            public void release(String name, String token) {
+                fail("lease was never acquired");
+            }
+        };
+        RepositoryScoreCache repositoryScoreCache = cache(heldElsewhere, properties(true));
+
+        RepositoryScoreResponseDto result = repositoryScoreCache.get(KEY, () -> fail("should not fetch"));
+
+        assertEquals(loadedElsewhere, result);
+    }
+
+    @Test
+    void testGet_leaseAcquired_loadsAndReleases() {
+        List<String> released = new ArrayList<>();
+        DistributedLease free = new DistributedLease() {
+            @Override
+            public String tryAcquire(String name, Duration ttl) {
+                return "token";
+            }
+
+            @Override
+            public void release(String name, String token) {
+                released.add(name + "=" + token);
+            }
+        };
+        RepositoryScoreCache repositoryScoreCache = cache(free, properties(true));
+        RepositoryScoreResponseDto response = response("repo1");
+
+        assertEquals(response, repositoryScoreCache.get(KEY, () -> response));
+        assertEquals(List.of("repositories_score:lease:" + KEY + "=token"), released);
+    }
+
+    @Test
+    void testGet_pastSoftTtl_servesStaleAndRefreshesInBackground() throws Exception {
+        RepositoryScoreCache repositoryScoreCache = cache(null, properties(false));
+        RepositoryScoreResponseDto stale = response("stale", Instant.now().minus(Duration.ofHours(1)));
+        RepositoryScoreResponseDto fresh = response("fresh", Instant.now());
+        cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME).put(KEY, stale);
+        CountDownLatch refreshed = new CountDownLatch(1);
+
+        RepositoryScoreResponseDto result = repositoryScoreCache.get(KEY, () -> {
+            refreshed.countDown();
+            return fresh;
+        });
+
+        assertEquals(stale, result);
+        assertTrue(refreshed.await(2, TimeUnit.SECONDS));
+        awaitCached(fresh);
+        assertEquals(fresh, repositoryScoreCache.get(KEY, () -> fail("should not fetch")));
+        repositoryScoreCache.destroy();
+    }
+
+    @Test
+    void testGet_refreshFails_keepsServingStale() throws Exception {
+        RepositoryScoreCache repositoryScoreCache = cache(null, properties(false));
+        RepositoryScoreResponseDto stale = response("stale", Instant.now().minus(Duration.ofHours(1)));
+        cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME).put(KEY, stale);
+        AtomicInteger attempts = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(stale, repositoryScoreCache.get(KEY, () -> {
+                attempts.incrementAndGet();
+                throw new GitHubSearchLimitExceededException("rate limited");
+            }));
+            Thread.sleep(100);
+        }
+
+        assertTrue(attempts.get() >= 1);
+        assertEquals(stale, cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME)
+                .get(KEY, RepositoryScoreResponseDto.class));
+        repositoryScoreCache.destroy();
+    }
+
+    @Test
+    void testGet_pastSoftTtl_refreshesAtBackgroundPriority() throws Exception {
+        RepositoryScoreCache repositoryScoreCache = cache(null, properties(false));
+        RepositoryScoreResponseDto stale = response("stale", Instant.now().minus(Duration.ofHours(1)));
+        cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME).put(KEY, stale);
+        List<RequestPriority> priorities = new CopyOnWriteArrayList<>();
+        CountDownLatch refreshed = new CountDownLatch(1);
+
+        assertEquals(stale, repositoryScoreCache.get(KEY, () -> {
+            priorities.add(RequestPriority.current());
+            refreshed.countDown();
+            throw new GitHubRateLimitExceededException("budget is low", Duration.ofSeconds(1));
+        }));
+
+        assertTrue(refreshed.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of(RequestPriority.BACKGROUND), priorities);
+        assertEquals(stale, repositoryScoreCache.get(KEY, () -> stale));
+        repositoryScoreCache.destroy();
+    }
+
+    @Test
+    void testGet_pastSoftTtl_passesStalePageToLoader() {
+        RepositoryScoreCache repositoryScoreCache = cache(null, properties(false));
+        RepositoryScoreResponseDto stale = response("stale", Instant.now().minus(Duration.ofHours(1)));
+        RepositoryScoreResponseDto revalidated = response("revalidated");
+        cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME).put(KEY, stale);
+        List<RepositoryScoreResponseDto> given = new CopyOnWriteArrayList<>();
+
+        assertEquals(stale, repositoryScoreCache.get(KEY, cached -> {
+            given.add(cached);
+            return revalidated;
+        }));
+
+        awaitCached(revalidated);
+        assertEquals(List.of(stale), given);
+        repositoryScoreCache.destroy();
+    }
+
+    @Test
+    void testGet_withinSoftTtl_noRefresh() {
+        RepositoryScoreCache repositoryScoreCache = cache(null, properties(false));
+        RepositoryScoreResponseDto fresh = response("fresh", Instant.now());
+        cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME).put(KEY, fresh);
+
+        assertEquals(fresh, repositoryScoreCache.get(KEY, () -> fail("should not fetch")));
+        repositoryScoreCache.destroy();
+    }
+
+    @Test
+    void testGetReactive_sharesLoadWithBlockingCallers() throws Exception {
+        RepositoryScoreCache repositoryScoreCache = cache(null, properties(false));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        RepositoryScoreResponseDto response = response("repo1");
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<RepositoryScoreResponseDto> blocking = executor.submit(() -> repositoryScoreCache.get(KEY, () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                sleep(200);
+                return response;
+            }));
+            assertTrue(loading.await(2, TimeUnit.SECONDS));
+
+            RepositoryScoreResponseDto reactive = repositoryScoreCache.getReactive(KEY, () -> {
+                loads.incrementAndGet();
+                return Mono.just(response);
+            }).block(Duration.ofSeconds(2));
+
+            assertEquals(response, reactive);
+            assertEquals(response, blocking.get());
+        }
+        assertEquals(1, loads.get());
+        repositoryScoreCache.destroy();
+    }
+
+    @Test
+    void testGetReactive_missLoadsAndCaches_hitDoesNotLoad() {
+        RepositoryScoreCache repositoryScoreCache = cache(null, properties(false));
+        RepositoryScoreResponseDto response = response("repo1");
+
+        assertEquals(response, repositoryScoreCache.getReactive(KEY, () -> Mono.just(response)).block());
+        awaitCached(response);
+        assertEquals(response, repositoryScoreCache.getReactive(KEY,
+                () -> Mono.error(new AssertionError("should not fetch"))).block());
+        repositoryScoreCache.destroy();
+    }
+
+    @Test
+    void testLookups_recordedByResult() {
+        RepositoryScoreCache repositoryScoreCache = cache(null, properties(false));
+        RepositoryScoreResponseDto response = response("repo1");
+
+        repositoryScoreCache.get(KEY, () -> response);
+        repositoryScoreCache.get(KEY, () -> fail("should not fetch"));
+        repositoryScoreCache.getReactive("klingon:2024-01-01:1", () -> Mono.just(response)).block();
+        cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME)
+                .put(KEY, response("stale", Instant.now().minus(Duration.ofHours(1))));
+        repositoryScoreCache.getReactive(KEY, () -> Mono.just(response)).block();
+
+        assertEquals(1, lookups("java", "miss"));
+        assertEquals(1, lookups("java", "hit"));
+        assertEquals(1, lookups("java", "stale"));
+        assertEquals(1, lookups("other", "miss"));
+        repositoryScoreCache.destroy();
+    }
+
+    private long lookups(String language, String result) {
+        return meterRegistry.get(RepositoryPipelineMetrics.CACHE_LOOKUP)
+                .tag("language", language).tag("result", result).timer().count();
+    }
+
+    private RepositoryScoreCache cache(DistributedLease distributedLease, RepositoryCacheProperties properties) {
+        return new RepositoryScoreCache(cacheManager, distributedLease, properties,
+                new RepositoryPipelineMetrics(meterRegistry));
+    }
+
+    private void awaitCached(RepositoryScoreResponseDto expected) {
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (!expected.equals(cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME)
+                .get(KEY, RepositoryScoreResponseDto.class)) && System.currentTimeMillis() < deadline) {
+            sleep(10);
+        }
+    }
+
+    private static RepositoryCacheProperties properties(boolean leaseEnabled) {
+        return cacheProperties().softTtl(Duration.ofMinutes(10))
+                .lease(new RepositoryCacheProperties.Lease(leaseEnabled, Duration.ofSeconds(5), Duration.ofMillis(10)))
+                .build();
+    }
+
+    private static RepositoryScoreResponseDto response(String name) {
+        return response(name, Instant.now());
+    }
+
+    private static RepositoryScoreResponseDto response(String name, Instant fetchedAt) {
+        return new RepositoryScoreResponseDto(1, false, List.of(
+                new RepositoryScoreDto(name, "user1", "java", 10, 5, Instant.now(), Instant.now(), 2.5)),
+                fetchedAt);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.redcarepharmacy.githubreposcorer.config;
+
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreCacheKey;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+import static com.redcarepharmacy.githubreposcorer.config.RepositoryCachePropertiesBuilder.cacheProperties;
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryCacheConfigTest {
+
+    private static final RedisCacheProperties REDIS_PROPERTIES =
+            new RedisCacheProperties(false, "localhost", 6379, 6);
+
+    @Test
+    void testCache_boundedByEntryCount() {
+        CacheManager cacheManager = new InMemoryCacheConfig().simpleCacheManager(
+                cacheProperties().maxEntries(2).build(),
+                REDIS_PROPERTIES);
+        Cache cache = cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME);
+
+        for (int page = 1; page <= 10; page++) {
+            cache.put("java:2024-01-01:" + page, response("repo" + page));
+        }
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache =
+                ((CaffeineCache) cache).getNativeCache();
+        nativeCache.cleanUp();
+
+        assertTrue(nativeCache.estimatedSize() <= 2);
+        assertTrue(nativeCache.stats().evictionCount() >= 8);
+    }
+
+    @Test
+    void testCache_boundedByWeight() {
+        CacheManager cacheManager = new InMemoryCacheConfig().simpleCacheManager(
+                cacheProperties().maxEntries(1_000).maxWeightBytes(2_000).build(),
+                REDIS_PROPERTIES);
+        Cache cache = cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME);
+
+        for (int page = 1; page <= 10; page++) {
+            cache.put("java:2024-01-01:" + page, response("repo" + page, "other" + page, "third" + page));
+        }
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache =
+                ((CaffeineCache) cache).getNativeCache();
+        nativeCache.cleanUp();
+
+        assertTrue(nativeCache.estimatedSize() < 10);
+    }
+
+    private static RepositoryScoreResponseDto response(String... names) {
+        return new RepositoryScoreResponseDto(names.length, false, Arrays.stream(names)
+                .map(name -> new RepositoryScoreDto(name, "user1", "java", 10, 5,
+                        Instant.now(), Instant.now(), 2.5))
+                .toList());
+    }
+}
@@ -0,0 +1,122 @@
+package com.redcarepharmacy.githubreposcorer.config;
+
+import com.redcarepharmacy.githubreposcorer.cache.DistributedLease;
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreCacheKey;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static com.redcarepharmacy.githubreposcorer.config.RepositoryCachePropertiesBuilder.cacheProperties;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the Redis cache configuration against an embedded Redis server.
+ */
+class RedisConfigTest {
+
+    private static RedisServer redisServer;
+    private static RedisCacheProperties redisProperties;
+
+    private LettuceConnectionFactory connectionFactory;
+    private CacheManager cacheManager;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        redisProperties = new RedisCacheProperties(true, "localhost", port, 6);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        RedisConfig redisConfig = new RedisConfig();
+        connectionFactory = (LettuceConnectionFactory) redisConfig.redisConnectionFactory(redisProperties);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        cacheManager = redisConfig.redisCacheManager(connectionFactory, redisProperties,
+                cacheProperties().build());
+        ((RedisCacheManager) cacheManager).afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME).clear();
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void testRedisCache_roundTrip() {
+        RepositoryScoreResponseDto response = new RepositoryScoreResponseDto(1, false, List.of(
+                new RepositoryScoreDto("repo1", "user1", "java", 10, 5,
+                        Instant.parse("2024-01-01T00:00:00Z"), Instant.parse("2025-01-01T00:00:00Z"), 2.5)));
+        Cache cache = cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME);
+
+        cache.put("java:2024-01-01:1", response);
+
+        assertEquals(response, cache.get("java:2024-01-01:1", RepositoryScoreResponseDto.class));
+        assertNull(cache.get("java:2024-01-01:2"));
+    }
+
+    @Test
+    void testRedisCache_usesConfiguredTtlAndCompactValues() {
+        Cache cache = cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME);
+        cache.put("java:2024-01-01:1", new RepositoryScoreResponseDto(0, false, List.of()));
+
+        byte[] key = "repositories_score::java:2024-01-01:1".getBytes(StandardCharsets.UTF_8);
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            Long ttlSeconds = connection.keyCommands().ttl(key);
+            byte[] value = connection.stringCommands().get(key);
+
+            assertNotNull(ttlSeconds);
+            assertTrue(ttlSeconds > 5 * 3600 && ttlSeconds <= 6 * 3600);
+            assertNotNull(value);
+            assertTrue(value.length < 8);
+        }
+    }
+
+    @Test
+    void testRedisDistributedLease_exclusiveUntilReleasedByHolder() {
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+        DistributedLease lease = new RedisConfig().redisDistributedLease(redisTemplate);
+
+        String token = lease.tryAcquire("lease:test", Duration.ofSeconds(10));
+        assertNotNull(token);
+        assertNull(lease.tryAcquire("lease:test", Duration.ofSeconds(10)));
+
+        lease.release("lease:test", "not-the-holder");
+        assertNull(lease.tryAcquire("lease:test", Duration.ofSeconds(10)));
+
+        lease.release("lease:test", token);
+        String next = lease.tryAcquire("lease:test", Duration.ofSeconds(10));
+        assertNotNull(next);
+        lease.release("lease:test", next);
+    }
+}
@@ -0,0 +1,84 @@
+package com.redcarepharmacy.githubreposcorer.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Builds {@link RepositoryCacheProperties} for tests, so that a test only names the settings it
+ * is about: 100 entries and 1,000,000 bytes, no soft TTL, and every optional feature off unless
+ * set.
+ */
+public final class RepositoryCachePropertiesBuilder {
+
+    private long maxEntries = 100;
+    private long maxWeightBytes = 1_000_000;
+    private Duration softTtl;
+    private RepositoryCacheProperties.Refresh refresh;
+    private RepositoryCacheProperties.Near near;
+    private RepositoryCacheProperties.Lease lease;
+    private RepositoryCacheProperties.Prewarm prewarm;
+    private Path snapshotFile;
+    private boolean packedPages;
+    private RepositoryCacheProperties.Subsumption subsumption;
+
+    private RepositoryCachePropertiesBuilder() {
+    }
+
+    public static RepositoryCachePropertiesBuilder cacheProperties() {
+        return new RepositoryCachePropertiesBuilder();
+    }
+
+    public RepositoryCachePropertiesBuilder maxEntries(long maxEntries) {
+        this.maxEntries = maxEntries;
+        return this;
+    }
+
+    public RepositoryCachePropertiesBuilder maxWeightBytes(long maxWeightBytes) {
+        this.maxWeightBytes = maxWeightBytes;
+        return this;
+    }
+
+    /**
+     * Sets the soft TTL, refreshing stale pages on a single thread with room for 10 pending refreshes.
+     */
+    public RepositoryCachePropertiesBuilder softTtl(Duration softTtl) {
+        this.softTtl = softTtl;
+        this.refresh = new RepositoryCacheProperties.Refresh(1, 10);
+        return this;
+    }
+
+    public RepositoryCachePropertiesBuilder near(RepositoryCacheProperties.Near near) {
+        this.near = near;
+        return this;
+    }
+
+    public RepositoryCachePropertiesBuilder lease(RepositoryCacheProperties.Lease lease) {
+        this.lease = lease;
+        return this;
+    }
+
+    public RepositoryCachePropertiesBuilder prewarm(RepositoryCacheProperties.Prewarm prewarm) {
+        this.prewarm = prewarm;
+        return this;
+    }
+
+    public RepositoryCachePropertiesBuilder snapshotFile(Path snapshotFile) {
+        this.snapshotFile = snapshotFile;
+        return this;
+    }
+
+    public RepositoryCachePropertiesBuilder packedPages(boolean packedPages) {
+        this.packedPages = packedPages;
+        return this;
+    }
+
+    public RepositoryCachePropertiesBuilder subsumption(RepositoryCacheProperties.Subsumption subsumption) {
+        this.subsumption = subsumption;
+        return this;
+    }
+
+    public RepositoryCacheProperties build() {
+        return new RepositoryCacheProperties(maxEntries, maxWeightBytes, softTtl, refresh, near, lease, prewarm,
+                snapshotFile, packedPages, subsumption);
+    }
+}
@@ -0,0 +1,158 @@
+package com.redcarepharmacy.githubreposcorer.config;
+
+import com.redcarepharmacy.githubreposcorer.metrics.RepositoryPipelineMetrics;
+import com.redcarepharmacy.githubreposcorer.ratelimit.GithubRateLimiter;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RestTemplateConfigTest {
+
+    private static final GithubClientProperties PROPERTIES = new GithubClientProperties(
+            Duration.ofSeconds(1), Duration.ofMillis(500), Duration.ofMillis(200),
+            10, 5, Duration.ofMinutes(5), Duration.ofSeconds(30), true);
+
+    private final RestTemplateConfig restTemplateConfig = new RestTemplateConfig();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+    private final List<String> remotePorts = new CopyOnWriteArrayList<>();
+    private final List<String> acceptEncodings = new CopyOnWriteArrayList<>();
+
+    private HttpServer server;
+    private CloseableHttpClient httpClient;
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/gzip", exchange -> {
+            remotePorts.add(String.valueOf(exchange.getRemoteAddress().getPort()));
+            acceptEncodings.add(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+            authorizations.add(String.valueOf(exchange.getRequestHeaders().getFirst("Authorization")));
+            byte[] body = gzip("{\"total_count\":1}");
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.getResponseHeaders().add("X-RateLimit-Remaining", "29");
+            exchange.getResponseHeaders().add("X-RateLimit-Resource", "search");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(2_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+
+        PoolingHttpClientConnectionManager connectionManager =
+                restTemplateConfig.githubConnectionManager(PROPERTIES, meterRegistry);
+        restTemplateConfig.githubConnectionPoolMetrics(connectionManager).bindTo(meterRegistry);
+        httpClient = restTemplateConfig.githubHttpClient(connectionManager, PROPERTIES);
+        RepositoryPipelineMetrics metrics = new RepositoryPipelineMetrics(meterRegistry);
+        GithubRateLimiter rateLimiter = new GithubRateLimiter(new GithubRateLimitProperties(
+                List.of("token-a", "token-b"), 600, 0, 0, Duration.ZERO), metrics);
+        restTemplate = restTemplateConfig.restTemplate(new RestTemplateBuilder(), httpClient, metrics, rateLimiter);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void testRestTemplate_requestsAndDecodesGzip() {
+        String body = restTemplate.getForObject(url("/gzip"), String.class);
+
+        assertEquals("{\"total_count\":1}", body);
+        assertTrue(acceptEncodings.get(0).contains("gzip"));
+    }
+
+    @Test
+    void testRestTemplate_reusesPooledConnection() {
+        restTemplate.getForObject(url("/gzip"), String.class);
+        restTemplate.getForObject(url("/gzip"), String.class);
+
+        assertEquals(2, remotePorts.size());
+        assertEquals(remotePorts.get(0), remotePorts.get(1));
+        assertEquals(2, meterRegistry.get(MeteredPoolingConnectionManager.WAIT_TIMER)
+                .tag("outcome", "acquired").timer().count());
+        assertEquals(10, meterRegistry.get("httpcomponents.httpclient.pool.total.max").gauge().value());
+    }
+
+    @Test
+    void testRestTemplate_recordsResponseMetricsWithBoundedUriTag() {
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        restTemplate.setObservationRegistry(observationRegistry);
+
+        restTemplate.getForObject(url("/gzip?q=language:java+created:>2024-01-01&page=1"), String.class);
+        restTemplate.getForObject(url("/gzip?q=language:rust+created:>2024-01-01&page=2"), String.class);
+
+        assertEquals(2, meterRegistry.get("http.client.requests").tag("uri", "/gzip")
+                .tag("status", "200").timer().count());
+        assertEquals(1, meterRegistry.get("http.client.requests").timers().size());
+        DistributionSummary responseSize = meterRegistry.get(RepositoryPipelineMetrics.GITHUB_RESPONSE_SIZE).summary();
+        assertEquals(2, responseSize.count());
+        assertEquals(2 * "{\"total_count\":1}".length(), responseSize.totalAmount());
+        assertEquals(29, meterRegistry.get(RepositoryPipelineMetrics.GITHUB_RATE_LIMIT_REMAINING)
+                .tag("resource", "search").gauge().value());
+    }
+
+    @Test
+    void testRestTemplate_authenticatesWithConfiguredTokens() {
+        restTemplate.getForObject(url("/gzip"), String.class);
+        restTemplate.getForObject(url("/gzip"), String.class);
+
+        assertEquals(List.of("Bearer token-a", "Bearer token-b"), authorizations.stream().sorted().toList());
+    }
+
+    @Test
+    void testRestTemplate_slowResponse_timesOut() {
+        long start = System.nanoTime();
+
+        assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(url("/slow"), String.class));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofMillis(1_500)) < 0);
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    private static byte[] gzip(String value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(value.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -2,27 +2,47 @@ package com.redcarepharmacy.githubreposcorer.controller;
 
 import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
 import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import com.redcarepharmacy.githubreposcorer.dto.TopRepositoriesResponseDto;
+import com.redcarepharmacy.githubreposcorer.exception.ConcurrencyLimitExceededException;
+import com.redcarepharmacy.githubreposcorer.exception.GitHubRateLimitExceededException;
+import com.redcarepharmacy.githubreposcorer.exception.GitHubSearchLimitExceededException;
+import com.redcarepharmacy.githubreposcorer.service.ReactiveRepositoryService;
 import com.redcarepharmacy.githubreposcorer.service.RepositoryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@AutoConfigureObservability
 class RepositoryControllerTest {
 
     @Autowired
@@ -31,10 +51,17 @@ class RepositoryControllerTest {
     @MockitoBean
     private RepositoryService gitHubRepositoryService;
 
+    @MockitoBean
+    private ReactiveRepositoryService reactiveGitHubRepositoryService;
+
+    @Autowired
+    private RepositoryScoreResponseCache repositoryScoreResponseCache;
+
     private RepositoryScoreResponseDto repoDto;
 
     @BeforeEach
     void setUp() {
+        repositoryScoreResponseCache.clear();
         repoDto = new RepositoryScoreResponseDto(1,
                 false,
                 List.of(
@@ -61,6 +88,91 @@ class RepositoryControllerTest {
                 .andExpect(jsonPath("$.repositoryScoreList.[0].popularityScore").value(2.5));
     }
 
+    @Test
+    void testGetRepositoriesScore_reportsDataAge() throws Exception {
+        Mockito.when(gitHubRepositoryService.fetchAndScoreRepositories(
+                        anyString(), any(LocalDate.class), anyInt()))
+                .thenReturn(new RepositoryScoreResponseDto(1, false, repoDto.repositoryScoreList(),
+                        Instant.now().minusSeconds(120)));
+
+        mockMvc.perform(get("/api/v1/repositories/score")
+                        .param("language", "java")
+                        .param("createdAfter", "2023-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Age", org.hamcrest.Matchers.oneOf("120", "121")))
+                .andExpect(jsonPath("$.fetchedAt").exists());
+    }
+
+    @Test
+    void testGetRepositoriesScore_servesSerializedPageWithValidators() throws Exception {
+        Mockito.when(gitHubRepositoryService.fetchAndScoreRepositories("java", LocalDate.of(2023, 1, 1), 1))
+                .thenReturn(new RepositoryScoreResponseDto(1, false, repoDto.repositoryScoreList(),
+                        Instant.now().minus(Duration.ofMinutes(20))));
+
+        MvcResult first = mockMvc.perform(get("/api/v1/repositories/score")
+                        .param("language", "java")
+                        .param("createdAfter", "2023-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(jsonPath("$.repositoryScoreList.[0].name").value("repo1"))
+                .andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+        assertTrue(etag.matches("\"[0-9a-f]{32}\""), etag);
+        // caches count Age against max-age: fresh for the 30s the page is served from its bytes
+        long age = Long.parseLong(first.getResponse().getHeader("Age"));
+        String cacheControl = first.getResponse().getHeader("Cache-Control");
+        assertTrue(cacheControl.matches("max-age=\\d+"), cacheControl);
+        long freshFor = Long.parseLong(cacheControl.substring("max-age=".length())) - age;
+        assertTrue(age >= 1200 && freshFor > 0 && freshFor <= 30, cacheControl + ", Age: " + age);
+
+        mockMvc.perform(get("/api/v1/repositories/score")
+                        .param("language", "Java")
+                        .param("createdAfter", "2023-01-01")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().bytes(new byte[0]));
+        mockMvc.perform(get("/api/v1/repositories/score")
+                        .param("language", "java")
+                        .param("createdAfter", "2023-01-01")
+                        .header("If-None-Match", "\"outdated\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(first.getResponse().getContentAsByteArray()));
+
+        Mockito.verify(gitHubRepositoryService, Mockito.times(1))
+                .fetchAndScoreRepositories(anyString(), any(LocalDate.class), anyInt());
+    }
+
+    @Test
+    void testGetRepositoriesScore_gzip() throws Exception {
+        Mockito.when(gitHubRepositoryService.fetchAndScoreRepositories(
+                        anyString(), any(LocalDate.class), anyInt()))
+                .thenReturn(repoDto);
+
+        MvcResult plain = mockMvc.perform(get("/api/v1/repositories/score")
+                        .param("language", "java")
+                        .param("createdAfter", "2023-01-01"))
+                .andReturn();
+        MvcResult compressed = mockMvc.perform(get("/api/v1/repositories/score")
+                        .param("language", "java")
+                        .param("createdAfter", "2023-01-01")
+                        .header("Accept-Encoding", "br;q=1.0, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn();
+
+        try (GZIPInputStream gzip = new GZIPInputStream(
+                new ByteArrayInputStream(compressed.getResponse().getContentAsByteArray()))) {
+            assertArrayEquals(plain.getResponse().getContentAsByteArray(), gzip.readAllBytes());
+        }
+        assertEquals(plain.getResponse().getHeader("ETag").replace("\"", "") + "-gzip",
+                compressed.getResponse().getHeader("ETag").replace("\"", ""));
+        assertTrue(RepositoryController.acceptsGzip("deflate, *"));
+        assertFalse(RepositoryController.acceptsGzip("gzip;q=0, identity"));
+        assertFalse(RepositoryController.acceptsGzip(null));
+    }
+
     @Test
     void testGetRepositoriesScore_missingLanguage_shouldReturnBadRequest() throws Exception {
         mockMvc.perform(get("/api/v1/repositories/score")
@@ -89,4 +201,235 @@ class RepositoryControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error").exists());
     }
+
+    @Test
+    void testGetRepositoriesScoreReactive_success() throws Exception {
+        Mockito.when(reactiveGitHubRepositoryService.fetchAndScoreRepositories(
+                        anyString(), any(LocalDate.class), anyInt()))
+                .thenReturn(Mono.just(new RepositoryScoreResponseDto(1, false, repoDto.repositoryScoreList(),
+                        Instant.now().minusSeconds(60))));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/repositories/score/reactive")
+                        .param("language", "java")
+                        .param("createdAfter", "2023-01-01")
+                        .param("page", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Age"))
+                .andExpect(jsonPath("$.repositoryScoreList.[0].name").value("repo1"))
+                .andExpect(jsonPath("$.repositoryScoreList.[0].popularityScore").value(2.5));
+    }
+
+    @Test
+    void testGetRepositoriesScoreReactive_searchLimit_shouldReturnUnprocessableEntity() throws Exception {
+        Mockito.when(reactiveGitHubRepositoryService.fetchAndScoreRepositories(
+                        anyString(), any(LocalDate.class), anyInt()))
+                .thenReturn(Mono.error(new GitHubSearchLimitExceededException(
+                        "{\"message\":\"Only the first 1000 search results are available\"}")));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/repositories/score/reactive")
+                        .param("language", "java")
+                        .param("createdAfter", "2023-01-01")
+                        .param("page", "101"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("Only the first 1000 search results are available"));
+    }
+
+    @Test
+    void testGetRepositoriesScoreReactive_invalidPage_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/repositories/score/reactive")
+                        .param("language", "java")
+                        .param("createdAfter", "2023-01-01")
+                        .param("page", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    void testGetRepositoriesScore_rateLimitBudgetExhausted_shouldReturnTooManyRequests() throws Exception {
+        Mockito.when(gitHubRepositoryService.fetchAndScoreRepositories(
+                        anyString(), any(LocalDate.class), anyInt()))
+                .thenThrow(new GitHubRateLimitExceededException("budget exhausted", Duration.ofMillis(12_300)));
+
+        mockMvc.perform(get("/api/v1/repositories/score")
+                        .param("language", "java")
+                        .param("createdAfter", "2023-01-01"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "13"))
+                .andExpect(jsonPath("$.error").value("Rate Limit Exceeded"));
+    }
+
+    @Test
+    void testGetRepositoriesScore_concurrencyLimitReached_shouldReturnServiceUnavailable() throws Exception {
+        Mockito.when(gitHubRepositoryService.fetchAndScoreRepositories(
+                        anyString(), any(LocalDate.class), anyInt()))
+                .thenThrow(new ConcurrencyLimitExceededException("limit reached", Duration.ofSeconds(1)));
+
+        mockMvc.perform(get("/api/v1/repositories/score")
+                        .param("language", "java")
+                        .param("createdAfter", "2023-01-01"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.error").value("Service Overloaded"));
+    }
+
+    @Test
+    void testGetRepositoriesScoreBatch_reportsResultsPerQuery() throws Exception {
+        Mockito.when(gitHubRepositoryService.fetchCachedRepositories("java", LocalDate.of(2023, 1, 1), 1))
+                .thenReturn(repoDto);
+        Mockito.when(gitHubRepositoryService.fetchAndScoreRepositories("java", LocalDate.of(2023, 1, 1), 40))
+                .thenThrow(new GitHubSearchLimitExceededException(
+                        "{\"message\":\"Only the first 1000 search results are available\"}"));
+
+        mockMvc.perform(post("/api/v1/repositories/score/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"language": "java", "createdAfter": "2023-01-01"},
+                                 {"language": "java", "createdAfter": "2023-01-01", "page": 40}]
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[0].status").value(200))
+                .andExpect(jsonPath("$.results[0].response.repositoryScoreList[0].name").value("repo1"))
+                .andExpect(jsonPath("$.results[1].status").value(422))
+                .andExpect(jsonPath("$.results[1].page").value(40))
+                .andExpect(jsonPath("$.results[1].response").doesNotExist())
+                .andExpect(jsonPath("$.results[1].message")
+                        .value("Only the first 1000 search results are available"));
+    }
+
+    @Test
+    void testGetRepositoriesScoreBatch_emptyBatch_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/repositories/score/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Batch must contain at least one query"));
+    }
+
+    @Test
+    void testGetTopRepositories_success() throws Exception {
+        Mockito.when(gitHubRepositoryService.fetchTopRepositories(
+                        anyString(), any(LocalDate.class), anyInt(), anyInt()))
+                .thenReturn(new TopRepositoriesResponseDto(100, 4, false, repoDto.repositoryScoreList(),
+                        Instant.now()));
+
+        mockMvc.perform(get("/api/v1/repositories/score/top")
+                        .param("language", "java")
+                        .param("createdAfter", "2023-01-01")
+                        .param("maxPages", "4")
+                        .param("k", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Age"))
+                .andExpect(jsonPath("$.pagesFetched").value(4))
+                .andExpect(jsonPath("$.repositoryScoreList.[0].name").value("repo1"));
+        Mockito.verify(gitHubRepositoryService).fetchTopRepositories("java", LocalDate.of(2023, 1, 1), 4, 1);
+    }
+
+    @Test
+    void testGetTopRepositories_tooManyPages_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/repositories/score/top")
+                        .param("language", "java")
+                        .param("createdAfter", "2023-01-01")
+                        .param("maxPages", "35"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("maxPages must be at most 34"));
+    }
+
+    @Test
+    void testStreamRepositoriesScore_ndjson() throws Exception {
+        RepositoryScoreDto repo = repoDto.repositoryScoreList().getFirst();
+        Mockito.when(reactiveGitHubRepositoryService.streamRepositories(anyString(), any(LocalDate.class), anyInt()))
+                .thenReturn(Flux.just(repo, repo));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/repositories/score/stream")
+                        .param("language", "java")
+                        .param("createdAfter", "2023-01-01")
+                        .param("maxPages", "3")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult();
+
+        String[] lines = result.getResponse().getContentAsString().strip().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"name\":\"repo1\""));
+        Mockito.verify(reactiveGitHubRepositoryService).streamRepositories("java", LocalDate.of(2023, 1, 1), 3);
+    }
+
+    @Test
+    void testStreamRepositoriesScore_serverSentEvents() throws Exception {
+        Mockito.when(reactiveGitHubRepositoryService.streamRepositories(anyString(), any(LocalDate.class), anyInt()))
+                .thenReturn(Flux.just(repoDto.repositoryScoreList().getFirst()));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/repositories/score/stream")
+                        .param("language", "java")
+                        .param("createdAfter", "2023-01-01")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult();
+
+        assertTrue(
+                result.getResponse().getContentAsString().startsWith("data:{\"name\":\"repo1\""));
+    }
+
+    @Test
+    void testStreamRepositoriesScore_invalidPages_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/repositories/score/stream")
+                        .param("language", "java")
+                        .param("createdAfter", "2023-01-01")
+                        .param("maxPages", "0")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.message").value("maxPages must be at least 1"));
+    }
+
+    @Test
+    void testStreamRepositoriesScore_firstPageFails_shouldMapError() throws Exception {
+        Mockito.when(reactiveGitHubRepositoryService.streamRepositories(anyString(), any(LocalDate.class), anyInt()))
+                .thenReturn(Flux.error(new GitHubSearchLimitExceededException(
+                        "{\"message\":\"Only the first 1000 search results are available\"}")));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/repositories/score/stream")
+                        .param("language", "java")
+                        .param("createdAfter", "2023-01-01")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("Only the first 1000 search results are available"));
+    }
+
+    @Test
+    void testPrometheus_exposesPipelineMetrics() throws Exception {
+        Mockito.when(gitHubRepositoryService.fetchAndScoreRepositories(
+                        anyString(), any(LocalDate.class), anyInt()))
+                .thenReturn(repoDto);
+        mockMvc.perform(get("/api/v1/repositories/score")
+                        .param("language", "java")
+                        .param("createdAfter", "2023-01-01"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/repositories/score")
+                        .param("createdAfter", "2023-01-01"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "repositories_response_serialization_seconds_count{type=\"RepositoryScoreResponseDto\"}")))
+                .andExpect(content().string(containsString(
+                        "repositories_requests_rejected_total{reason=\"missing_parameter\"}")));
+    }
 }
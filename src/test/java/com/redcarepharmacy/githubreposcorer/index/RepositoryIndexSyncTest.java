@@ -0,0 +1,195 @@
+package com.redcarepharmacy.githubreposcorer.index;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.redcarepharmacy.githubreposcorer.config.RepositoryIndexProperties;
+import com.redcarepharmacy.githubreposcorer.dto.GitHubRepositorySearchDto;
+import com.redcarepharmacy.githubreposcorer.dto.Item;
+import com.redcarepharmacy.githubreposcorer.dto.Owner;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
+import com.redcarepharmacy.githubreposcorer.exception.GitHubRateLimitExceededException;
+import com.redcarepharmacy.githubreposcorer.ratelimit.RequestPriority;
+import com.redcarepharmacy.githubreposcorer.service.RepositoryScoreCalculator;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.OngoingStubbing;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RepositoryIndexSyncTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private static final LocalDate SINCE = LocalDate.of(2024, 1, 1);
+    private static final Instant NOW = Instant.parse("2024-03-10T06:00:00Z");
+    private static final String SEARCH_URL = "https://api.github.com/search/repositories?q=%s&per_page=100&page=%s";
+
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final RepositoryIndexProperties properties = new RepositoryIndexProperties(true, null,
+            List.of("Java"), SINCE, new RepositoryIndexProperties.Sync(true, Duration.ofMinutes(10), 30,
+            Duration.ofDays(7), SEARCH_URL));
+    private final RepositoryIndex index = new RepositoryIndex(properties);
+    private final List<String> urls = new CopyOnWriteArrayList<>();
+
+    @Test
+    void testRun_walksCreationDatesAndSplitsWindowsPastTheSearchLimit() {
+        whenSearched().thenAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            if (url.contains("created:2024-01-01..2024-01-30")) {
+                return respond(invocation, new GitHubRepositorySearchDto(List.of(), 1500, false));
+            }
+            if (url.contains("created:2024-01-01..2024-01-15")) {
+                return respond(invocation, page(List.of(item(1, "2024-01-02", 10)), 1));
+            }
+            if (url.contains("created:2024-03-01..2024-03-10")) {
+                return respond(invocation, page(List.of(item(2, "2024-03-05", 20)), 1));
+            }
+            return respond(invocation, page(List.of(), 0));
+        });
+
+        new RepositoryIndexSync(index, restTemplate, properties, Clock.fixed(NOW, ZoneOffset.UTC)).run();
+
+        assertEquals(List.of(
+                "created:2024-01-01..2024-01-30",
+                "created:2024-01-01..2024-01-15",
+                "created:2024-01-16..2024-01-30",
+                "created:2024-01-31..2024-02-29",
+                "created:2024-03-01..2024-03-10"), queries());
+        LanguagePartition partition = index.partition("java");
+        assertEquals(2, partition.size());
+        assertEquals(NOW, partition.fullSyncedAt);
+        assertEquals(NOW, partition.syncedAt);
+        assertEquals(SINCE.minusDays(1), partition.walkedThrough);
+        assertTrue(index.covers("java", SINCE));
+    }
+
+    @Test
+    void testRun_rateLimitedWalkResumesOnTheNextRun() {
+        whenSearched().thenAnswer(invocation -> {
+            assertEquals(RequestPriority.BACKGROUND, RequestPriority.current());
+            String url = invocation.getArgument(0);
+            if (url.contains("created:2024-01-31..2024-02-29")) {
+                throw new GitHubRateLimitExceededException("budget is low", Duration.ofSeconds(10));
+            }
+            return respond(invocation, page(List.of(item(1, "2024-01-02", 10)), 1));
+        });
+        RepositoryIndexSync sync = new RepositoryIndexSync(index, restTemplate, properties,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+
+        sync.run();
+
+        LanguagePartition partition = index.partition("java");
+        assertEquals(1, partition.size());
+        assertEquals(LocalDate.of(2024, 1, 30), partition.walkedThrough);
+        assertNull(partition.fullSyncedAt);
+        assertFalse(index.covers("java", SINCE));
+
+        reset(restTemplate);
+        urls.clear();
+        whenSearched().thenAnswer(invocation -> respond(invocation, page(List.of(), 0)));
+        sync.run();
+
+        assertEquals(List.of("created:2024-01-31..2024-02-29", "created:2024-03-01..2024-03-10"), queries());
+        assertTrue(index.covers("java", SINCE));
+    }
+
+    @Test
+    void testRun_afterFullSyncOnlySearchesPushedRepositories() {
+        index.put("Java", LanguagePartition.empty("Java", SINCE)
+                .merge(List.of(item(1, "2024-01-02", 10)))
+                .withSyncState(SINCE, SINCE.minusDays(1), NOW, NOW));
+        whenSearched().thenAnswer(invocation -> respond(invocation, page(List.of(
+                item(1, "2024-01-02", 15),
+                item(2, "2023-06-01", 99)), 2)));
+        Instant later = NOW.plus(Duration.ofHours(1));
+
+        new RepositoryIndexSync(index, restTemplate, properties, Clock.fixed(later, ZoneOffset.UTC)).run();
+
+        assertEquals(List.of("pushed:2024-03-09..2024-03-10"), queries());
+        LanguagePartition partition = index.partition("java");
+        // repository 2 was created before the indexed dates
+        assertEquals(1, partition.size());
+        assertEquals(15, partition.stars[0]);
+        assertEquals(NOW, partition.fullSyncedAt);
+        assertEquals(later, partition.syncedAt);
+    }
+
+    @Test
+    void testRun_fullSyncRemovesRepositoriesNoLongerFound() {
+        index.put("Java", LanguagePartition.empty("Java", SINCE)
+                .merge(List.of(item(1, "2024-01-02", 10), item(2, "2024-02-03", 20), item(3, "2024-03-05", 30)))
+                .withSyncState(SINCE, SINCE.minusDays(1), NOW, NOW));
+        whenSearched().thenAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            if (url.contains("created:2024-01-01..2024-01-30")) {
+                return respond(invocation, page(List.of(item(1, "2024-01-02", 11)), 1));
+            }
+            if (url.contains("created:2024-03-01..2024-03-18")) {
+                // repository 3 is missing from the walk, but the window was not searched completely
+                return respond(invocation, new GitHubRepositorySearchDto(List.of(), 0, true));
+            }
+            // repository 2 was deleted or moved to another language
+            return respond(invocation, page(List.of(), 0));
+        });
+        Instant later = NOW.plus(Duration.ofDays(8));
+
+        new RepositoryIndexSync(index, restTemplate, properties, Clock.fixed(later, ZoneOffset.UTC)).run();
+
+        RepositoryScoreCalculator byStars = (stars, forks, updatedAt) -> stars;
+        assertEquals(List.of("repo3", "repo1"), index.page("java", SINCE, 1, byStars).repositoryScoreList().stream()
+                .map(RepositoryScoreDto::name).toList());
+        assertEquals(List.of("repo3", "repo1"), index.top("java", SINCE, 10, byStars).repositoryScoreList().stream()
+                .map(RepositoryScoreDto::name).toList());
+        assertEquals(11, index.partition("java").stars[1]);
+        assertEquals(later, index.partition("java").fullSyncedAt);
+    }
+
+    private OngoingStubbing<GitHubRepositorySearchDto> whenSearched() {
+        return when(restTemplate.execute(anyString(), eq(HttpMethod.GET), isNull(),
+                ArgumentMatchers.<ResponseExtractor<GitHubRepositorySearchDto>>any()));
+    }
+
+    /**
+     * Serializes {@code gitResponse} as GitHub would and feeds it to the sync's response extractor.
+     */
+    private Object respond(InvocationOnMock invocation, GitHubRepositorySearchDto gitResponse) throws Exception {
+        urls.add(invocation.getArgument(0));
+        return invocation.<ResponseExtractor<?>>getArgument(3)
+                .extractData(new MockClientHttpResponse(OBJECT_MAPPER.writeValueAsBytes(gitResponse), HttpStatus.OK));
+    }
+
+    private List<String> queries() {
+        return urls.stream()
+                .map(url -> url.substring(url.indexOf("q=language:Java+") + "q=language:Java+".length(),
+                        url.indexOf("&per_page")))
+                .toList();
+    }
+
+    private static GitHubRepositorySearchDto page(List<Item> items, int totalCount) {
+        return new GitHubRepositorySearchDto(items, totalCount, false);
+    }
+
+    private static Item item(long id, String createdOn, int stars) {
+        Instant createdAt = LocalDate.parse(createdOn).atStartOfDay(ZoneOffset.UTC).toInstant();
+        return new Item(id, "repo" + id, "Java", stars, 1, createdAt, createdAt, new Owner("user" + id));
+    }
+}
@@ -0,0 +1,132 @@
+package com.redcarepharmacy.githubreposcorer.index;
+
+import com.redcarepharmacy.githubreposcorer.config.RepositoryIndexProperties;
+import com.redcarepharmacy.githubreposcorer.dto.Item;
+import com.redcarepharmacy.githubreposcorer.dto.Owner;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import com.redcarepharmacy.githubreposcorer.dto.TopRepositoriesResponseDto;
+import com.redcarepharmacy.githubreposcorer.service.RepositoryScoreCalculator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryIndexTest {
+
+    private static final LocalDate SINCE = LocalDate.of(2024, 1, 1);
+    private static final Instant SYNCED_AT = Instant.parse("2025-06-01T00:00:00Z");
+    private static final RepositoryScoreCalculator BY_STARS = (stars, forks, updatedAt) -> stars;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testPage_servesMatchingRepositoriesByStarsPastTheSearchLimit() {
+        RepositoryIndex index = index(null);
+        // repository i is created i days after SINCE and has i stars
+        index.put("Java", synced(LanguagePartition.empty("Java", SINCE).merge(
+                IntStream.range(0, 1500).mapToObj(i -> item(i, SINCE.plusDays(i), i)).toList())));
+
+        RepositoryScoreResponseDto first = index.page("java", SINCE.plusDays(99), 1, BY_STARS);
+        RepositoryScoreResponseDto last = index.page("java", SINCE.plusDays(99), 47, BY_STARS);
+
+        assertEquals(1400, first.totalCount());
+        assertEquals(RepositoryIndex.PAGE_SIZE, first.repositoryScoreList().size());
+        assertEquals("repo1499", first.repositoryScoreList().getFirst().name());
+        assertEquals(1499.0, first.repositoryScoreList().getFirst().popularityScore());
+        assertEquals("Java", first.repositoryScoreList().getFirst().language());
+        assertEquals(SYNCED_AT, first.fetchedAt());
+        // page 47 holds results 1381 to 1400, past what GitHub serves
+        assertEquals(List.of("repo119", "repo118"), last.repositoryScoreList().stream()
+                .map(RepositoryScoreDto::name).toList().subList(0, 2));
+        assertEquals(20, last.repositoryScoreList().size());
+        assertTrue(index.page("java", SINCE.plusDays(99), 48, BY_STARS).repositoryScoreList().isEmpty());
+    }
+
+    @Test
+    void testCovers_onlyFullySyncedLanguagesFromSince() {
+        RepositoryIndex index = index(null);
+        index.put("Java", synced(LanguagePartition.empty("Java", SINCE)));
+        index.put("Go", LanguagePartition.empty("Go", SINCE));
+
+        assertTrue(index.covers("JAVA", SINCE.minusDays(1)));
+        assertTrue(index.covers("java", SINCE.plusDays(10)));
+        assertFalse(index.covers("java", SINCE.minusDays(2)));
+        assertFalse(index.covers("go", SINCE));
+        assertFalse(index.covers("rust", SINCE));
+    }
+
+    @Test
+    void testTop_ranksAllMatchingRepositories() {
+        RepositoryIndex index = index(null);
+        index.put("Java", synced(LanguagePartition.empty("Java", SINCE).merge(List.of(
+                item(1, SINCE.plusDays(1), 5),
+                item(2, SINCE.plusDays(2), 50),
+                item(3, SINCE.plusDays(3), 20),
+                item(4, SINCE.minusDays(1), 100)))));
+
+        TopRepositoriesResponseDto top = index.top("java", SINCE, 2, BY_STARS);
+
+        assertEquals(3, top.totalCount());
+        assertEquals(1, top.pagesFetched());
+        assertEquals(List.of("repo2", "repo3"), top.repositoryScoreList().stream()
+                .map(RepositoryScoreDto::name).toList());
+        assertEquals(SYNCED_AT, top.fetchedAt());
+    }
+
+    @Test
+    void testMerge_replacesIndexedRepositories() {
+        LanguagePartition partition = LanguagePartition.empty("Java", SINCE).merge(List.of(
+                item(1, SINCE.plusDays(1), 5),
+                item(2, SINCE.plusDays(2), 50)));
+
+        LanguagePartition merged = partition.merge(List.of(item(1, SINCE.plusDays(1), 500)));
+
+        assertEquals(2, merged.size());
+        assertEquals(1L, merged.ids[merged.byStars[0]]);
+        assertEquals(500, merged.stars[merged.byStars[0]]);
+        assertEquals(5, partition.stars[partition.byStars[1]]);
+    }
+
+    @Test
+    void testSave_snapshotIsLoadedOnStartup() {
+        Path snapshot = tempDir.resolve("index.bin");
+        RepositoryIndex index = index(snapshot);
+        index.put("Java", synced(LanguagePartition.empty("Java", SINCE).merge(List.of(
+                item(1, SINCE.plusDays(1), 5),
+                new Item(2L, null, "Java", 7, 1, null, Instant.parse("2024-02-01T12:00:00Z"), null)))));
+        index.save();
+
+        RepositoryIndex restored = index(snapshot);
+
+        assertTrue(restored.covers("java", SINCE));
+        assertEquals(index.page("java", SINCE, 1, BY_STARS), restored.page("java", SINCE, 1, BY_STARS));
+        RepositoryScoreDto withoutDetails = restored.page("java", SINCE, 1, BY_STARS).repositoryScoreList().getFirst();
+        assertNull(withoutDetails.name());
+        assertNull(withoutDetails.owner());
+        assertNull(withoutDetails.updatedAt());
+    }
+
+    private static RepositoryIndex index(Path snapshotFile) {
+        return new RepositoryIndex(new RepositoryIndexProperties(true, snapshotFile, List.of("Java"), SINCE,
+                null));
+    }
+
+    private static LanguagePartition synced(LanguagePartition partition) {
+        return partition.withSyncState(SINCE, SINCE.minusDays(1), SYNCED_AT, SYNCED_AT);
+    }
+
+    private static Item item(long id, LocalDate createdOn, int stars) {
+        Instant createdAt = createdOn.atTime(12, 0).toInstant(ZoneOffset.UTC);
+        return new Item(id, "repo" + id, "Java", stars, 1, createdAt.plusSeconds(3600), createdAt,
+                new Owner("user" + id));
+    }
+}
@@ -0,0 +1,142 @@
+package com.redcarepharmacy.githubreposcorer.ratelimit;
+
+import com.redcarepharmacy.githubreposcorer.config.GithubRateLimitProperties;
+import com.redcarepharmacy.githubreposcorer.config.RepositoryConcurrencyLimitProperties;
+import com.redcarepharmacy.githubreposcorer.exception.ConcurrencyLimitExceededException;
+import com.redcarepharmacy.githubreposcorer.metrics.RepositoryPipelineMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testCall_shedsFetchesOverTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(true, 2, Duration.ofSeconds(10));
+
+        String result = limiter.call(() -> limiter.call(() -> {
+            assertEquals(2, limiter.inFlight());
+            assertEquals(2, meterRegistry.get(RepositoryPipelineMetrics.CONCURRENCY_IN_FLIGHT).gauge().value());
+            ConcurrencyLimitExceededException shed = assertThrows(ConcurrencyLimitExceededException.class,
+                    () -> limiter.call(() -> fail("over the limit")));
+            assertEquals(Duration.ofSeconds(2), shed.getRetryAfter());
+            return "fetched";
+        }));
+
+        assertEquals("fetched", result);
+        assertEquals(0, limiter.inFlight());
+        assertEquals(1, meterRegistry.get(RepositoryPipelineMetrics.REJECTED)
+                .tag("reason", AdaptiveConcurrencyLimiter.REJECTED_REASON).counter().count());
+    }
+
+    @Test
+    void testCall_growsAdditivelyWhileUsedAndBacksOffOnCongestion() {
+        AdaptiveConcurrencyLimiter limiter = limiter(true, 2, Duration.ofSeconds(10));
+
+        limiter.call(exchange(Duration.ZERO));
+        assertEquals(3, limiter.limit());
+        // one fetch does not use half of 3
+        limiter.call(exchange(Duration.ZERO));
+        assertEquals(3, limiter.limit());
+        // only the inner fetch uses half of 3
+        limiter.call(() -> limiter.call(exchange(Duration.ZERO)));
+        assertEquals(4, limiter.limit());
+        assertEquals(4, meterRegistry.get(RepositoryPipelineMetrics.CONCURRENCY_LIMIT).gauge().value());
+
+        assertThrows(IllegalStateException.class, () -> limiter.call(() -> {
+            throw new IllegalStateException("says nothing about latency");
+        }));
+        assertEquals(4, limiter.limit());
+        assertThrows(ResourceAccessException.class, () -> limiter.call(() -> {
+            throw new ResourceAccessException("read timed out");
+        }));
+        assertEquals(2, limiter.limit());
+        assertThrows(ResourceAccessException.class, () -> limiter.call(() -> {
+            throw new ResourceAccessException("read timed out");
+        }));
+        assertEquals(1, limiter.limit());
+    }
+
+    @Test
+    void testCall_slowFetchesCountAsCongestion() {
+        AdaptiveConcurrencyLimiter limiter = limiter(true, 4, Duration.ZERO);
+
+        limiter.call(exchange(Duration.ofMillis(1)));
+
+        assertEquals(2, limiter.limit());
+    }
+
+    @Test
+    void testCall_waitingForRateLimitBudgetIsNotCongestion() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(true, 2, Duration.ofMillis(100));
+        GithubRateLimiter rateLimiter = new GithubRateLimiter(
+                new GithubRateLimitProperties(List.of(), 0, 300, 0, Duration.ofSeconds(5)),
+                new RepositoryPipelineMetrics(meterRegistry));
+        for (int i = 0; i < 300; i++) {
+            rateLimiter.acquire(RequestPriority.INTERACTIVE);
+        }
+        GithubRateLimitInterceptor interceptor = new GithubRateLimitInterceptor(rateLimiter);
+        ClientHttpRequestExecution fastGithub =
+                (request, body) -> new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+
+        long start = System.nanoTime();
+        limiter.call(() -> {
+            try {
+                return interceptor.intercept(new MockClientHttpRequest(), new byte[0], fastGithub);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        // the permit waited about 200ms for budget, GitHub answered right away
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofMillis(100)) > 0);
+        assertEquals(3, limiter.limit());
+    }
+
+    @Test
+    void testCall_withoutExchange_keepsTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(true, 2, Duration.ofSeconds(10));
+
+        limiter.call(() -> "served without GitHub");
+
+        assertEquals(2, limiter.limit());
+    }
+
+    @Test
+    void testCall_disabled_admitsEveryFetch() {
+        AdaptiveConcurrencyLimiter limiter = limiter(false, 1, Duration.ofSeconds(10));
+
+        assertEquals("fetched", limiter.call(() -> limiter.call(() -> limiter.call(() -> "fetched"))));
+        assertEquals(0, meterRegistry.find(RepositoryPipelineMetrics.REJECTED).counters().size());
+    }
+
+    /**
+     * A fetch whose GitHub exchange took {@code latency}.
+     */
+    private static Supplier<String> exchange(Duration latency) {
+        return () -> {
+            AdaptiveConcurrencyLimiter.recordExchange(latency.toNanos());
+            return "fetched";
+        };
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(boolean enabled, int initialLimit, Duration latencyThreshold) {
+        return new AdaptiveConcurrencyLimiter(new RepositoryConcurrencyLimitProperties(enabled, initialLimit, 1, 8,
+                latencyThreshold, 0.5, Duration.ofSeconds(2)), new RepositoryPipelineMetrics(meterRegistry));
+    }
+}
@@ -0,0 +1,199 @@
+package com.redcarepharmacy.githubreposcorer.ratelimit;
+
+import com.redcarepharmacy.githubreposcorer.config.GithubRateLimitProperties;
+import com.redcarepharmacy.githubreposcorer.exception.GitHubRateLimitExceededException;
+import com.redcarepharmacy.githubreposcorer.metrics.RepositoryPipelineMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GithubRateLimiterTest {
+
+    private static final Instant START = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final MutableClock clock = new MutableClock();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testAcquire_pacesOnceTheBucketIsEmpty() {
+        GithubRateLimiter rateLimiter = rateLimiter(List.of("a"), 0, Duration.ofSeconds(10));
+
+        for (int i = 0; i < 30; i++) {
+            assertEquals(Duration.ZERO, rateLimiter.acquire(RequestPriority.INTERACTIVE).waitTime());
+        }
+
+        // 30 per minute: one every 2 seconds, queued behind each other
+        assertEquals(Duration.ofSeconds(2), rateLimiter.acquire(RequestPriority.INTERACTIVE).waitTime());
+        assertEquals(Duration.ofSeconds(4), rateLimiter.acquire(RequestPriority.INTERACTIVE).waitTime());
+        clock.advance(Duration.ofSeconds(4));
+        assertEquals(Duration.ofSeconds(2), rateLimiter.acquire(RequestPriority.INTERACTIVE).waitTime());
+    }
+
+    @Test
+    void testAcquire_spreadsRequestsOverTokens() {
+        GithubRateLimiter rateLimiter = rateLimiter(List.of("a", "b", " "), 0, Duration.ZERO);
+        List<String> tokens = new ArrayList<>();
+
+        for (int i = 0; i < 60; i++) {
+            tokens.add(rateLimiter.acquire(RequestPriority.INTERACTIVE).token());
+        }
+
+        assertEquals(30, tokens.stream().filter("a"::equals).count());
+        assertEquals(30, tokens.stream().filter("b"::equals).count());
+        GitHubRateLimitExceededException refused = assertThrows(GitHubRateLimitExceededException.class,
+                () -> rateLimiter.acquire(RequestPriority.INTERACTIVE));
+        assertEquals(Duration.ofSeconds(2), refused.getRetryAfter());
+    }
+
+    @Test
+    void testAcquire_withoutTokens_usesAnonymousBudget() {
+        GithubRateLimiter rateLimiter = rateLimiter(List.of(), 0, Duration.ZERO);
+
+        for (int i = 0; i < 10; i++) {
+            assertNull(rateLimiter.acquire(RequestPriority.INTERACTIVE).token());
+        }
+        assertThrows(GitHubRateLimitExceededException.class, () -> rateLimiter.acquire(RequestPriority.INTERACTIVE));
+    }
+
+    @Test
+    void testAcquire_backgroundKeepsReserveForInteractive() {
+        GithubRateLimiter rateLimiter = rateLimiter(List.of("a"), 5, Duration.ZERO);
+
+        for (int i = 0; i < 25; i++) {
+            rateLimiter.acquire(RequestPriority.BACKGROUND);
+        }
+
+        assertThrows(GitHubRateLimitExceededException.class, () -> rateLimiter.acquire(RequestPriority.BACKGROUND));
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.acquire(RequestPriority.INTERACTIVE);
+        }
+        assertEquals(1, meterRegistry.get(RepositoryPipelineMetrics.GITHUB_RATE_LIMIT_REFUSED)
+                .tag("priority", "background").counter().count());
+    }
+
+    @Test
+    void testOnResponse_exhaustedWindow_waitsForReset() {
+        GithubRateLimiter rateLimiter = rateLimiter(List.of("a"), 0, Duration.ofSeconds(30));
+        GithubRateLimiter.Permit permit = rateLimiter.acquire(RequestPriority.INTERACTIVE);
+
+        rateLimiter.onResponse(permit, HttpStatus.OK, rateLimitHeaders("search", 0, Duration.ofSeconds(20)));
+
+        assertEquals(Duration.ofSeconds(20), rateLimiter.acquire(RequestPriority.INTERACTIVE).waitTime());
+        assertThrows(GitHubRateLimitExceededException.class, () -> rateLimiter.acquire(RequestPriority.BACKGROUND));
+        clock.advance(Duration.ofSeconds(20));
+        assertEquals(Duration.ZERO, rateLimiter.acquire(RequestPriority.INTERACTIVE).waitTime());
+    }
+
+    @Test
+    void testOnResponse_outOfOrderResponses_keepLowestRemaining() {
+        GithubRateLimiter rateLimiter = rateLimiter(List.of("a"), 2, Duration.ZERO);
+        GithubRateLimiter.Permit first = rateLimiter.acquire(RequestPriority.INTERACTIVE);
+        GithubRateLimiter.Permit second = rateLimiter.acquire(RequestPriority.INTERACTIVE);
+
+        rateLimiter.onResponse(second, HttpStatus.OK, rateLimitHeaders("search", 3, Duration.ofSeconds(30)));
+        rateLimiter.onResponse(first, HttpStatus.OK, rateLimitHeaders("search", 4, Duration.ofSeconds(30)));
+
+        rateLimiter.acquire(RequestPriority.BACKGROUND);
+        assertThrows(GitHubRateLimitExceededException.class, () -> rateLimiter.acquire(RequestPriority.BACKGROUND));
+    }
+
+    @Test
+    void testOnResponse_otherResourceIgnored() {
+        GithubRateLimiter rateLimiter = rateLimiter(List.of("a"), 0, Duration.ZERO);
+        GithubRateLimiter.Permit permit = rateLimiter.acquire(RequestPriority.INTERACTIVE);
+
+        rateLimiter.onResponse(permit, HttpStatus.OK, rateLimitHeaders("core", 0, Duration.ofSeconds(30)));
+
+        assertEquals(Duration.ZERO, rateLimiter.acquire(RequestPriority.INTERACTIVE).waitTime());
+    }
+
+    @Test
+    void testOnResponse_retryAfter_stopsToken() {
+        GithubRateLimiter rateLimiter = rateLimiter(List.of("a", "b"), 0, Duration.ZERO);
+        GithubRateLimiter.Permit permit = rateLimiter.acquire(RequestPriority.INTERACTIVE);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "60");
+
+        rateLimiter.onResponse(permit, HttpStatus.FORBIDDEN, headers);
+
+        for (int i = 0; i < 30; i++) {
+            assertNotEquals(permit.token(), rateLimiter.acquire(RequestPriority.INTERACTIVE).token());
+        }
+    }
+
+    @Test
+    void testOnResponse_notModified_givesPermitBack() {
+        GithubRateLimiter rateLimiter = rateLimiter(List.of("a"), 0, Duration.ZERO);
+        for (int i = 0; i < 29; i++) {
+            rateLimiter.acquire(RequestPriority.INTERACTIVE);
+        }
+        GithubRateLimiter.Permit permit = rateLimiter.acquire(RequestPriority.INTERACTIVE);
+
+        rateLimiter.onResponse(permit, HttpStatus.NOT_MODIFIED, new HttpHeaders());
+
+        assertEquals(Duration.ZERO, rateLimiter.acquire(RequestPriority.INTERACTIVE).waitTime());
+        assertThrows(GitHubRateLimitExceededException.class, () -> rateLimiter.acquire(RequestPriority.INTERACTIVE));
+    }
+
+    @Test
+    void testOnResponse_anonymousNotModified_stillCounts() {
+        GithubRateLimiter rateLimiter = rateLimiter(List.of(), 0, Duration.ZERO);
+        for (int i = 0; i < 9; i++) {
+            rateLimiter.acquire(RequestPriority.INTERACTIVE);
+        }
+        GithubRateLimiter.Permit permit = rateLimiter.acquire(RequestPriority.INTERACTIVE);
+
+        rateLimiter.onResponse(permit, HttpStatus.NOT_MODIFIED, new HttpHeaders());
+
+        assertThrows(GitHubRateLimitExceededException.class, () -> rateLimiter.acquire(RequestPriority.INTERACTIVE));
+    }
+
+    private GithubRateLimiter rateLimiter(List<String> tokens, int reserve, Duration maxWait) {
+        return new GithubRateLimiter(new GithubRateLimitProperties(tokens, 30, 10, reserve, maxWait),
+                new RepositoryPipelineMetrics(meterRegistry), clock);
+    }
+
+    private HttpHeaders rateLimitHeaders(String resource, long remaining, Duration resetIn) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-RateLimit-Resource", resource);
+        headers.set("X-RateLimit-Remaining", String.valueOf(remaining));
+        headers.set("X-RateLimit-Reset", String.valueOf(clock.instant().plus(resetIn).getEpochSecond()));
+        return headers;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = START;
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.redcarepharmacy.githubreposcorer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedTopKTest {
+
+    @Test
+    void testToSortedList_keepsGreatestKDescending() {
+        List<Integer> values = IntStream.range(0, 10_000).boxed().collect(Collectors.toList());
+        Collections.shuffle(values, new Random(42));
+        BoundedTopK<Integer> top = new BoundedTopK<>(5, Comparator.naturalOrder());
+
+        top.offerAll(values);
+
+        assertEquals(List.of(9_999, 9_998, 9_997, 9_996, 9_995), top.toSortedList());
+    }
+
+    @Test
+    void testToSortedList_fewerElementsThanK() {
+        BoundedTopK<Integer> top = new BoundedTopK<>(10, Comparator.naturalOrder());
+
+        top.offerAll(List.of(3, 1, 2));
+
+        assertEquals(List.of(3, 2, 1), top.toSortedList());
+    }
+
+    @Test
+    void testConstructor_invalidK_shouldFail() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedTopK<Integer>(0, Comparator.naturalOrder()));
+    }
+}
@@ -0,0 +1,122 @@
+package com.redcarepharmacy.githubreposcorer.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.redcarepharmacy.githubreposcorer.dto.GitHubRepositorySearchDto;
+import com.redcarepharmacy.githubreposcorer.dto.Item;
+import com.redcarepharmacy.githubreposcorer.dto.Owner;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GitHubSearchResponseParserTest {
+
+    private static final String FIXTURE = "/github/search-repositories-java.json";
+
+    private final GitHubSearchResponseParser parser = new GitHubSearchResponseParser();
+
+    @Test
+    void testParse_recordedResponse_matchesDataBinding() throws IOException {
+        ObjectMapper objectMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        GitHubRepositorySearchDto bound;
+        try (InputStream body = getClass().getResourceAsStream(FIXTURE)) {
+            bound = objectMapper.readValue(body, GitHubRepositorySearchDto.class);
+        }
+        List<Item> items = new ArrayList<>();
+
+        GitHubSearchResponseParser.SearchPage page;
+        try (InputStream body = getClass().getResourceAsStream(FIXTURE)) {
+            page = parser.parse(body, items::add);
+        }
+
+        assertEquals(new GitHubSearchResponseParser.SearchPage(18342, false, true), page);
+        assertEquals(30, items.size());
+        assertEquals(bound.items(), items);
+    }
+
+    @Test
+    void testParse_handsOverEachItemBeforeReadingTheRest() {
+        String firstItem = """
+                {"total_count":2,"incomplete_results":true,"items":[{"id":1,"name":"repo1",
+                "license":{"key":"mit"},"topics":["a","b"],"language":null,"stargazers_count":5,
+                "forks_count":10,"updated_at":"2025-01-01T00:00:00Z","created_at":"2024-01-01T00:00:00Z",
+                "owner":{"id":7,"login":"user1","site_admin":false}},""";
+        InputStream failsAfterFirstItem = new SequenceInputStream(
+                new ByteArrayInputStream(firstItem.getBytes(StandardCharsets.UTF_8)),
+                new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("connection reset");
+                    }
+                });
+        List<Item> items = new ArrayList<>();
+
+        assertThrows(IOException.class, () -> parser.parse(failsAfterFirstItem, items::add));
+
+        assertEquals(List.of(new Item(1L, "repo1", null, 5, 10, Instant.parse("2025-01-01T00:00:00Z"),
+                Instant.parse("2024-01-01T00:00:00Z"), new Owner("user1"))), items);
+    }
+
+    @Test
+    void testParse_withoutItems() throws IOException {
+        GitHubSearchResponseParser.SearchPage page = parser.parse(stream("""
+                {"message":"Validation Failed","total_count":0,"items":null}"""), item -> fail("no items"));
+
+        assertEquals(new GitHubSearchResponseParser.SearchPage(0, false, false), page);
+    }
+
+    @Test
+    void testParse_emptyBody_returnsNull() throws IOException {
+        assertNull(parser.parse(stream(""), item -> fail("no items")));
+    }
+
+    @Test
+    void testParse_malformedBody_throws() {
+        assertThrows(JsonParseException.class, () -> parser.parse(stream("[1,2]"), item -> fail("no items")));
+        assertThrows(JsonParseException.class, () -> parser.parse(stream("""
+                {"items":[{"updated_at":"yesterday"}]}"""), item -> fail("no items")));
+        assertThrows(JsonParseException.class, () -> parser.parse(stream("""
+                {"items":[{"id":1"""), item -> fail("no items")));
+    }
+
+    @Test
+    void testParseUtcTimestamp_matchesInstantParse() {
+        for (String text : List.of("2024-01-01T00:00:00Z", "2024-02-29T23:59:59Z", "1970-01-01T00:00:00Z",
+                "1969-12-31T12:30:45Z", "2038-01-19T03:14:08Z")) {
+            assertEquals(Instant.parse(text), GitHubSearchResponseParser.parseUtcTimestamp(text.toCharArray(), 0));
+        }
+        for (String text : List.of("2023-02-29T00:00:00Z", "2024-13-01T00:00:00Z", "2024-01-01T24:00:00Z",
+                "2024-01-01 00:00:00Z", "2024-01-0xT00:00:00Z")) {
+            assertNull(GitHubSearchResponseParser.parseUtcTimestamp(text.toCharArray(), 0), text);
+        }
+    }
+
+    @Test
+    void testParse_offsetTimestamp_fallsBackToInstantParse() throws IOException {
+        List<Item> items = new ArrayList<>();
+
+        parser.parse(stream("""
+                {"items":[{"updated_at":"2025-01-01T01:00:00+01:00"}]}"""), items::add);
+
+        assertEquals(Instant.parse("2025-01-01T00:00:00Z"), items.getFirst().updatedAt());
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
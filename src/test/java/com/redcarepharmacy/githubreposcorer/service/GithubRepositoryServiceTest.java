@@ -1,53 +1,113 @@
 package com.redcarepharmacy.githubreposcorer.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.redcarepharmacy.githubreposcorer.cache.PackedRepositoryScoreList;
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreCache;
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreCacheKey;
+import com.redcarepharmacy.githubreposcorer.config.RepositoryConcurrencyLimitProperties;
 import com.redcarepharmacy.githubreposcorer.dto.GitHubRepositorySearchDto;
 import com.redcarepharmacy.githubreposcorer.dto.Item;
 import com.redcarepharmacy.githubreposcorer.dto.Owner;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
 import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import com.redcarepharmacy.githubreposcorer.dto.TopRepositoriesResponseDto;
+import com.redcarepharmacy.githubreposcorer.exception.ConcurrencyLimitExceededException;
+import com.redcarepharmacy.githubreposcorer.exception.GitHubSearchLimitExceededException;
+import com.redcarepharmacy.githubreposcorer.metrics.RepositoryPipelineMetrics;
+import com.redcarepharmacy.githubreposcorer.ratelimit.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.stubbing.Answer;
+import org.mockito.stubbing.OngoingStubbing;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
+import static com.redcarepharmacy.githubreposcorer.config.RepositoryCachePropertiesBuilder.cacheProperties;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class GithubRepositoryServiceTest {
 
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
     @Mock
     private RestTemplate restTemplate;
     private AutoCloseable mocks;
-    @Mock
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
     private RepositoryScoreCalculator repositoryScoreCalculator;
     private GithubRepositoryService githubRepositoryService;
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+    private final List<Observation.Context> observations = new CopyOnWriteArrayList<>();
+    private RepositoryPipelineMetrics metrics;
+    private ObservationRegistry observationRegistry;
 
     @BeforeEach
     void setUp() {
         mocks = MockitoAnnotations.openMocks(this);
-        githubRepositoryService =
-                new GithubRepositoryService(restTemplate,
-                        "https://api.github.com/search/repositories?q=language:%s+created:>%s&page=%s",
-                        repositoryScoreCalculator);
+        observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig()
+                .observationHandler(new DefaultMeterObservationHandler(meterRegistry))
+                .observationHandler(new ObservationHandler<>() {
+                    @Override
+                    public void onStop(Observation.Context context) {
+                        observations.add(context);
+                    }
 
+                    @Override
+                    public boolean supportsContext(Observation.Context context) {
+                        return true;
+                    }
+                });
+        metrics = new RepositoryPipelineMetrics(meterRegistry);
+        githubRepositoryService = service(null);
     }
 
     @Test
     void testFetchAndScoreRepositories_success() {
+        // GitHub sends whole seconds
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
         Item repo1 = new Item(
                 1L, "repo1", "Java", 5
-                , 10, Instant.now(), Instant.now(), new Owner("user1")
+                , 10, now, now, new Owner("user1")
         );
         GitHubRepositorySearchDto gitResponse = new GitHubRepositorySearchDto(
                 List.of(repo1), 1, false);
 
-        when(restTemplate.getForObject(anyString(), eq(GitHubRepositorySearchDto.class)))
-                .thenReturn(gitResponse);
+        whenSearched(anyString()).thenAnswer(respondWith(gitResponse));
         when(repositoryScoreCalculator.computeScore(5, 10,
                 repo1.updatedAt())).thenReturn(42.0);
 
@@ -56,12 +116,67 @@ class GithubRepositoryServiceTest {
 
         assertEquals(1, result.totalCount());
         assertEquals(42.0, result.repositoryScoreList().getFirst().popularityScore());
+        assertEquals(1, meterRegistry.get(RepositoryPipelineMetrics.STAGE).tag("stage", "decode")
+                .tag("language", "java").tag("outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get(RepositoryPipelineMetrics.STAGE).tag("stage", "score")
+                .tag("language", "java").tag("outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get(GithubRepositoryService.FETCH_OBSERVATION)
+                .tag("language", "java").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void testFetchAndScoreRepositories_searchLimit_observedWithOutcome() {
+        whenSearched(anyString()).thenThrow(new GitHubSearchLimitExceededException("limit"));
+
+        assertThrows(GitHubSearchLimitExceededException.class, () -> githubRepositoryService
+                .fetchAndScoreRepositories("Brainfuck", LocalDate.now(), 11));
+
+        assertEquals(1, meterRegistry.get(GithubRepositoryService.FETCH_OBSERVATION)
+                .tag("language", "other").tag("outcome", "search_limit").timer().count());
+        assertEquals("11", observations.getFirst().getHighCardinalityKeyValue("page").getValue());
+    }
+
+    @Test
+    void testFetchCachedRepositories_servesCachedPagesWithoutCallingGitHub() {
+        Item repo1 = new Item(1L, "repo1", "Java", 5, 10, Instant.now(), Instant.now(), new Owner("user1"));
+        whenSearched(anyString()).thenAnswer(respondWith(new GitHubRepositorySearchDto(List.of(repo1), 1, false)));
+        LocalDate createdAfter = LocalDate.now();
+
+        assertNull(githubRepositoryService.fetchCachedRepositories("java", createdAfter, 1));
+        verifyNoInteractions(restTemplate);
+
+        RepositoryScoreResponseDto fetched = githubRepositoryService.fetchAndScoreRepositories("java", createdAfter, 1);
+        assertEquals(fetched, githubRepositoryService.fetchCachedRepositories("java", createdAfter, 1));
+        verify(restTemplate, times(1)).execute(anyString(), eq(HttpMethod.GET), isNull(),
+                ArgumentMatchers.<ResponseExtractor<RepositoryScoreResponseDto>>any());
+    }
+
+    @Test
+    void testFetchAndScoreRepositories_rescoresCachedPagesOnRead() {
+        Instant updatedAt = Instant.parse("2025-01-01T00:00:00Z");
+        LocalDate createdAfter = LocalDate.of(2024, 1, 1);
+        cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME).put("java:2024-01-01:1",
+                PackedRepositoryScoreList.pack(new RepositoryScoreResponseDto(2, false, List.of(
+                        new RepositoryScoreDto("repo1", "user1", "Java", 5, 10, updatedAt, updatedAt, 1.0),
+                        new RepositoryScoreDto("repo2", "user2", "Java", 7, 0, updatedAt, null, 2.0)),
+                        Instant.now())));
+        when(repositoryScoreCalculator.computeScore(5, 10, updatedAt)).thenReturn(42.0);
+        when(repositoryScoreCalculator.computeScore(7, 0, Instant.EPOCH)).thenReturn(7.0);
+
+        RepositoryScoreResponseDto result = githubRepositoryService
+                .fetchAndScoreRepositories("java", createdAfter, 1);
+
+        assertEquals(List.of(42.0, 7.0),
+                result.repositoryScoreList().stream().map(RepositoryScoreDto::popularityScore).toList());
+        assertNull(result.repositoryScoreList().getLast().updatedAt());
+        assertEquals(42.0, githubRepositoryService.fetchCachedRepositories("java", createdAfter, 1)
+                .repositoryScoreList().getFirst().popularityScore());
+        verifyNoInteractions(restTemplate);
     }
 
     @Test
     void testFetchAndScoreRepositories_nullResponse() {
-        when(restTemplate.getForObject(anyString(), eq(GitHubRepositorySearchDto.class)))
-                .thenReturn(null);
+        whenSearched(anyString()).thenReturn(null);
 
         RepositoryScoreResponseDto result = githubRepositoryService
                 .fetchAndScoreRepositories("java", LocalDate.now(), 1);
@@ -74,8 +189,7 @@ class GithubRepositoryServiceTest {
         GitHubRepositorySearchDto gitResponse = new GitHubRepositorySearchDto(null,
                 0, false);
 
-        when(restTemplate.getForObject(anyString(), eq(GitHubRepositorySearchDto.class)))
-                .thenReturn(gitResponse);
+        whenSearched(anyString()).thenAnswer(respondWith(gitResponse));
 
         RepositoryScoreResponseDto result = githubRepositoryService
                 .fetchAndScoreRepositories("java", LocalDate.now(), 1);
@@ -83,6 +197,187 @@ class GithubRepositoryServiceTest {
         assertEquals(0, result.totalCount());
     }
 
+    @Test
+    void testFetchTopRepositories_ranksAcrossPages() {
+        // 5 results in pages of 2: scores are the star counts
+        stubPage(1, 5, 10, 30);
+        stubPage(2, 5, 50, 20);
+        stubPage(3, 5, 40);
+        when(repositoryScoreCalculator.computeScore(anyInt(), anyInt(), any()))
+                .thenAnswer(invocation -> (double) invocation.<Integer>getArgument(0));
+
+        TopRepositoriesResponseDto result = githubRepositoryService
+                .fetchTopRepositories("java", LocalDate.of(2024, 1, 1), 10, 3);
+
+        assertEquals(5, result.totalCount());
+        assertEquals(3, result.pagesFetched());
+        assertEquals(List.of("repo50", "repo40", "repo30"),
+                result.repositoryScoreList().stream().map(r -> r.name()).toList());
+        assertNotNull(result.fetchedAt());
+        verify(restTemplate, times(3)).execute(anyString(), eq(HttpMethod.GET), isNull(), any(ResponseExtractor.class));
+        // pages are fetched on other threads but still observed as part of the top-K request
+        Observation.Context top = observations.stream()
+                .filter(context -> context.getName().equals(GithubRepositoryService.TOP_OBSERVATION))
+                .findFirst().orElseThrow();
+        assertEquals(3, observations.stream()
+                .filter(context -> context.getName().equals(GithubRepositoryService.FETCH_OBSERVATION))
+                .filter(context -> context.getParentObservation().getContextView() == top)
+                .count());
+    }
+
+    @Test
+    void testFetchTopRepositories_respectsMaxPagesAndReusesCachedPages() {
+        stubPage(1, 100, 10, 30);
+        stubPage(2, 100, 50, 20);
+        when(repositoryScoreCalculator.computeScore(anyInt(), anyInt(), any()))
+                .thenAnswer(invocation -> (double) invocation.<Integer>getArgument(0));
+        githubRepositoryService.fetchAndScoreRepositories("java", LocalDate.of(2024, 1, 1), 2);
+
+        TopRepositoriesResponseDto result = githubRepositoryService
+                .fetchTopRepositories("java", LocalDate.of(2024, 1, 1), 2, 10);
+
+        assertEquals(2, result.pagesFetched());
+        assertEquals(List.of("repo50", "repo30", "repo20", "repo10"),
+                result.repositoryScoreList().stream().map(r -> r.name()).toList());
+        verify(restTemplate, times(1)).execute(contains("page=2"), eq(HttpMethod.GET), isNull(),
+                any(ResponseExtractor.class));
+        verify(restTemplate, never()).execute(contains("page=3"), eq(HttpMethod.GET), isNull(),
+                any(ResponseExtractor.class));
+    }
+
+    @Test
+    void testLoadAndScoreRepositories_notModified_rescoresCachedPage() throws Exception {
+        Instant updatedAt = Instant.parse("2025-01-01T00:00:00Z");
+        RepositoryScoreResponseDto cached = new RepositoryScoreResponseDto(1, false, List.of(
+                new RepositoryScoreDto("repo1", "user1", "Java", 5, 10, updatedAt, updatedAt, 40.0)),
+                Instant.now().minusSeconds(3600), "\"v1\"", null);
+        MockClientHttpRequest request = new MockClientHttpRequest();
+        when(restTemplate.execute(anyString(), eq(HttpMethod.GET), notNull(),
+                ArgumentMatchers.<ResponseExtractor<RepositoryScoreResponseDto>>any())).thenAnswer(invocation -> {
+                    invocation.<RequestCallback>getArgument(2).doWithRequest(request);
+                    MockClientHttpResponse notModified =
+                            new MockClientHttpResponse(new byte[0], HttpStatus.NOT_MODIFIED);
+                    notModified.getHeaders().setETag("\"v2\"");
+                    return invocation.<ResponseExtractor<RepositoryScoreResponseDto>>getArgument(3)
+                            .extractData(notModified);
+                });
+        when(repositoryScoreCalculator.computeScore(5, 10, updatedAt)).thenReturn(39.0);
+
+        RepositoryScoreResponseDto result = githubRepositoryService
+                .loadAndScoreRepositories("java", LocalDate.now(), 1, cached);
+
+        assertEquals("\"v1\"", request.getHeaders().getIfNoneMatch().getFirst());
+        assertEquals(39.0, result.repositoryScoreList().getFirst().popularityScore());
+        assertEquals("repo1", result.repositoryScoreList().getFirst().name());
+        assertEquals("\"v2\"", result.etag());
+        assertTrue(result.fetchedAt().isAfter(cached.fetchedAt()));
+        assertEquals(0, meterRegistry.find(RepositoryPipelineMetrics.STAGE).tag("stage", "decode").timers().size());
+    }
+
+    @Test
+    void testFetchTopRepositories_pageFailure_propagates() {
+        stubPage(1, 4, 10, 30);
+        whenSearched(contains("page=2"))
+                .thenThrow(new GitHubSearchLimitExceededException("limit"));
+
+        assertThrows(GitHubSearchLimitExceededException.class, () -> githubRepositoryService
+                .fetchTopRepositories("java", LocalDate.of(2024, 1, 1), 10, 3));
+    }
+
+    @Test
+    void testFetchAndScoreRepositories_concurrencyLimitReached_shedsMissesButServesCachedPages() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(new RepositoryConcurrencyLimitProperties(
+                true, 1, 1, 1, Duration.ofSeconds(10), 0.5, Duration.ofSeconds(3)), metrics);
+        GithubRepositoryService limitedService = service(limiter);
+        stubPage(1, 1, 10);
+        LocalDate createdAfter = LocalDate.of(2024, 1, 1);
+        limitedService.fetchAndScoreRepositories("java", createdAfter, 1);
+
+        // the only slot is taken by a fetch in flight
+        limiter.call(() -> {
+            assertEquals("repo10", limitedService.fetchAndScoreRepositories("java", createdAfter, 1)
+                    .repositoryScoreList().getFirst().name());
+            ConcurrencyLimitExceededException shed = assertThrows(ConcurrencyLimitExceededException.class,
+                    () -> limitedService.fetchAndScoreRepositories("go", createdAfter, 1));
+            assertEquals(Duration.ofSeconds(3), shed.getRetryAfter());
+            return null;
+        });
+
+        verify(restTemplate, times(1)).execute(anyString(), eq(HttpMethod.GET), isNull(),
+                ArgumentMatchers.<ResponseExtractor<RepositoryScoreResponseDto>>any());
+        assertEquals(1, meterRegistry.get(RepositoryPipelineMetrics.REJECTED)
+                .tag("reason", "concurrency_limit").counter().count());
+        assertEquals(1, meterRegistry.get(GithubRepositoryService.FETCH_OBSERVATION)
+                .tag("language", "go").tag("outcome", "overloaded").timer().count());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void testFetchTopRepositories_moreMissesThanTheConcurrencyLimit_takesOneSlot() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(new RepositoryConcurrencyLimitProperties(
+                true, 2, 1, 2, Duration.ofSeconds(10), 0.5, Duration.ofSeconds(3)), metrics);
+        GithubRepositoryService limitedService = service(limiter);
+        stubPage(1, 10, 10, 11);
+        // pages 2 to 5 are only answered once all four are in flight
+        CountDownLatch inFlight = new CountDownLatch(4);
+        for (int page = 2; page <= 5; page++) {
+            Answer<RepositoryScoreResponseDto> respond = respondWith(new GitHubRepositorySearchDto(List.of(
+                    item(page * 10), item(page * 10 + 1)), 10, false));
+            whenSearched(endsWith("page=" + page)).thenAnswer(invocation -> {
+                inFlight.countDown();
+                assertTrue(inFlight.await(5, TimeUnit.SECONDS));
+                return respond.answer(invocation);
+            });
+        }
+        when(repositoryScoreCalculator.computeScore(anyInt(), anyInt(), any()))
+                .thenAnswer(invocation -> (double) invocation.<Integer>getArgument(0));
+
+        TopRepositoriesResponseDto result = limitedService
+                .fetchTopRepositories("java", LocalDate.of(2024, 1, 1), 10, 3);
+
+        assertEquals(5, result.pagesFetched());
+        assertEquals(List.of("repo51", "repo50", "repo41"),
+                result.repositoryScoreList().stream().map(r -> r.name()).toList());
+        assertTrue(meterRegistry.find(RepositoryPipelineMetrics.REJECTED).counters().isEmpty());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    private GithubRepositoryService service(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        return new GithubRepositoryService(restTemplate,
+                "https://api.github.com/search/repositories?q=language:%s+created:>%s&page=%s",
+                repositoryScoreCalculator,
+                new RepositoryScoreCache(cacheManager, null,
+                        cacheProperties().build(), metrics),
+                metrics, observationRegistry, null, concurrencyLimiter);
+    }
+
+    private void stubPage(int page, int totalCount, int... stars) {
+        List<Item> items = IntStream.of(stars).mapToObj(GithubRepositoryServiceTest::item).toList();
+        whenSearched(endsWith("page=" + page))
+                .thenAnswer(respondWith(new GitHubRepositorySearchDto(items, totalCount, false)));
+    }
+
+    private static Item item(int stars) {
+        return new Item((long) stars, "repo" + stars, "Java", stars, 0, Instant.now(), Instant.now(),
+                new Owner("user1"));
+    }
+
+    /**
+     * Stubs a GitHub search call for URLs matching {@code url}, which must be a Mockito matcher.
+     */
+    private OngoingStubbing<RepositoryScoreResponseDto> whenSearched(String url) {
+        return when(restTemplate.execute(url, eq(HttpMethod.GET), isNull(),
+                ArgumentMatchers.<ResponseExtractor<RepositoryScoreResponseDto>>any()));
+    }
+
+    /**
+     * Serializes {@code gitResponse} as GitHub would and feeds it to the service's response extractor.
+     */
+    private static Answer<RepositoryScoreResponseDto> respondWith(GitHubRepositorySearchDto gitResponse) {
+        return invocation -> invocation.<ResponseExtractor<RepositoryScoreResponseDto>>getArgument(3)
+                .extractData(new MockClientHttpResponse(OBJECT_MAPPER.writeValueAsBytes(gitResponse), HttpStatus.OK));
+    }
+
     @AfterEach
     void tearDown() throws Exception {
         mocks.close();
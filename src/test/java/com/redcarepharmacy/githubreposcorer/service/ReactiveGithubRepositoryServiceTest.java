@@ -0,0 +1,228 @@
+package com.redcarepharmacy.githubreposcorer.service;
+
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreCache;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import com.redcarepharmacy.githubreposcorer.exception.GitHubSearchLimitExceededException;
+import com.redcarepharmacy.githubreposcorer.metrics.RepositoryPipelineMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.redcarepharmacy.githubreposcorer.config.RepositoryCachePropertiesBuilder.cacheProperties;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReactiveGithubRepositoryServiceTest {
+
+    private static final String SEARCH_RESPONSE = """
+            {"total_count":1,"incomplete_results":false,"items":[{"id":1,"name":"repo1","language":"Java",
+            "stargazers_count":5,"forks_count":10,"updated_at":"2025-01-01T00:00:00Z",
+            "created_at":"2024-01-01T00:00:00Z","owner":{"login":"user1"}}]}""";
+
+    private final AtomicInteger exchanges = new AtomicInteger();
+    private final AtomicReference<Mono<ClientResponse>> nextResponse = new AtomicReference<>();
+    private final AtomicReference<ClientRequest> lastRequest = new AtomicReference<>();
+    private final Map<String, Mono<ClientResponse>> pageResponses = new ConcurrentHashMap<>();
+    private final RepositoryScoreCalculator repositoryScoreCalculator =
+            mock(RepositoryScoreCalculator.class, CALLS_REAL_METHODS);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RepositoryPipelineMetrics metrics = new RepositoryPipelineMetrics(meterRegistry);
+
+    private RepositoryScoreCache repositoryScoreCache;
+    private ReactiveGithubRepositoryService reactiveGithubRepositoryService;
+
+    @BeforeEach
+    void setUp() {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    exchanges.incrementAndGet();
+                    lastRequest.set(request);
+                    String query = request.url().getRawQuery();
+                    Mono<ClientResponse> pageResponse = pageResponses.get(query.substring(query.lastIndexOf('=') + 1));
+                    return pageResponse != null ? pageResponse : nextResponse.get();
+                })
+                .build();
+        repositoryScoreCache = new RepositoryScoreCache(new ConcurrentMapCacheManager(), null,
+                cacheProperties().build(),
+                metrics);
+        reactiveGithubRepositoryService = new ReactiveGithubRepositoryService(webClient,
+                "https://api.github.com/search/repositories?q=language:%s+created:>%s&page=%s",
+                repositoryScoreCalculator, repositoryScoreCache, metrics, null);
+        when(repositoryScoreCalculator.computeScore(5, 10, Instant.parse("2025-01-01T00:00:00Z")))
+                .thenReturn(42.0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repositoryScoreCache.destroy();
+    }
+
+    @Test
+    void testFetchAndScoreRepositories_success() {
+        respond(HttpStatus.OK, SEARCH_RESPONSE);
+
+        StepVerifier.create(reactiveGithubRepositoryService.fetchAndScoreRepositories("java", LocalDate.now(), 1))
+                .assertNext(result -> {
+                    assertEquals(1, result.totalCount());
+                    assertEquals("repo1", result.repositoryScoreList().get(0).name());
+                    assertEquals("user1", result.repositoryScoreList().get(0).owner());
+                    assertEquals(42.0, result.repositoryScoreList().get(0).popularityScore());
+                    assertNotNull(result.fetchedAt());
+                })
+                .verifyComplete();
+        assertEquals(1, meterRegistry.get(RepositoryPipelineMetrics.STAGE).tag("stage", "score")
+                .tag("language", "java").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void testLoadAndScoreRepositories_notModified_rescoresCachedPage() {
+        nextResponse.set(Mono.fromSupplier(() -> ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.ETAG, "\"v1\"")
+                .body(SEARCH_RESPONSE)
+                .build()));
+        RepositoryScoreResponseDto cached = reactiveGithubRepositoryService
+                .loadAndScoreRepositories("java", LocalDate.now(), 1).block();
+        assertEquals("\"v1\"", cached.etag());
+        nextResponse.set(Mono.fromSupplier(() -> ClientResponse.create(HttpStatus.NOT_MODIFIED).build()));
+        when(repositoryScoreCalculator.computeScore(5, 10, Instant.parse("2025-01-01T00:00:00Z")))
+                .thenReturn(41.0);
+
+        StepVerifier.create(reactiveGithubRepositoryService
+                        .loadAndScoreRepositories("java", LocalDate.now(), 1, cached))
+                .assertNext(result -> {
+                    assertEquals(41.0, result.repositoryScoreList().get(0).popularityScore());
+                    assertEquals("repo1", result.repositoryScoreList().get(0).name());
+                    assertEquals("\"v1\"", result.etag());
+                })
+                .verifyComplete();
+        assertEquals("\"v1\"", lastRequest.get().headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    void testFetchAndScoreRepositories_cachedAndCoalesced() {
+        nextResponse.set(json(HttpStatus.OK, SEARCH_RESPONSE).delayElement(Duration.ofMillis(100)));
+        Mono<RepositoryScoreResponseDto> call =
+                reactiveGithubRepositoryService.fetchAndScoreRepositories("java", LocalDate.of(2024, 1, 1), 1);
+
+        StepVerifier.create(Mono.zip(call, call, call))
+                .assertNext(results -> {
+                    assertEquals(results.getT1(), results.getT2());
+                    assertEquals(results.getT1(), results.getT3());
+                })
+                .verifyComplete();
+        StepVerifier.create(call).expectNextCount(1).verifyComplete();
+
+        assertEquals(1, exchanges.get());
+    }
+
+    @Test
+    void testFetchAndScoreRepositories_searchLimit() {
+        respond(HttpStatus.UNPROCESSABLE_ENTITY,
+                "{\"message\":\"Only the first 1000 search results are available\"}");
+
+        StepVerifier.create(reactiveGithubRepositoryService.fetchAndScoreRepositories("java", LocalDate.now(), 101))
+                .expectErrorSatisfies(e -> {
+                    assertInstanceOf(GitHubSearchLimitExceededException.class, e);
+                    assertTrue(e.getMessage().contains("Only the first 1000 search results"));
+                })
+                .verify();
+    }
+
+    @Test
+    void testFetchAndScoreRepositories_rateLimited() {
+        respond(HttpStatus.FORBIDDEN, "{\"message\":\"API rate limit exceeded\"}");
+
+        StepVerifier.create(reactiveGithubRepositoryService.fetchAndScoreRepositories("java", LocalDate.now(), 1))
+                .expectError(HttpClientErrorException.Forbidden.class)
+                .verify();
+    }
+
+    @Test
+    void testFetchAndScoreRepositories_connectionFailure() {
+        nextResponse.set(Mono.error(new WebClientRequestException(new ConnectException("refused"),
+                HttpMethod.GET, URI.create("https://api.github.com"), new HttpHeaders())));
+
+        StepVerifier.create(reactiveGithubRepositoryService.fetchAndScoreRepositories("java", LocalDate.now(), 1))
+                .expectError(ResourceAccessException.class)
+                .verify();
+    }
+
+    @Test
+    void testStreamRepositories_streamsPagesOnDemand() {
+        // 5 results in pages of 2
+        pageResponses.put("1", json(HttpStatus.OK, page(5, "a", "b")));
+        pageResponses.put("2", json(HttpStatus.OK, page(5, "c", "d")));
+        pageResponses.put("3", json(HttpStatus.OK, page(5, "e")));
+
+        StepVerifier.create(reactiveGithubRepositoryService.streamRepositories("java", LocalDate.of(2024, 1, 1), 10), 1)
+                .assertNext(repo -> assertEquals("a", repo.name()))
+                .then(() -> assertEquals(1, exchanges.get()))
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextCount(4)
+                .verifyComplete();
+
+        assertEquals(3, exchanges.get());
+    }
+
+    @Test
+    void testStreamRepositories_stopsAtMaxPages() {
+        pageResponses.put("1", json(HttpStatus.OK, page(100, "a", "b")));
+        pageResponses.put("2", json(HttpStatus.OK, page(100, "c", "d")));
+
+        StepVerifier.create(reactiveGithubRepositoryService.streamRepositories("java", LocalDate.of(2024, 1, 1), 2)
+                        .map(repo -> repo.name()))
+                .expectNext("a", "b", "c", "d")
+                .verifyComplete();
+
+        assertEquals(2, exchanges.get());
+    }
+
+    private static String page(int totalCount, String... names) {
+        StringBuilder items = new StringBuilder();
+        for (String name : names) {
+            if (!items.isEmpty()) {
+                items.append(',');
+            }
+            items.append("{\"name\":\"").append(name).append("\",\"stargazers_count\":1,\"forks_count\":1,")
+                    .append("\"updated_at\":\"2025-01-01T00:00:00Z\",\"owner\":{\"login\":\"user1\"}}");
+        }
+        return "{\"total_count\":" + totalCount + ",\"incomplete_results\":false,\"items\":[" + items + "]}";
+    }
+
+    private void respond(HttpStatus status, String body) {
+        nextResponse.set(json(status, body));
+    }
+
+    private static Mono<ClientResponse> json(HttpStatus status, String body) {
+        return Mono.fromSupplier(() -> ClientResponse.create(status)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build());
+    }
+}
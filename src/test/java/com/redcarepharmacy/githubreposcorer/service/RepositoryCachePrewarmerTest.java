@@ -0,0 +1,143 @@
+package com.redcarepharmacy.githubreposcorer.service;
+
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreCache;
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreCacheKey;
+import com.redcarepharmacy.githubreposcorer.config.GithubRateLimitProperties;
+import com.redcarepharmacy.githubreposcorer.config.RepositoryCacheProperties;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import com.redcarepharmacy.githubreposcorer.metrics.RepositoryPipelineMetrics;
+import com.redcarepharmacy.githubreposcorer.ratelimit.GithubRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.stubbing.OngoingStubbing;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.redcarepharmacy.githubreposcorer.config.RepositoryCachePropertiesBuilder.cacheProperties;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RepositoryCachePrewarmerTest {
+
+    private static final LocalDate CREATED_AFTER = LocalDate.of(2024, 1, 1);
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RepositoryPipelineMetrics metrics = new RepositoryPipelineMetrics(meterRegistry);
+    private final GithubRepositoryService githubRepositoryService = mock(GithubRepositoryService.class);
+    private final List<RepositoryScoreCache> caches = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        caches.forEach(RepositoryScoreCache::destroy);
+    }
+
+    @Test
+    void testRun_loadsPopularAndConfiguredKeys() {
+        RepositoryCacheProperties properties = properties(null);
+        RepositoryScoreCache repositoryScoreCache = cache(properties);
+        RepositoryCachePrewarmer prewarmer = prewarmer(repositoryScoreCache, properties, 600);
+        repositoryScoreCache.popularity().add("java:2024-01-01:1", 5);
+        whenLoaded().thenAnswer(invocation -> page(invocation.getArgument(0)));
+
+        assertEquals(2, prewarmer.run(List.of("go:2024-01-01:1", "not-a-key")));
+
+        verify(githubRepositoryService).loadAndScoreRepositories("java", CREATED_AFTER, 1, null);
+        verify(githubRepositoryService).loadAndScoreRepositories("go", CREATED_AFTER, 1, null);
+        assertNotNull(cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME).get("java:2024-01-01:1"));
+        assertEquals(1, meterRegistry.get(RepositoryPipelineMetrics.CACHE_PREWARM)
+                .tag("language", "java").tag("outcome", "success").counter().count());
+    }
+
+    @Test
+    void testRun_refreshesOnlyPagesAboutToGoStale() {
+        RepositoryCacheProperties properties = properties(null);
+        RepositoryScoreCache repositoryScoreCache = cache(properties);
+        RepositoryCachePrewarmer prewarmer = prewarmer(repositoryScoreCache, properties, 600);
+        RepositoryScoreResponseDto fresh = page("java");
+        RepositoryScoreResponseDto aging = new RepositoryScoreResponseDto(1, false, fresh.repositoryScoreList(),
+                Instant.now().minus(Duration.ofMinutes(9).plusSeconds(30)));
+        cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME).put("java:2024-01-01:1", fresh);
+        cacheManager.getCache(RepositoryScoreCacheKey.CACHE_NAME).put("go:2024-01-01:1", aging);
+        repositoryScoreCache.popularity().add("java:2024-01-01:1", 5);
+        repositoryScoreCache.popularity().add("go:2024-01-01:1", 3);
+        whenLoaded().thenAnswer(invocation -> page(invocation.getArgument(0)));
+
+        assertEquals(1, prewarmer.run(List.of()));
+
+        verify(githubRepositoryService).loadAndScoreRepositories("go", CREATED_AFTER, 1, aging);
+        verifyNoMoreInteractions(githubRepositoryService);
+    }
+
+    @Test
+    void testRun_staysWithinBudgetShare() {
+        RepositoryCacheProperties properties = properties(null);
+        RepositoryScoreCache repositoryScoreCache = cache(properties);
+        // 20% of 10 requests per minute
+        RepositoryCachePrewarmer prewarmer = prewarmer(repositoryScoreCache, properties, 10);
+        for (int page = 1; page <= 5; page++) {
+            repositoryScoreCache.popularity().add("java:2024-01-01:" + page, 10 - page);
+        }
+        whenLoaded().thenAnswer(invocation -> page(invocation.getArgument(0)));
+
+        assertEquals(2, prewarmer.run(List.of()));
+
+        verify(githubRepositoryService, times(2)).loadAndScoreRepositories(anyString(), any(), anyInt(), any());
+    }
+
+    @Test
+    void testDestroy_savesPopularityForTheNextStart(@TempDir Path directory) {
+        Path snapshot = directory.resolve("popularity.tsv");
+        RepositoryCacheProperties properties = properties(snapshot);
+        RepositoryScoreCache before = cache(properties);
+        before.popularity().add("java:2024-01-01:1", 7);
+        prewarmer(before, properties, 600).destroy();
+
+        RepositoryScoreCache after = cache(properties);
+        prewarmer(after, properties, 600);
+
+        assertEquals(7, after.popularity().estimate("java:2024-01-01:1"));
+    }
+
+    private OngoingStubbing<RepositoryScoreResponseDto> whenLoaded() {
+        return when(githubRepositoryService.loadAndScoreRepositories(anyString(), any(), anyInt(), any()));
+    }
+
+    private RepositoryCachePrewarmer prewarmer(RepositoryScoreCache repositoryScoreCache,
+                                               RepositoryCacheProperties properties, int requestsPerMinute) {
+        GithubRateLimiter rateLimiter = new GithubRateLimiter(
+                new GithubRateLimitProperties(List.of(), 0, requestsPerMinute, 0, Duration.ZERO), metrics);
+        return new RepositoryCachePrewarmer(repositoryScoreCache, githubRepositoryService, rateLimiter,
+                properties, metrics);
+    }
+
+    private RepositoryScoreCache cache(RepositoryCacheProperties properties) {
+        RepositoryScoreCache repositoryScoreCache = new RepositoryScoreCache(cacheManager, null, properties, metrics);
+        caches.add(repositoryScoreCache);
+        return repositoryScoreCache;
+    }
+
+    private static RepositoryCacheProperties properties(Path snapshotFile) {
+        return cacheProperties().softTtl(Duration.ofMinutes(10))
+                .prewarm(new RepositoryCacheProperties.Prewarm(true, 10, Duration.ofMinutes(1), 0.2, List.of(),
+                        snapshotFile))
+                .build();
+    }
+
+    private static RepositoryScoreResponseDto page(String language) {
+        return new RepositoryScoreResponseDto(1, false, List.of(
+                new RepositoryScoreDto("repo1", "user1", language, 10, 5, Instant.now(), Instant.now(), 2.5)),
+                Instant.now());
+    }
+}
@@ -0,0 +1,172 @@
+package com.redcarepharmacy.githubreposcorer.service;
+
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreCacheKey;
+import com.redcarepharmacy.githubreposcorer.config.RepositoryBatchProperties;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreBatchResponseDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreBatchResultDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreQueryDto;
+import com.redcarepharmacy.githubreposcorer.dto.RepositoryScoreResponseDto;
+import com.redcarepharmacy.githubreposcorer.exception.ApiError;
+import com.redcarepharmacy.githubreposcorer.exception.ConcurrencyLimitExceededException;
+import com.redcarepharmacy.githubreposcorer.exception.GitHubRateLimitExceededException;
+import com.redcarepharmacy.githubreposcorer.exception.GitHubSearchLimitExceededException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RepositoryScoreBatchServiceTest {
+
+    private static final LocalDate CREATED_AFTER = LocalDate.of(2024, 1, 1);
+
+    private final RepositoryService repositoryService = mock(RepositoryService.class);
+
+    @Test
+    void testScore_servesCachedPagesAndFetchesEachMissOnce() {
+        RepositoryScoreResponseDto cached = page("cached");
+        when(repositoryService.fetchCachedRepositories("java", CREATED_AFTER, 1)).thenReturn(cached);
+        when(repositoryService.fetchAndScoreRepositories("go", CREATED_AFTER, 2)).thenReturn(page("fetched"));
+
+        RepositoryScoreBatchResponseDto response = service(4, Duration.ofSeconds(5)).score(List.of(
+                query("go", 2), query("java", null), query("go", 2), query("java", 1),
+                new RepositoryScoreQueryDto(" ", CREATED_AFTER, 1), query("java", 0)));
+
+        assertEquals(4, response.succeeded());
+        assertEquals(2, response.failed());
+        List<RepositoryScoreBatchResultDto> results = response.results();
+        assertEquals("fetched", results.get(0).response().repositoryScoreList().getFirst().name());
+        assertSame(cached, results.get(1).response());
+        assertEquals(1, results.get(1).page());
+        assertSame(results.get(0), results.get(2));
+        assertSame(cached, results.get(3).response());
+        assertEquals(400, results.get(4).status());
+        assertEquals("Language must not be empty", results.get(4).message());
+        assertEquals(400, results.get(5).status());
+        verify(repositoryService, times(1)).fetchAndScoreRepositories("go", CREATED_AFTER, 2);
+        verify(repositoryService, never()).fetchAndScoreRepositories(eq("java"), any(), anyInt());
+    }
+
+    @Test
+    void testScore_reportsFailuresPerQuery() {
+        when(repositoryService.fetchAndScoreRepositories("java", CREATED_AFTER, 1)).thenReturn(page("repo"));
+        when(repositoryService.fetchAndScoreRepositories("java", CREATED_AFTER, 40))
+                .thenThrow(new GitHubSearchLimitExceededException(
+                        "{\"message\":\"Only the first 1000 search results are available\"}"));
+        when(repositoryService.fetchAndScoreRepositories("go", CREATED_AFTER, 1))
+                .thenThrow(new GitHubRateLimitExceededException("budget exhausted", Duration.ofSeconds(3)));
+        when(repositoryService.fetchCachedRepositories("rust", CREATED_AFTER, 1))
+                .thenThrow(new IllegalStateException("boom"));
+
+        RepositoryScoreBatchResponseDto response = service(4, Duration.ofSeconds(5)).score(List.of(
+                query("java", 1), query("java", 40), query("go", 1), query("rust", 1)));
+
+        assertEquals(1, response.succeeded());
+        assertEquals(3, response.failed());
+        assertEquals(List.of(200, 422, 429, 500),
+                response.results().stream().map(RepositoryScoreBatchResultDto::status).toList());
+        assertEquals("Only the first 1000 search results are available", response.results().get(1).message());
+        assertEquals("boom", response.results().get(3).message());
+        assertEquals(3L, response.results().get(2).retryAfterSeconds());
+        assertNull(response.results().get(1).retryAfterSeconds());
+    }
+
+    @Test
+    void testScore_echoesTheLanguageOfEachQuery() {
+        when(repositoryService.fetchAndScoreRepositories("java", CREATED_AFTER, 1)).thenReturn(page("repo"));
+
+        RepositoryScoreBatchResponseDto response = service(4, Duration.ofSeconds(5)).score(List.of(
+                query("Java", 1), query("java", 1)));
+
+        assertEquals(List.of("Java", "java"),
+                response.results().stream().map(RepositoryScoreBatchResultDto::language).toList());
+        assertSame(response.results().get(0).response(), response.results().get(1).response());
+        verify(repositoryService, times(1)).fetchAndScoreRepositories(anyString(), any(), anyInt());
+    }
+
+    @Test
+    void testFailed_answersLikeASingleRequest() {
+        RepositoryScoreCacheKey key = new RepositoryScoreCacheKey("java", CREATED_AFTER, 1);
+        List<RuntimeException> failures = List.of(
+                new ConcurrencyLimitExceededException("limit reached", Duration.ofSeconds(1)),
+                new ResourceAccessException("read timed out"),
+                HttpClientErrorException.create(HttpStatus.FORBIDDEN, "Forbidden", HttpHeaders.EMPTY,
+                        "{\"message\":\"Resource not accessible\"}".getBytes(), null));
+
+        for (RuntimeException failure : failures) {
+            ApiError error = ApiError.of(failure);
+            RepositoryScoreBatchResultDto result = RepositoryScoreBatchService.failed(key, failure);
+            assertEquals(error.status().value(), result.status());
+            assertEquals(error.error(), result.error());
+            assertEquals(error.message(), result.message());
+        }
+        assertEquals(List.of(503, 504, 429), failures.stream()
+                .map(failure -> RepositoryScoreBatchService.failed(key, failure).status()).toList());
+    }
+
+    @Test
+    void testScore_boundsConcurrentFetches() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(repositoryService.fetchAndScoreRepositories(anyString(), any(), anyInt())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            inFlight.decrementAndGet();
+            return page("repo");
+        });
+        List<RepositoryScoreQueryDto> queries = new ArrayList<>();
+        for (int page = 1; page <= 8; page++) {
+            queries.add(query("java", page));
+        }
+
+        RepositoryScoreBatchResponseDto response = service(2, Duration.ofSeconds(5)).score(queries);
+
+        assertEquals(8, response.succeeded());
+        assertTrue(maxInFlight.get() <= 2, "at most 2 fetches at a time, was " + maxInFlight.get());
+    }
+
+    @Test
+    void testScore_failsQueriesNotServedBeforeTheDeadline() {
+        when(repositoryService.fetchAndScoreRepositories("java", CREATED_AFTER, 1)).thenReturn(page("repo"));
+        when(repositoryService.fetchAndScoreRepositories("java", CREATED_AFTER, 2)).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return page("late");
+        });
+
+        long start = System.nanoTime();
+        RepositoryScoreBatchResponseDto response = service(4, Duration.ofMillis(200))
+                .score(List.of(query("java", 1), query("java", 2)));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+        assertEquals(200, response.results().get(0).status());
+        assertEquals(504, response.results().get(1).status());
+        assertEquals("Batch deadline exceeded", response.results().get(1).error());
+    }
+
+    private RepositoryScoreBatchService service(int maxConcurrency, Duration timeout) {
+        return new RepositoryScoreBatchService(repositoryService,
+                new RepositoryBatchProperties(maxConcurrency, timeout));
+    }
+
+    private static RepositoryScoreQueryDto query(String language, Integer page) {
+        return new RepositoryScoreQueryDto(language, CREATED_AFTER, page);
+    }
+
+    private static RepositoryScoreResponseDto page(String name) {
+        Instant now = Instant.now();
+        return new RepositoryScoreResponseDto(1, false,
+                List.of(new RepositoryScoreDto(name, "user", "Java", 1, 1, now, now, 1.0)), now);
+    }
+}
@@ -0,0 +1,166 @@
+package com.redcarepharmacy.githubreposcorer.service;
+
+import com.redcarepharmacy.githubreposcorer.cache.RepositoryScoreCache;
+import com.redcarepharmacy.githubreposcorer.config.GithubClientProperties;
+import com.redcarepharmacy.githubreposcorer.config.GithubRateLimitProperties;
+import com.redcarepharmacy.githubreposcorer.config.InMemoryCacheConfig;
+import com.redcarepharmacy.githubreposcorer.config.RedisCacheProperties;
+import com.redcarepharmacy.githubreposcorer.config.RepositoryCacheProperties;
+import com.redcarepharmacy.githubreposcorer.config.RepositoryScoringProperties;
+import com.redcarepharmacy.githubreposcorer.config.RestTemplateConfig;
+import com.redcarepharmacy.githubreposcorer.metrics.RepositoryPipelineMetrics;
+import com.redcarepharmacy.githubreposcorer.ratelimit.GithubRateLimiter;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.redcarepharmacy.githubreposcorer.config.RepositoryCachePropertiesBuilder.cacheProperties;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the upstream fetch path on virtual threads and fails if any of them pins its
+ * carrier thread while blocking, which would cap concurrency at the number of carriers.
+ */
+class VirtualThreadPinningTest {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String SEARCH_RESPONSE = """
+            {"total_count":1,"incomplete_results":false,"items":[{"id":1,"name":"repo1","language":"Java",
+            "stargazers_count":5,"forks_count":10,"updated_at":"2025-01-01T00:00:00Z",
+            "created_at":"2024-01-01T00:00:00Z","owner":{"login":"user1"}}]}""";
+
+    private static final RepositoryPipelineMetrics METRICS = new RepositoryPipelineMetrics(new SimpleMeterRegistry());
+
+    private HttpServer server;
+    private CloseableHttpClient httpClient;
+    private RepositoryScoreCache repositoryScoreCache;
+    private GithubRepositoryService githubRepositoryService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/search", exchange -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = SEARCH_RESPONSE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        GithubClientProperties clientProperties = new GithubClientProperties(Duration.ofSeconds(1),
+                Duration.ofSeconds(5), Duration.ofSeconds(5), 8, 8, null, null, true);
+        RestTemplateConfig restTemplateConfig = new RestTemplateConfig();
+        httpClient = restTemplateConfig.githubHttpClient(
+                restTemplateConfig.githubConnectionManager(clientProperties, new SimpleMeterRegistry()),
+                clientProperties);
+        RepositoryCacheProperties cacheProperties =
+                cacheProperties().maxEntries(1_000).maxWeightBytes(10_000_000).build();
+        repositoryScoreCache = new RepositoryScoreCache(
+                new InMemoryCacheConfig().simpleCacheManager(cacheProperties,
+                        new RedisCacheProperties(false, null, 0, 1)),
+                null, cacheProperties, METRICS);
+        githubRepositoryService = new GithubRepositoryService(
+                restTemplateConfig.restTemplate(new RestTemplateBuilder(), httpClient, METRICS,
+                        new GithubRateLimiter(new GithubRateLimitProperties(List.of(), 0, 60_000, 0, Duration.ZERO),
+                                METRICS)),
+                "http://localhost:" + server.getAddress().getPort() + "/search?q=%s+%s&page=%s",
+                new WeightedRepositoryScoreCalculator(new RepositoryScoringProperties(0.3, 0.5, 0.2, 100)),
+                repositoryScoreCache, METRICS, ObservationRegistry.NOOP, null, null);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        repositoryScoreCache.destroy();
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void testFetchPath_doesNotPinCarrierThreads() throws Exception {
+        // More callers than pooled connections, and several callers per page, so the run
+        // covers pool waits, coalesced cache misses and cache hits.
+        List<RecordedEvent> pinned = recordPinning(() -> {
+            List<Future<?>> calls = new ArrayList<>();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < 64; i++) {
+                    int page = i % 16 + 1;
+                    calls.add(executor.submit(() ->
+                            githubRepositoryService.fetchAndScoreRepositories("java", LocalDate.of(2024, 1, 1), page)));
+                }
+                for (Future<?> call : calls) {
+                    call.get();
+                }
+            }
+        });
+
+        assertEquals(List.of(), pinned.stream().map(VirtualThreadPinningTest::describe).toList());
+    }
+
+    @Test
+    void testRecordPinning_detectsBlockingInsideMonitor() throws Exception {
+        Object monitor = new Object();
+
+        List<RecordedEvent> pinned = recordPinning(() -> Thread.ofVirtual().start(() -> {
+            synchronized (monitor) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join());
+
+        assertFalse(pinned.isEmpty());
+    }
+
+    private static List<RecordedEvent> recordPinning(Workload workload) throws Exception {
+        List<RecordedEvent> events = new CopyOnWriteArrayList<>();
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent(PINNED_EVENT, events::add);
+            recording.startAsync();
+            workload.run();
+            recording.stop();
+        }
+        return events;
+    }
+
+    private static String describe(RecordedEvent event) {
+        return event.getStackTrace() == null ? event.toString()
+                : event.getStackTrace().getFrames().stream().limit(12)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+                .toList().toString();
+    }
+
+    private interface Workload {
+        void run() throws Exception;
+    }
+}
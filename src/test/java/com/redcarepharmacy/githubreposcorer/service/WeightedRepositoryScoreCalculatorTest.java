@@ -4,10 +4,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
@@ -69,4 +73,52 @@ public class WeightedRepositoryScoreCalculatorTest {
         double score = calculator.computeScore(stars, forks, null);
         assertEquals(0, score);
     }
+
+    @Test
+    void testRoundHalfUp_matchesBigDecimal() {
+        Random random = new Random(42);
+        for (int i = 0; i < 1_000_000; i++) {
+            double magnitude = Math.pow(10, random.nextInt(12));
+            double value = random.nextDouble() * magnitude * (random.nextBoolean() ? 1 : -1);
+            assertRoundsLikeBigDecimal(value);
+        }
+        // midpoints between cents and their neighbouring doubles, e.g. 1.005 and 0.125
+        for (long cents = 0; cents < 200_000; cents++) {
+            double midpoint = (2 * cents + 1) / 200.0;
+            assertRoundsLikeBigDecimal(midpoint);
+            assertRoundsLikeBigDecimal(Math.nextUp(midpoint));
+            assertRoundsLikeBigDecimal(Math.nextDown(midpoint));
+            assertRoundsLikeBigDecimal(-midpoint);
+        }
+        for (double value : new double[]{0.0, -0.0, 1.005, 2.675, 1e-9, 0.004999999999999999, 0.005,
+                999_999_999_999.995, 1e13 + 0.5, 1e20, Double.MAX_VALUE}) {
+            assertRoundsLikeBigDecimal(value);
+        }
+    }
+
+    @Test
+    void testComputeScores_matchesComputeScore() {
+        long now = Instant.now().getEpochSecond();
+        int[] stars = {0, 10, 5_000, 123_456};
+        int[] forks = {0, 5, 1_234, 7};
+        long[] updatedAt = {0, now - 86_400, now - 10 * 86_400 - 1, now + 86_400};
+        double[] scores = new double[stars.length];
+
+        calculator.computeScores(stars, forks, updatedAt, scores);
+
+        for (int i = 0; i < scores.length; i++) {
+            assertEquals(calculator.computeScore(stars[i], forks[i], Instant.ofEpochSecond(updatedAt[i])), scores[i]);
+        }
+    }
+
+    @Test
+    void testComputeScores_shortInput_throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> calculator.computeScores(new int[1], new int[2], new long[2], new double[2]));
+    }
+
+    private static void assertRoundsLikeBigDecimal(double value) {
+        double expected = BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).doubleValue();
+        assertEquals(expected, WeightedRepositoryScoreCalculator.roundHalfUp(value), () -> Double.toString(value));
+    }
 }